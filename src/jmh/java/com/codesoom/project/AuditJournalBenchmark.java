@@ -0,0 +1,128 @@
+package com.codesoom.project;
+
+import com.codesoom.project.audit.AuditLogger;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.events.DiaryEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 감사 저널이 다이어리 수정 한 건에 더하는 시간을 측정합니다.
+ *
+ * update는 H2에 다이어리 행을 고치고 변경을 감사 저널에 넘기며, audit은 저널에 넘기는 부분만 잽니다.
+ * journal이 off면 감사 기록을 끈 상태로 기준값이 됩니다.
+ * 저널에 쓰지 못하고 버린 기록 수는 정리 단계에서 출력합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuditJournalBenchmark {
+    private static final Long OWNER_ID = 1L;
+
+    @Param({"off", "NEVER", "BATCH"})
+    private String journal;
+
+    @Param({"1000"})
+    private int rows;
+
+    private Path directory;
+    private AuditLogger auditLogger;
+    private Connection connection;
+    private PreparedStatement updateStatement;
+    private Diary[] diaries;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("audit-benchmark");
+
+        boolean enabled = !journal.equals("off");
+        auditLogger = new AuditLogger(enabled, directory.toString(), 64 << 20,
+                enabled ? AuditLogger.FsyncPolicy.valueOf(journal) : AuditLogger.FsyncPolicy.NEVER,
+                1000, 1 << 20, 1024);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:audit-" + journal + ";DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE diary (id BIGINT PRIMARY KEY, "
+                    + "owner_id BIGINT, title VARCHAR(255), version BIGINT)");
+        }
+
+        diaries = new Diary[rows];
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO diary VALUES (?, ?, ?, 0)")) {
+            for (int i = 0; i < rows; i++) {
+                long id = i + 1;
+                insert.setLong(1, id);
+                insert.setLong(2, OWNER_ID);
+                insert.setString(3, id + "번째 다이어리");
+                insert.executeUpdate();
+
+                diaries[i] = Diary.builder()
+                        .id(id)
+                        .ownerId(OWNER_ID)
+                        .title(id + "번째 다이어리")
+                        .build();
+            }
+        }
+
+        updateStatement = connection.prepareStatement(
+                "UPDATE diary SET title = ?, version = version + 1 WHERE id = ?");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        auditLogger.shutdown();
+        System.out.printf("%n[%s] written: %d, dropped: %d, forced: %d%n", journal,
+                auditLogger.writtenCount(), auditLogger.droppedCount(), auditLogger.forceCount());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int update() throws SQLException {
+        Diary diary = nextDiary();
+
+        updateStatement.setString(1, diary.getTitle());
+        updateStatement.setLong(2, diary.getId());
+        int updated = updateStatement.executeUpdate();
+
+        auditLogger.onDiaryEvent(DiaryEvent.updated(diary));
+        return updated;
+    }
+
+    @Benchmark
+    public void audit() {
+        auditLogger.onDiaryEvent(DiaryEvent.updated(nextDiary()));
+    }
+
+    private Diary nextDiary() {
+        next = next + 1 == rows ? 0 : next + 1;
+        return diaries[next];
+    }
+}
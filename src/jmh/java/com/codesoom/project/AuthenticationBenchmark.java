@@ -0,0 +1,50 @@
+package com.codesoom.project;
+
+import com.codesoom.project.application.AuthenticationService;
+import com.codesoom.project.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 한 건당 인증 비용을 측정합니다.
+ *
+ * verifySignature는 캐시가 없을 때의 HMAC 검증 비용을,
+ * parseCachedToken은 같은 토큰이 반복될 때의 비용을 나타냅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthenticationBenchmark {
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private JwtUtil jwtUtil;
+    private AuthenticationService authenticationService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3600);
+        authenticationService = new AuthenticationService(jwtUtil, 10_000, 600);
+        token = jwtUtil.encode(1L);
+
+        authenticationService.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims verifySignature() {
+        return jwtUtil.decode(token);
+    }
+
+    @Benchmark
+    public Long parseCachedToken() {
+        return authenticationService.parseToken(token);
+    }
+}
@@ -0,0 +1,170 @@
+package com.codesoom.project;
+
+import com.codesoom.project.domain.CompressedText;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다이어리 내용을 행 안에 두는 방식과 압축해 따로 두는 방식을 비교합니다.
+ *
+ * inline은 기존처럼 다이어리 행에 내용을 그대로 두고, separate는 내용을 압축해
+ * 별도 테이블에 둡니다. 저장 크기는 준비 단계에서 출력합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiaryCommentStorageBenchmark {
+    private static final String[] SENTENCES = {
+            "오늘은 아침 일찍 일어나 공원을 한 바퀴 걸었다. ",
+            "점심에는 동료들과 새로 생긴 식당에 가서 칼국수를 먹었다. ",
+            "오후 회의가 길어져서 계획했던 일을 절반밖에 끝내지 못했다. ",
+            "퇴근길에 서점에 들러 읽고 싶던 소설을 한 권 샀다. ",
+            "저녁에는 친구와 통화를 하며 요즘 고민을 이야기했다. ",
+            "내일은 오늘보다 조금 더 일찍 시작해 보기로 마음먹었다. ",
+            "비가 와서 우산을 챙겼는데 결국 한 번도 펴지 않았다. ",
+            "운동을 다녀오니 몸은 피곤했지만 기분은 훨씬 가벼워졌다. "
+    };
+
+    private static final int OWNERS = 20;
+
+    @Param({"inline", "separate"})
+    private String layout;
+
+    @Param({"2000"})
+    private int rows;
+
+    private Connection connection;
+    private PreparedStatement listStatement;
+    private PreparedStatement detailStatement;
+    private Random random;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:comments-" + layout + ";DB_CLOSE_DELAY=-1");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE diary_comment (id BIGINT PRIMARY KEY, "
+                    + "body BLOB)");
+            if (layout.equals("inline")) {
+                statement.execute("CREATE TABLE diary (id BIGINT PRIMARY KEY, "
+                        + "owner_id BIGINT, title VARCHAR(255), comment VARCHAR)");
+            } else {
+                statement.execute("CREATE TABLE diary (id BIGINT PRIMARY KEY, "
+                        + "owner_id BIGINT, title VARCHAR(255), comment_id BIGINT)");
+            }
+            statement.execute("CREATE INDEX idx_diary_owner ON diary (owner_id)");
+        }
+
+        long storedBytes = insertCorpus();
+        System.out.printf("%n[%s] stored comment bytes: %d%n", layout, storedBytes);
+
+        listStatement = connection.prepareStatement(
+                "SELECT id, owner_id, title FROM diary WHERE owner_id = ?");
+        detailStatement = connection.prepareStatement(layout.equals("inline")
+                ? "SELECT comment FROM diary WHERE id = ?"
+                : "SELECT c.body FROM diary d JOIN diary_comment c ON c.id = d.comment_id "
+                + "WHERE d.id = ?");
+
+        random = new Random(42);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int listScan() throws SQLException {
+        listStatement.setLong(1, random.nextInt(OWNERS));
+
+        int count = 0;
+        try (ResultSet resultSet = listStatement.executeQuery()) {
+            while (resultSet.next()) {
+                count += resultSet.getString(3).length();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int detail() throws SQLException {
+        detailStatement.setLong(1, 1 + random.nextInt(rows));
+
+        try (ResultSet resultSet = detailStatement.executeQuery()) {
+            resultSet.next();
+            String comment = layout.equals("inline")
+                    ? resultSet.getString(1)
+                    : CompressedText.decode(resultSet.getBytes(1));
+            return comment.length();
+        }
+    }
+
+    private long insertCorpus() throws SQLException {
+        Random corpus = new Random(7);
+        long storedBytes = 0;
+
+        try (PreparedStatement diary = connection.prepareStatement(
+                "INSERT INTO diary VALUES (?, ?, ?, ?)");
+             PreparedStatement comment = connection.prepareStatement(
+                     "INSERT INTO diary_comment VALUES (?, ?)")) {
+            for (long id = 1; id <= rows; id++) {
+                String text = corpusText(corpus);
+
+                diary.setLong(1, id);
+                diary.setLong(2, id % OWNERS);
+                diary.setString(3, id + "번째 다이어리");
+
+                if (layout.equals("inline")) {
+                    diary.setString(4, text);
+                    storedBytes += text.getBytes(StandardCharsets.UTF_8).length;
+                } else {
+                    byte[] body = CompressedText.encode(text);
+                    comment.setLong(1, id);
+                    comment.setBytes(2, body);
+                    comment.executeUpdate();
+
+                    diary.setLong(4, id);
+                    storedBytes += body.length;
+                }
+                diary.executeUpdate();
+            }
+        }
+        return storedBytes;
+    }
+
+    /**
+     * 짧은 메모부터 긴 일기까지 섞인 내용을 만듭니다.
+     */
+    private static String corpusText(Random corpus) {
+        int sentences = corpus.nextInt(10) < 7
+                ? 1 + corpus.nextInt(5)
+                : 20 + corpus.nextInt(200);
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            text.append(SENTENCES[corpus.nextInt(SENTENCES.length)]);
+        }
+        return text.toString();
+    }
+}
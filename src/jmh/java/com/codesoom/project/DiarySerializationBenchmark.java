@@ -0,0 +1,115 @@
+package com.codesoom.project;
+
+import com.codesoom.project.config.JacksonConfig;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.dto.DiaryResultData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 다이어리 목록 응답의 직렬화 성능을 측정합니다.
+ *
+ * bytes 카운터는 초당 직렬화한 바이트 수를, GC 프로파일러의
+ * gc.alloc.rate.norm 값을 size로 나눈 값은 다이어리 한 건당 할당량을 나타냅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DiarySerializationBenchmark {
+    private static final String COMMENT = "오늘은 산책을 하고 책을 읽었다. "
+            + "저녁에는 친구와 통화를 하며 하루를 돌아보았다.";
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Diary> diaries;
+    private List<DiaryResultData> results;
+
+    private ObjectWriter defaultDiaryWriter;
+    private ObjectWriter tunedDiaryWriter;
+    private ObjectWriter defaultResultWriter;
+    private ObjectWriter tunedResultWriter;
+
+    @Setup
+    public void setUp() {
+        diaries = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            diaries.add(Diary.builder()
+                    .id(id)
+                    .title(id + "번째 다이어리")
+                    .comment(COMMENT)
+                    .build());
+        }
+
+        results = diaries.stream()
+                .map(DiaryResultData::of)
+                .collect(Collectors.toList());
+
+        ObjectMapper defaultMapper = new ObjectMapper();
+        ObjectMapper tunedMapper = JacksonConfig.tune(new ObjectMapper());
+
+        defaultDiaryWriter = defaultMapper.writerFor(
+                defaultMapper.getTypeFactory().constructCollectionType(List.class, Diary.class));
+        tunedDiaryWriter = tunedMapper.writerFor(
+                tunedMapper.getTypeFactory().constructCollectionType(List.class, Diary.class));
+        defaultResultWriter = defaultMapper.writerFor(
+                defaultMapper.getTypeFactory().constructCollectionType(List.class, DiaryResultData.class));
+        tunedResultWriter = tunedMapper.writerFor(
+                tunedMapper.getTypeFactory().constructCollectionType(List.class, DiaryResultData.class));
+    }
+
+    @Benchmark
+    public byte[] defaultDiaries(Bytes bytes) throws JsonProcessingException {
+        return bytes.count(defaultDiaryWriter.writeValueAsBytes(diaries));
+    }
+
+    @Benchmark
+    public byte[] tunedDiaries(Bytes bytes) throws JsonProcessingException {
+        return bytes.count(tunedDiaryWriter.writeValueAsBytes(diaries));
+    }
+
+    @Benchmark
+    public byte[] defaultResults(Bytes bytes) throws JsonProcessingException {
+        return bytes.count(defaultResultWriter.writeValueAsBytes(results));
+    }
+
+    @Benchmark
+    public byte[] tunedResults(Bytes bytes) throws JsonProcessingException {
+        return bytes.count(tunedResultWriter.writeValueAsBytes(results));
+    }
+
+    /**
+     * 직렬화한 바이트 수를 초당 값으로 보고합니다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+
+        byte[] count(byte[] payload) {
+            bytes += payload.length;
+            return payload;
+        }
+    }
+}
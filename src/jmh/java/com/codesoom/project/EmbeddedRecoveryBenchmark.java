@@ -0,0 +1,98 @@
+package com.codesoom.project;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.embedded.EmbeddedStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 내장 저장소를 열 때 스냅샷과 로그로 상태를 되살리는 시간을 측정합니다.
+ *
+ * 다이어리마다 할 일 9개를 두어 모두 records건을 넣고 스냅샷을 뜬 뒤,
+ * 그중 tailRatio만큼을 다시 저장해 로그 끝에 남깁니다.
+ * 1000만 건은 힙이 8GB 정도 필요합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class EmbeddedRecoveryBenchmark {
+    private static final int TASKS_PER_DIARY = 9;
+    private static final long OWNERS = 10_000;
+
+    @Param({"1000000", "10000000"})
+    private int records;
+
+    @Param({"0", "0.1"})
+    private double tailRatio;
+
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("embedded-recovery");
+
+        try (EmbeddedStore store = EmbeddedStore.open(directory, false, 16, Long.MAX_VALUE)) {
+            int diaries = records / (TASKS_PER_DIARY + 1);
+            for (int i = 0; i < diaries; i++) {
+                Diary diary = store.diaryRepository().save(Diary.builder()
+                        .ownerId(i % OWNERS)
+                        .title(i + "번째 다이어리")
+                        .comment("오늘 한 일을 적어 둔 다이어리")
+                        .taskCount(TASKS_PER_DIARY)
+                        .build());
+
+                for (int j = 0; j < TASKS_PER_DIARY; j++) {
+                    store.taskRepository().save(Task.builder()
+                            .ownerId(diary.getOwnerId())
+                            .diaryId(diary.getId())
+                            .title(j + "번째 할 일")
+                            .orderKey(String.valueOf((char) ('b' + j)))
+                            .build());
+                }
+            }
+
+            store.snapshot();
+
+            long tail = (long) (diaries * TASKS_PER_DIARY * tailRatio);
+            for (long id = 1; id <= tail; id++) {
+                store.taskRepository().findById(id)
+                        .ifPresent(task -> store.taskRepository().save(task));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long recover() throws IOException {
+        try (EmbeddedStore store = EmbeddedStore.open(directory, false, 16, Long.MAX_VALUE)) {
+            return store.recoveredRecords();
+        }
+    }
+}
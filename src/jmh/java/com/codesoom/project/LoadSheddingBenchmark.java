@@ -0,0 +1,82 @@
+package com.codesoom.project;
+
+import com.codesoom.project.loadshed.ConcurrencyLimit;
+import com.codesoom.project.loadshed.LoadSheddingProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 커넥션 풀보다 훨씬 많은 요청이 몰릴 때 요청 한 건의 응답 시간 분포를 측정합니다.
+ *
+ * 커넥션 풀은 크기 {@value #POOL_SIZE}의 공정한 세마포어로, 쿼리는 {@value #QUERY_MILLIS}ms 대기로 흉내 냅니다.
+ * 거절된 클라이언트는 쿼리 시간만큼 쉬었다가 다시 보냅니다.
+ * 제한이 없으면 모든 요청이 커넥션을 기다리느라 p99가 스레드 수에 비례해 늘어나고,
+ * 제한이 있으면 받은 요청은 거의 기다리지 않고 나머지는 바로 거절되어 p99가 쿼리 시간 근처에 머뭅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoadSheddingBenchmark {
+    private static final int POOL_SIZE = 8;
+    private static final long QUERY_MILLIS = 2;
+    private static final int CLIENTS = 64;
+
+    private Semaphore pool;
+    private ConcurrencyLimit limit;
+
+    @Setup
+    public void setUp() {
+        pool = new Semaphore(POOL_SIZE, true);
+
+        LoadSheddingProperties.Budget budget = new LoadSheddingProperties.Budget();
+        budget.setInitialLimit(POOL_SIZE);
+        budget.setMinLimit(1);
+        budget.setMaxLimit(CLIENTS);
+        budget.setWindowMillis(10);
+        limit = new ConcurrencyLimit(budget, System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(CLIENTS)
+    public boolean unlimited() throws InterruptedException {
+        query();
+        return true;
+    }
+
+    @Benchmark
+    @Threads(CLIENTS)
+    public boolean shed() throws InterruptedException {
+        if (!limit.tryAcquire(false)) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(QUERY_MILLIS));
+            return false;
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            query();
+        } finally {
+            long now = System.nanoTime();
+            limit.release(now - startedAt, now);
+        }
+        return true;
+    }
+
+    private void query() throws InterruptedException {
+        pool.acquire();
+        try {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(QUERY_MILLIS));
+        } finally {
+            pool.release();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.codesoom.project;
+
+import com.codesoom.project.application.NegativeLookupCache;
+import com.codesoom.project.application.NegativeLookupCache.Kind;
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.invalidation.LocalInvalidationTransport;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 없는 다이어리 id 조회가 저장소까지 가는 횟수를 측정합니다.
+ *
+ * 저장소는 id 집합으로 대신합니다. queries를 requests로 나눈 값에 1000을 곱하면
+ * 없는 id 조회 천 건당 저장소 조회 수가 됩니다. withoutFilter는 모든 조회가 저장소로 갑니다.
+ * repeat는 같은 id를 다시 조회하는 비율(백분율)로, 재시도하는 클라이언트를 흉내 냅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NegativeLookupBenchmark {
+    private static final Long OWNER_ID = 1L;
+
+    @Param({"100000"})
+    private int liveIds;
+
+    @Param({"0", "50"})
+    private int repeat;
+
+    private Set<Long> stored;
+    private NegativeLookupCache cache;
+    private SplittableRandom random;
+    private long lastMissId;
+
+    @Setup
+    public void setUp() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= liveIds; id++) {
+            ids.add(id);
+        }
+        stored = new HashSet<>(ids);
+
+        cache = new NegativeLookupCache(
+                repository(DiaryRepository.class, ids),
+                repository(TaskRepository.class, List.of()),
+                ShardRouter.single(), new LocalInvalidationTransport(), 1,
+                liveIds * 2L, 0.01, 100_000, 30);
+        cache.load();
+
+        random = new SplittableRandom(42);
+        lastMissId = liveIds + 1;
+    }
+
+    @Benchmark
+    public boolean withFilter(Lookups lookups) {
+        Long id = nextMissId();
+        lookups.requests++;
+
+        if (cache.isKnownMissing(Kind.DIARY, OWNER_ID, id)) {
+            return false;
+        }
+
+        lookups.queries++;
+        boolean found = stored.contains(id);
+        if (!found) {
+            cache.recordMiss(Kind.DIARY, OWNER_ID, id);
+        }
+        return found;
+    }
+
+    @Benchmark
+    public boolean withoutFilter(Lookups lookups) {
+        Long id = nextMissId();
+        lookups.requests++;
+        lookups.queries++;
+        return stored.contains(id);
+    }
+
+    private Long nextMissId() {
+        if (random.nextInt(100) >= repeat) {
+            lastMissId = liveIds + 1 + random.nextLong(Integer.MAX_VALUE);
+        }
+        return lastMissId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, List<Long> ids) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllIds")) {
+                        return ids;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * 조회 요청 수와 저장소 조회 수를 보고합니다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+        public long requests;
+
+        public long queries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+            queries = 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.codesoom.project;
+
+import com.codesoom.project.config.JacksonConfig;
+import com.codesoom.project.dto.ErrorResponse;
+import com.codesoom.project.errors.DiaryNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 없는 id를 조회했을 때 예외를 던지고 에러 응답을 직렬화하는 비용을 측정합니다.
+ *
+ * depth는 컨트롤러까지 쌓이는 프레임 수를 흉내 냅니다. stackTrace는 기존처럼 스택
+ * 트레이스와 메시지를 매번 만들고 응답도 새로 만드는 경우이고, stackless는 현재 방식입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotFoundPathBenchmark {
+    private static final ErrorResponse DIARY_NOT_FOUND =
+            new ErrorResponse("DIARY_NOT_FOUND", "Diary not found");
+
+    @Param({"20", "120"})
+    private int depth;
+
+    private ObjectWriter writer;
+
+    private long id;
+
+    @Setup
+    public void setUp() {
+        writer = JacksonConfig.tune(new ObjectMapper()).writerFor(ErrorResponse.class);
+    }
+
+    @Benchmark
+    public byte[] stackTrace() throws JsonProcessingException {
+        try {
+            descend(depth, () -> new LegacyNotFoundException(++id));
+        } catch (LegacyNotFoundException e) {
+            return writer.writeValueAsBytes(new ErrorResponse("DIARY_NOT_FOUND", "Diary not found"));
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public byte[] stackless() throws JsonProcessingException {
+        try {
+            descend(depth, () -> new DiaryNotFoundException(++id));
+        } catch (DiaryNotFoundException e) {
+            return writer.writeValueAsBytes(DIARY_NOT_FOUND);
+        }
+        throw new IllegalStateException();
+    }
+
+    private static void descend(int depth, Supplier<RuntimeException> miss) {
+        if (depth == 0) {
+            Optional.empty().orElseThrow(miss);
+            return;
+        }
+        descend(depth - 1, miss);
+    }
+
+    /**
+     * 변경 전의 다이어리 없음 예외와 같은 모양의 예외.
+     */
+    private static class LegacyNotFoundException extends RuntimeException {
+        LegacyNotFoundException(Long id) {
+            super("Diary ID not found: " + id);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.codesoom.project;
+
+import com.codesoom.project.ratelimit.RateLimitProperties;
+import com.codesoom.project.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 한 건당 빈도 제한에 드는 비용을 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+    private static final Object ENDPOINT = "POST /diaries/{diaryId}/tasks";
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter.EndpointBuckets buckets;
+    private Long[] clients;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaultLimit().setCapacity(1_000_000);
+        properties.getDefaultLimit().setRefillPerSecond(1_000_000);
+
+        buckets = new RateLimiter(properties)
+                .forEndpoint(ENDPOINT, "POST", "/diaries/{diaryId}/tasks");
+
+        clients = new Long[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = (long) i;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryConsume() {
+        Long client = clients[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return buckets.tryConsume(client, System.nanoTime());
+    }
+}
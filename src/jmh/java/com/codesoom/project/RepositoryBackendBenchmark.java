@@ -0,0 +1,121 @@
+package com.codesoom.project;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.domain.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다이어리와 할 일 저장소를 JPA(H2)로 둘 때와 메모리로 둘 때를 비교합니다.
+ *
+ * 웹 서버 없이 애플리케이션을 띄워 실제 저장소 빈을 호출하며, JPA 저장소는 호출마다 트랜잭션을 엽니다.
+ * 사용자마다 다이어리 perOwner개와 다이어리마다 할 일 5개를 미리 넣어 둡니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBackendBenchmark {
+    private static final int OWNERS = 100;
+    private static final int TASKS_PER_DIARY = 5;
+
+    @Param({"jpa", "memory"})
+    private String backend;
+
+    @Param({"20"})
+    private int perOwner;
+
+    private ConfigurableApplicationContext context;
+    private DiaryRepository diaryRepository;
+    private TaskRepository taskRepository;
+    private TransactionTemplate transactionTemplate;
+    private Diary[] diaries;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(App.class)
+                .web(WebApplicationType.NONE)
+                .properties("repositories.backend=" + backend,
+                        "audit.journal.enabled=false",
+                        "jwt.secret=12345678901234567890123456789012",
+                        "spring.datasource.url=jdbc:h2:mem:repositories-" + backend)
+                .run();
+
+        diaryRepository = context.getBean(DiaryRepository.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        transactionTemplate = new TransactionTemplate(
+                context.getBean(PlatformTransactionManager.class));
+
+        diaries = new Diary[OWNERS * perOwner];
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < diaries.length; i++) {
+                long ownerId = i % OWNERS + 1;
+                diaries[i] = diaryRepository.save(Diary.builder()
+                        .ownerId(ownerId)
+                        .title(i + "번째 다이어리")
+                        .comment("아쉬운 하루였다")
+                        .build());
+
+                for (int j = 0; j < TASKS_PER_DIARY; j++) {
+                    taskRepository.save(Task.builder()
+                            .ownerId(ownerId)
+                            .diaryId(diaries[i].getId())
+                            .title(j + "번째 할 일")
+                            .orderKey(String.valueOf((char) ('b' + j)))
+                            .build());
+                }
+            }
+        });
+
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Diary> findDiary() {
+        Diary diary = diaries[random.nextInt(diaries.length)];
+        return diaryRepository.findByIdAndOwnerId(diary.getId(), diary.getOwnerId());
+    }
+
+    @Benchmark
+    public List<Diary> listDiaries() {
+        return diaryRepository.findAllByOwnerId((long) random.nextInt(OWNERS) + 1);
+    }
+
+    @Benchmark
+    public List<Task> listTasks() {
+        Diary diary = diaries[random.nextInt(diaries.length)];
+        return taskRepository.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(
+                diary.getOwnerId(), diary.getId());
+    }
+
+    @Benchmark
+    public int adjustTaskCounts() {
+        Diary diary = diaries[random.nextInt(diaries.length)];
+        return transactionTemplate.execute(status ->
+                diaryRepository.adjustTaskCounts(diary.getId(), diary.getOwnerId(), 1, 0));
+    }
+}
@@ -3,7 +3,7 @@ package com.codesoom.project;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+@SpringBootApplication(proxyBeanMethods = false)
 public class App {
     public String getGreeting() {
         return "Hello, world!";
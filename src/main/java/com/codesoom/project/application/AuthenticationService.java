@@ -0,0 +1,120 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.errors.InvalidTokenException;
+import com.codesoom.project.utils.JwtUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인증 관련 비즈니스 로직을 담당합니다.
+ *
+ * 서명 검증이 끝난 토큰은 만료 시각과 함께 캐시에 보관해,
+ * 같은 토큰으로 들어오는 요청은 서명을 다시 검증하지 않습니다.
+ * 직접 발급하는 토큰에는 항상 만료 시각이 있으므로, 만료 시각이 없는 토큰은 받지 않습니다.
+ */
+@Service
+public class AuthenticationService {
+    private final JwtUtil jwtUtil;
+
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public AuthenticationService(
+            JwtUtil jwtUtil,
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+            @Value("${jwt.cache.expire-after-seconds:600}") long expireAfterSeconds
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 주어진 토큰을 검증하고 사용자 식별자를 반환합니다.
+     *
+     * @param accessToken 검증할 토큰
+     * @return 토큰에 담긴 사용자 식별자
+     * @throws InvalidTokenException 토큰이 유효하지 않을 경우
+     */
+    public Long parseToken(String accessToken) {
+        if (accessToken == null) {
+            throw new InvalidTokenException();
+        }
+
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(accessToken);
+        if (cached != null) {
+            if (cached.isExpiredAt(now)) {
+                verifiedTokens.invalidate(accessToken);
+                throw new InvalidTokenException();
+            }
+            return cached.userId;
+        }
+
+        Claims claims = jwtUtil.decode(accessToken);
+
+        Long userId = claims.get("userId", Long.class);
+        if (userId == null) {
+            throw new InvalidTokenException();
+        }
+
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new InvalidTokenException();
+        }
+
+        verifiedTokens.put(accessToken, new VerifiedToken(userId, expiration.getTime()));
+
+        return userId;
+    }
+
+    /**
+     * 이미 검증해 캐시에 보관된 토큰이라면 사용자 식별자를 반환합니다. 서명은 검증하지 않습니다.
+     *
+     * @param accessToken 토큰
+     * @return 사용자 식별자, 검증된 적이 없거나 만료된 토큰이면 null
+     */
+    public Long cachedUserId(String accessToken) {
+        if (accessToken == null) {
+            return null;
+        }
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(accessToken);
+        if (cached == null || cached.isExpiredAt(System.currentTimeMillis())) {
+            return null;
+        }
+        return cached.userId;
+    }
+
+    /**
+     * 캐시에 보관된 검증 완료 토큰의 수를 반환합니다.
+     *
+     * @return 검증 완료 토큰 수
+     */
+    public long cachedTokenCount() {
+        return verifiedTokens.size();
+    }
+
+    private static class VerifiedToken {
+        private final Long userId;
+
+        private final long expiresAt;
+
+        VerifiedToken(Long userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpiredAt(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
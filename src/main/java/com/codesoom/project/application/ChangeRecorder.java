@@ -0,0 +1,104 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.domain.ChangeRecord;
+import com.codesoom.project.domain.ChangeRecordRepository;
+import com.codesoom.project.domain.ChangeSequence;
+import com.codesoom.project.domain.ChangeSequenceRepository;
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.TaskEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 다이어리와 할 일의 변경을 같은 트랜잭션 안에서 사용자별 변경 순번으로 기록합니다.
+ *
+ * 사용자의 첫 변경이면 카운터를 별도 트랜잭션에서 먼저 만듭니다.
+ * 여러 서버가 동시에 만들면 하나만 성공하고 나머지는 만들어진 카운터를 사용합니다.
+ * 카운터는 이벤트를 발행할 때 잠그므로, 변경하는 쪽은 바꿀 다이어리 행을 그 전에 잠가야
+ * 같은 사용자의 트랜잭션끼리 서로 반대 순서로 잠그다 교착되지 않습니다.
+ */
+@Component
+public class ChangeRecorder {
+    private final ChangeRecordRepository changeRecordRepository;
+
+    private final ChangeSequenceRepository changeSequenceRepository;
+
+    private final TransactionTemplate seedTransaction;
+
+    public ChangeRecorder(ChangeRecordRepository changeRecordRepository,
+                          ChangeSequenceRepository changeSequenceRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.changeRecordRepository = changeRecordRepository;
+        this.changeSequenceRepository = changeSequenceRepository;
+        this.seedTransaction = new TransactionTemplate(transactionManager);
+        this.seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener
+    public void onDiaryEvent(DiaryEvent event) {
+        record(ChangeRecord.EntityType.DIARY,
+                event.getDiary().getId(),
+                event.getOwnerId(),
+                event.getType() == DiaryEvent.Type.DELETED);
+    }
+
+    @EventListener
+    public void onTaskEvent(TaskEvent event) {
+        record(ChangeRecord.EntityType.TASK,
+                event.getTask().getId(),
+                event.getOwnerId(),
+                event.getType() == TaskEvent.Type.DELETED);
+    }
+
+    private void record(ChangeRecord.EntityType entityType, Long entityId,
+                        Long ownerId, boolean deleted) {
+        Long seq = nextSeq(ownerId);
+
+        ChangeRecord changeRecord = changeRecordRepository
+                .findByEntityTypeAndEntityId(entityType, entityId)
+                .orElseGet(() -> ChangeRecord.builder()
+                        .entityType(entityType)
+                        .entityId(entityId)
+                        .ownerId(ownerId)
+                        .build());
+
+        changeRecord.changedAt(seq, deleted);
+
+        changeRecordRepository.save(changeRecord);
+    }
+
+    private Long nextSeq(Long ownerId) {
+        // 없는 행을 잠그며 읽으면 갭 잠금이 카운터를 만드는 트랜잭션을 막으므로, 잠그지 않고 먼저 확인합니다.
+        if (!changeSequenceRepository.existsByOwnerId(ownerId)) {
+            seed(ownerId);
+        }
+
+        ChangeSequence changeSequence = changeSequenceRepository
+                .findForUpdateByOwnerId(ownerId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Change sequence missing for owner " + ownerId));
+
+        Long seq = changeSequence.next();
+
+        changeSequenceRepository.save(changeSequence);
+
+        return seq;
+    }
+
+    /**
+     * 사용자의 카운터를 이미 기록된 가장 큰 순번에서 시작하도록 만듭니다.
+     * 이전에 받은 동기화 토큰보다 작은 순번이 다시 나오지 않습니다.
+     */
+    private void seed(Long ownerId) {
+        try {
+            seedTransaction.executeWithoutResult(status -> changeSequenceRepository.insert(
+                    ownerId, changeRecordRepository.findLastSeqByOwnerId(ownerId)));
+        } catch (DataIntegrityViolationException e) {
+            // 다른 트랜잭션이 먼저 만들었습니다.
+        }
+    }
+}
@@ -2,106 +2,246 @@ package com.codesoom.project.application;
 
 import com.codesoom.project.domain.Diary;
 import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.domain.TextEdit;
+import com.codesoom.project.dto.DiaryCommentEditData;
 import com.codesoom.project.dto.DiaryCreateData;
 import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.DiarySummaryData;
 import com.codesoom.project.dto.DiaryUpdateData;
+import com.codesoom.project.dto.DiaryVersionResultData;
 import com.codesoom.project.errors.DiaryNotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.codesoom.project.errors.DiaryVersionConflictException;
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.TaskEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * 다이어리 관련 비즈니스 로직을 담당합니다.
+ *
+ * 수정을 모아서 저장하는 모드가 켜져 있으면 수정은 {@link DiaryWriteBehindBuffer}에
+ * 보관된 뒤 한 번에 저장되고, 조회 결과에는 보관 중인 수정이 반영됩니다.
+ * 할 일 집계 값은 항상 저장소에서 읽은 값을 돌려줍니다.
+ * 동시에 들어온 같은 조회는 {@link ReadCoalescer}로 한 번만 저장소를 조회합니다.
+ * 합친 조회는 요청마다 트랜잭션을 열지 않고 실제로 조회하는 요청만 읽기 전용 트랜잭션을 열며,
+ * 함께 기다린 요청과 나눠 가지므로 엔티티 대신 응답 DTO를 돌려줍니다.
+ * 요청의 마감 시각은 트랜잭션 제한 시간으로 이어져, 마감 시각이 지나면 실행 중인 조회가 취소됩니다.
  */
 @Service
 @Transactional
-@RequiredArgsConstructor
 public class DiaryService {
     private final DiaryRepository diaryRepository;
 
+    private final TaskRepository taskRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DiaryWriteBehindBuffer writeBehindBuffer;
+
+    private final NegativeLookupCache negativeLookupCache;
+
+    private final ReadCoalescer readCoalescer;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public DiaryService(
+            DiaryRepository diaryRepository,
+            TaskRepository taskRepository,
+            ApplicationEventPublisher eventPublisher,
+            DiaryWriteBehindBuffer writeBehindBuffer,
+            NegativeLookupCache negativeLookupCache,
+            ReadCoalescer readCoalescer,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.diaryRepository = diaryRepository;
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.negativeLookupCache = negativeLookupCache;
+        this.readCoalescer = readCoalescer;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
     /**
-     * 전체 다이어리 목록을 반환합니다.
+     * 주어진 사용자의 전체 다이어리 목록을 반환합니다.
      *
-     * @return 전체 다이어리 목록
+     * @param ownerId 사용자 식별자
+     * @return 전체 다이어리 목록, 내용은 포함하지 않습니다
      */
-    public List<Diary> getDiaries() {
-        return diaryRepository.findAll();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<DiarySummaryData> getDiaries(Long ownerId) {
+        return writeBehindBuffer.overlay(ownerId, readCoalescer.diaries(ownerId, () ->
+                readOnlyTransaction.execute(status -> diaryRepository.findAllByOwnerId(ownerId)
+                        .stream()
+                        .map(DiarySummaryData::of)
+                        .collect(Collectors.toList()))));
     }
 
     /**
      * 주어진 id에 해당하는 다이어리를 반환합니다.
      *
-     * @param id 다이어리 식별자
+     * @param ownerId 사용자 식별자
+     * @param id      다이어리 식별자
      * @return 주어진 id를 갖는 다이어리
      * @throws DiaryNotFoundException 다이어리를 찾을 수 없을 경우
      */
-    public Diary getDiary(Long id) {
-        return findDiary(id);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DiaryResultData getDiary(Long ownerId, Long id) {
+        return writeBehindBuffer.overlay(ownerId, readCoalescer.diary(ownerId, id, () ->
+                readOnlyTransaction.execute(status -> DiaryResultData.of(findDiary(ownerId, id)))));
     }
 
     /**
      * 새로운 다이어리를 생성합니다.
      *
+     * @param ownerId         사용자 식별자
      * @param diaryCreateData 생성할 다이어리 정보
      * @return 생성된 다이어리
      */
     public DiaryResultData createDiary(
+            Long ownerId,
             DiaryCreateData diaryCreateData
     ) {
-        Diary diary = diaryCreateData.toEntity();
+        Diary diary = diaryCreateData.toEntity(ownerId);
 
         diaryRepository.save(diary);
 
+        eventPublisher.publishEvent(DiaryEvent.created(diary));
+
         return DiaryResultData.of(diary);
     }
 
     /**
      * 주어진 id에 해당하는 다이어리의 정보를 수정합니다.
      *
+     * @param ownerId         사용자 식별자
      * @param id              다이어리 식별자
      * @param diaryUpdateData 수정할 다이어리 정보
      * @return 수정된 다이어리
      * @throws DiaryNotFoundException 다이어리를 찾을 수 없을 경우
      */
     public DiaryResultData updateDiary(
+            Long ownerId,
             Long id,
             DiaryUpdateData diaryUpdateData
     ) {
-        Diary diary = findDiary(id);
+        if (writeBehindBuffer.isEnabled()) {
+            Diary stored = findDiaryForUpdate(ownerId, id);
+
+            return DiaryResultData.of(writeBehindBuffer.stage(
+                    stored, diaryUpdateData.getTitle(), diaryUpdateData.getComment()));
+        }
+
+        Diary diary = findDiaryForUpdate(ownerId, id);
 
         diary.updateWith(Diary.builder()
                 .title(diaryUpdateData.getTitle())
                 .comment(diaryUpdateData.getComment())
                 .build());
 
+        eventPublisher.publishEvent(DiaryEvent.updated(diary));
+
         return DiaryResultData.of(diary);
     }
 
     /**
-     * 주어진 id에 해당하는 다이어리를 삭제합니다.
+     * 주어진 id에 해당하는 다이어리의 내용을 부분 편집합니다.
      *
-     * @param id 다이어리 식별자
+     * @param ownerId              사용자 식별자
+     * @param id                   다이어리 식별자
+     * @param diaryCommentEditData 편집 기준 버전과 편집 목록
+     * @return 편집된 다이어리의 식별자와 버전
+     * @throws DiaryNotFoundException        다이어리를 찾을 수 없을 경우
+     * @throws DiaryVersionConflictException 기준 버전이 현재 버전과 다를 경우
+     */
+    public DiaryVersionResultData editComment(
+            Long ownerId,
+            Long id,
+            DiaryCommentEditData diaryCommentEditData
+    ) {
+        long baseVersion = diaryCommentEditData.getBaseVersion();
+        List<TextEdit> edits = diaryCommentEditData.toTextEdits();
+
+        Diary diary = findDiaryForUpdate(ownerId, id);
+
+        if (writeBehindBuffer.isEnabled()) {
+            return DiaryVersionResultData.of(
+                    writeBehindBuffer.stageCommentEdits(diary, baseVersion, edits));
+        }
+
+        diary.applyCommentEdits(baseVersion, edits);
+
+        eventPublisher.publishEvent(DiaryEvent.updated(diary));
+
+        return DiaryVersionResultData.of(diary);
+    }
+
+    /**
+     * 주어진 id에 해당하는 다이어리와 그 다이어리의 할 일을 삭제합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param id      다이어리 식별자
      * @return 삭제된 다이어리
      * @throws DiaryNotFoundException 다이어리를 찾을 수 없을 경우
      */
-    public Diary deleteDiary(Long id) {
-        Diary diary = findDiary(id);
+    public Diary deleteDiary(Long ownerId, Long id) {
+        Diary diary = findDiaryForUpdate(ownerId, id);
+
+        writeBehindBuffer.discard(id);
+
+        LocalDateTime now = LocalDateTime.now();
 
-        diaryRepository.delete(diary);
+        List<Task> tasks = taskRepository.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(ownerId, id);
+        for (Task task : tasks) {
+            task.markDeleted(now);
+            eventPublisher.publishEvent(TaskEvent.deleted(task));
+        }
+
+        diary.markDeleted(now);
+
+        eventPublisher.publishEvent(DiaryEvent.deleted(diary));
 
         return diary;
     }
 
     /**
-     * 주어진 id에 해당하는 다이어리를 반환합니다.
+     * 주어진 사용자가 소유한 다이어리 중 id에 해당하는 다이어리를 반환합니다.
+     * 없다고 확정된 id는 저장소를 조회하지 않습니다.
      *
-     * @param id 다이어리 식별자
+     * @param ownerId 사용자 식별자
+     * @param id      다이어리 식별자
      * @return 주어진 id를 갖는 다이어리
      */
-    public Diary findDiary(Long id) {
-        return diaryRepository.findById(id)
+    public Diary findDiary(Long ownerId, Long id) {
+        if (negativeLookupCache.isKnownMissing(NegativeLookupCache.Kind.DIARY, ownerId, id)) {
+            throw new DiaryNotFoundException(id);
+        }
+
+        return diaryRepository.findByIdAndOwnerId(id, ownerId)
+                .orElseThrow(() -> {
+                    negativeLookupCache.recordMiss(NegativeLookupCache.Kind.DIARY, ownerId, id);
+                    return new DiaryNotFoundException(id);
+                });
+    }
+
+    /**
+     * 다이어리 행을 잠그고 읽습니다.
+     * 버전은 잠근 뒤에 읽은 값에서 올리므로, 동시에 수정한 두 요청이 같은 버전을 남기지 않습니다.
+     * 수정을 모아서 저장할 때도 잠그므로, 보관한 수정을 저장하는 중에 읽은 값으로 새 수정을 보관하지 않습니다.
+     */
+    private Diary findDiaryForUpdate(Long ownerId, Long id) {
+        return diaryRepository.findForUpdateByIdAndOwnerId(id, ownerId)
                 .orElseThrow(() -> new DiaryNotFoundException(id));
     }
 }
@@ -0,0 +1,418 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TextEdit;
+import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.DiarySummaryData;
+import com.codesoom.project.errors.DiaryVersionConflictException;
+import com.codesoom.project.events.DiaryEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 짧은 시간 안에 연달아 들어오는 다이어리 수정을 모아 한 번에 저장합니다.
+ *
+ * 수정 요청은 메모리에 보관되고, 마지막 수정 이후 정해진 시간 동안 추가 수정이 없거나
+ * 처음 수정 이후 최대 지연 시간이 지나면 마지막 값만 저장됩니다.
+ * 보관 중인 값은 작성자의 조회 결과에 반영되고, 정상 종료 시에는 종료 제한 시간 안에서 저장을 다시 시도하며
+ * 끝내 저장하지 못한 다이어리 id는 로그로 남깁니다.
+ * 할 일 집계 값은 보관하지 않고 항상 저장소에서 읽은 다이어리의 값을 씁니다.
+ * 버전은 수정을 보관할 때마다 올리고, 저장할 때는 마지막으로 보관한 수정의 버전을 그대로 씁니다.
+ * 프로세스가 비정상 종료되면 최대 지연 시간 동안의 수정이 유실될 수 있습니다.
+ */
+@Slf4j
+@Component
+public class DiaryWriteBehindBuffer {
+    private static final long SHUTDOWN_RETRY_MILLIS = 200;
+
+    private final ConcurrentMap<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    private final DiaryRepository diaryRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardRouter shardRouter;
+
+    private final boolean enabled;
+
+    private final long quietMillis;
+
+    private final long maxDelayMillis;
+
+    private final long shutdownTimeoutMillis;
+
+    private final AtomicLong stagedCount = new AtomicLong();
+
+    private final AtomicLong flushedCount = new AtomicLong();
+
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    private final AtomicLong failedFlushCount = new AtomicLong();
+
+    public DiaryWriteBehindBuffer(
+            DiaryRepository diaryRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            @Value("${diaries.write-behind.enabled:false}") boolean enabled,
+            @Value("${diaries.write-behind.quiet-millis:1000}") long quietMillis,
+            @Value("${diaries.write-behind.max-delay-millis:5000}") long maxDelayMillis,
+            @Value("${diaries.write-behind.shutdown-timeout-millis:10000}") long shutdownTimeoutMillis
+    ) {
+        this.diaryRepository = diaryRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.quietMillis = quietMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * 수정을 모아서 저장하는 모드가 켜져 있는지 반환합니다.
+     *
+     * @return 켜져 있으면 true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 다이어리 수정을 보관합니다. 같은 다이어리의 이전 수정은 덮어씁니다.
+     *
+     * @param diary   저장소에서 읽은 다이어리
+     * @param title   새 제목
+     * @param comment 새 내용
+     * @return 수정 내용이 반영된 다이어리 사본
+     */
+    public Diary stage(Diary diary, String title, String comment) {
+        long now = System.currentTimeMillis();
+
+        PendingUpdate staged = pending.merge(
+                diary.getId(),
+                new PendingUpdate(diary, title, comment, now),
+                PendingUpdate::supersededBy);
+
+        stagedCount.incrementAndGet();
+
+        return staged.toDiary(diary);
+    }
+
+    /**
+     * 내용 편집을 보관된 최신 내용에 적용해 보관합니다.
+     * 기준 버전 확인과 버전 증가를 한 번에 하므로, 같은 버전을 기준으로 한 편집은 하나만 반영됩니다.
+     *
+     * @param diary       저장소에서 읽은 다이어리
+     * @param baseVersion 편집의 기준 버전
+     * @param edits       순서대로 적용할 편집 목록
+     * @return 편집이 반영된 다이어리 사본
+     * @throws DiaryVersionConflictException 기준 버전이 보관 중인 최신 버전과 다를 경우
+     */
+    public Diary stageCommentEdits(Diary diary, long baseVersion, List<TextEdit> edits) {
+        long now = System.currentTimeMillis();
+
+        PendingUpdate staged = pending.compute(diary.getId(), (id, current) -> {
+            Diary latest = current == null ? diary : current.toDiary(diary);
+            PendingUpdate next = new PendingUpdate(latest, latest.getTitle(),
+                    latest.editedComment(baseVersion, edits), now);
+            return current == null ? next : current.supersededBy(next);
+        });
+
+        stagedCount.incrementAndGet();
+
+        return staged.toDiary(diary);
+    }
+
+    /**
+     * 아직 저장되지 않은 수정을 반영한 다이어리를 반환합니다.
+     *
+     * @param diary 저장소에서 읽은 다이어리
+     * @return 보관 중인 수정이 있으면 반영된 사본, 없으면 주어진 다이어리
+     */
+    public Diary overlay(Diary diary) {
+        PendingUpdate update = pendingOf(diary.getOwnerId(), diary.getId());
+        if (update == null) {
+            return diary;
+        }
+        return update.toDiary(diary);
+    }
+
+    /**
+     * 아직 저장되지 않은 수정을 반영한 다이어리 목록을 반환합니다.
+     *
+     * @param diaries 저장소에서 읽은 다이어리 목록
+     * @return 보관 중인 수정이 반영된 목록
+     */
+    public List<Diary> overlay(List<Diary> diaries) {
+        if (pending.isEmpty()) {
+            return diaries;
+        }
+        return diaries.stream()
+                .map(this::overlay)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 아직 저장되지 않은 수정을 반영한 다이어리 응답을 반환합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param diary   저장소에서 읽은 다이어리 응답
+     * @return 보관 중인 수정이 있으면 반영된 응답, 없으면 주어진 응답
+     */
+    public DiaryResultData overlay(Long ownerId, DiaryResultData diary) {
+        PendingUpdate update = pendingOf(ownerId, diary.getId());
+        if (update == null) {
+            return diary;
+        }
+        return DiaryResultData.builder()
+                .id(diary.getId())
+                .title(update.title)
+                .comment(update.comment)
+                .version(update.version)
+                .taskCount(diary.getTaskCount())
+                .doneTaskCount(diary.getDoneTaskCount())
+                .build();
+    }
+
+    /**
+     * 아직 저장되지 않은 수정을 반영한 다이어리 목록 응답을 반환합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param diaries 저장소에서 읽은 다이어리 목록 응답
+     * @return 보관 중인 수정이 반영된 목록
+     */
+    public List<DiarySummaryData> overlay(Long ownerId, List<DiarySummaryData> diaries) {
+        if (pending.isEmpty()) {
+            return diaries;
+        }
+        return diaries.stream()
+                .map(diary -> {
+                    PendingUpdate update = pendingOf(ownerId, diary.getId());
+                    if (update == null) {
+                        return diary;
+                    }
+                    return DiarySummaryData.builder()
+                            .id(diary.getId())
+                            .title(update.title)
+                            .version(update.version)
+                            .taskCount(diary.getTaskCount())
+                            .doneTaskCount(diary.getDoneTaskCount())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 보관 중인 수정을 버립니다. 삭제된 다이어리에 사용합니다.
+     *
+     * @param id 다이어리 식별자
+     */
+    public void discard(Long id) {
+        pending.remove(id);
+    }
+
+    /**
+     * 저장할 때가 된 수정을 저장합니다.
+     */
+    @Scheduled(fixedDelayString = "${diaries.write-behind.flush-interval-millis:250}")
+    public void flushDue() {
+        long now = System.currentTimeMillis();
+
+        for (PendingUpdate update : pending.values()) {
+            if (update.isDueAt(now, quietMillis, maxDelayMillis)) {
+                flush(update);
+            }
+        }
+    }
+
+    /**
+     * 보관 중인 모든 수정을 저장합니다.
+     * 저장에 실패한 수정은 종료 제한 시간까지 다시 시도하고, 그래도 남은 수정의 다이어리 id를 로그로 남깁니다.
+     */
+    @PreDestroy
+    public void flushAll() {
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+
+        while (true) {
+            for (PendingUpdate update : pending.values()) {
+                flush(update);
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (pending.isEmpty() || remaining <= 0) {
+                break;
+            }
+
+            try {
+                Thread.sleep(Math.min(SHUTDOWN_RETRY_MILLIS, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            log.error("Lost {} pending diary updates on shutdown: ids={}",
+                    pending.size(), pending.keySet());
+        }
+    }
+
+    /**
+     * 보관 중인 수정의 수를 반환합니다.
+     *
+     * @return 보관 중인 수정 수
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 받은 수정 요청의 수를 반환합니다.
+     *
+     * @return 받은 수정 요청 수
+     */
+    public long stagedCount() {
+        return stagedCount.get();
+    }
+
+    /**
+     * 실제로 저장한 횟수를 반환합니다.
+     *
+     * @return 저장 횟수
+     */
+    public long flushedCount() {
+        return flushedCount.get();
+    }
+
+    /**
+     * 저장에 실패해 다음 주기로 미룬 횟수를 반환합니다.
+     *
+     * @return 저장 실패 횟수
+     */
+    public long failedFlushCount() {
+        return failedFlushCount.get();
+    }
+
+    /**
+     * 저장 한 번에 모인 평균 수정 요청 수를 반환합니다.
+     *
+     * @return 수정 요청 수를 저장 횟수로 나눈 값
+     */
+    public double coalescingRatio() {
+        long flushed = flushedCount.get();
+        if (flushed == 0) {
+            return 0;
+        }
+        return (double) coalescedCount.get() / flushed;
+    }
+
+    private PendingUpdate pendingOf(Long ownerId, Long id) {
+        PendingUpdate update = pending.get(id);
+        if (update == null || !update.ownerId.equals(ownerId)) {
+            return null;
+        }
+        return update;
+    }
+
+    private void flush(PendingUpdate update) {
+        try {
+            shardRouter.runForOwner(update.ownerId, () ->
+                    transactionTemplate.executeWithoutResult(status ->
+                            diaryRepository.findForUpdateByIdAndOwnerId(update.id, update.ownerId)
+                                    .ifPresent(diary -> {
+                                        diary.updateWith(update.toDiary(diary), update.version);
+                                        eventPublisher.publishEvent(DiaryEvent.updated(diary));
+                                    })));
+        } catch (RuntimeException e) {
+            failedFlushCount.incrementAndGet();
+            return;
+        }
+
+        // 저장하는 동안 새 수정이 들어왔다면 그 값은 다음 주기에 저장합니다.
+        if (pending.remove(update.id, update)) {
+            flushedCount.incrementAndGet();
+            coalescedCount.addAndGet(update.merged);
+        }
+    }
+
+    private static final class PendingUpdate {
+        private final Long id;
+
+        private final Long ownerId;
+
+        private final String title;
+
+        private final String comment;
+
+        private final long version;
+
+        private final long firstStagedAt;
+
+        private final long lastStagedAt;
+
+        private final long merged;
+
+        private PendingUpdate(Diary diary, String title, String comment, long now) {
+            this(diary.getId(), diary.getOwnerId(), title, comment,
+                    diary.getVersion() + 1, now, now, 1);
+        }
+
+        private PendingUpdate(Long id, Long ownerId, String title, String comment,
+                              long version, long firstStagedAt, long lastStagedAt,
+                              long merged) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.title = title;
+            this.comment = comment;
+            this.version = version;
+            this.firstStagedAt = firstStagedAt;
+            this.lastStagedAt = lastStagedAt;
+            this.merged = merged;
+        }
+
+        /**
+         * 새 수정으로 덮어씁니다. 저장은 한 번만 일어나지만 버전은 수정마다 올립니다.
+         */
+        private PendingUpdate supersededBy(PendingUpdate next) {
+            return new PendingUpdate(id, ownerId, next.title, next.comment,
+                    version + 1, firstStagedAt, next.lastStagedAt, merged + 1);
+        }
+
+        private boolean isDueAt(long now, long quietMillis, long maxDelayMillis) {
+            return now - lastStagedAt >= quietMillis
+                    || now - firstStagedAt >= maxDelayMillis;
+        }
+
+        /**
+         * 할 일 집계 값은 수정과 관계없이 바뀌므로 저장소에서 읽은 다이어리의 값을 씁니다.
+         */
+        private Diary toDiary(Diary stored) {
+            return Diary.builder()
+                    .id(id)
+                    .ownerId(ownerId)
+                    .title(title)
+                    .comment(comment)
+                    .version(version)
+                    .taskCount(stored.getTaskCount())
+                    .doneTaskCount(stored.getDoneTaskCount())
+                    .build();
+        }
+    }
+}
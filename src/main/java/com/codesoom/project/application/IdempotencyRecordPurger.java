@@ -0,0 +1,83 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 보관 기간이 지난 멱등 키 응답을 작은 묶음 단위로 정리합니다.
+ *
+ * 다른 빈이 참조하지 않으므로 지연 초기화 설정에서도 바로 생성되도록 합니다.
+ */
+@Component
+@Lazy(false)
+public class IdempotencyRecordPurger {
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardRouter shardRouter;
+
+    private final long ttlSeconds;
+
+    private final int batchSize;
+
+    private final AtomicLong purgedCount = new AtomicLong();
+
+    public IdempotencyRecordPurger(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${idempotency.batch-size:500}") int batchSize
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.ttlSeconds = ttlSeconds;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 보관 기간이 지난 응답을 지웁니다.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-millis:600000}")
+    public void purge() {
+        LocalDateTime createdBefore = LocalDateTime.now().minusSeconds(ttlSeconds);
+
+        shardRouter.forEachShard(() -> purgeInBatches(createdBefore));
+    }
+
+    /**
+     * 지금까지 정리한 응답 수를 반환합니다.
+     *
+     * @return 정리한 응답 수
+     */
+    public long purgedCount() {
+        return purgedCount.get();
+    }
+
+    private void purgeInBatches(LocalDateTime createdBefore) {
+        while (true) {
+            Integer purged = transactionTemplate.execute(status ->
+                    idempotencyRecordRepository.purgeCreatedBefore(createdBefore, batchSize));
+            if (purged == null || purged == 0) {
+                return;
+            }
+
+            purgedCount.addAndGet(purged);
+
+            if (purged < batchSize) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.domain.IdempotencyRecord;
+import com.codesoom.project.domain.IdempotencyRecordRepository;
+import com.codesoom.project.errors.IdempotencyKeyConflictException;
+import com.codesoom.project.errors.InvalidIdempotencyKeyException;
+import com.codesoom.project.utils.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 멱등 키가 붙은 생성 요청을 한 번만 처리합니다.
+ *
+ * 첫 응답은 생성과 같은 트랜잭션에서 저장소에 기록하고, 커밋된 뒤 메모리 캐시에도 보관합니다.
+ * 같은 키로 다시 들어온 요청은 생성을 다시 실행하지 않고 보관한 응답을 돌려주며,
+ * 처리 중인 요청과 같은 키로 동시에 들어온 요청은 그 요청이 끝나기를 기다립니다.
+ * 같은 키라도 요청 본문이 첫 요청과 다르면 응답을 돌려주지 않고 충돌로 처리합니다.
+ */
+@Service
+public class IdempotencyService {
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectMapper canonicalMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long ttlSeconds;
+
+    private final Cache<String, StoredResponse> responses;
+
+    private final SingleFlight<String, StoredResponse> flights = new SingleFlight<>();
+
+    private final AtomicLong replayedCount = new AtomicLong();
+
+    public IdempotencyService(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${idempotency.cache.maximum-size:10000}") long maximumSize
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.canonicalMapper = objectMapper.copy()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlSeconds = ttlSeconds;
+        this.responses = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 멱등 키가 주어지면 요청을 한 번만 처리하고, 키가 없으면 그대로 처리합니다.
+     *
+     * @param ownerId        사용자 식별자
+     * @param idempotencyKey 멱등 키, 없으면 null
+     * @param scope          요청 종류, 같은 키를 다른 요청에 쓰는 것을 막습니다
+     * @param request        요청 본문, 같은 키를 다른 본문에 쓰는 것을 막습니다
+     * @param type           응답 타입
+     * @param action         실제 처리
+     * @param <T>            응답 타입
+     * @return 처리 결과 또는 보관한 첫 응답
+     * @throws InvalidIdempotencyKeyException  멱등 키가 비어 있거나 너무 길 경우
+     * @throws IdempotencyKeyConflictException 키를 다른 요청이나 본문에 썼거나 다른 서버에서 처리 중일 경우
+     */
+    public <T> T execute(Long ownerId, String idempotencyKey, String scope, Object request,
+                         Class<T> type, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyRecord.MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(idempotencyKey);
+        }
+
+        String cacheKey = ownerId + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        StoredResponse stored = responses.getIfPresent(cacheKey);
+        if (stored != null) {
+            replayedCount.incrementAndGet();
+        } else {
+            stored = flights.execute(cacheKey, () ->
+                    load(ownerId, idempotencyKey, scope, requestHash, cacheKey, action));
+        }
+
+        if (!stored.matches(scope, requestHash)) {
+            throw new IdempotencyKeyConflictException(idempotencyKey);
+        }
+        return read(stored.body, type);
+    }
+
+    /**
+     * 보관한 응답을 돌려준 횟수를 반환합니다.
+     *
+     * @return 다시 돌려준 응답 수
+     */
+    public long replayedCount() {
+        return replayedCount.get() + flights.coalescedCount();
+    }
+
+    private StoredResponse load(Long ownerId, String idempotencyKey, String scope,
+                                String requestHash, String cacheKey, Supplier<?> action) {
+        StoredResponse cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            replayedCount.incrementAndGet();
+            return cached;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiredBefore = now.minusSeconds(ttlSeconds);
+
+        Optional<IdempotencyRecord> found = idempotencyRecordRepository
+                .findByOwnerIdAndIdempotencyKey(ownerId, idempotencyKey);
+        if (found.isPresent() && !found.get().isCreatedBefore(expiredBefore)) {
+            IdempotencyRecord record = found.get();
+            StoredResponse stored = new StoredResponse(
+                    record.getScope(), record.getRequestHash(), record.getBody());
+            responses.put(cacheKey, stored);
+            replayedCount.incrementAndGet();
+            return stored;
+        }
+
+        StoredResponse created;
+        try {
+            created = transactionTemplate.execute(status -> {
+                if (found.isPresent()) {
+                    idempotencyRecordRepository.deleteByOwnerIdAndIdempotencyKey(
+                            ownerId, idempotencyKey);
+                }
+
+                String body = write(action.get());
+
+                idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                        .ownerId(ownerId)
+                        .idempotencyKey(idempotencyKey)
+                        .scope(scope)
+                        .requestHash(requestHash)
+                        .body(body)
+                        .createdAt(now)
+                        .build());
+
+                return new StoredResponse(scope, requestHash, body);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버가 같은 키를 먼저 기록했습니다. 생성은 함께 롤백되었습니다.
+            throw new IdempotencyKeyConflictException(idempotencyKey);
+        }
+
+        responses.put(cacheKey, created);
+        return created;
+    }
+
+    /**
+     * 속성과 맵 키를 정렬해 직렬화한 요청 본문의 SHA-256 값을 반환합니다.
+     */
+    private String hash(Object request) {
+        try {
+            return Hashing.sha256()
+                    .hashString(canonicalMapper.writeValueAsString(request), StandardCharsets.UTF_8)
+                    .toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to hash idempotent request", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store idempotent response", e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read idempotent response", e);
+        }
+    }
+
+    private static final class StoredResponse {
+        private final String scope;
+
+        private final String requestHash;
+
+        private final String body;
+
+        private StoredResponse(String scope, String requestHash, String body) {
+            this.scope = scope;
+            this.requestHash = requestHash;
+            this.body = body;
+        }
+
+        /**
+         * 같은 요청인지 확인합니다. 본문 해시가 없는 예전 기록은 요청 종류만 비교합니다.
+         */
+        private boolean matches(String scope, String requestHash) {
+            return this.scope.equals(scope)
+                    && (this.requestHash == null || this.requestHash.equals(requestHash));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.InvalidationEvent;
+import com.codesoom.project.events.TaskEvent;
+import com.codesoom.project.invalidation.InvalidationTransport;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 없는 다이어리와 할 일 id 조회가 저장소까지 가지 않도록 걸러냅니다.
+ *
+ * 블룸 필터에 존재하는 id를 모두 넣어 두고, 필터에 없는 id는 저장소를 조회하지 않고 없다고 판단합니다.
+ * 필터를 통과했지만 저장소에 없던 조회는 짧은 시간 동안 캐시해 같은 조회를 반복하지 않습니다.
+ *
+ * 필터는 시작할 때 모든 샤드의 id로 채우고, 그 전까지는 모든 id를 통과시킵니다.
+ * 생성된 id는 같은 트랜잭션 안에서 필터에 넣으므로, 채우는 도중에 생성된 id도 빠지지 않습니다.
+ * 삭제된 id는 필터에서 뺄 수 없으므로 재시작 전까지는 캐시로만 걸러집니다.
+ * 다른 인스턴스에서 생성된 id는 {@link InvalidationEvent}로 받아 필터에 넣습니다.
+ *
+ * 그 이벤트를 놓치면 있는 id를 없다고 판단하게 되므로, 이벤트를 잃었다는 알림을 받으면
+ * 저장소의 id를 다시 채울 때까지 필터를 보지 않고 저장소를 조회합니다.
+ * 같은 프로세스 안에서만 이벤트를 전달하는 통로로 인스턴스를 여럿 띄우면 다른 인스턴스의 생성을
+ * 알 수 없으므로 필터를 쓰지 않습니다. 이때도 조회 실패 기록은 남으므로, 다른 인스턴스에서 생성된
+ * id는 기록이 만료될 때까지 없다고 판단될 수 있습니다.
+ */
+@Component
+@Lazy(false)
+public class NegativeLookupCache {
+    public enum Kind {
+        DIARY,
+        TASK
+    }
+
+    private final DiaryRepository diaryRepository;
+
+    private final TaskRepository taskRepository;
+
+    private final ShardRouter shardRouter;
+
+    private final boolean filterEnabled;
+
+    private final BloomFilter<Long> diaryIds;
+
+    private final BloomFilter<Long> taskIds;
+
+    private final Cache<MissKey, Boolean> misses;
+
+    private final AtomicLong resets = new AtomicLong();
+
+    /**
+     * 필터를 마지막으로 다 채우기 시작할 때까지 받은 잃었다는 알림 수. 채우기 전에는 -1입니다.
+     */
+    private volatile long loadedResets = -1;
+
+    private final AtomicLong filterRejections = new AtomicLong();
+
+    private final AtomicLong cacheRejections = new AtomicLong();
+
+    public NegativeLookupCache(
+            DiaryRepository diaryRepository,
+            TaskRepository taskRepository,
+            ShardRouter shardRouter,
+            InvalidationTransport invalidationTransport,
+            @Value("${invalidation.instances:1}") int instances,
+            @Value("${lookups.negative.expected-ids:1000000}") long expectedIds,
+            @Value("${lookups.negative.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${lookups.negative.maximum-size:100000}") long maximumSize,
+            @Value("${lookups.negative.expire-after-seconds:30}") long expireAfterSeconds
+    ) {
+        this.diaryRepository = diaryRepository;
+        this.taskRepository = taskRepository;
+        this.shardRouter = shardRouter;
+        this.filterEnabled = instances <= 1 || invalidationTransport.reachesOtherInstances();
+        this.diaryIds = BloomFilter.create(Funnels.longFunnel(), expectedIds, falsePositiveRate);
+        this.taskIds = BloomFilter.create(Funnels.longFunnel(), expectedIds, falsePositiveRate);
+        this.misses = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 저장소에 있는 다이어리와 할 일 id로 필터를 채웁니다.
+     * 이미 채운 필터에 다시 채우면 놓친 id가 더해집니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (!filterEnabled) {
+            return;
+        }
+
+        long seenResets = resets.get();
+        shardRouter.scatter(diaryRepository::findAllIds).forEach(diaryIds::put);
+        shardRouter.scatter(taskRepository::findAllIds).forEach(taskIds::put);
+        loadedResets = seenResets;
+    }
+
+    /**
+     * 필터를 채운 뒤에 이벤트를 잃었다는 알림을 받았으면 필터를 다시 채웁니다.
+     */
+    @Scheduled(fixedDelayString = "${lookups.negative.reload-check-millis:10000}")
+    public void reloadIfReset() {
+        long loaded = loadedResets;
+        if (loaded >= 0 && loaded != resets.get()) {
+            load();
+        }
+    }
+
+    /**
+     * 주어진 사용자의 id 조회가 저장소를 보지 않고도 없다고 확정되는지 반환합니다.
+     *
+     * @param kind    조회 대상 종류
+     * @param ownerId 사용자 식별자
+     * @param id      조회할 id
+     * @return 없다고 확정되면 true
+     */
+    public boolean isKnownMissing(Kind kind, Long ownerId, Long id) {
+        if (loadedResets == resets.get() && !filterOf(kind).mightContain(id)) {
+            filterRejections.incrementAndGet();
+            return true;
+        }
+
+        if (misses.getIfPresent(new MissKey(kind, ownerId, id)) != null) {
+            cacheRejections.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 저장소에서 찾지 못한 조회를 기록합니다.
+     *
+     * @param kind    조회 대상 종류
+     * @param ownerId 사용자 식별자
+     * @param id      조회한 id
+     */
+    public void recordMiss(Kind kind, Long ownerId, Long id) {
+        misses.put(new MissKey(kind, ownerId, id), Boolean.TRUE);
+    }
+
+    /**
+     * 새로 생성된 id를 필터에 넣고, 그 id에 대한 조회 실패 기록을 지웁니다.
+     *
+     * @param kind    생성된 대상 종류
+     * @param ownerId 사용자 식별자
+     * @param id      생성된 id
+     */
+    public void recordCreated(Kind kind, Long ownerId, Long id) {
+        filterOf(kind).put(id);
+        misses.invalidate(new MissKey(kind, ownerId, id));
+    }
+
+    @EventListener
+    public void onDiaryEvent(DiaryEvent event) {
+        if (event.getType() == DiaryEvent.Type.CREATED) {
+            recordCreated(Kind.DIARY, event.getOwnerId(), event.getDiary().getId());
+        }
+    }
+
+    @EventListener
+    public void onTaskEvent(TaskEvent event) {
+        if (event.getType() == TaskEvent.Type.CREATED) {
+            recordCreated(Kind.TASK, event.getOwnerId(), event.getTask().getId());
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.getType() == InvalidationEvent.Type.RESET) {
+            resets.incrementAndGet();
+            misses.invalidateAll();
+            return;
+        }
+        if (event.getType() == InvalidationEvent.Type.CREATED) {
+            recordCreated(event.getKind() == InvalidationEvent.Kind.DIARY ? Kind.DIARY : Kind.TASK,
+                    event.getOwnerId(), event.getId());
+        }
+    }
+
+    /**
+     * 필터가 걸러낸 조회 수를 반환합니다.
+     *
+     * @return 필터가 걸러낸 조회 수
+     */
+    public long filterRejections() {
+        return filterRejections.get();
+    }
+
+    /**
+     * 조회 실패 기록으로 걸러낸 조회 수를 반환합니다.
+     *
+     * @return 캐시가 걸러낸 조회 수
+     */
+    public long cacheRejections() {
+        return cacheRejections.get();
+    }
+
+    private BloomFilter<Long> filterOf(Kind kind) {
+        return kind == Kind.DIARY ? diaryIds : taskIds;
+    }
+
+    private static final class MissKey {
+        private final Kind kind;
+
+        private final Long ownerId;
+
+        private final Long id;
+
+        private MissKey(Kind kind, Long ownerId, Long id) {
+            this.kind = kind;
+            this.ownerId = ownerId;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MissKey)) {
+                return false;
+            }
+            MissKey other = (MissKey) o;
+            return kind == other.kind
+                    && Objects.equals(ownerId, other.ownerId)
+                    && Objects.equals(id, other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, ownerId, id);
+        }
+    }
+}
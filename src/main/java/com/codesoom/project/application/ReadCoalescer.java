@@ -0,0 +1,113 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.DiarySummaryData;
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.InvalidationEvent;
+import com.codesoom.project.events.TaskEvent;
+import com.codesoom.project.utils.SingleFlight;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 다이어리와 할 일 조회 중 동시에 들어온 같은 조회를 하나의 저장소 조회로 합칩니다.
+ *
+ * 모든 조회가 사용자 범위이므로 키에는 사용자 식별자가 들어갑니다.
+ * 조회 결과는 여러 요청이 나눠 가지므로, 다이어리는 영속성 컨텍스트에 묶이지 않은 응답 DTO로 합칩니다.
+ * 변경이 커밋되면 실행 중인 조회에서 분리해, 커밋 뒤에 들어온 조회는 새 값을 읽습니다.
+ * 다른 인스턴스의 변경도 {@link InvalidationEvent}로 받아 같은 방식으로 분리합니다.
+ */
+@Component
+public class ReadCoalescer {
+    private final SingleFlight<List<Long>, DiaryResultData> diary = new SingleFlight<>();
+
+    private final SingleFlight<Long, List<DiarySummaryData>> diaries = new SingleFlight<>();
+
+    private final SingleFlight<List<Long>, List<Task>> tasks = new SingleFlight<>();
+
+    /**
+     * 다이어리 한 건 조회를 합칩니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param id      다이어리 식별자
+     * @param loader  실제 조회
+     * @return 조회한 다이어리
+     */
+    public DiaryResultData diary(Long ownerId, Long id, Supplier<DiaryResultData> loader) {
+        return diary.execute(List.of(ownerId, id), loader);
+    }
+
+    /**
+     * 사용자의 다이어리 목록 조회를 합칩니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param loader  실제 조회
+     * @return 조회한 다이어리 목록
+     */
+    public List<DiarySummaryData> diaries(Long ownerId, Supplier<List<DiarySummaryData>> loader) {
+        return diaries.execute(ownerId, loader);
+    }
+
+    /**
+     * 다이어리의 할 일 목록 조회를 합칩니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param diaryId 다이어리 식별자
+     * @param loader  실제 조회
+     * @return 조회한 할 일 목록
+     */
+    public List<Task> tasks(Long ownerId, Long diaryId, Supplier<List<Task>> loader) {
+        return tasks.execute(List.of(ownerId, diaryId), loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiaryEvent(DiaryEvent event) {
+        diary.forget(List.of(event.getOwnerId(), event.getDiary().getId()));
+        diaries.forget(event.getOwnerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        tasks.forget(List.of(event.getOwnerId(), event.getDiaryId()));
+
+        // 다이어리의 할 일 집계 값도 바뀌었을 수 있습니다.
+        diary.forget(List.of(event.getOwnerId(), event.getDiaryId()));
+        diaries.forget(event.getOwnerId());
+    }
+
+    @EventListener
+    public void onInvalidation(InvalidationEvent event) {
+        // 실행 중인 조회만 합치므로 놓친 변경 때문에 오래 남는 값이 없습니다.
+        if (event.getType() == InvalidationEvent.Type.RESET) {
+            return;
+        }
+        if (event.getKind() == InvalidationEvent.Kind.TASK) {
+            tasks.forget(List.of(event.getOwnerId(), event.getDiaryId()));
+        }
+        diary.forget(List.of(event.getOwnerId(), event.getDiaryId()));
+        diaries.forget(event.getOwnerId());
+    }
+
+    /**
+     * 실제로 실행한 저장소 조회 수를 반환합니다.
+     *
+     * @return 실행한 조회 수
+     */
+    public long flightCount() {
+        return diary.flightCount() + diaries.flightCount() + tasks.flightCount();
+    }
+
+    /**
+     * 다른 요청의 조회 결과를 함께 받은 요청 수를 반환합니다.
+     *
+     * @return 합쳐진 요청 수
+     */
+    public long coalescedCount() {
+        return diary.coalescedCount() + diaries.coalescedCount() + tasks.coalescedCount();
+    }
+}
@@ -0,0 +1,104 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.domain.ChangeRecord;
+import com.codesoom.project.domain.ChangeRecordRepository;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.dto.SyncResultData;
+import com.codesoom.project.errors.InvalidSyncTokenException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 변경분 동기화 관련 비즈니스 로직을 담당합니다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class SyncService {
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final ChangeRecordRepository changeRecordRepository;
+
+    private final DiaryRepository diaryRepository;
+
+    private final TaskRepository taskRepository;
+
+    /**
+     * 주어진 토큰 이후에 바뀐 다이어리와 할 일을 반환합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param token   이전 동기화에서 받은 토큰
+     * @param limit   한 번에 받을 최대 변경 수
+     * @return 변경된 레코드와 삭제된 레코드 식별자, 다음 토큰
+     * @throws InvalidSyncTokenException 토큰이 유효하지 않을 경우
+     */
+    public SyncResultData sync(Long ownerId, String token, int limit) {
+        long since = parseToken(token);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        List<ChangeRecord> changes = changeRecordRepository
+                .findAllByOwnerIdAndSeqGreaterThanOrderBySeq(
+                        ownerId, since, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        List<Long> diaryIds = new ArrayList<>();
+        List<Long> taskIds = new ArrayList<>();
+        List<Long> deletedDiaryIds = new ArrayList<>();
+        List<Long> deletedTaskIds = new ArrayList<>();
+
+        for (ChangeRecord change : changes) {
+            boolean isDiary = change.getEntityType() == ChangeRecord.EntityType.DIARY;
+            if (change.isDeleted()) {
+                (isDiary ? deletedDiaryIds : deletedTaskIds).add(change.getEntityId());
+            } else {
+                (isDiary ? diaryIds : taskIds).add(change.getEntityId());
+            }
+        }
+
+        List<Diary> diaries = diaryIds.isEmpty()
+                ? List.of()
+                : diaryRepository.findAllByOwnerIdAndIdIn(ownerId, diaryIds);
+        List<Task> tasks = taskIds.isEmpty()
+                ? List.of()
+                : taskRepository.findAllByOwnerIdAndIdIn(ownerId, taskIds);
+
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+
+        return SyncResultData.builder()
+                .diaries(diaries)
+                .tasks(tasks)
+                .deletedDiaryIds(deletedDiaryIds)
+                .deletedTaskIds(deletedTaskIds)
+                .nextToken(String.valueOf(next))
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private long parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            long since = Long.parseLong(token);
+            if (since < 0) {
+                throw new InvalidSyncTokenException(token);
+            }
+            return since;
+        } catch (NumberFormatException e) {
+            throw new InvalidSyncTokenException(token);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 다이어리의 할 일 집계 값이 실제 할 일 수와 어긋난 경우를 찾아 바로잡습니다.
+ *
+ * 집계 값은 {@link TaskService}가 같은 트랜잭션에서 갱신하지만, 직접 수정한 데이터나
+ * 기존 데이터처럼 그 경로를 거치지 않은 변경은 이 작업이 맞춰 줍니다.
+ * 다이어리 행을 잠근 뒤 다시 세므로 동시에 들어온 할 일 변경과 섞이지 않습니다.
+ * 바로잡는 트랜잭션은 다이어리 주인을 고정해 실행하므로 다른 샤드로 옮긴 데이터는 건드리지 않습니다.
+ */
+@Component
+@Lazy(false)
+public class TaskCountReconciler {
+    private final DiaryRepository diaryRepository;
+
+    private final TaskRepository taskRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardRouter shardRouter;
+
+    private final int batchSize;
+
+    private final AtomicLong repairedCount = new AtomicLong();
+
+    public TaskCountReconciler(
+            DiaryRepository diaryRepository,
+            TaskRepository taskRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            @Value("${diaries.task-counts.batch-size:500}") int batchSize
+    ) {
+        this.diaryRepository = diaryRepository;
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 집계 값이 어긋난 다이어리를 찾아 다시 셉니다. 샤드마다 한 번에 묶음 크기만큼만 처리합니다.
+     */
+    @Scheduled(fixedDelayString = "${diaries.task-counts.reconcile-interval-millis:3600000}")
+    public void reconcile() {
+        shardRouter.forEachShard(() -> {
+            for (Long diaryId : diaryRepository.findIdsWithTaskCountDrift(batchSize)) {
+                diaryRepository.findById(diaryId).ifPresent(diary ->
+                        shardRouter.runForOwner(diary.getOwnerId(), () ->
+                                transactionTemplate.executeWithoutResult(status -> reconcile(diaryId))));
+            }
+        });
+    }
+
+    /**
+     * 지금까지 바로잡은 다이어리 수를 반환합니다.
+     *
+     * @return 바로잡은 다이어리 수
+     */
+    public long repairedCount() {
+        return repairedCount.get();
+    }
+
+    private void reconcile(Long diaryId) {
+        diaryRepository.findForUpdateById(diaryId).ifPresent(diary -> {
+            boolean repaired = diary.reconcileTaskCounts(
+                    taskRepository.countByOwnerIdAndDiaryId(diary.getOwnerId(), diaryId),
+                    taskRepository.countByOwnerIdAndDiaryIdAndDoneTrue(diary.getOwnerId(), diaryId));
+
+            if (repaired) {
+                repairedCount.incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.OrderKey;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.events.TaskEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 순서 키가 너무 길어진 다이어리의 할 일 순서 키를 고르게 다시 매깁니다.
+ *
+ * 같은 자리에 할 일을 반복해서 끼워 넣으면 순서 키가 한 자리씩 길어지므로 주기적으로 정리합니다.
+ * 순서 키가 없는 기존 할 일과 순서 키가 겹친 할 일도 이때 새 순서 키를 받습니다.
+ * 다이어리마다 별도 트랜잭션으로 처리하고, 처리하는 동안 할 일을 추가하거나 옮기는 트랜잭션처럼
+ * 다이어리 행을 먼저 잠근 뒤 해당 다이어리의 할 일을 잠급니다.
+ * 트랜잭션은 다이어리 주인의 샤드에서 실행되어, 샤드를 옮기는 중이면 쓰기 확인에 막힙니다.
+ */
+@Component
+@Lazy(false)
+public class TaskOrderRebalancer {
+    private final TaskRepository taskRepository;
+
+    private final DiaryRepository diaryRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardRouter shardRouter;
+
+    private final int maxKeyLength;
+
+    private final AtomicLong rebalancedCount = new AtomicLong();
+
+    public TaskOrderRebalancer(
+            TaskRepository taskRepository,
+            DiaryRepository diaryRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            @Value("${tasks.ordering.max-key-length:12}") int maxKeyLength
+    ) {
+        this.taskRepository = taskRepository;
+        this.diaryRepository = diaryRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    /**
+     * 순서 키를 다시 매겨야 하는 다이어리를 찾아 정리합니다.
+     */
+    @Scheduled(fixedDelayString = "${tasks.ordering.rebalance-interval-millis:3600000}")
+    public void rebalance() {
+        shardRouter.forEachShard(() -> {
+            for (Long diaryId : taskRepository.findDiaryIdsToRebalance(maxKeyLength)) {
+                diaryRepository.findById(diaryId).ifPresent(diary ->
+                        shardRouter.runForOwner(diary.getOwnerId(), () ->
+                                transactionTemplate.executeWithoutResult(status -> rebalance(diaryId))));
+            }
+        });
+    }
+
+    /**
+     * 지금까지 순서 키를 다시 매긴 할 일 수를 반환합니다.
+     *
+     * @return 순서 키를 바꾼 할 일 수
+     */
+    public long rebalancedCount() {
+        return rebalancedCount.get();
+    }
+
+    private void rebalance(Long diaryId) {
+        diaryRepository.findForUpdateById(diaryId);
+
+        List<Task> tasks = taskRepository.findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(diaryId);
+        List<String> keys = OrderKey.evenlySpaced(tasks.size());
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            String key = keys.get(i);
+            if (key.equals(task.getOrderKey())) {
+                continue;
+            }
+
+            task.moveTo(key);
+            eventPublisher.publishEvent(TaskEvent.updated(task));
+            rebalancedCount.incrementAndGet();
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.codesoom.project.application;
 
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.OrderKey;
 import com.codesoom.project.domain.Task;
 import com.codesoom.project.domain.TaskRepository;
 import com.codesoom.project.dto.TaskCreateData;
+import com.codesoom.project.dto.TaskMoveData;
 import com.codesoom.project.dto.TaskResultData;
 import com.codesoom.project.dto.TaskUpdateData;
+import com.codesoom.project.errors.DiaryNotFoundException;
 import com.codesoom.project.errors.TaskNotFoundException;
+import com.codesoom.project.errors.TaskOrderConflictException;
+import com.codesoom.project.events.TaskEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * 할 일 관련 비즈니스 로직을 담당합니다.
+ *
+ * 할 일의 순서는 순서 키로 정해지므로 순서를 바꿀 때는 옮긴 할 일 한 건만 수정됩니다.
+ * 할 일을 바꿀 때는 다이어리 행을 먼저 잠가 같은 순서 키가 만들어지지 않게 하고,
+ * 변경 순번 카운터와 잠그는 순서를 맞춥니다.
+ * 할 일이 추가, 삭제되거나 완료 여부가 바뀌면 같은 트랜잭션에서 다이어리의 할 일 집계 값을 함께 바꿉니다.
  */
 @Service
 @Transactional
@@ -21,87 +34,203 @@ import java.util.List;
 public class TaskService {
     private final TaskRepository taskRepository;
 
+    private final DiaryRepository diaryRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final NegativeLookupCache negativeLookupCache;
+
+    private final ReadCoalescer readCoalescer;
+
     /**
-     * 전체 할 일 목록을 반환합니다.
+     * 주어진 사용자가 다이어리에 등록한 전체 할 일 목록을 순서대로 반환합니다.
      *
+     * @param ownerId 사용자 식별자
+     * @param diaryId 다이어리 식별자
      * @return 전체 할 일 목록
      */
-    public List<Task> getTasks() {
-        return taskRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Task> getTasks(Long ownerId, Long diaryId) {
+        return readCoalescer.tasks(ownerId, diaryId,
+                () -> taskRepository.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(ownerId, diaryId));
     }
 
     /**
      * 주어진 id에 해당하는 할 일을 반환합니다.
      *
-     * @param id 할 일 식별자
+     * @param ownerId 사용자 식별자
+     * @param id      할 일 식별자
      * @return 주어진 id를 갖는 할 일
      * @throws TaskNotFoundException 할 일을 찾을 수 없을 경우
      */
-    public Task getTask(Long id) {
-        return findTask(id);
+    @Transactional(readOnly = true)
+    public Task getTask(Long ownerId, Long id) {
+        return findTask(ownerId, id);
     }
 
     /**
-     * 새로운 할 일을 등록합니다.
+     * 새로운 할 일을 목록 맨 뒤에 등록합니다.
      *
+     * @param ownerId        사용자 식별자
+     * @param diaryId        다이어리 식별자
      * @param taskCreateData 추가할 할 일 정보
      * @return 추가된 할 일
-     * @throws TaskNotFoundException 할 일을 찾을 수 없을 경우
+     * @throws DiaryNotFoundException 사용자의 다이어리를 찾을 수 없을 경우
      */
     public TaskResultData createTask(
+            Long ownerId,
+            Long diaryId,
             TaskCreateData taskCreateData
     ) {
-        Task task = taskCreateData.toEntity();
+        lockDiary(ownerId, diaryId);
+
+        String lastKey = taskRepository
+                .findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(ownerId, diaryId)
+                .map(Task::getOrderKey)
+                .orElse(null);
+
+        Task task = taskCreateData.toEntity(ownerId, diaryId, OrderKey.between(lastKey, null));
 
         taskRepository.save(task);
 
+        diaryRepository.adjustTaskCounts(diaryId, ownerId, 1, task.isDone() ? 1 : 0);
+
+        eventPublisher.publishEvent(TaskEvent.created(task));
+
         return TaskResultData.of(task);
     }
 
     /**
      * 주어진 id에 해당하는 할 일을 수정합니다.
      *
-     * @param id 할 일 식별자
+     * @param ownerId        사용자 식별자
+     * @param id             할 일 식별자
      * @param taskUpdateData 수정할 할 일 정보
      * @return 수정된 할 일
      * @throws TaskNotFoundException 할 일을 찾을 수 없을 경우
      */
     public TaskResultData updateTask(
+            Long ownerId,
             Long id,
             TaskUpdateData taskUpdateData
     ) {
-        Task task = findTask(id);
+        Task task = findTask(ownerId, id);
+        lockDiary(ownerId, task.getDiaryId());
 
         task.updateWith(Task.builder()
                 .title(taskUpdateData.getTitle())
                 .build());
 
+        Boolean done = taskUpdateData.getDone();
+        if (done != null && task.markDone(done)) {
+            diaryRepository.adjustTaskCounts(task.getDiaryId(), ownerId, 0, done ? 1 : -1);
+        }
+
+        eventPublisher.publishEvent(TaskEvent.updated(task));
+
+        return TaskResultData.of(task);
+    }
+
+    /**
+     * 주어진 id에 해당하는 할 일을 앞뒤 할 일 사이로 옮깁니다.
+     *
+     * @param ownerId      사용자 식별자
+     * @param id           할 일 식별자
+     * @param taskMoveData 옮긴 뒤 앞뒤에 올 할 일
+     * @return 옮긴 할 일
+     * @throws TaskNotFoundException      할 일을 찾을 수 없을 경우
+     * @throws DiaryNotFoundException     할 일의 다이어리를 찾을 수 없을 경우
+     * @throws TaskOrderConflictException 앞뒤 할 일의 순서가 맞지 않아 옮길 수 없을 경우
+     */
+    public TaskResultData moveTask(
+            Long ownerId,
+            Long id,
+            TaskMoveData taskMoveData
+    ) {
+        Task task = findTask(ownerId, id);
+        lockDiary(ownerId, task.getDiaryId());
+
+        Long previousTaskId = taskMoveData.getPreviousTaskId();
+        Long nextTaskId = taskMoveData.getNextTaskId();
+
+        try {
+            task.moveTo(OrderKey.between(
+                    neighbourKey(ownerId, task, previousTaskId),
+                    neighbourKey(ownerId, task, nextTaskId)));
+        } catch (IllegalArgumentException e) {
+            throw new TaskOrderConflictException(id, previousTaskId, nextTaskId);
+        }
+
+        eventPublisher.publishEvent(TaskEvent.updated(task));
+
         return TaskResultData.of(task);
     }
 
     /**
      * 주어진 id에 해당하는 할 일을 삭제합니다.
      *
-     * @param id 할 일 식별자
+     * @param ownerId 사용자 식별자
+     * @param id      할 일 식별자
      * @return 삭제된 할 일
      * @throws TaskNotFoundException 할 일을 찾을 수 없을 경우
      */
-    public Task deleteTask(Long id) {
-        Task task = findTask(id);
+    public Task deleteTask(Long ownerId, Long id) {
+        Task task = findTask(ownerId, id);
+        lockDiary(ownerId, task.getDiaryId());
 
-        taskRepository.delete(task);
+        task.markDeleted(LocalDateTime.now());
+
+        diaryRepository.adjustTaskCounts(task.getDiaryId(), ownerId, -1, task.isDone() ? -1 : 0);
+
+        eventPublisher.publishEvent(TaskEvent.deleted(task));
 
         return task;
     }
 
     /**
-     * 주어진 id에 해당하는 할 일을 반환합니다.
+     * 주어진 사용자가 소유한 할 일 중 id에 해당하는 할 일을 반환합니다.
+     * 없다고 확정된 id는 저장소를 조회하지 않습니다.
      *
-     * @param id 할 일 식별자
+     * @param ownerId 사용자 식별자
+     * @param id      할 일 식별자
      * @return 주어진 id를 갖는 할 일
      */
-    public Task findTask(Long id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
+    public Task findTask(Long ownerId, Long id) {
+        if (negativeLookupCache.isKnownMissing(NegativeLookupCache.Kind.TASK, ownerId, id)) {
+            throw new TaskNotFoundException(id);
+        }
+
+        return taskRepository.findByIdAndOwnerId(id, ownerId)
+                .orElseThrow(() -> {
+                    negativeLookupCache.recordMiss(NegativeLookupCache.Kind.TASK, ownerId, id);
+                    return new TaskNotFoundException(id);
+                });
+    }
+
+    /**
+     * 다이어리 행을 잠가 같은 다이어리의 순서 키를 정하는 트랜잭션이 차례로 실행되게 합니다.
+     * 그러지 않으면 동시에 같은 이웃을 읽은 두 트랜잭션이 같은 순서 키를 만듭니다.
+     * 할 일을 바꾸는 트랜잭션은 모두 다이어리, 할 일, 변경 순번 카운터 순서로 잠급니다.
+     */
+    private void lockDiary(Long ownerId, Long diaryId) {
+        diaryRepository.findForUpdateByIdAndOwnerId(diaryId, ownerId)
+                .orElseThrow(() -> new DiaryNotFoundException(diaryId));
+    }
+
+    /**
+     * 옮길 자리의 이웃 할 일의 순서 키를 반환합니다. 이웃이 없으면 null을 반환합니다.
+     */
+    private String neighbourKey(Long ownerId, Task task, Long neighbourId) {
+        if (neighbourId == null) {
+            return null;
+        }
+
+        Task neighbour = findTask(ownerId, neighbourId);
+        if (neighbour.getId().equals(task.getId())
+                || !neighbour.getDiaryId().equals(task.getDiaryId())
+                || neighbour.getOrderKey() == null) {
+            throw new IllegalArgumentException("Task " + neighbourId + " is not a valid neighbour");
+        }
+        return neighbour.getOrderKey();
     }
 }
@@ -0,0 +1,92 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * 보관 기간이 지난 삭제 표시 행을 작은 묶음 단위로 정리합니다.
+ *
+ * 묶음마다 별도 트랜잭션으로 처리해 잠금을 짧게 유지하고, 샤드마다 따로 정리합니다.
+ * 다른 빈이 참조하지 않으므로 지연 초기화 설정에서도 바로 생성되도록 합니다.
+ */
+@Component
+@Lazy(false)
+public class TombstoneCompactor {
+    private final DiaryRepository diaryRepository;
+
+    private final TaskRepository taskRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardRouter shardRouter;
+
+    private final long retentionDays;
+
+    private final int batchSize;
+
+    private final AtomicLong purgedCount = new AtomicLong();
+
+    public TombstoneCompactor(
+            DiaryRepository diaryRepository,
+            TaskRepository taskRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            @Value("${tombstones.retention-days:30}") long retentionDays,
+            @Value("${tombstones.batch-size:500}") int batchSize
+    ) {
+        this.diaryRepository = diaryRepository;
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 보관 기간이 지난 다이어리와 할 일을 지웁니다.
+     */
+    @Scheduled(fixedDelayString = "${tombstones.purge-interval-millis:600000}")
+    public void purge() {
+        LocalDateTime deletedBefore = LocalDateTime.now().minusDays(retentionDays);
+
+        shardRouter.forEachShard(() -> {
+            purgeInBatches(() -> taskRepository.purgeDeletedBefore(deletedBefore, batchSize));
+            purgeInBatches(() -> diaryRepository.purgeDeletedBefore(deletedBefore, batchSize));
+        });
+    }
+
+    /**
+     * 지금까지 정리한 행 수를 반환합니다.
+     *
+     * @return 정리한 행 수
+     */
+    public long purgedCount() {
+        return purgedCount.get();
+    }
+
+    private void purgeInBatches(IntSupplier batch) {
+        while (true) {
+            Integer purged = transactionTemplate.execute(status -> batch.getAsInt());
+            if (purged == null || purged == 0) {
+                return;
+            }
+
+            purgedCount.addAndGet(purged);
+
+            if (purged < batchSize) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.codesoom.project.audit;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * 감사 기록 한 건.
+ *
+ * 저널에는 크기가 고정된 레코드로 기록합니다. 레코드 앞의 CRC32와 0보다 큰 순번으로
+ * 끝까지 기록된 레코드인지 확인하므로, 파일의 0으로 채워진 부분이나 반쯤 기록된 레코드는 읽지 않습니다.
+ * 열거형은 순서값으로 기록하므로 새 값은 뒤에만 추가합니다.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class AuditEntry {
+    public enum EntityType {
+        DIARY,
+        TASK
+    }
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    /**
+     * 레코드 크기. crc(4) + seq(8) + timestamp(8) + entityType(1) + action(1)
+     * + ownerId(8) + entityId(8) + diaryId(8)에 2바이트를 채운 값입니다.
+     */
+    public static final int RECORD_SIZE = 48;
+
+    private final long seq;
+
+    private final long timestamp;
+
+    private final EntityType entityType;
+
+    private final Action action;
+
+    private final long ownerId;
+
+    private final long entityId;
+
+    private final long diaryId;
+
+    @Builder
+    public AuditEntry(long seq, long timestamp, EntityType entityType, Action action,
+                      long ownerId, long entityId, long diaryId) {
+        this.seq = seq;
+        this.timestamp = timestamp;
+        this.entityType = entityType;
+        this.action = action;
+        this.ownerId = ownerId;
+        this.entityId = entityId;
+        this.diaryId = diaryId;
+    }
+
+    /**
+     * 주어진 순번으로 레코드를 만들어 record에 씁니다.
+     *
+     * @param seq    저널 순번
+     * @param record RECORD_SIZE 크기의 버퍼
+     */
+    void encode(long seq, byte[] record) {
+        ByteBuffer.wrap(record)
+                .putInt(0)
+                .putLong(seq)
+                .putLong(timestamp)
+                .put((byte) entityType.ordinal())
+                .put((byte) action.ordinal())
+                .putLong(ownerId)
+                .putLong(entityId)
+                .putLong(diaryId)
+                .putShort((short) 0)
+                .putInt(0, checksum(record));
+    }
+
+    /**
+     * 레코드를 읽습니다.
+     *
+     * @param record RECORD_SIZE 크기의 버퍼
+     * @return 끝까지 기록된 레코드면 감사 기록, 아니면 null
+     */
+    static AuditEntry decode(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+
+        int crc = buffer.getInt();
+        long seq = buffer.getLong();
+        if (seq <= 0 || crc != checksum(record)) {
+            return null;
+        }
+
+        long timestamp = buffer.getLong();
+        int entityType = buffer.get();
+        int action = buffer.get();
+        if (entityType < 0 || entityType >= EntityType.values().length
+                || action < 0 || action >= Action.values().length) {
+            return null;
+        }
+
+        return new AuditEntry(seq, timestamp,
+                EntityType.values()[entityType], Action.values()[action],
+                buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, Integer.BYTES, RECORD_SIZE - Integer.BYTES);
+        return (int) crc.getValue();
+    }
+}
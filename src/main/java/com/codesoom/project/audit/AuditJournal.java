@@ -0,0 +1,174 @@
+package com.codesoom.project.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 메모리 매핑한 세그먼트 파일에 감사 기록을 덧붙이는 저널.
+ *
+ * 세그먼트는 크기가 고정된 파일이며, 가득 차면 다음 순번으로 이름 붙인 새 세그먼트로 넘어갑니다.
+ * 기록은 매핑된 페이지에 쓰는 것으로 끝나므로 프로세스가 죽어도 남고,
+ * 전원 장애까지 견디려면 {@link #force()}로 디스크에 내려야 합니다.
+ * 한 스레드에서만 사용합니다.
+ */
+public class AuditJournal implements Closeable {
+    static final String SEGMENT_PREFIX = "audit-";
+
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+
+    private final int segmentBytes;
+
+    private final byte[] record = new byte[AuditEntry.RECORD_SIZE];
+
+    private FileChannel channel;
+
+    private MappedByteBuffer segment;
+
+    private long lastSeq;
+
+    private AuditJournal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - segmentBytes % AuditEntry.RECORD_SIZE;
+    }
+
+    /**
+     * 저널을 엽니다. 기존 세그먼트가 있으면 마지막으로 온전히 기록된 레코드 다음부터 이어 씁니다.
+     *
+     * @param directory    세그먼트를 둘 디렉터리
+     * @param segmentBytes 세그먼트 크기, 레코드 크기의 배수로 내림합니다
+     * @return 열린 저널
+     * @throws IOException 세그먼트를 열 수 없을 경우
+     */
+    public static AuditJournal open(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes < AuditEntry.RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment is smaller than a record: " + segmentBytes);
+        }
+
+        Files.createDirectories(directory);
+
+        AuditJournal journal = new AuditJournal(directory, segmentBytes);
+
+        List<Path> segments = AuditJournalReader.segments(directory);
+        if (segments.isEmpty()) {
+            journal.startSegment(1);
+        } else {
+            journal.recover(segments.get(segments.size() - 1));
+        }
+        return journal;
+    }
+
+    /**
+     * 감사 기록을 덧붙입니다.
+     *
+     * @param entry 감사 기록, 순번은 무시합니다
+     * @return 부여한 순번
+     * @throws IOException 새 세그먼트를 만들 수 없을 경우
+     */
+    public long append(AuditEntry entry) throws IOException {
+        if (segment.remaining() < AuditEntry.RECORD_SIZE) {
+            segment.force();
+            channel.close();
+            startSegment(lastSeq + 1);
+        }
+
+        long seq = lastSeq + 1;
+        entry.encode(seq, record);
+        segment.put(record);
+        lastSeq = seq;
+        return seq;
+    }
+
+    /**
+     * 지금까지 덧붙인 기록을 디스크에 내립니다.
+     */
+    public void force() {
+        segment.force();
+    }
+
+    /**
+     * 마지막으로 부여한 순번을 반환합니다.
+     *
+     * @return 마지막 순번, 기록이 없으면 0
+     */
+    public long lastSeq() {
+        return lastSeq;
+    }
+
+    @Override
+    public void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    private void startSegment(long firstSeq) throws IOException {
+        Path path = directory.resolve(segmentName(firstSeq));
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        lastSeq = firstSeq - 1;
+    }
+
+    private void recover(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                size - size % AuditEntry.RECORD_SIZE);
+        lastSeq = firstSeq(path) - 1;
+
+        while (segment.remaining() >= AuditEntry.RECORD_SIZE) {
+            int position = segment.position();
+            segment.get(record);
+
+            AuditEntry entry = AuditEntry.decode(record);
+            if (entry == null || entry.getSeq() != lastSeq + 1) {
+                segment.position(position);
+                break;
+            }
+            lastSeq = entry.getSeq();
+        }
+
+        clearTail();
+    }
+
+    /**
+     * 온전하지 않은 레코드 뒤에 남은 기록을 지웁니다.
+     * 장애 때 페이지가 순서 없이 내려가 뒤쪽 레코드만 남았다면, 이어 쓴 레코드와 순번이 맞아
+     * 되살아나지 않도록 합니다.
+     */
+    private void clearTail() {
+        int position = segment.position();
+        byte[] empty = new byte[AuditEntry.RECORD_SIZE];
+
+        while (segment.remaining() >= AuditEntry.RECORD_SIZE) {
+            int slot = segment.position();
+            segment.get(record);
+            if (Arrays.equals(record, empty)) {
+                break;
+            }
+            segment.position(slot);
+            segment.put(empty);
+        }
+
+        segment.position(position);
+    }
+
+    static String segmentName(long firstSeq) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX);
+    }
+
+    static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(
+                SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,120 @@
+package com.codesoom.project.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 감사 저널을 순번 순서대로 읽습니다.
+ *
+ * 실행 중인 저널도 읽을 수 있으며, 각 세그먼트에서 온전히 기록된 레코드까지만 읽습니다.
+ * 명령행에서는 디렉터리와 시작 순번을 받아 기록을 한 줄씩 출력합니다.
+ */
+public final class AuditJournalReader {
+    private AuditJournalReader() {
+    }
+
+    /**
+     * 감사 저널을 출력합니다.
+     *
+     * @param args 저널 디렉터리, 선택적으로 시작 순번
+     * @throws IOException 세그먼트를 읽을 수 없을 경우
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: AuditJournalReader <directory> [from-seq]");
+            System.exit(1);
+        }
+
+        long fromSeq = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        read(Paths.get(args[0]), fromSeq, entry -> System.out.printf("%d %s %s %s id=%d owner=%d diary=%d%n",
+                entry.getSeq(),
+                Instant.ofEpochMilli(entry.getTimestamp()),
+                entry.getAction(),
+                entry.getEntityType(),
+                entry.getEntityId(),
+                entry.getOwnerId(),
+                entry.getDiaryId()));
+    }
+
+    /**
+     * 주어진 순번부터 감사 기록을 차례로 전달합니다.
+     *
+     * @param directory 저널 디렉터리
+     * @param fromSeq   시작 순번
+     * @param consumer  감사 기록을 받을 함수
+     * @throws IOException 세그먼트를 읽을 수 없을 경우
+     */
+    public static void read(Path directory, long fromSeq, Consumer<AuditEntry> consumer)
+            throws IOException {
+        List<Path> segments = segments(directory);
+
+        for (int i = 0; i < segments.size(); i++) {
+            boolean hasNext = i + 1 < segments.size();
+            if (hasNext && AuditJournal.firstSeq(segments.get(i + 1)) <= fromSeq) {
+                continue;
+            }
+            readSegment(segments.get(i), fromSeq, consumer);
+        }
+    }
+
+    /**
+     * 디렉터리의 세그먼트를 순번 순서대로 반환합니다.
+     *
+     * @param directory 저널 디렉터리
+     * @return 세그먼트 경로 목록
+     * @throws IOException 디렉터리를 읽을 수 없을 경우
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(AuditJournal.SEGMENT_PREFIX)
+                                && name.endsWith(AuditJournal.SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void readSegment(Path path, long fromSeq, Consumer<AuditEntry> consumer)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    size - size % AuditEntry.RECORD_SIZE);
+
+            byte[] record = new byte[AuditEntry.RECORD_SIZE];
+            long expectedSeq = AuditJournal.firstSeq(path);
+
+            while (segment.remaining() >= AuditEntry.RECORD_SIZE) {
+                segment.get(record);
+
+                AuditEntry entry = AuditEntry.decode(record);
+                if (entry == null || entry.getSeq() != expectedSeq) {
+                    return;
+                }
+                expectedSeq++;
+
+                if (entry.getSeq() >= fromSeq) {
+                    consumer.accept(entry);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.codesoom.project.audit;
+
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.TaskEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 커밋된 다이어리와 할 일 변경을 감사 저널에 비동기로 기록합니다.
+ *
+ * 서비스 스레드는 잠금 없는 대기열에 기록을 넣기만 하고, 전용 스레드 하나가 대기열을 비워 저널에 씁니다.
+ * 쓰는 동안 쌓인 기록은 다음 묶음에 함께 쓰고 디스크에 한 번 내리므로(group commit),
+ * 변경이 몰려도 디스크 동기화 횟수는 늘지 않습니다.
+ * 대기열이 가득 차면 서비스를 막지 않도록 기록을 버리고 그 수를 셉니다.
+ * 다른 빈이 참조하지 않으므로 지연 초기화 설정에서도 바로 생성되도록 합니다.
+ */
+@Component
+@Lazy(false)
+public class AuditLogger {
+    /**
+     * 저널을 디스크에 내리는 시점.
+     */
+    public enum FsyncPolicy {
+        /** 운영체제에 맡깁니다. 프로세스 장애에는 안전하지만 전원 장애 때 최근 기록을 잃을 수 있습니다. */
+        NEVER,
+        /** 묶음을 쓸 때마다 내립니다. */
+        BATCH,
+        /** 정해진 간격마다 내립니다. */
+        INTERVAL
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentLinkedQueue<AuditEntry> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AuditJournal journal;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final long fsyncIntervalNanos;
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    private volatile boolean parked;
+
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong forceCount = new AtomicLong();
+
+    public AuditLogger(
+            @Value("${audit.journal.enabled:false}") boolean enabled,
+            @Value("${audit.journal.directory:audit}") String directory,
+            @Value("${audit.journal.segment-bytes:67108864}") int segmentBytes,
+            @Value("${audit.journal.fsync:BATCH}") FsyncPolicy fsyncPolicy,
+            @Value("${audit.journal.fsync-interval-millis:1000}") long fsyncIntervalMillis,
+            @Value("${audit.journal.capacity:65536}") int capacity,
+            @Value("${audit.journal.batch-size:1024}") int batchSize
+    ) throws IOException {
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+
+        if (!enabled) {
+            this.journal = null;
+            this.writer = null;
+            return;
+        }
+
+        this.journal = AuditJournal.open(Paths.get(directory), segmentBytes);
+        this.writer = new Thread(this::drain, "audit-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiaryEvent(DiaryEvent event) {
+        Long id = event.getDiary().getId();
+        record(AuditEntry.EntityType.DIARY, AuditEntry.Action.valueOf(event.getType().name()),
+                event.getOwnerId(), id, id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        record(AuditEntry.EntityType.TASK, AuditEntry.Action.valueOf(event.getType().name()),
+                event.getOwnerId(), event.getTask().getId(), event.getDiaryId());
+    }
+
+    /**
+     * 저널에 기록한 수를 반환합니다.
+     *
+     * @return 기록한 수
+     */
+    public long writtenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * 대기열이 가득 차 버린 기록 수를 반환합니다.
+     *
+     * @return 버린 기록 수
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 저널에 쓰지 못한 기록 수를 반환합니다.
+     *
+     * @return 쓰지 못한 기록 수
+     */
+    public long failedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 저널을 디스크에 내린 횟수를 반환합니다.
+     *
+     * @return 내린 횟수
+     */
+    public long forceCount() {
+        return forceCount.get();
+    }
+
+    /**
+     * 남은 기록을 모두 쓰고 저널을 닫습니다.
+     *
+     * @throws InterruptedException 기다리는 동안 인터럽트된 경우
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void record(AuditEntry.EntityType entityType, AuditEntry.Action action,
+                        Long ownerId, Long entityId, Long diaryId) {
+        if (writer == null) {
+            return;
+        }
+
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            droppedCount.incrementAndGet();
+            return;
+        }
+
+        queue.offer(AuditEntry.builder()
+                .timestamp(System.currentTimeMillis())
+                .entityType(entityType)
+                .action(action)
+                .ownerId(ownerId)
+                .entityId(entityId)
+                .diaryId(diaryId)
+                .build());
+
+        if (parked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drain() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+
+        while (true) {
+            AuditEntry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                batch.add(entry);
+            }
+
+            if (!batch.isEmpty()) {
+                pending.addAndGet(-batch.size());
+                dirty |= write(batch);
+                batch.clear();
+
+                if (fsyncPolicy == FsyncPolicy.BATCH && dirty) {
+                    force();
+                    dirty = false;
+                    lastForce = System.nanoTime();
+                }
+            } else if (!running) {
+                break;
+            } else {
+                parked = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(this, fsyncPolicy == FsyncPolicy.INTERVAL
+                            ? fsyncIntervalNanos : IDLE_PARK_NANOS);
+                }
+                parked = false;
+            }
+
+            if (fsyncPolicy == FsyncPolicy.INTERVAL && dirty
+                    && System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+                force();
+                dirty = false;
+                lastForce = System.nanoTime();
+            }
+        }
+
+        try {
+            journal.close();
+        } catch (IOException e) {
+            failedCount.incrementAndGet();
+        }
+    }
+
+    private boolean write(List<AuditEntry> batch) {
+        int written = 0;
+        try {
+            for (AuditEntry entry : batch) {
+                journal.append(entry);
+                written++;
+            }
+        } catch (IOException | RuntimeException e) {
+            failedCount.addAndGet(batch.size() - written);
+        }
+
+        writtenCount.addAndGet(written);
+        return written > 0;
+    }
+
+    private void force() {
+        journal.force();
+        forceCount.incrementAndGet();
+    }
+}
@@ -0,0 +1,55 @@
+package com.codesoom.project.config;
+
+import com.codesoom.project.embedded.EmbeddedDiaryRepository;
+import com.codesoom.project.embedded.EmbeddedStore;
+import com.codesoom.project.embedded.EmbeddedTaskRepository;
+import com.codesoom.project.infra.JpaChangeRecordRepository;
+import com.codesoom.project.infra.JpaDiaryRepository;
+import com.codesoom.project.infra.JpaTaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * 다이어리와 할 일을 내장 저장소에 보관하는 설정.
+ *
+ * repositories.backend가 embedded일 때만 적용되며, JPA 저장소 구성은 {@link InMemoryRepositoryConfig}와 같습니다.
+ * 저장소는 시작할 때 스냅샷과 로그로 상태를 되살려야 하므로 바로 만듭니다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "repositories", name = "backend", havingValue = "embedded")
+@EnableJpaRepositories(
+        basePackageClasses = JpaChangeRecordRepository.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JpaDiaryRepository.class, JpaTaskRepository.class}))
+public class EmbeddedRepositoryConfig {
+    @Bean
+    @Lazy(false)
+    public EmbeddedStore embeddedStore(
+            @Value("${repositories.embedded.directory:data}") String directory,
+            @Value("${repositories.embedded.fsync:true}") boolean fsync,
+            @Value("${repositories.memory.concurrency:16}") int concurrency,
+            @Value("${repositories.embedded.snapshot-log-bytes:67108864}") long snapshotLogBytes
+    ) throws IOException {
+        return EmbeddedStore.open(Paths.get(directory), fsync, concurrency, snapshotLogBytes);
+    }
+
+    @Bean
+    public EmbeddedTaskRepository embeddedTaskRepository(EmbeddedStore embeddedStore) {
+        return embeddedStore.taskRepository();
+    }
+
+    @Bean
+    public EmbeddedDiaryRepository embeddedDiaryRepository(EmbeddedStore embeddedStore) {
+        return embeddedStore.diaryRepository();
+    }
+}
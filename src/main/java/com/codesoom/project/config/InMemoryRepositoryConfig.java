@@ -0,0 +1,42 @@
+package com.codesoom.project.config;
+
+import com.codesoom.project.infra.InMemoryDiaryRepository;
+import com.codesoom.project.infra.InMemoryTaskRepository;
+import com.codesoom.project.infra.JpaChangeRecordRepository;
+import com.codesoom.project.infra.JpaDiaryRepository;
+import com.codesoom.project.infra.JpaTaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * 다이어리와 할 일을 메모리에 보관하는 저장소 설정.
+ *
+ * repositories.backend가 memory일 때만 적용되며, 다이어리와 할 일의 JPA 저장소를 빼고
+ * 나머지 JPA 저장소만 등록합니다. 그렇지 않으면 스프링 부트가 모든 JPA 저장소를 등록합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "repositories", name = "backend", havingValue = "memory")
+@EnableJpaRepositories(
+        basePackageClasses = JpaChangeRecordRepository.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JpaDiaryRepository.class, JpaTaskRepository.class}))
+public class InMemoryRepositoryConfig {
+    @Bean
+    public InMemoryTaskRepository inMemoryTaskRepository(
+            @Value("${repositories.memory.concurrency:16}") int concurrency) {
+        return new InMemoryTaskRepository(concurrency);
+    }
+
+    @Bean
+    public InMemoryDiaryRepository inMemoryDiaryRepository(
+            InMemoryTaskRepository inMemoryTaskRepository,
+            @Value("${repositories.memory.concurrency:16}") int concurrency) {
+        return new InMemoryDiaryRepository(inMemoryTaskRepository, concurrency);
+    }
+}
@@ -0,0 +1,81 @@
+package com.codesoom.project.config;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.TaskResultData;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * JSON 직렬화 설정.
+ *
+ * 응답으로 자주 나가는 타입의 직렬화기를 기동 시점에 미리 만들어 두고,
+ * 리플렉션 대신 바이트코드로 생성된 접근자를 사용합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+    /**
+     * 기동 시점에 직렬화기를 미리 준비할 응답 타입 목록.
+     */
+    public static final List<Class<?>> RESPONSE_TYPES = List.of(
+            Diary.class,
+            Task.class,
+            DiaryResultData.class,
+            TaskResultData.class
+    );
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer tunedObjectMapperCustomizer() {
+        return builder -> builder.postConfigurer(JacksonConfig::tune);
+    }
+
+    /**
+     * 주어진 ObjectMapper에 직렬화 최적화를 적용합니다.
+     *
+     * @param objectMapper 최적화할 ObjectMapper
+     * @return 최적화된 ObjectMapper
+     */
+    public static ObjectMapper tune(ObjectMapper objectMapper) {
+        objectMapper.registerModule(new AfterburnerModule());
+
+        JsonFactory factory = objectMapper.getFactory();
+        if (!factory.isEnabled(JsonFactory.Feature.USE_THREAD_LOCAL_FOR_BUFFER_RECYCLING)) {
+            factory.enable(JsonFactory.Feature.USE_THREAD_LOCAL_FOR_BUFFER_RECYCLING);
+        }
+
+        preResolveSerializers(objectMapper);
+
+        return objectMapper;
+    }
+
+    /**
+     * 응답 타입과 그 목록 타입의 직렬화기를 공유 캐시에 미리 등록합니다.
+     *
+     * @param objectMapper 직렬화기를 등록할 ObjectMapper
+     */
+    private static void preResolveSerializers(ObjectMapper objectMapper) {
+        SerializerProvider provider = objectMapper.getSerializerProviderInstance();
+
+        try {
+            for (Class<?> type : RESPONSE_TYPES) {
+                JavaType listType = objectMapper.getTypeFactory()
+                        .constructCollectionType(List.class, type);
+
+                provider.findTypedValueSerializer(type, true, null);
+                provider.findTypedValueSerializer(listType, true, null);
+            }
+        } catch (JsonMappingException e) {
+            throw new IllegalStateException("Failed to resolve serializers", e);
+        }
+    }
+}
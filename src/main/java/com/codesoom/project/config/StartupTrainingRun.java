@@ -0,0 +1,53 @@
+package com.codesoom.project.config;
+
+import com.codesoom.project.utils.JwtUtil;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * 클래스 데이터 공유 아카이브를 만들기 위한 연습 실행.
+ *
+ * startup.training-run이 true이면 기동 후 대표 요청을 한 번 보내 요청 처리에 쓰이는
+ * 클래스까지 불러온 뒤 종료합니다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "startup", name = "training-run", havingValue = "true")
+public class StartupTrainingRun {
+    private static final long TRAINING_USER_ID = 1L;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String token = context.getBean(JwtUtil.class).encode(TRAINING_USER_ID);
+
+        request(port, "/diaries", token);
+        request(port, "/diaries/0", token);
+
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private static void request(int port, String path, String token) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection)
+                    new URL("http://localhost:" + port + path).openConnection();
+            connection.setRequestProperty(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+            connection.getResponseCode();
+            connection.disconnect();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.codesoom.project.config;
+
+import com.codesoom.project.application.AuthenticationService;
+import com.codesoom.project.deadline.DeadlinePolicy;
+import com.codesoom.project.deadline.DeadlineProperties;
+import com.codesoom.project.interceptors.AuthenticationInterceptor;
+import com.codesoom.project.interceptors.DeadlineInterceptor;
+import com.codesoom.project.interceptors.LoadSheddingInterceptor;
+import com.codesoom.project.interceptors.RateLimitInterceptor;
+import com.codesoom.project.loadshed.LoadShedder;
+import com.codesoom.project.loadshed.LoadSheddingProperties;
+import com.codesoom.project.ratelimit.RateLimitProperties;
+import com.codesoom.project.ratelimit.RateLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 웹 요청 처리 설정.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({
+        RateLimitProperties.class,
+        LoadSheddingProperties.class,
+        DeadlineProperties.class})
+public class WebJavaConfig implements WebMvcConfigurer {
+    private final AuthenticationService authenticationService;
+
+    private final RateLimiter rateLimiter;
+
+    private final LoadShedder loadShedder;
+
+    private final DeadlinePolicy deadlinePolicy;
+
+    public WebJavaConfig(AuthenticationService authenticationService,
+                         RateLimitProperties rateLimitProperties,
+                         LoadSheddingProperties loadSheddingProperties,
+                         DeadlineProperties deadlineProperties) {
+        this.authenticationService = authenticationService;
+        this.rateLimiter = new RateLimiter(rateLimitProperties);
+        this.loadShedder = new LoadShedder(loadSheddingProperties);
+        this.deadlinePolicy = new DeadlinePolicy(deadlineProperties);
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    @Bean
+    public LoadShedder loadShedder() {
+        return loadShedder;
+    }
+
+    @Bean
+    public DeadlinePolicy deadlinePolicy() {
+        return deadlinePolicy;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DeadlineInterceptor(deadlinePolicy))
+                .addPathPatterns("/**");
+        // 과부하일 때는 토큰 검증이나 빈도 제한 조회도 하기 전에 거절합니다.
+        registry.addInterceptor(new LoadSheddingInterceptor(loadShedder))
+                .addPathPatterns("/**");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, authenticationService))
+                .addPathPatterns("/**");
+        registry.addInterceptor(new AuthenticationInterceptor(authenticationService))
+                .addPathPatterns("/diaries/**", "/sync");
+    }
+}
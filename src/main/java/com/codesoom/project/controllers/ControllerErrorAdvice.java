@@ -1,29 +1,165 @@
 package com.codesoom.project.controllers;
 
 import com.codesoom.project.dto.ErrorResponse;
+import com.codesoom.project.dto.FieldErrorData;
+import com.codesoom.project.dto.ValidationErrorResponse;
+import com.codesoom.project.errors.DeadlineExceededException;
 import com.codesoom.project.errors.DiaryNotFoundException;
+import com.codesoom.project.errors.DiaryVersionConflictException;
+import com.codesoom.project.errors.IdempotencyKeyConflictException;
+import com.codesoom.project.errors.InvalidIdempotencyKeyException;
+import com.codesoom.project.errors.InvalidSyncTokenException;
+import com.codesoom.project.errors.InvalidTextEditException;
+import com.codesoom.project.errors.InvalidTokenException;
+import com.codesoom.project.errors.RateLimitExceededException;
+import com.codesoom.project.errors.ServiceOverloadedException;
+import com.codesoom.project.errors.ShardMigrationInProgressException;
 import com.codesoom.project.errors.TaskNotFoundException;
+import com.codesoom.project.errors.TaskOrderConflictException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.stream.Collectors;
+
 /**
  * 에러에 대한 메시지를 반환합니다.
+ *
+ * 내용이 고정된 에러 응답은 미리 만들어 둔 인스턴스를 반환합니다.
  */
 @ResponseBody
 @ControllerAdvice
 public class ControllerErrorAdvice {
+    private static final ErrorResponse DIARY_NOT_FOUND =
+            new ErrorResponse("DIARY_NOT_FOUND", "Diary not found");
+
+    private static final ErrorResponse TASK_NOT_FOUND =
+            new ErrorResponse("TASK_NOT_FOUND", "Task not found");
+
+    private static final ErrorResponse DIARY_VERSION_CONFLICT =
+            new ErrorResponse("DIARY_VERSION_CONFLICT", "Diary version conflict");
+
+    private static final ErrorResponse TASK_ORDER_CONFLICT =
+            new ErrorResponse("TASK_ORDER_CONFLICT", "Task order conflict");
+
+    private static final ErrorResponse IDEMPOTENCY_KEY_CONFLICT =
+            new ErrorResponse("IDEMPOTENCY_KEY_CONFLICT", "Idempotency key conflict");
+
+    private static final ErrorResponse INVALID_IDEMPOTENCY_KEY =
+            new ErrorResponse("INVALID_IDEMPOTENCY_KEY", "Invalid idempotency key");
+
+    private static final ErrorResponse INVALID_TEXT_EDIT =
+            new ErrorResponse("INVALID_TEXT_EDIT", "Invalid text edit");
+
+    private static final ErrorResponse INVALID_TOKEN =
+            new ErrorResponse("INVALID_TOKEN", "Invalid token");
+
+    private static final ErrorResponse INVALID_SYNC_TOKEN =
+            new ErrorResponse("INVALID_SYNC_TOKEN", "Invalid sync token");
+
+    private static final ErrorResponse TOO_MANY_REQUESTS =
+            new ErrorResponse("TOO_MANY_REQUESTS", "Too many requests");
+
+    private static final ErrorResponse SHARD_MIGRATION_IN_PROGRESS =
+            new ErrorResponse("SHARD_MIGRATION_IN_PROGRESS", "Shard migration in progress");
+
+    private static final ErrorResponse SERVICE_OVERLOADED =
+            new ErrorResponse("SERVICE_OVERLOADED", "Service overloaded");
+
+    private static final ErrorResponse DEADLINE_EXCEEDED =
+            new ErrorResponse("DEADLINE_EXCEEDED", "Deadline exceeded");
+
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(DiaryNotFoundException.class)
     public ErrorResponse handleDiaryNotFound() {
-        return new ErrorResponse("Diary not found");
+        return DIARY_NOT_FOUND;
     }
 
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(TaskNotFoundException.class)
     public ErrorResponse handleTaskNotFound() {
-        return new ErrorResponse("Task not found");
+        return TASK_NOT_FOUND;
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(DiaryVersionConflictException.class)
+    public ErrorResponse handleDiaryVersionConflict() {
+        return DIARY_VERSION_CONFLICT;
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(TaskOrderConflictException.class)
+    public ErrorResponse handleTaskOrderConflict() {
+        return TASK_ORDER_CONFLICT;
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ErrorResponse handleIdempotencyKeyConflict() {
+        return IDEMPOTENCY_KEY_CONFLICT;
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ErrorResponse handleInvalidIdempotencyKey() {
+        return INVALID_IDEMPOTENCY_KEY;
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidTextEditException.class)
+    public ErrorResponse handleInvalidTextEdit() {
+        return INVALID_TEXT_EDIT;
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ValidationErrorResponse handleInvalidRequest(MethodArgumentNotValidException e) {
+        return new ValidationErrorResponse(e.getBindingResult().getFieldErrors().stream()
+                .map(FieldErrorData::of)
+                .collect(Collectors.toList()));
+    }
+
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    @ExceptionHandler(InvalidTokenException.class)
+    public ErrorResponse handleInvalidToken() {
+        return INVALID_TOKEN;
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidSyncTokenException.class)
+    public ErrorResponse handleInvalidSyncToken() {
+        return INVALID_SYNC_TOKEN;
+    }
+
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ErrorResponse handleRateLimitExceeded() {
+        return TOO_MANY_REQUESTS;
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(ShardMigrationInProgressException.class)
+    public ErrorResponse handleShardMigrationInProgress() {
+        return SHARD_MIGRATION_IN_PROGRESS;
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ErrorResponse handleServiceOverloaded() {
+        return SERVICE_OVERLOADED;
+    }
+
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    @ExceptionHandler({
+            DeadlineExceededException.class,
+            QueryTimeoutException.class,
+            TransactionTimedOutException.class})
+    public ErrorResponse handleDeadlineExceeded() {
+        return DEADLINE_EXCEEDED;
     }
 }
@@ -1,10 +1,13 @@
 package com.codesoom.project.controllers;
 
 import com.codesoom.project.application.DiaryService;
-import com.codesoom.project.domain.Diary;
+import com.codesoom.project.application.IdempotencyService;
+import com.codesoom.project.dto.DiaryCommentEditData;
 import com.codesoom.project.dto.DiaryCreateData;
 import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.DiarySummaryData;
 import com.codesoom.project.dto.DiaryUpdateData;
+import com.codesoom.project.dto.DiaryVersionResultData;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -13,7 +16,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -31,61 +36,96 @@ import java.util.List;
 public class DiaryController {
     private final DiaryService diaryService;
 
+    private final IdempotencyService idempotencyService;
+
     /**
-     * 전체 다이어리 목록을 반환합니다.
+     * 인증된 사용자의 전체 다이어리 목록을 반환합니다. 내용은 포함하지 않습니다.
      *
+     * @param userId 인증된 사용자 식별자
      * @return 전체 다이어리 목록
      */
     @GetMapping
-    public List<Diary> list() {
-        return diaryService.getDiaries();
+    public List<DiarySummaryData> list(@RequestAttribute Long userId) {
+        return diaryService.getDiaries(userId);
     }
 
     /**
      * 주어진 id에 해당하는 다이어리를 반환합니다.
      *
-     * @param id 다이어리 식별자
+     * @param userId 인증된 사용자 식별자
+     * @param id     다이어리 식별자
      * @return 주어진 id를 갖는 다이어리
      */
     @GetMapping("{id}")
-    public Diary detail(@PathVariable Long id) {
-        return diaryService.getDiary(id);
+    public DiaryResultData detail(@RequestAttribute Long userId,
+                                  @PathVariable Long id) {
+        return diaryService.getDiary(userId, id);
     }
 
     /**
      * 새로운 다이어리를 생성합니다.
+     * 같은 멱등 키로 다시 요청하면 다이어리를 다시 만들지 않고 첫 응답을 반환합니다.
      *
+     * @param userId          인증된 사용자 식별자
+     * @param idempotencyKey  멱등 키, 선택
      * @param diaryCreateData 생성할 다이어리 정보
      * @return 생성된 다이어리
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public DiaryResultData create(@RequestBody @Valid DiaryCreateData diaryCreateData) {
-        return diaryService.createDiary(diaryCreateData);
+    public DiaryResultData create(
+            @RequestAttribute Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid DiaryCreateData diaryCreateData
+    ) {
+        return idempotencyService.execute(userId, idempotencyKey, "POST /diaries",
+                diaryCreateData, DiaryResultData.class,
+                () -> diaryService.createDiary(userId, diaryCreateData));
     }
 
     /**
      * 주어진 id에 해당하는 다이어리 정보를 수정합니다.
      *
+     * @param userId 인증된 사용자 식별자
      * @param id 다이어리 식별자
      * @param diaryUpdateData 수정할 다이어리 정보
      * @return 수정된 다이어리
      */
     @PatchMapping("{id}")
     @ResponseStatus(HttpStatus.OK)
-    public DiaryResultData update(@PathVariable Long id,
+    public DiaryResultData update(@RequestAttribute Long userId,
+                        @PathVariable Long id,
                         @RequestBody @Valid DiaryUpdateData diaryUpdateData) {
-        return diaryService.updateDiary(id, diaryUpdateData);
+        return diaryService.updateDiary(userId, id, diaryUpdateData);
+    }
+
+    /**
+     * 주어진 id에 해당하는 다이어리의 내용을 부분 편집합니다.
+     *
+     * @param userId               인증된 사용자 식별자
+     * @param id                   다이어리 식별자
+     * @param diaryCommentEditData 편집 기준 버전과 편집 목록
+     * @return 편집된 다이어리의 식별자와 버전
+     */
+    @PatchMapping("{id}/comment")
+    @ResponseStatus(HttpStatus.OK)
+    public DiaryVersionResultData editComment(
+            @RequestAttribute Long userId,
+            @PathVariable Long id,
+            @RequestBody @Valid DiaryCommentEditData diaryCommentEditData) {
+        return diaryService.editComment(userId, id, diaryCommentEditData);
     }
 
     /**
      * 주어진 id에 해당하는 다이어리를 삭제합니다.
      *
-     * @param id 다이어리 식별자
+     * @param userId 인증된 사용자 식별자
+     * @param id     다이어리 식별자
      */
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.OK)
-    public void delete(@PathVariable Long id) {
-        diaryService.deleteDiary(id);
+    public void delete(@RequestAttribute Long userId,
+                       @PathVariable Long id) {
+        diaryService.deleteDiary(userId, id);
     }
 }
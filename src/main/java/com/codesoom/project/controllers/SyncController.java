@@ -0,0 +1,37 @@
+package com.codesoom.project.controllers;
+
+import com.codesoom.project.application.SyncService;
+import com.codesoom.project.dto.SyncResultData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 변경분 동기화 요청을 처리합니다.
+ */
+@RestController
+@RequestMapping("/sync")
+@CrossOrigin
+@RequiredArgsConstructor
+public class SyncController {
+    private final SyncService syncService;
+
+    /**
+     * 주어진 토큰 이후에 바뀐 다이어리와 할 일을 반환합니다.
+     *
+     * @param userId 인증된 사용자 식별자
+     * @param since  이전 동기화에서 받은 토큰
+     * @param limit  한 번에 받을 최대 변경 수
+     * @return 변경분과 다음 토큰
+     */
+    @GetMapping
+    public SyncResultData sync(@RequestAttribute Long userId,
+                               @RequestParam(required = false) String since,
+                               @RequestParam(defaultValue = "100") int limit) {
+        return syncService.sync(userId, since, limit);
+    }
+}
@@ -1,22 +1,29 @@
 package com.codesoom.project.controllers;
 
+import com.codesoom.project.application.IdempotencyService;
 import com.codesoom.project.application.TaskService;
 import com.codesoom.project.domain.Task;
 import com.codesoom.project.dto.TaskCreateData;
+import com.codesoom.project.dto.TaskMoveData;
 import com.codesoom.project.dto.TaskUpdateData;
 import com.codesoom.project.dto.TaskResultData;
+import com.codesoom.project.stream.TaskStreamRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -25,70 +32,122 @@ import java.util.List;
  * 할 일 관련 요청을 처리합니다.
  */
 @RestController
-@RequestMapping("/diaries/{id}/tasks")
+@RequestMapping("/diaries/{diaryId}/tasks")
 @CrossOrigin
 @RequiredArgsConstructor
 public class TaskController {
     private final TaskService taskService;
 
+    private final TaskStreamRegistry taskStreamRegistry;
+
+    private final IdempotencyService idempotencyService;
+
     /**
-     * 전체 할 일 목록을 반환합니다.
+     * 인증된 사용자가 다이어리에 등록한 전체 할 일 목록을 순서대로 반환합니다.
      *
+     * @param userId  인증된 사용자 식별자
+     * @param diaryId 다이어리 식별자
      * @return 전체 할 일 목록
      */
     @GetMapping
-    public List<Task> list() {
-        return taskService.getTasks();
+    public List<Task> list(@RequestAttribute Long userId,
+                           @PathVariable Long diaryId) {
+        return taskService.getTasks(userId, diaryId);
+    }
+
+    /**
+     * 다이어리의 할 일 변경을 SSE로 전달하는 연결을 엽니다.
+     *
+     * @param userId  인증된 사용자 식별자
+     * @param diaryId 다이어리 식별자
+     * @return 할 일 변경 이벤트를 전달할 연결
+     */
+    @GetMapping(value = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestAttribute Long userId,
+                             @PathVariable Long diaryId) {
+        return taskStreamRegistry.subscribe(userId, diaryId);
     }
 
     /**
      * 주어진 id에 해당하는 할 일을 반환합니다.
      *
-     * @param id 할 일 식별자
+     * @param userId 인증된 사용자 식별자
+     * @param id     할 일 식별자
      * @return 주어진 id를 갖는 할 일
      */
     @GetMapping("{id}")
-    public Task detail(@PathVariable Long id) {
-        return taskService.getTask(id);
+    public Task detail(@RequestAttribute Long userId,
+                       @PathVariable Long id) {
+        return taskService.getTask(userId, id);
     }
 
     /**
      * 새로운 할 일을 추가합니다.
+     * 같은 멱등 키로 다시 요청하면 할 일을 다시 추가하지 않고 첫 응답을 반환합니다.
      *
+     * @param userId         인증된 사용자 식별자
+     * @param diaryId        다이어리 식별자
+     * @param idempotencyKey 멱등 키, 선택
      * @param taskCreateData 추가할 할 일 정보
      * @return 추가된 할 일
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public TaskResultData create(
+            @RequestAttribute Long userId,
+            @PathVariable Long diaryId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody @Valid TaskCreateData taskCreateData
     ) {
-        return taskService.createTask(taskCreateData);
+        return idempotencyService.execute(userId, idempotencyKey,
+                "POST /diaries/" + diaryId + "/tasks", taskCreateData, TaskResultData.class,
+                () -> taskService.createTask(userId, diaryId, taskCreateData));
     }
 
     /**
      * 주어진 id에 해당하는 할 일을 수정합니다.
      *
+     * @param userId         인증된 사용자 식별자
      * @param id             할 일 식별자
      * @param taskUpdateData 수정할 할 일 정보
      * @return 수정된 할 일
      */
     @PatchMapping("{id}")
     @ResponseStatus(HttpStatus.OK)
-    public TaskResultData update(@PathVariable Long id,
+    public TaskResultData update(@RequestAttribute Long userId,
+                                 @PathVariable Long id,
                                  @RequestBody @Valid TaskUpdateData taskUpdateData
     ) {
-        return taskService.updateTask(id, taskUpdateData);
+        return taskService.updateTask(userId, id, taskUpdateData);
+    }
+
+    /**
+     * 주어진 id에 해당하는 할 일을 앞뒤 할 일 사이로 옮깁니다.
+     *
+     * @param userId       인증된 사용자 식별자
+     * @param id           할 일 식별자
+     * @param taskMoveData 옮긴 뒤 앞뒤에 올 할 일
+     * @return 옮긴 할 일
+     */
+    @PatchMapping("{id}/position")
+    @ResponseStatus(HttpStatus.OK)
+    public TaskResultData move(@RequestAttribute Long userId,
+                               @PathVariable Long id,
+                               @RequestBody TaskMoveData taskMoveData
+    ) {
+        return taskService.moveTask(userId, id, taskMoveData);
     }
 
     /**
      * 주어진 id에 해당하는 할 일을 삭제합니다.
      *
-     * @param id 할 일 식별자
+     * @param userId 인증된 사용자 식별자
+     * @param id     할 일 식별자
      */
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.OK)
-    public void delete(@PathVariable Long id) {
-        taskService.deleteTask(id);
+    public void delete(@RequestAttribute Long userId,
+                       @PathVariable Long id) {
+        taskService.deleteTask(userId, id);
     }
 }
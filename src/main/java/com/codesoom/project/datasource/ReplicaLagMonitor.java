@@ -0,0 +1,77 @@
+package com.codesoom.project.datasource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 주 데이터베이스에 심장 박동 시각을 기록하고, 복제본에 반영된 시각과 비교해
+ * 복제 지연을 측정합니다.
+ */
+public class ReplicaLagMonitor {
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS replication_heartbeat "
+            + "(id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+    static final String UPDATE_BEAT = "UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1";
+    static final String INSERT_BEAT = "INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)";
+    static final String SELECT_BEAT = "SELECT beat_at FROM replication_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+
+    private final List<JdbcTemplate> replicas;
+
+    private final ReplicationRoutingDataSource routingDataSource;
+
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(DataSource primary,
+                             List<DataSource> replicas,
+                             ReplicationRoutingDataSource routingDataSource,
+                             long maxLagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = replicas.stream()
+                .map(JdbcTemplate::new)
+                .collect(Collectors.toList());
+        this.routingDataSource = routingDataSource;
+        this.maxLagMillis = maxLagMillis;
+
+        this.primary.execute(CREATE_TABLE);
+    }
+
+    /**
+     * 심장 박동을 기록하고 복제본 상태를 갱신합니다.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replication.heartbeat-millis:500}")
+    public void check() {
+        long now = System.currentTimeMillis();
+
+        beat(now);
+
+        for (int i = 0; i < replicas.size(); i++) {
+            routingDataSource.markReplica(i, lagOf(replicas.get(i), now) <= maxLagMillis);
+        }
+
+        routingDataSource.evictExpiredWriters();
+    }
+
+    private void beat(long now) {
+        if (primary.update(UPDATE_BEAT, now) == 0) {
+            primary.update(INSERT_BEAT, now);
+        }
+    }
+
+    private long lagOf(JdbcTemplate replica, long now) {
+        try {
+            List<Long> beats = replica.queryForList(SELECT_BEAT, Long.class);
+            if (beats.isEmpty()) {
+                return Long.MAX_VALUE;
+            }
+            return now - beats.get(0);
+        } catch (DataAccessException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
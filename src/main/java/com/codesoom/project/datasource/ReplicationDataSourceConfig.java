@@ -0,0 +1,84 @@
+package com.codesoom.project.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 주 데이터베이스와 복제본으로 나누어 연결하는 데이터 소스 설정.
+ *
+ * datasource.replication.enabled가 true일 때만 적용되며,
+ * 그렇지 않으면 스프링 부트의 기본 데이터 소스를 그대로 사용합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "datasource.replication", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicationProperties.class)
+public class ReplicationDataSourceConfig implements DisposableBean {
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    private final ReplicationProperties properties;
+
+    private final ReplicationRoutingDataSource routingDataSource;
+
+    public ReplicationDataSourceConfig(ReplicationProperties properties) {
+        this.properties = properties;
+        this.primary = build(properties.getPrimary());
+        this.replicas = properties.getReplicas().stream()
+                .map(ReplicationDataSourceConfig::build)
+                .collect(Collectors.toList());
+        this.routingDataSource = new ReplicationRoutingDataSource(
+                primary, replicas, properties.getStickyMillis());
+    }
+
+    @Bean
+    public ReplicationRoutingDataSource replicationRoutingDataSource() {
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    @Lazy(false)
+    public ReplicaLagMonitor replicaLagMonitor() {
+        return new ReplicaLagMonitor(primary, replicas,
+                routingDataSource, properties.getMaxLagMillis());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        close(primary);
+        for (DataSource replica : replicas) {
+            close(replica);
+        }
+    }
+
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable) {
+            ((AutoCloseable) dataSource).close();
+        }
+    }
+
+    private static DataSource build(ReplicationProperties.Node node) {
+        return DataSourceBuilder.create()
+                .url(node.getUrl())
+                .username(node.getUsername())
+                .password(node.getPassword())
+                .build();
+    }
+}
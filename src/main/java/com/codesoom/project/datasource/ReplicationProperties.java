@@ -0,0 +1,38 @@
+package com.codesoom.project.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 복제본 라우팅 설정.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.replication")
+public class ReplicationProperties {
+    private boolean enabled = false;
+
+    private Node primary = new Node();
+
+    private List<Node> replicas = new ArrayList<>();
+
+    private long maxLagMillis = 1_000;
+
+    private long stickyMillis = 5_000;
+
+    private long heartbeatMillis = 500;
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
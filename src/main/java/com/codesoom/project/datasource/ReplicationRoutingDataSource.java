@@ -0,0 +1,140 @@
+package com.codesoom.project.datasource;
+
+import com.codesoom.project.interceptors.AuthenticationInterceptor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 복제본으로, 나머지는 주 데이터베이스로 보냅니다.
+ *
+ * 복제 지연이 허용치를 넘은 복제본은 건너뛰고, 직접 쓰기를 한 사용자의 읽기는
+ * 일정 시간 동안 주 데이터베이스로 보내 자신이 쓴 내용을 바로 읽을 수 있게 합니다.
+ * 트랜잭션의 읽기 전용 여부가 정해진 뒤 연결을 고르도록
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}로 감싸서 사용합니다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private final String[] replicaKeys;
+
+    private volatile boolean[] healthyReplicas;
+
+    private final long stickyNanos;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final ConcurrentMap<Object, Long> recentWriters = new ConcurrentHashMap<>();
+
+    public ReplicationRoutingDataSource(DataSource primary,
+                                        List<DataSource> replicas,
+                                        long stickyMillis) {
+        this.replicaKeys = new String[replicas.size()];
+        boolean[] healthy = new boolean[replicas.size()];
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMillis);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaKeys[i] = replicaKey(i);
+            healthy[i] = true;
+            targets.put(replicaKeys[i], replicas.get(i));
+        }
+
+        this.healthyReplicas = healthy;
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Object user = currentUser();
+        long now = System.nanoTime();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                recentWriters.put(user, now);
+            }
+            return PRIMARY;
+        }
+
+        if (user != null && hasWrittenRecently(user, now)) {
+            return PRIMARY;
+        }
+
+        return chooseReplica();
+    }
+
+    /**
+     * 복제본의 상태를 갱신합니다.
+     *
+     * @param index   복제본 순번
+     * @param healthy 복제 지연이 허용치 이내인지 여부
+     */
+    public synchronized void markReplica(int index, boolean healthy) {
+        if (healthyReplicas[index] == healthy) {
+            return;
+        }
+
+        boolean[] updated = healthyReplicas.clone();
+        updated[index] = healthy;
+        healthyReplicas = updated;
+    }
+
+    public boolean isReplicaHealthy(int index) {
+        return healthyReplicas[index];
+    }
+
+    /**
+     * 고정 시간이 지난 쓰기 기록을 정리합니다.
+     */
+    public void evictExpiredWriters() {
+        long now = System.nanoTime();
+        recentWriters.values().removeIf(writtenAt -> now - writtenAt >= stickyNanos);
+    }
+
+    private boolean hasWrittenRecently(Object user, long now) {
+        Long writtenAt = recentWriters.get(user);
+        return writtenAt != null && now - writtenAt < stickyNanos;
+    }
+
+    private String chooseReplica() {
+        boolean[] healthy = healthyReplicas;
+        int count = replicaKeys.length;
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(count, 1));
+
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % count;
+            if (healthy[index]) {
+                return replicaKeys[index];
+            }
+        }
+
+        return PRIMARY;
+    }
+
+    private Object currentUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return attributes.getAttribute(
+                AuthenticationInterceptor.USER_ID, RequestAttributes.SCOPE_REQUEST);
+    }
+}
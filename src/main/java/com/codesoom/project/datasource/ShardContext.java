@@ -0,0 +1,91 @@
+package com.codesoom.project.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드가 사용할 샤드를 고정합니다.
+ *
+ * 요청 밖에서 도는 작업처럼 사용자로 샤드를 정할 수 없을 때 사용하며,
+ * 고정한 샤드는 사용자로 정한 샤드보다 우선합니다.
+ * 한 사용자의 데이터를 바꾸는 작업은 사용자도 함께 고정해, 요청한 사용자의 쓰기처럼
+ * 옮기는 중인 버킷과 {@link ShardFence} 확인을 거치게 합니다.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> PINNED = new ThreadLocal<>();
+
+    private static final ThreadLocal<Long> OWNER = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * 현재 스레드에 고정된 샤드를 반환합니다.
+     *
+     * @return 샤드 순번, 고정되지 않았으면 null
+     */
+    public static Integer pinned() {
+        return PINNED.get();
+    }
+
+    /**
+     * 현재 스레드에 샤드와 함께 고정된 사용자를 반환합니다.
+     *
+     * @return 사용자 식별자, 고정되지 않았으면 null
+     */
+    public static Long pinnedOwner() {
+        return OWNER.get();
+    }
+
+    /**
+     * 주어진 샤드를 고정한 채로 작업을 실행합니다.
+     *
+     * @param shard 샤드 순번
+     * @param task  실행할 작업
+     * @return 작업 결과
+     */
+    public static <T> T callOn(int shard, Supplier<T> task) {
+        return callOn(shard, null, task);
+    }
+
+    /**
+     * 주어진 샤드와 그 샤드에서 데이터를 바꿀 사용자를 고정한 채로 작업을 실행합니다.
+     *
+     * @param shard   샤드 순번
+     * @param ownerId 사용자 식별자, 사용자를 정하지 않으면 null
+     * @param task    실행할 작업
+     * @return 작업 결과
+     */
+    public static <T> T callOn(int shard, Long ownerId, Supplier<T> task) {
+        Integer previous = PINNED.get();
+        Long previousOwner = OWNER.get();
+        PINNED.set(shard);
+        set(OWNER, ownerId);
+        try {
+            return task.get();
+        } finally {
+            set(PINNED, previous);
+            set(OWNER, previousOwner);
+        }
+    }
+
+    /**
+     * 주어진 샤드를 고정한 채로 작업을 실행합니다.
+     *
+     * @param shard 샤드 순번
+     * @param task  실행할 작업
+     */
+    public static void runOn(int shard, Runnable task) {
+        callOn(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private static <T> void set(ThreadLocal<T> local, T value) {
+        if (value == null) {
+            local.remove();
+        } else {
+            local.set(value);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.codesoom.project.datasource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 샤드마다 버킷별로 쓰기를 받는지 기록해, 배정을 늦게 읽은 인스턴스의 쓰기도 막습니다.
+ *
+ * 쓰기 트랜잭션은 시작할 때 자기 버킷의 행을 공유 잠금으로 읽고 커밋까지 잡고 있습니다.
+ * 버킷을 막는 갱신은 진행 중인 쓰기 트랜잭션이 끝날 때까지 기다리고,
+ * 막은 뒤에 시작한 쓰기 트랜잭션은 막힌 것을 보고 실패합니다.
+ * 그래서 막기가 커밋된 뒤에는 그 샤드의 버킷 데이터가 더 바뀌지 않습니다.
+ */
+public class ShardFence {
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS shard_fence "
+            + "(bucket INT PRIMARY KEY, fenced BOOLEAN NOT NULL)";
+    static final String SELECT_BUCKETS = "SELECT bucket FROM shard_fence";
+    static final String INSERT = "INSERT INTO shard_fence (bucket, fenced) VALUES (?, FALSE)";
+    static final String UPDATE = "UPDATE shard_fence SET fenced = ? WHERE bucket = ?";
+    static final String SELECT_FENCED = "SELECT fenced FROM shard_fence WHERE bucket = ?";
+
+    private final List<DataSource> shards;
+
+    public ShardFence(List<DataSource> shards, int buckets) {
+        this.shards = shards;
+
+        for (DataSource shard : shards) {
+            createRows(new JdbcTemplate(shard), buckets);
+        }
+    }
+
+    /**
+     * 샤드에서 버킷의 쓰기를 막거나 다시 받습니다.
+     * 막을 때는 그 버킷의 진행 중인 쓰기 트랜잭션이 끝날 때까지 기다립니다.
+     *
+     * @param shard  샤드 순번
+     * @param bucket 버킷 번호
+     * @param fenced 막으면 true
+     */
+    public void set(int shard, int bucket, boolean fenced) {
+        new JdbcTemplate(shards.get(shard)).update(UPDATE, fenced, bucket);
+    }
+
+    /**
+     * 쓰기 트랜잭션의 연결에서 버킷이 막혔는지 확인하고, 커밋할 때까지 막지 못하게 잡아 둡니다.
+     *
+     * @param connection 자동 커밋을 끈 연결
+     * @param bucket     버킷 번호
+     * @return 막혔으면 true
+     * @throws SQLException 확인하지 못한 경우
+     */
+    public boolean isFenced(Connection connection, int bucket) throws SQLException {
+        String sql = SELECT_FENCED + sharedLockClause(connection);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, bucket);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * 공유 잠금을 지원하는 데이터베이스면 쓰기 트랜잭션끼리 기다리지 않도록 공유 잠금을 씁니다.
+     */
+    private static String sharedLockClause(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        if (product.contains("mysql") || product.contains("mariadb")) {
+            return " LOCK IN SHARE MODE";
+        }
+        if (product.contains("postgresql")) {
+            return " FOR SHARE";
+        }
+        return " FOR UPDATE";
+    }
+
+    /**
+     * 잠글 행이 항상 있도록 모든 버킷의 행을 만듭니다.
+     * 여러 인스턴스가 함께 시작해도 되도록 이미 있는 행은 건너뜁니다.
+     */
+    private static void createRows(JdbcTemplate jdbcTemplate, int buckets) {
+        jdbcTemplate.execute(CREATE_TABLE);
+
+        Set<Integer> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_BUCKETS, Integer.class));
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (existing.contains(bucket)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update(INSERT, bucket);
+            } catch (DuplicateKeyException e) {
+                // 다른 인스턴스가 먼저 만들었습니다.
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.codesoom.project.datasource;
+
+/**
+ * 사용자 id를 샤드로 대응시키는 표.
+ *
+ * 사용자 id는 해시로 고정된 수의 버킷 중 하나에 들어가고, 버킷은 샤드 하나에 배정됩니다.
+ * 따로 옮기지 않은 버킷은 버킷 번호를 샤드 수로 나눈 나머지의 샤드에 배정되므로,
+ * 같은 설정이면 어느 인스턴스에서든 같은 샤드를 고릅니다.
+ * 옮기는 중인 버킷은 쓰기를 받지 않도록 표시합니다.
+ */
+public class ShardMap {
+    private final int shardCount;
+
+    private final int buckets;
+
+    private volatile State state;
+
+    public ShardMap(int shardCount, int buckets) {
+        if (shardCount < 1 || buckets < shardCount) {
+            throw new IllegalArgumentException(
+                    "Invalid shard map: " + shardCount + " shards, " + buckets + " buckets");
+        }
+
+        this.shardCount = shardCount;
+        this.buckets = buckets;
+
+        int[] shards = new int[buckets];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            shards[bucket] = defaultShardOf(bucket);
+        }
+        this.state = new State(shards, new boolean[buckets]);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    /**
+     * 사용자가 들어가는 버킷을 반환합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @return 버킷 번호
+     */
+    public int bucketOf(long ownerId) {
+        return (int) Long.remainderUnsigned(mix(ownerId), buckets);
+    }
+
+    /**
+     * 사용자의 데이터가 있는 샤드를 반환합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @return 샤드 순번
+     */
+    public int shardOf(long ownerId) {
+        return shardOfBucket(bucketOf(ownerId));
+    }
+
+    public int shardOfBucket(int bucket) {
+        return state.shards[bucket];
+    }
+
+    public boolean isMigrating(int bucket) {
+        return state.migrating[bucket];
+    }
+
+    /**
+     * 따로 옮기지 않은 버킷이 배정되는 샤드를 반환합니다.
+     *
+     * @param bucket 버킷 번호
+     * @return 샤드 순번
+     */
+    public int defaultShardOf(int bucket) {
+        return bucket % shardCount;
+    }
+
+    /**
+     * 모든 버킷의 배정을 한 번에 바꿉니다.
+     *
+     * @param shards    버킷별 샤드 순번
+     * @param migrating 버킷별로 옮기는 중인지 여부
+     */
+    public void replace(int[] shards, boolean[] migrating) {
+        if (shards.length != buckets || migrating.length != buckets) {
+            throw new IllegalArgumentException("Expected " + buckets + " buckets");
+        }
+        for (int shard : shards) {
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("Unknown shard: " + shard);
+            }
+        }
+
+        state = new State(shards.clone(), migrating.clone());
+    }
+
+    /**
+     * 사용자 id가 연속해도 버킷이 고르게 나뉘도록 비트를 섞습니다.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class State {
+        private final int[] shards;
+
+        private final boolean[] migrating;
+
+        private State(int[] shards, boolean[] migrating) {
+            this.shards = shards;
+            this.migrating = migrating;
+        }
+    }
+}
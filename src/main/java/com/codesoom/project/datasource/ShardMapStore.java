@@ -0,0 +1,86 @@
+package com.codesoom.project.datasource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 기본 배정에서 벗어난 버킷 배정을 첫 번째 샤드에 저장하고, 주기적으로 다시 읽어
+ * 모든 인스턴스의 {@link ShardMap}을 맞춥니다.
+ *
+ * 다시 읽지 못하면 마지막으로 읽은 배정을 그대로 사용합니다.
+ */
+public class ShardMapStore {
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS shard_map "
+            + "(bucket INT PRIMARY KEY, shard INT NOT NULL, migrating BOOLEAN NOT NULL)";
+    static final String SELECT_ALL = "SELECT bucket, shard, migrating FROM shard_map";
+    static final String UPDATE = "UPDATE shard_map SET shard = ?, migrating = ? WHERE bucket = ?";
+    static final String INSERT = "INSERT INTO shard_map (bucket, shard, migrating) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ShardMap shardMap;
+
+    private final AtomicLong refreshFailedCount = new AtomicLong();
+
+    public ShardMapStore(DataSource firstShard, ShardMap shardMap) {
+        this.jdbcTemplate = new JdbcTemplate(firstShard);
+        this.shardMap = shardMap;
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        refresh();
+    }
+
+    /**
+     * 저장된 배정을 다시 읽어 샤드 표에 반영합니다.
+     */
+    @Scheduled(fixedDelayString = "${datasource.sharding.refresh-millis:1000}")
+    public void refresh() {
+        int[] shards = new int[shardMap.buckets()];
+        boolean[] migrating = new boolean[shardMap.buckets()];
+        for (int bucket = 0; bucket < shards.length; bucket++) {
+            shards[bucket] = shardMap.defaultShardOf(bucket);
+        }
+
+        try {
+            jdbcTemplate.query(SELECT_ALL, row -> {
+                int bucket = row.getInt("bucket");
+                if (bucket < shards.length) {
+                    shards[bucket] = row.getInt("shard");
+                    migrating[bucket] = row.getBoolean("migrating");
+                }
+            });
+        } catch (DataAccessException e) {
+            refreshFailedCount.incrementAndGet();
+            return;
+        }
+
+        shardMap.replace(shards, migrating);
+    }
+
+    /**
+     * 버킷의 배정을 저장하고 바로 반영합니다.
+     *
+     * @param bucket    버킷 번호
+     * @param shard     배정할 샤드 순번
+     * @param migrating 옮기는 중인지 여부
+     */
+    public void save(int bucket, int shard, boolean migrating) {
+        if (jdbcTemplate.update(UPDATE, shard, migrating, bucket) == 0) {
+            jdbcTemplate.update(INSERT, bucket, shard, migrating);
+        }
+        refresh();
+    }
+
+    /**
+     * 배정을 다시 읽지 못한 횟수를 반환합니다.
+     *
+     * @return 실패 횟수
+     */
+    public long refreshFailedCount() {
+        return refreshFailedCount.get();
+    }
+}
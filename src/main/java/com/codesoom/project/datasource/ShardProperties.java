@@ -0,0 +1,36 @@
+package com.codesoom.project.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 사용자별 샤드 라우팅 설정.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.sharding")
+public class ShardProperties {
+    private boolean enabled = false;
+
+    private List<Node> shards = new ArrayList<>();
+
+    private int buckets = 1024;
+
+    private long refreshMillis = 1_000;
+
+    private long drainMillis = 5_000;
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
@@ -0,0 +1,38 @@
+package com.codesoom.project.datasource;
+
+import com.codesoom.project.App;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * 버킷 하나를 다른 샤드로 옮기는 명령행 도구.
+ *
+ * 애플리케이션과 같은 설정으로 웹 서버 없이 띄운 뒤 {@link ShardRebalancer}로 옮깁니다.
+ * 버킷 번호와 대상 샤드 순번 뒤의 인자는 스프링 설정으로 넘깁니다.
+ */
+public final class ShardRebalanceTool {
+    private ShardRebalanceTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: ShardRebalanceTool <bucket> <target-shard> [--spring.option=value ...]");
+            System.exit(1);
+        }
+
+        int bucket = Integer.parseInt(args[0]);
+        int target = Integer.parseInt(args[1]);
+        String[] springArgs = Arrays.copyOfRange(args, 2, args.length);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(App.class)
+                .web(WebApplicationType.NONE)
+                .run(springArgs)) {
+            long moved = context.getBean(ShardRebalancer.class).moveBucket(bucket, target);
+            System.out.println("moved bucket " + bucket + " to shard " + target
+                    + " (" + moved + " rows)");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.codesoom.project.datasource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 버킷 하나에 속한 사용자의 데이터를 다른 샤드로 옮깁니다.
+ *
+ * 버킷을 옮기는 중으로 표시하고, 원래 샤드에서 {@link ShardFence}로 버킷의 쓰기를 막습니다.
+ * 막기는 진행 중인 쓰기 트랜잭션이 끝나야 커밋되고, 그 뒤로는 배정을 늦게 읽은 인스턴스도
+ * 원래 샤드에 쓰지 못합니다. 그다음 대상 샤드에 한 트랜잭션으로 복사하고 배정을 바꾼 뒤
+ * 대상 샤드의 쓰기를 엽니다.
+ * 원래 샤드의 데이터는 모든 인스턴스가 새 배정을 읽을 만큼 기다렸다가 지우는데,
+ * 이 대기는 늦은 인스턴스의 읽기를 위한 것이고 쓰기는 이미 막혀 있습니다.
+ * 복사는 대상 샤드에 남은 같은 사용자의 데이터를 먼저 지우므로, 중간에 실패하면 다시 실행하면 됩니다.
+ */
+public class ShardRebalancer {
+    static final int OWNER_BATCH_SIZE = 500;
+
+    /**
+     * 사용자 데이터를 담는 테이블. 참조되는 테이블이 먼저 오도록 복사 순서대로 둡니다.
+     */
+    private static final List<OwnedTable> TABLES = List.of(
+            new OwnedTable("diary_comment",
+                    "id IN (SELECT comment_id FROM diary WHERE owner_id IN (%s))"),
+            new OwnedTable("diary", "owner_id IN (%s)"),
+            new OwnedTable("task", "owner_id IN (%s)"),
+            new OwnedTable("change_record", "owner_id IN (%s)"),
+            new OwnedTable("change_sequence", "owner_id IN (%s)"),
+            new OwnedTable("idempotency_record", "owner_id IN (%s)"));
+
+    private static final String SELECT_OWNERS = "SELECT DISTINCT owner_id FROM diary "
+            + "UNION SELECT DISTINCT owner_id FROM task "
+            + "UNION SELECT DISTINCT owner_id FROM change_record "
+            + "UNION SELECT owner_id FROM change_sequence "
+            + "UNION SELECT DISTINCT owner_id FROM idempotency_record";
+
+    private final List<DataSource> shards;
+
+    private final ShardMap shardMap;
+
+    private final ShardMapStore shardMapStore;
+
+    private final ShardFence shardFence;
+
+    private final long drainMillis;
+
+    private final AtomicLong movedRowCount = new AtomicLong();
+
+    public ShardRebalancer(List<DataSource> shards,
+                           ShardMap shardMap,
+                           ShardMapStore shardMapStore,
+                           ShardFence shardFence,
+                           long drainMillis) {
+        this.shards = shards;
+        this.shardMap = shardMap;
+        this.shardMapStore = shardMapStore;
+        this.shardFence = shardFence;
+        this.drainMillis = drainMillis;
+    }
+
+    /**
+     * 버킷을 주어진 샤드로 옮깁니다.
+     *
+     * @param bucket 버킷 번호
+     * @param target 옮길 샤드 순번
+     * @return 옮긴 행 수
+     * @throws InterruptedException 기다리는 도중 인터럽트된 경우
+     */
+    public long moveBucket(int bucket, int target) throws InterruptedException {
+        if (target < 0 || target >= shards.size()) {
+            throw new IllegalArgumentException("Unknown shard: " + target);
+        }
+
+        shardMapStore.refresh();
+        int source = shardMap.shardOfBucket(bucket);
+        if (source == target) {
+            return 0;
+        }
+
+        shardMapStore.save(bucket, source, true);
+        long moved;
+        try {
+            shardFence.set(source, bucket, true);
+            List<Long> owners = ownersIn(source, bucket);
+            moved = copy(source, target, owners);
+            shardMapStore.save(bucket, target, false);
+        } catch (RuntimeException e) {
+            shardFence.set(source, bucket, false);
+            shardMapStore.save(bucket, source, false);
+            throw e;
+        }
+        shardFence.set(target, bucket, false);
+
+        Thread.sleep(drainMillis);
+        List<Long> owners = ownersIn(source, bucket);
+        inTransaction(source, jdbcTemplate -> deleteOwners(jdbcTemplate, owners));
+
+        movedRowCount.addAndGet(moved);
+        return moved;
+    }
+
+    /**
+     * 지금까지 옮긴 행 수를 반환합니다.
+     *
+     * @return 옮긴 행 수
+     */
+    public long movedRowCount() {
+        return movedRowCount.get();
+    }
+
+    private List<Long> ownersIn(int shard, int bucket) {
+        return new JdbcTemplate(shards.get(shard)).queryForList(SELECT_OWNERS, Long.class).stream()
+                .filter(owner -> owner != null && shardMap.bucketOf(owner) == bucket)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private long copy(int source, int target, List<Long> owners) {
+        JdbcTemplate from = new JdbcTemplate(shards.get(source));
+
+        return inTransaction(target, to -> {
+            deleteOwners(to, owners);
+
+            long copied = 0;
+            for (List<Long> batch : batches(owners)) {
+                for (OwnedTable table : TABLES) {
+                    List<Map<String, Object>> rows = from.queryForList(
+                            "SELECT * FROM " + table.name + " WHERE " + table.condition(batch.size()),
+                            batch.toArray());
+                    copied += insert(to, table.name, rows);
+                }
+            }
+            return copied;
+        });
+    }
+
+    private static long insert(JdbcTemplate jdbcTemplate, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + placeholders(columns.size()) + ")";
+
+        List<Object[]> values = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(sql, values);
+        return rows.size();
+    }
+
+    /**
+     * 사용자의 데이터를 지웁니다. 다이어리 내용은 다이어리가 참조하므로 다이어리를 지운 뒤에 지웁니다.
+     */
+    private static long deleteOwners(JdbcTemplate jdbcTemplate, List<Long> owners) {
+        long deleted = 0;
+        for (List<Long> batch : batches(owners)) {
+            Object[] args = batch.toArray();
+            List<Long> commentIds = jdbcTemplate.queryForList(
+                    "SELECT comment_id FROM diary WHERE comment_id IS NOT NULL AND owner_id IN ("
+                            + placeholders(batch.size()) + ")",
+                    Long.class, args);
+
+            for (int i = TABLES.size() - 1; i > 0; i--) {
+                OwnedTable table = TABLES.get(i);
+                deleted += jdbcTemplate.update(
+                        "DELETE FROM " + table.name + " WHERE " + table.condition(batch.size()), args);
+            }
+            if (!commentIds.isEmpty()) {
+                deleted += jdbcTemplate.update(
+                        "DELETE FROM diary_comment WHERE id IN (" + placeholders(commentIds.size()) + ")",
+                        commentIds.toArray());
+            }
+        }
+        return deleted;
+    }
+
+    private <T> T inTransaction(int shard, Function<JdbcTemplate, T> work) {
+        DataSource dataSource = shards.get(shard);
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return transactionTemplate.execute(status -> work.apply(new JdbcTemplate(dataSource)));
+    }
+
+    private static List<List<Long>> batches(List<Long> owners) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < owners.size(); from += OWNER_BATCH_SIZE) {
+            batches.add(owners.subList(from, Math.min(from + OWNER_BATCH_SIZE, owners.size())));
+        }
+        return batches;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static final class OwnedTable {
+        private final String name;
+
+        private final String condition;
+
+        private OwnedTable(String name, String condition) {
+            this.name = name;
+            this.condition = condition;
+        }
+
+        private String condition(int owners) {
+            return String.format(condition, placeholders(owners));
+        }
+    }
+}
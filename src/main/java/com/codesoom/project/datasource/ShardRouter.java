@@ -0,0 +1,134 @@
+package com.codesoom.project.datasource;
+
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 요청 밖에서 도는 작업을 샤드에 맞춰 실행합니다.
+ *
+ * 샤딩을 켜지 않았으면 작업을 그대로 한 번 실행합니다.
+ * 샤드 전체를 훑는 조회는 시작할 때의 필터 적재처럼 사용자 한 명으로 범위를 좁힐 수 없는
+ * 관리 작업에만 사용합니다.
+ */
+@Component
+public class ShardRouter {
+    private final ShardMap shardMap;
+
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(Optional<ShardMap> shardMap) {
+        this.shardMap = shardMap.orElse(null);
+        this.scatterExecutor = this.shardMap != null
+                ? Executors.newFixedThreadPool(shardCount(), runnable -> {
+                    Thread thread = new Thread(runnable, "shard-scatter");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * 샤딩을 사용하지 않는 라우터를 반환합니다.
+     *
+     * @return 샤드가 하나인 라우터
+     */
+    public static ShardRouter single() {
+        return new ShardRouter(Optional.empty());
+    }
+
+    public int shardCount() {
+        return shardMap == null ? 1 : shardMap.shardCount();
+    }
+
+    /**
+     * 샤드마다 해당 샤드를 고정하고 작업을 한 번씩 실행합니다.
+     *
+     * @param task 실행할 작업
+     */
+    public void forEachShard(Runnable task) {
+        if (shardMap == null) {
+            task.run();
+            return;
+        }
+
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            ShardContext.runOn(shard, task);
+        }
+    }
+
+    /**
+     * 주어진 사용자의 샤드와 사용자를 고정하고 작업을 실행합니다.
+     * 배정을 늦게 읽었어도 쓰기 트랜잭션은 {@link ShardFence}에 막히므로 옮긴 데이터를 바꾸지 못합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param task    실행할 작업
+     * @return 작업 결과
+     */
+    public <T> T callForOwner(Long ownerId, Supplier<T> task) {
+        if (shardMap == null) {
+            return task.get();
+        }
+        return ShardContext.callOn(shardMap.shardOf(ownerId), ownerId, task);
+    }
+
+    /**
+     * 주어진 사용자의 샤드를 고정하고 작업을 실행합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param task    실행할 작업
+     */
+    public void runForOwner(Long ownerId, Runnable task) {
+        callForOwner(ownerId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 모든 샤드에서 동시에 조회하고 결과를 샤드 순서대로 이어 붙입니다.
+     *
+     * @param query 샤드마다 실행할 조회
+     * @return 모든 샤드의 조회 결과
+     */
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        if (shardMap == null) {
+            return query.get();
+        }
+
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> ShardContext.callOn(target, query), scatterExecutor));
+        }
+
+        List<T> results = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                results.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.codesoom.project.datasource;
+
+import com.codesoom.project.errors.ShardMigrationInProgressException;
+import com.codesoom.project.interceptors.AuthenticationInterceptor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 요청한 사용자의 데이터가 있는 샤드로 연결을 보냅니다.
+ *
+ * {@link ShardContext}로 고정한 샤드가 있으면 그 샤드를, 없으면 요청한 사용자의 샤드를 사용하고,
+ * 요청 밖이라 사용자를 알 수 없으면 첫 번째 샤드를 사용합니다.
+ * 옮기는 중인 버킷의 사용자는 읽기 전용 트랜잭션만 받습니다.
+ * 배정을 늦게 읽은 인스턴스도 옮긴 데이터를 바꾸지 못하도록, 사용자의 쓰기 트랜잭션은
+ * 연결을 받을 때 {@link ShardFence}로 그 샤드가 버킷의 쓰기를 받는지 확인합니다.
+ * 샤드와 함께 사용자를 고정한 작업도 같은 확인을 거칩니다.
+ * 트랜잭션의 읽기 전용 여부가 정해진 뒤 연결을 고르도록
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}로 감싸서 사용합니다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    private final ShardMap shardMap;
+
+    private final ShardFence shardFence;
+
+    private final String[] shardKeys;
+
+    public ShardRoutingDataSource(List<DataSource> shards, ShardMap shardMap, ShardFence shardFence) {
+        this.shardMap = shardMap;
+        this.shardFence = shardFence;
+        this.shardKeys = new String[shards.size()];
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            shardKeys[i] = shardKey(i);
+            targets.put(shardKeys[i], shards.get(i));
+        }
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    public static String shardKey(int index) {
+        return "shard-" + index;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer pinned = ShardContext.pinned();
+        Long user = targetUser();
+        if (user != null) {
+            int bucket = shardMap.bucketOf(user);
+            if (shardMap.isMigrating(bucket)
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                throw new ShardMigrationInProgressException(bucket);
+            }
+            if (pinned == null) {
+                return shardKeys[shardMap.shardOfBucket(bucket)];
+            }
+        }
+
+        return shardKeys[pinned == null ? 0 : pinned];
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return checkFence(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return checkFence(super.getConnection(username, password));
+    }
+
+    /**
+     * 사용자의 쓰기 트랜잭션이면 트랜잭션을 시작하고, 샤드가 버킷의 쓰기를 막았는지 확인합니다.
+     * 확인할 때 잡은 잠금은 트랜잭션이 끝날 때까지 유지됩니다.
+     */
+    private Connection checkFence(Connection connection) throws SQLException {
+        Long user = targetUser();
+        if (user == null
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connection;
+        }
+
+        int bucket = shardMap.bucketOf(user);
+        try {
+            connection.setAutoCommit(false);
+            if (shardFence.isFenced(connection, bucket)) {
+                throw new ShardMigrationInProgressException(bucket);
+            }
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 연결로 데이터를 다룰 사용자를 반환합니다.
+     * 샤드를 고정했으면 함께 고정한 사용자를, 아니면 요청한 사용자를 사용합니다.
+     */
+    private Long targetUser() {
+        if (ShardContext.pinned() != null) {
+            return ShardContext.pinnedOwner();
+        }
+        return currentUser();
+    }
+
+    private Long currentUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (Long) attributes.getAttribute(
+                AuthenticationInterceptor.USER_ID, RequestAttributes.SCOPE_REQUEST);
+    }
+}
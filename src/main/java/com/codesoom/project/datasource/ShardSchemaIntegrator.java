@@ -0,0 +1,79 @@
+package com.codesoom.project.datasource;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.Action;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 하이버네이트가 첫 번째 샤드에 하는 스키마 작업을 나머지 샤드에도 똑같이 합니다.
+ *
+ * 스키마를 새로 만든 경우에는 샤드마다 id 시퀀스의 시작 값을 다르게 두어,
+ * 샤드 사이에 사용자를 옮겨도 id가 겹치지 않게 합니다.
+ * 스키마를 만들지 않는 설정이라면 샤드를 추가할 때 시퀀스 시작 값을 직접 맞춰야 합니다.
+ */
+public class ShardSchemaIntegrator implements Integrator {
+    static final int ID_RANGE_BITS = 40;
+
+    static final String SEQUENCE = "hibernate_sequence";
+
+    private final List<DataSource> shards;
+
+    public ShardSchemaIntegrator(List<DataSource> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * 샤드의 id 시퀀스가 시작할 값을 반환합니다.
+     *
+     * @param shard 샤드 순번
+     * @return 시작 값
+     */
+    public static long firstIdOf(int shard) {
+        return ((long) shard << ID_RANGE_BITS) + 1;
+    }
+
+    @Override
+    public void integrate(Metadata metadata,
+                          SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        Action action = SchemaManagementToolCoordinator.ActionGrouping.interpret(settings)
+                .getDatabaseAction();
+        Dialect dialect = serviceRegistry.getService(JdbcServices.class).getDialect();
+
+        for (int shard = 1; shard < shards.size(); shard++) {
+            ShardContext.runOn(shard, () -> SchemaManagementToolCoordinator.process(
+                    metadata, serviceRegistry, settings, dropAction -> {
+                    }));
+
+            if (action == Action.CREATE || action == Action.CREATE_DROP
+                    || action == Action.CREATE_ONLY) {
+                restartSequence(new JdbcTemplate(shards.get(shard)), dialect, firstIdOf(shard));
+            }
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, Dialect dialect, long firstId) {
+        if (dialect.supportsSequences()) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + firstId);
+        } else {
+            jdbcTemplate.update("UPDATE " + SEQUENCE + " SET next_val = ?", firstId);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.codesoom.project.datasource;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자별로 여러 데이터베이스에 나누어 저장하는 데이터 소스 설정.
+ *
+ * datasource.sharding.enabled가 true일 때만 적용되며, 샤드마다 연결 풀을 따로 둡니다.
+ * 복제본 라우팅과 함께 켤 수 없고, 다이어리와 할 일을 JPA 저장소에 둘 때만 의미가 있습니다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "datasource.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardingDataSourceConfig implements DisposableBean {
+    private final List<DataSource> shards;
+
+    private final ShardProperties properties;
+
+    private final ShardMap shardMap;
+
+    private final ShardFence shardFence;
+
+    private final ShardRoutingDataSource routingDataSource;
+
+    public ShardingDataSourceConfig(ShardProperties properties) {
+        this.properties = properties;
+        this.shards = properties.getShards().stream()
+                .map(ShardingDataSourceConfig::build)
+                .collect(Collectors.toList());
+        this.shardMap = new ShardMap(shards.size(), properties.getBuckets());
+        this.shardFence = new ShardFence(shards, properties.getBuckets());
+        this.routingDataSource = new ShardRoutingDataSource(shards, shardMap, shardFence);
+    }
+
+    @Bean
+    public ShardMap shardMap() {
+        return shardMap;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    @Lazy(false)
+    public ShardMapStore shardMapStore() {
+        return new ShardMapStore(shards.get(0), shardMap);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardMapStore shardMapStore) {
+        return new ShardRebalancer(shards, shardMap, shardMapStore, shardFence,
+                properties.getDrainMillis());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCustomizer() {
+        IntegratorProvider integrators = () -> List.of(new ShardSchemaIntegrator(shards));
+        return hibernateProperties -> hibernateProperties.put(
+                "hibernate.integrator_provider", integrators);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable) {
+                ((AutoCloseable) shard).close();
+            }
+        }
+    }
+
+    private static DataSource build(ShardProperties.Node node) {
+        return DataSourceBuilder.create()
+                .url(node.getUrl())
+                .username(node.getUsername())
+                .password(node.getPassword())
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.codesoom.project.deadline;
+
+import com.codesoom.project.errors.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청을 끝내야 하는 시각.
+ *
+ * 시계가 바뀌어도 영향을 받지 않도록 {@link System#nanoTime()} 기준으로 저장합니다.
+ */
+public final class Deadline {
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * 지금부터 주어진 시간 뒤의 마감 시각을 반환합니다.
+     *
+     * @param timeoutMillis 남은 밀리초
+     * @return 마감 시각
+     */
+    public static Deadline after(long timeoutMillis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * 남은 시간을 초 단위로 올림해 반환합니다. 트랜잭션과 JDBC의 제한 시간은 초 단위입니다.
+     *
+     * @return 남은 초
+     * @throws DeadlineExceededException 마감 시각이 지났을 경우
+     */
+    public int remainingSeconds() {
+        long remaining = remainingNanos();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException();
+        }
+        return (int) Math.min(Integer.MAX_VALUE,
+                (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * 마감 시각이 지났다면 예외를 던집니다.
+     *
+     * @throws DeadlineExceededException 마감 시각이 지났을 경우
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.codesoom.project.deadline;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 요청 마감 시각을 트랜잭션에 반영하는 설정.
+ *
+ * 스프링 부트가 만드는 JPA 트랜잭션 관리자 대신 {@link DeadlineJpaTransactionManager}를 등록합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DeadlineConfig {
+    @Bean
+    public DeadlineJpaTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        DeadlineJpaTransactionManager transactionManager = new DeadlineJpaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,42 @@
+package com.codesoom.project.deadline;
+
+/**
+ * 현재 스레드가 처리 중인 요청의 마감 시각을 보관합니다.
+ *
+ * 요청을 받을 때 정해 두면 서비스 계층을 지나 트랜잭션과 쿼리의 제한 시간까지 이어집니다.
+ */
+public final class DeadlineContext {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    /**
+     * 현재 스레드의 마감 시각을 반환합니다.
+     *
+     * @return 마감 시각, 정해지지 않았으면 null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 현재 스레드의 마감 시각이 지났다면 예외를 던집니다.
+     *
+     * @throws com.codesoom.project.errors.DeadlineExceededException 마감 시각이 지났을 경우
+     */
+    public static void check() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.codesoom.project.deadline;
+
+import com.codesoom.project.errors.DeadlineExceededException;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * 현재 요청의 마감 시각까지 남은 시간을 트랜잭션 제한 시간으로 쓰는 트랜잭션 관리자.
+ *
+ * 트랜잭션 제한 시간은 Hibernate가 트랜잭션 안의 모든 JDBC 문장에 남은 시간만큼의 쿼리 제한 시간으로 걸어 주므로,
+ * 마감 시각이 지나면 실행 중인 쿼리도 데이터베이스에서 취소됩니다.
+ * 이미 마감 시각이 지났다면 트랜잭션을 시작하지 않고 {@link DeadlineExceededException}을 그대로 던집니다.
+ */
+public class DeadlineJpaTransactionManager extends JpaTransactionManager {
+    /**
+     * 마감 시각이 지났는지 먼저 확인하고 트랜잭션을 시작합니다.
+     *
+     * 상위 클래스는 시작 중에 난 예외를 {@link CannotCreateTransactionException}으로 감싸므로,
+     * 확인 직후 마감 시각이 지나 감싸진 예외도 풀어서 던집니다.
+     */
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        DeadlineContext.check();
+
+        try {
+            super.doBegin(transaction, definition);
+        } catch (CannotCreateTransactionException e) {
+            if (e.getCause() instanceof DeadlineExceededException) {
+                throw (DeadlineExceededException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return timeout;
+        }
+
+        int remaining = deadline.remainingSeconds();
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT
+                ? remaining
+                : Math.min(timeout, remaining);
+    }
+}
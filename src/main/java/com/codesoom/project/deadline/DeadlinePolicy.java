@@ -0,0 +1,96 @@
+package com.codesoom.project.deadline;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청마다 마감 시각을 정하고, 마감 시각 안에 끝난 요청과 넘긴 요청을 따로 셉니다.
+ */
+public class DeadlinePolicy {
+    private final DeadlineProperties properties;
+
+    private final ConcurrentMap<String, Long> endpointTimeouts = new ConcurrentHashMap<>();
+
+    private final AtomicLong metCount = new AtomicLong();
+
+    private final AtomicLong exceededCount = new AtomicLong();
+
+    public DeadlinePolicy(DeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String getHeader() {
+        return properties.getHeader();
+    }
+
+    /**
+     * 요청의 마감 시각을 정합니다.
+     *
+     * 헤더에 올바른 밀리초가 있으면 설정된 상한 안에서 그 값을, 없으면 엔드포인트의 기본값을 씁니다.
+     * 엔드포인트의 기본값은 요청 메소드와 경로 패턴마다 한 번만 찾아 둡니다.
+     *
+     * @param method  요청 메소드
+     * @param pattern 요청이 매칭된 경로 패턴
+     * @param header  요청 헤더 값, 없으면 null
+     * @return 마감 시각
+     */
+    public Deadline deadlineFor(String method, String pattern, String header) {
+        Long requested = parseMillis(header);
+        if (requested != null) {
+            return Deadline.after(Math.min(requested, properties.getMaxTimeoutMillis()));
+        }
+
+        long timeout = endpointTimeouts.computeIfAbsent(method + " " + pattern, ignored ->
+                properties.timeoutFor(method, pattern));
+        return Deadline.after(timeout);
+    }
+
+    /**
+     * 끝난 요청이 마감 시각을 지켰는지 기록합니다.
+     *
+     * @param deadline 요청의 마감 시각
+     */
+    public void record(Deadline deadline) {
+        if (deadline.isExpired()) {
+            exceededCount.incrementAndGet();
+        } else {
+            metCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 마감 시각 안에 끝난 요청 수를 반환합니다.
+     *
+     * @return 요청 수
+     */
+    public long metCount() {
+        return metCount.get();
+    }
+
+    /**
+     * 마감 시각을 넘긴 요청 수를 반환합니다. 중간에 멈춘 요청과 늦게 끝난 요청이 모두 들어갑니다.
+     *
+     * @return 요청 수
+     */
+    public long exceededCount() {
+        return exceededCount.get();
+    }
+
+    private static Long parseMillis(String header) {
+        if (header == null) {
+            return null;
+        }
+
+        try {
+            long millis = Long.parseLong(header.trim());
+            return millis > 0 ? millis : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
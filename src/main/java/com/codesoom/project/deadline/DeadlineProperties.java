@@ -0,0 +1,59 @@
+package com.codesoom.project.deadline;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 요청 마감 시각 설정.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "deadlines")
+public class DeadlineProperties {
+    private boolean enabled = true;
+
+    /**
+     * 클라이언트가 기다릴 밀리초를 담는 요청 헤더.
+     */
+    private String header = "X-Request-Timeout";
+
+    private long defaultTimeoutMillis = 10_000;
+
+    /**
+     * 헤더로 요청할 수 있는 가장 긴 밀리초.
+     */
+    private long maxTimeoutMillis = 30_000;
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * 주어진 요청 메소드와 경로 패턴의 기본 제한 시간을 반환합니다.
+     *
+     * @param method  요청 메소드
+     * @param pattern 요청이 매칭된 경로 패턴
+     * @return 밀리초
+     */
+    public long timeoutFor(String method, String pattern) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.getMethod().equalsIgnoreCase(method)
+                    && endpoint.getPattern().equals(pattern)) {
+                return endpoint.getTimeoutMillis();
+            }
+        }
+        return defaultTimeoutMillis;
+    }
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private String method;
+
+        private String pattern;
+
+        private long timeoutMillis;
+    }
+}
@@ -0,0 +1,64 @@
+package com.codesoom.project.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * 다이어리나 할 일의 마지막 변경 순번.
+ *
+ * 레코드마다 한 행만 유지하므로, 변경 이후 조회는 변경된 레코드 수에만 비례합니다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(
+        indexes = @Index(name = "idx_change_record_owner_seq", columnList = "ownerId, seq"),
+        uniqueConstraints = @UniqueConstraint(columnNames = {"entityType", "entityId"})
+)
+public class ChangeRecord {
+    public enum EntityType {
+        DIARY,
+        TASK
+    }
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private EntityType entityType;
+
+    private Long entityId;
+
+    private Long ownerId;
+
+    private Long seq;
+
+    private boolean deleted;
+
+    @Builder
+    public ChangeRecord(Long id, EntityType entityType, Long entityId,
+                        Long ownerId, Long seq, boolean deleted) {
+        this.id = id;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.ownerId = ownerId;
+        this.seq = seq;
+        this.deleted = deleted;
+    }
+
+    public void changedAt(Long seq, boolean deleted) {
+        this.seq = seq;
+        this.deleted = deleted;
+    }
+}
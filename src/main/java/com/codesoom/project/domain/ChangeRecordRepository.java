@@ -0,0 +1,27 @@
+package com.codesoom.project.domain;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 변경 순번 저장소.
+ */
+public interface ChangeRecordRepository {
+    Optional<ChangeRecord> findByEntityTypeAndEntityId(
+            ChangeRecord.EntityType entityType, Long entityId);
+
+    List<ChangeRecord> findAllByOwnerIdAndSeqGreaterThanOrderBySeq(
+            Long ownerId, Long seq, Pageable pageable);
+
+    /**
+     * 사용자의 가장 큰 변경 순번을 반환합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @return 가장 큰 순번, 변경이 없으면 0
+     */
+    Long findLastSeqByOwnerId(Long ownerId);
+
+    ChangeRecord save(ChangeRecord changeRecord);
+}
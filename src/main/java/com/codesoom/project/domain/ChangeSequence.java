@@ -0,0 +1,33 @@
+package com.codesoom.project.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 사용자별 변경 순번 카운터.
+ *
+ * 사용자의 행 잠금을 잡은 채 증가시키므로, 한 사용자 안에서는 순번의 순서가 커밋 순서와 같고
+ * 다른 사용자의 쓰기는 서로 기다리지 않습니다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+public class ChangeSequence {
+    @Id
+    private Long ownerId;
+
+    private Long lastSeq;
+
+    public ChangeSequence(Long ownerId, Long lastSeq) {
+        this.ownerId = ownerId;
+        this.lastSeq = lastSeq;
+    }
+
+    public Long next() {
+        lastSeq += 1;
+        return lastSeq;
+    }
+}
@@ -0,0 +1,23 @@
+package com.codesoom.project.domain;
+
+import java.util.Optional;
+
+/**
+ * 사용자별 변경 순번 카운터 저장소.
+ */
+public interface ChangeSequenceRepository {
+    boolean existsByOwnerId(Long ownerId);
+
+    Optional<ChangeSequence> findForUpdateByOwnerId(Long ownerId);
+
+    /**
+     * 카운터를 새로 만듭니다. 이미 있으면 덮어쓰지 않고 실패합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param lastSeq 시작 순번
+     * @return 만든 행 수
+     */
+    int insert(Long ownerId, Long lastSeq);
+
+    ChangeSequence save(ChangeSequence changeSequence);
+}
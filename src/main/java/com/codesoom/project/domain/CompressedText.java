@@ -0,0 +1,118 @@
+package com.codesoom.project.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 긴 문자열을 압축해 저장합니다.
+ *
+ * 저장 값의 첫 바이트는 형식을 나타냅니다. 기준 크기보다 작거나 압축해도 줄지 않는
+ * 문자열은 UTF-8 그대로 저장하고, 나머지는 DEFLATE로 압축합니다.
+ */
+public final class CompressedText {
+    /**
+     * 압축을 시도할 최소 UTF-8 바이트 수.
+     */
+    public static final int THRESHOLD_BYTES = 512;
+
+    private static final byte RAW = 0;
+
+    private static final byte DEFLATED = 1;
+
+    private CompressedText() {
+    }
+
+    /**
+     * 문자열을 저장 형식으로 바꿉니다.
+     *
+     * @param text 저장할 문자열
+     * @return 형식 바이트가 앞에 붙은 저장 값
+     */
+    public static byte[] encode(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= THRESHOLD_BYTES) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                return withHeader(DEFLATED, deflated, deflated.length);
+            }
+        }
+        return withHeader(RAW, raw, raw.length);
+    }
+
+    /**
+     * 저장 값을 문자열로 되돌립니다.
+     *
+     * @param stored 형식 바이트가 앞에 붙은 저장 값
+     * @return 원래 문자열
+     */
+    public static String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            return "";
+        }
+
+        if (stored[0] == DEFLATED) {
+            return new String(inflate(stored), StandardCharsets.UTF_8);
+        }
+        return new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] withHeader(byte format, byte[] body, int length) {
+        byte[] stored = new byte[length + 1];
+        stored[0] = format;
+        System.arraycopy(body, 0, stored, 1, length);
+        return stored;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            byte[] buffer = new byte[raw.length];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished()) {
+                return raw;
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,36 +1,172 @@
 package com.codesoom.project.domain;
 
-import lombok.AllArgsConstructor;
+import com.codesoom.project.errors.DiaryVersionConflictException;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
+import org.hibernate.annotations.Where;
 
+import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.OneToOne;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 다이어리 정보.
+ *
+ * 할 일 수와 완료한 할 일 수는 할 일이 바뀔 때 함께 갱신되는 집계 값입니다.
+ * 집계 값은 저장소에서 바로 더하고 빼므로, 제목이나 내용을 수정할 때 읽어 둔 집계 값을
+ * 다시 쓰지 않도록 바뀐 열만 갱신합니다.
  */
 @Getter
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Builder
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_diary_owner_deleted", columnList = "ownerId, deleted"),
+        @Index(name = "idx_diary_deleted_at", columnList = "deleted, deletedAt")
+})
+@Where(clause = "deleted = false")
 public class Diary {
     @Id
     @GeneratedValue
     private Long id;
 
+    private Long ownerId;
+
     @Setter
     private String title;
 
-    @Setter
-    private String comment;
+    @Getter(AccessLevel.NONE)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @LazyToOne(LazyToOneOption.NO_PROXY)
+    @JoinColumn(name = "comment_id")
+    private DiaryComment comment;
+
+    private boolean deleted;
+
+    private LocalDateTime deletedAt;
+
+    private long version;
+
+    private long taskCount;
+
+    private long doneTaskCount;
+
+    @Builder
+    public Diary(Long id, Long ownerId, String title, String comment, long version,
+                 long taskCount, long doneTaskCount) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.title = title;
+        this.comment = new DiaryComment(comment);
+        this.version = version;
+        this.taskCount = taskCount;
+        this.doneTaskCount = doneTaskCount;
+    }
+
+    /**
+     * 다이어리 내용을 반환합니다. 내용은 처음 읽을 때 불러옵니다.
+     *
+     * @return 다이어리 내용
+     */
+    public String getComment() {
+        return comment == null ? null : comment.getText();
+    }
+
+    public void setComment(String comment) {
+        if (this.comment == null) {
+            this.comment = new DiaryComment(comment);
+            return;
+        }
+        this.comment.changeText(comment);
+    }
 
     public void updateWith(Diary source) {
+        updateWith(source, version + 1);
+    }
+
+    /**
+     * 이미 버전을 정한 수정을 반영합니다. 모아서 저장하는 수정에 사용합니다.
+     *
+     * @param source  수정할 제목과 내용
+     * @param version 수정 후 버전
+     */
+    public void updateWith(Diary source, long version) {
         this.title = source.getTitle();
-        this.comment = source.getComment();
+        setComment(source.getComment());
+        this.version = version;
+    }
+
+    /**
+     * 주어진 버전을 기준으로 만든 편집을 내용에 적용한 결과를 반환합니다.
+     * 다이어리는 바뀌지 않습니다.
+     *
+     * @param baseVersion 편집의 기준 버전
+     * @param edits       순서대로 적용할 편집 목록
+     * @return 편집된 내용
+     * @throws DiaryVersionConflictException 기준 버전이 현재 버전과 다를 경우
+     */
+    public String editedComment(long baseVersion, List<TextEdit> edits) {
+        if (baseVersion != version) {
+            throw new DiaryVersionConflictException(id, baseVersion, version);
+        }
+
+        String current = getComment();
+        String edited = current == null ? "" : current;
+        for (TextEdit edit : edits) {
+            edited = edit.applyTo(edited);
+        }
+        return edited;
+    }
+
+    /**
+     * 주어진 버전을 기준으로 만든 편집을 내용에 적용합니다.
+     *
+     * @param baseVersion 편집의 기준 버전
+     * @param edits       순서대로 적용할 편집 목록
+     * @throws DiaryVersionConflictException 기준 버전이 현재 버전과 다를 경우
+     */
+    public void applyCommentEdits(long baseVersion, List<TextEdit> edits) {
+        setComment(editedComment(baseVersion, edits));
+        this.version++;
+    }
+
+    /**
+     * 할 일 집계 값을 실제로 센 값으로 바로잡습니다.
+     *
+     * @param taskCount     할 일 수
+     * @param doneTaskCount 완료한 할 일 수
+     * @return 기존 값과 달랐으면 true
+     */
+    public boolean reconcileTaskCounts(long taskCount, long doneTaskCount) {
+        if (this.taskCount == taskCount && this.doneTaskCount == doneTaskCount) {
+            return false;
+        }
+        this.taskCount = taskCount;
+        this.doneTaskCount = doneTaskCount;
+        return true;
+    }
+
+    /**
+     * 다이어리를 삭제 표시합니다. 실제 행은 보관 기간이 지난 뒤 정리됩니다.
+     *
+     * @param now 삭제 시각
+     */
+    public void markDeleted(LocalDateTime now) {
+        this.deleted = true;
+        this.deletedAt = now;
     }
 }
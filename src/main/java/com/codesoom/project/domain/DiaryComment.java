@@ -0,0 +1,65 @@
+package com.codesoom.project.domain;
+
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Transient;
+import java.util.Objects;
+
+/**
+ * 다이어리 내용.
+ *
+ * 목록 조회 때 읽히지 않도록 다이어리 행과 분리해 보관하고, 긴 내용은 압축해 저장합니다.
+ */
+@NoArgsConstructor
+@Entity
+@BatchSize(size = 100)
+public class DiaryComment {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Lob
+    private byte[] body;
+
+    @Transient
+    private String text;
+
+    @Transient
+    private boolean decoded;
+
+    public DiaryComment(String text) {
+        changeText(text);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * 내용을 반환합니다. 압축된 내용은 처음 읽을 때 한 번만 풉니다.
+     *
+     * @return 다이어리 내용
+     */
+    public String getText() {
+        if (!decoded) {
+            text = CompressedText.decode(body);
+            decoded = true;
+        }
+        return text;
+    }
+
+    public void changeText(String text) {
+        if (decoded && Objects.equals(this.text, text)) {
+            return;
+        }
+
+        this.body = CompressedText.encode(text);
+        this.text = text;
+        this.decoded = true;
+    }
+}
@@ -1,5 +1,7 @@
 package com.codesoom.project.domain;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +13,25 @@ public interface DiaryRepository {
 
     Optional<Diary> findById(Long id);
 
+    List<Long> findAllIds();
+
+    List<Diary> findAllByOwnerId(Long ownerId);
+
+    Optional<Diary> findByIdAndOwnerId(Long id, Long ownerId);
+
+    Optional<Diary> findForUpdateByIdAndOwnerId(Long id, Long ownerId);
+
+    Optional<Diary> findForUpdateById(Long id);
+
+    List<Diary> findAllByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
     Diary save(Diary diary);
 
     void delete(Diary diary);
+
+    int purgeDeletedBefore(LocalDateTime deletedBefore, int limit);
+
+    int adjustTaskCounts(Long id, Long ownerId, long taskDelta, long doneTaskDelta);
+
+    List<Long> findIdsWithTaskCountDrift(int limit);
 }
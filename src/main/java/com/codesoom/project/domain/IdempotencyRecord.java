@@ -0,0 +1,74 @@
+package com.codesoom.project.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+
+/**
+ * 멱등 키로 처리한 생성 요청의 첫 응답.
+ *
+ * 같은 사용자가 같은 키로 다시 요청하면 요청을 다시 처리하지 않고 이 응답을 돌려줍니다.
+ * 요청 본문의 해시를 함께 보관해 같은 키로 다른 본문을 보낸 요청을 가려냅니다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(
+        indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "createdAt"),
+        uniqueConstraints = @UniqueConstraint(columnNames = {"ownerId", "idempotencyKey"})
+)
+public class IdempotencyRecord {
+    public static final int MAX_KEY_LENGTH = 100;
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private Long ownerId;
+
+    @Column(length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    private String scope;
+
+    @Column(length = 64)
+    private String requestHash;
+
+    @Lob
+    private String body;
+
+    private LocalDateTime createdAt;
+
+    @Builder
+    public IdempotencyRecord(Long id, Long ownerId, String idempotencyKey,
+                             String scope, String requestHash, String body,
+                             LocalDateTime createdAt) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.idempotencyKey = idempotencyKey;
+        this.scope = scope;
+        this.requestHash = requestHash;
+        this.body = body;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * 보관 기간이 지났는지 확인합니다.
+     *
+     * @param expiredBefore 이 시각 이전에 만든 응답은 지난 것으로 봅니다
+     * @return 지났으면 true
+     */
+    public boolean isCreatedBefore(LocalDateTime expiredBefore) {
+        return createdAt.isBefore(expiredBefore);
+    }
+}
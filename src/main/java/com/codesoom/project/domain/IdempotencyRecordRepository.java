@@ -0,0 +1,17 @@
+package com.codesoom.project.domain;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 멱등 키 응답 저장소.
+ */
+public interface IdempotencyRecordRepository {
+    Optional<IdempotencyRecord> findByOwnerIdAndIdempotencyKey(Long ownerId, String idempotencyKey);
+
+    IdempotencyRecord save(IdempotencyRecord idempotencyRecord);
+
+    int deleteByOwnerIdAndIdempotencyKey(Long ownerId, String idempotencyKey);
+
+    int purgeCreatedBefore(LocalDateTime createdBefore, int limit);
+}
@@ -0,0 +1,102 @@
+package com.codesoom.project.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 할 일 순서를 나타내는 문자열 키를 만듭니다.
+ *
+ * 키는 0-9, a-z로 이루어진 36진 소수의 자릿수이며 문자열 비교 순서가 곧 목록 순서입니다.
+ * 두 키 사이에는 항상 새 키를 만들 수 있으므로 이웃한 할 일을 고치지 않고 순서를 바꿀 수 있습니다.
+ * 대소문자를 구분하지 않는 데이터베이스 정렬에서도 순서가 같도록 소문자만 씁니다.
+ * 끝자리가 0인 키는 그 앞에 들어갈 자리가 없으므로 만들지 않습니다.
+ */
+public final class OrderKey {
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    private static final int BASE = DIGITS.length();
+
+    private OrderKey() {
+    }
+
+    /**
+     * 두 키 사이에 들어갈 키를 반환합니다.
+     *
+     * @param before 앞 키, 맨 앞이면 null
+     * @param after  뒤 키, 맨 뒤면 null
+     * @return before보다 크고 after보다 작은 키
+     * @throws IllegalArgumentException before가 after보다 작지 않을 경우
+     */
+    public static String between(String before, String after) {
+        String lower = before == null ? "" : before;
+        String upper = after;
+
+        if (upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException(
+                    "Order key " + before + " is not before " + after);
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; ; i++) {
+            int low = i < lower.length() ? digit(lower.charAt(i)) : 0;
+            int high = upper != null && i < upper.length() ? digit(upper.charAt(i)) : BASE;
+
+            if (low == high) {
+                key.append(DIGITS.charAt(low));
+                continue;
+            }
+
+            int middle = (low + high) / 2;
+            if (middle > low) {
+                return key.append(DIGITS.charAt(middle)).toString();
+            }
+
+            // 이 자리에는 틈이 없으므로 앞 키의 자릿수를 따르고, 이후로는 뒤 키에 제약받지 않습니다.
+            key.append(DIGITS.charAt(low));
+            upper = null;
+        }
+    }
+
+    /**
+     * 주어진 개수만큼 고르게 떨어진 키를 순서대로 반환합니다.
+     *
+     * @param count 만들 키의 수
+     * @return 오름차순 키 목록
+     */
+    public static List<String> evenlySpaced(int count) {
+        int width = 1;
+        long space = BASE;
+        while (space <= (long) count * 4) {
+            width++;
+            space *= BASE;
+        }
+
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(encode(space * i / (count + 1), width));
+        }
+        return keys;
+    }
+
+    private static String encode(long value, int width) {
+        char[] digits = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+
+        int length = width;
+        while (length > 1 && digits[length - 1] == '0') {
+            length--;
+        }
+        return new String(digits, 0, length);
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid order key digit: " + c);
+        }
+        return digit;
+    }
+}
@@ -4,32 +4,93 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
 
 /**
  * 할 일 정보.
+ *
+ * 목록 순서는 {@link OrderKey}로 만든 순서 키의 문자열 순서를 따릅니다.
  */
 @Getter
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_owner_diary_deleted", columnList = "ownerId, diaryId, deleted, orderKey"),
+        @Index(name = "idx_task_deleted_at", columnList = "deleted, deletedAt")
+})
+@Where(clause = "deleted = false")
 public class Task {
     @Id
     @GeneratedValue
     private Long id;
 
+    private Long ownerId;
+
+    private Long diaryId;
+
     @Setter
     private String title;
 
+    private String orderKey;
+
+    private boolean done;
+
+    private boolean deleted;
+
+    private LocalDateTime deletedAt;
+
     @Builder
-    public Task(Long id, String title) {
+    public Task(Long id, Long ownerId, Long diaryId, String title, String orderKey,
+                boolean done) {
         this.id = id;
+        this.ownerId = ownerId;
+        this.diaryId = diaryId;
         this.title = title;
+        this.orderKey = orderKey;
+        this.done = done;
     }
 
     public void updateWith(Task source) {
         this.title = source.getTitle();
     }
+
+    /**
+     * 할 일의 완료 여부를 바꿉니다.
+     *
+     * @param done 완료 여부
+     * @return 완료 여부가 바뀌었으면 true
+     */
+    public boolean markDone(boolean done) {
+        if (this.done == done) {
+            return false;
+        }
+        this.done = done;
+        return true;
+    }
+
+    /**
+     * 할 일의 순서 키를 바꿉니다. 다른 할 일의 순서 키는 바뀌지 않습니다.
+     *
+     * @param orderKey 새 순서 키
+     */
+    public void moveTo(String orderKey) {
+        this.orderKey = orderKey;
+    }
+
+    /**
+     * 할 일을 삭제 표시합니다. 실제 행은 보관 기간이 지난 뒤 정리됩니다.
+     *
+     * @param now 삭제 시각
+     */
+    public void markDeleted(LocalDateTime now) {
+        this.deleted = true;
+        this.deletedAt = now;
+    }
 }
@@ -1,5 +1,7 @@
 package com.codesoom.project.domain;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +13,27 @@ public interface TaskRepository {
 
     Optional<Task> findById(Long id);
 
+    List<Long> findAllIds();
+
+    List<Task> findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(Long ownerId, Long diaryId);
+
+    Optional<Task> findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(Long ownerId, Long diaryId);
+
+    List<Task> findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(Long diaryId);
+
+    List<Long> findDiaryIdsToRebalance(int maxKeyLength);
+
+    long countByOwnerIdAndDiaryId(Long ownerId, Long diaryId);
+
+    long countByOwnerIdAndDiaryIdAndDoneTrue(Long ownerId, Long diaryId);
+
+    Optional<Task> findByIdAndOwnerId(Long id, Long ownerId);
+
+    List<Task> findAllByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
     Task save(Task task);
 
     void delete(Task task);
+
+    int purgeDeletedBefore(LocalDateTime deletedBefore, int limit);
 }
@@ -0,0 +1,46 @@
+package com.codesoom.project.domain;
+
+import com.codesoom.project.errors.InvalidTextEditException;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 문자열의 한 구간을 지우고 새 문자열을 넣는 편집.
+ *
+ * 위치와 길이는 UTF-16 코드 단위 기준입니다.
+ */
+@Getter
+public class TextEdit {
+    private final int position;
+
+    private final int deleteCount;
+
+    private final String insert;
+
+    @Builder
+    public TextEdit(int position, int deleteCount, String insert) {
+        this.position = position;
+        this.deleteCount = deleteCount;
+        this.insert = insert == null ? "" : insert;
+    }
+
+    /**
+     * 주어진 문자열에 편집을 적용합니다.
+     *
+     * @param text 편집할 문자열
+     * @return 편집된 문자열
+     * @throws InvalidTextEditException 편집 구간이 문자열을 벗어날 경우
+     */
+    public String applyTo(String text) {
+        if (position < 0 || deleteCount < 0
+                || position > text.length() - deleteCount) {
+            throw new InvalidTextEditException(position, deleteCount, text.length());
+        }
+
+        return new StringBuilder(text.length() - deleteCount + insert.length())
+                .append(text, 0, position)
+                .append(insert)
+                .append(text, position + deleteCount, text.length())
+                .toString();
+    }
+}
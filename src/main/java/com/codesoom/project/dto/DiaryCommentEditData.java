@@ -0,0 +1,38 @@
+package com.codesoom.project.dto;
+
+import com.codesoom.project.domain.TextEdit;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 다이어리 내용 부분 편집 요청 DTO.
+ */
+@Getter
+@NoArgsConstructor
+public class DiaryCommentEditData {
+    @NotNull(message = "편집 기준 버전을 입력해 주세요.")
+    private Long baseVersion;
+
+    @NotEmpty(message = "편집 내용을 입력해 주세요.")
+    @Valid
+    private List<TextEditData> edits;
+
+    @Builder
+    public DiaryCommentEditData(Long baseVersion, List<TextEditData> edits) {
+        this.baseVersion = baseVersion;
+        this.edits = edits;
+    }
+
+    public List<TextEdit> toTextEdits() {
+        return edits.stream()
+                .map(TextEditData::toTextEdit)
+                .collect(Collectors.toList());
+    }
+}
@@ -27,8 +27,9 @@ public class DiaryCreateData {
         this.comment = comment;
     }
 
-    public Diary toEntity() {
+    public Diary toEntity(Long ownerId) {
         return Diary.builder()
+                .ownerId(ownerId)
                 .title(this.title)
                 .comment(this.comment)
                 .build();
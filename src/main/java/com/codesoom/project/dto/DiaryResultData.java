@@ -19,13 +19,23 @@ public class DiaryResultData {
 
     private String comment;
 
+    private long version;
+
+    private long taskCount;
+
+    private long doneTaskCount;
+
     @Builder
     public DiaryResultData(
-            Long id, String title, String comment
+            Long id, String title, String comment, long version,
+            long taskCount, long doneTaskCount
     ) {
         this.id = id;
         this.title = title;
         this.comment = comment;
+        this.version = version;
+        this.taskCount = taskCount;
+        this.doneTaskCount = doneTaskCount;
     }
 
     public static DiaryResultData of(Diary diary) {
@@ -33,6 +43,9 @@ public class DiaryResultData {
                 .id(diary.getId())
                 .title(diary.getTitle())
                 .comment(diary.getComment())
+                .version(diary.getVersion())
+                .taskCount(diary.getTaskCount())
+                .doneTaskCount(diary.getDoneTaskCount())
                 .build();
     }
 }
@@ -0,0 +1,47 @@
+package com.codesoom.project.dto;
+
+import com.codesoom.project.domain.Diary;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 다이어리 목록 응답 DTO.
+ *
+ * 내용은 상세 조회에서만 내려주므로 목록 조회 때는 내용을 읽지 않습니다.
+ */
+@Getter
+@NoArgsConstructor
+@ToString
+public class DiarySummaryData {
+    private Long id;
+
+    private String title;
+
+    private long version;
+
+    private long taskCount;
+
+    private long doneTaskCount;
+
+    @Builder
+    public DiarySummaryData(Long id, String title, long version,
+                            long taskCount, long doneTaskCount) {
+        this.id = id;
+        this.title = title;
+        this.version = version;
+        this.taskCount = taskCount;
+        this.doneTaskCount = doneTaskCount;
+    }
+
+    public static DiarySummaryData of(Diary diary) {
+        return DiarySummaryData.builder()
+                .id(diary.getId())
+                .title(diary.getTitle())
+                .version(diary.getVersion())
+                .taskCount(diary.getTaskCount())
+                .doneTaskCount(diary.getDoneTaskCount())
+                .build();
+    }
+}
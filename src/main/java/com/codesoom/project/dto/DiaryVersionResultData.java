@@ -0,0 +1,34 @@
+package com.codesoom.project.dto;
+
+import com.codesoom.project.domain.Diary;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 다이어리 부분 편집 결과 응답 DTO.
+ *
+ * 응답 크기가 내용 길이에 비례하지 않도록 식별자와 버전만 담습니다.
+ */
+@Getter
+@NoArgsConstructor
+@ToString
+public class DiaryVersionResultData {
+    private Long id;
+
+    private long version;
+
+    @Builder
+    public DiaryVersionResultData(Long id, long version) {
+        this.id = id;
+        this.version = version;
+    }
+
+    public static DiaryVersionResultData of(Diary diary) {
+        return DiaryVersionResultData.builder()
+                .id(diary.getId())
+                .version(diary.getVersion())
+                .build();
+    }
+}
@@ -1,12 +1,24 @@
 package com.codesoom.project.dto;
 
+/**
+ * 에러 응답 DTO.
+ *
+ * 바뀌지 않는 값이므로 같은 에러에는 하나의 인스턴스를 공유합니다.
+ */
 public class ErrorResponse {
+    private final String code;
+
     private final String message;
 
-    public ErrorResponse(String message) {
+    public ErrorResponse(String code, String message) {
+        this.code = code;
         this.message = message;
     }
 
+    public String getCode() {
+        return code;
+    }
+
     public String getMessage() {
         return message;
     }
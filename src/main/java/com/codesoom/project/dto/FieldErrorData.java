@@ -0,0 +1,41 @@
+package com.codesoom.project.dto;
+
+import org.springframework.validation.FieldError;
+
+/**
+ * 요청 값 검증에 실패한 필드 정보.
+ *
+ * code는 실패한 검증 규칙의 이름(NotBlank, PositiveOrZero 등)입니다.
+ */
+public class FieldErrorData {
+    private final String field;
+
+    private final String code;
+
+    private final String message;
+
+    public FieldErrorData(String field, String code, String message) {
+        this.field = field;
+        this.code = code;
+        this.message = message;
+    }
+
+    public static FieldErrorData of(FieldError fieldError) {
+        return new FieldErrorData(
+                fieldError.getField(),
+                fieldError.getCode(),
+                fieldError.getDefaultMessage());
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,40 @@
+package com.codesoom.project.dto;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 변경분 동기화 응답 DTO.
+ */
+@Getter
+@NoArgsConstructor
+public class SyncResultData {
+    private List<Diary> diaries;
+
+    private List<Task> tasks;
+
+    private List<Long> deletedDiaryIds;
+
+    private List<Long> deletedTaskIds;
+
+    private String nextToken;
+
+    private boolean hasMore;
+
+    @Builder
+    public SyncResultData(List<Diary> diaries, List<Task> tasks,
+                          List<Long> deletedDiaryIds, List<Long> deletedTaskIds,
+                          String nextToken, boolean hasMore) {
+        this.diaries = diaries;
+        this.tasks = tasks;
+        this.deletedDiaryIds = deletedDiaryIds;
+        this.deletedTaskIds = deletedTaskIds;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+    }
+}
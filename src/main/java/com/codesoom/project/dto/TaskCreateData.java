@@ -23,9 +23,12 @@ public class TaskCreateData {
         this.title = title;
     }
 
-    public Task toEntity() {
+    public Task toEntity(Long ownerId, Long diaryId, String orderKey) {
         return Task.builder()
+                .ownerId(ownerId)
+                .diaryId(diaryId)
                 .title(this.title)
+                .orderKey(orderKey)
                 .build();
     }
 }
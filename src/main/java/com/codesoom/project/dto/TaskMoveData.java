@@ -0,0 +1,24 @@
+package com.codesoom.project.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 할 일 순서 변경 요청 DTO.
+ *
+ * 옮긴 뒤 바로 앞과 바로 뒤에 올 할 일의 id를 받습니다. 맨 앞이나 맨 뒤로 옮길 때는 해당 값을 비웁니다.
+ */
+@Getter
+@NoArgsConstructor
+public class TaskMoveData {
+    private Long previousTaskId;
+
+    private Long nextTaskId;
+
+    @Builder
+    public TaskMoveData(Long previousTaskId, Long nextTaskId) {
+        this.previousTaskId = previousTaskId;
+        this.nextTaskId = nextTaskId;
+    }
+}
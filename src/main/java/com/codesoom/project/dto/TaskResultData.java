@@ -17,16 +17,24 @@ public class TaskResultData {
 
     private String title;
 
+    private String orderKey;
+
+    private boolean done;
+
     @Builder
-    public TaskResultData(Long id, String title) {
+    public TaskResultData(Long id, String title, String orderKey, boolean done) {
         this.id = id;
         this.title = title;
+        this.orderKey = orderKey;
+        this.done = done;
     }
 
     public static TaskResultData of(Task task) {
         return TaskResultData.builder()
                 .id(task.getId())
                 .title(task.getTitle())
+                .orderKey(task.getOrderKey())
+                .done(task.isDone())
                 .build();
     }
 }
@@ -17,8 +17,11 @@ public class TaskUpdateData {
     @Mapping("title")
     private String title;
 
+    private Boolean done;
+
     @Builder
-    public TaskUpdateData(String title) {
+    public TaskUpdateData(String title, Boolean done) {
         this.title = title;
+        this.done = done;
     }
 }
@@ -0,0 +1,38 @@
+package com.codesoom.project.dto;
+
+import com.codesoom.project.domain.TextEdit;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * 문자열 구간 편집 요청 DTO.
+ */
+@Getter
+@NoArgsConstructor
+public class TextEditData {
+    @PositiveOrZero(message = "편집 위치는 0 이상이어야 합니다.")
+    private int position;
+
+    @PositiveOrZero(message = "지울 길이는 0 이상이어야 합니다.")
+    private int deleteCount;
+
+    private String insert;
+
+    @Builder
+    public TextEditData(int position, int deleteCount, String insert) {
+        this.position = position;
+        this.deleteCount = deleteCount;
+        this.insert = insert;
+    }
+
+    public TextEdit toTextEdit() {
+        return TextEdit.builder()
+                .position(this.position)
+                .deleteCount(this.deleteCount)
+                .insert(this.insert)
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.codesoom.project.dto;
+
+import java.util.List;
+
+/**
+ * 요청 값 검증 실패 응답 DTO.
+ */
+public class ValidationErrorResponse extends ErrorResponse {
+    public static final String CODE = "INVALID_REQUEST";
+
+    private final List<FieldErrorData> errors;
+
+    public ValidationErrorResponse(List<FieldErrorData> errors) {
+        super(CODE, "Invalid request");
+        this.errors = errors;
+    }
+
+    public List<FieldErrorData> getErrors() {
+        return errors;
+    }
+}
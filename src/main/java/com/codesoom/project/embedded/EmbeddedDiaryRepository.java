@@ -0,0 +1,129 @@
+package com.codesoom.project.embedded;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.infra.InMemoryDiaryRepository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 변경을 {@link EmbeddedStore}의 로그에 남기는 메모리 다이어리 저장소.
+ *
+ * 쓰기 트랜잭션 안에서는 조회한 다이어리 대신 트랜잭션마다의 사본을 돌려주고, 커밋할 때 바뀐 것만 기록하고 반영합니다.
+ * 저장과 삭제, 할 일 집계 변경은 다이어리를 잠그고 기록 대상으로 올립니다.
+ * 같은 트랜잭션에서 새로 저장한 다이어리는 커밋 전까지 id 조회에서만 보입니다.
+ */
+public class EmbeddedDiaryRepository extends InMemoryDiaryRepository {
+    private final EmbeddedStore store;
+
+    EmbeddedDiaryRepository(EmbeddedTaskRepository taskRepository, EmbeddedStore store,
+                            int concurrency) {
+        super(taskRepository, concurrency);
+        this.store = store;
+    }
+
+    @Override
+    public List<Diary> findAll() {
+        return loaded(super.findAll());
+    }
+
+    @Override
+    public Optional<Diary> findById(Long id) {
+        return Optional.ofNullable(store.loaded(RecordCodec.DIARY, id, super.findById(id).orElse(null)));
+    }
+
+    @Override
+    public List<Diary> findAllByOwnerId(Long ownerId) {
+        return loaded(super.findAllByOwnerId(ownerId));
+    }
+
+    @Override
+    public Optional<Diary> findByIdAndOwnerId(Long id, Long ownerId) {
+        return findById(id)
+                .filter(diary -> !diary.isDeleted() && ownerId.equals(diary.getOwnerId()));
+    }
+
+    @Override
+    public Diary save(Diary diary) {
+        if (!store.inTransaction()) {
+            store.writeThrough(() -> RecordCodec.put(super.save(diary)));
+            return diary;
+        }
+
+        long id = identify(diary);
+        lockRow(id);
+        store.changed(RecordCodec.DIARY, id, diary);
+        return diary;
+    }
+
+    @Override
+    public void delete(Diary diary) {
+        if (!store.inTransaction()) {
+            store.writeThrough(() -> {
+                super.delete(diary);
+                return RecordCodec.delete(RecordCodec.DIARY, diary.getId());
+            });
+            return;
+        }
+
+        lockRow(diary.getId());
+        store.changed(RecordCodec.DIARY, diary.getId(), null);
+    }
+
+    @Override
+    public int adjustTaskCounts(Long id, Long ownerId, long taskDelta, long doneTaskDelta) {
+        if (!store.inTransaction()) {
+            int[] adjusted = new int[1];
+            store.writeThrough(() -> {
+                adjusted[0] = super.adjustTaskCounts(id, ownerId, taskDelta, doneTaskDelta);
+                return adjusted[0] > 0 ? RecordCodec.put(super.findById(id).orElseThrow()) : null;
+            });
+            return adjusted[0];
+        }
+
+        lockRow(id);
+        Optional<Diary> found = findById(id)
+                .filter(diary -> diary.getOwnerId().equals(ownerId));
+        found.ifPresent(diary -> diary.reconcileTaskCounts(diary.getTaskCount() + taskDelta,
+                diary.getDoneTaskCount() + doneTaskDelta));
+        return found.isPresent() ? 1 : 0;
+    }
+
+    /**
+     * 커밋 전에 바뀐 다이어리를 잠급니다.
+     */
+    void lock(long id) {
+        lockRow(id);
+    }
+
+    /**
+     * 트랜잭션의 사본이 아닌, 보관 중인 다이어리를 반환합니다.
+     */
+    Optional<Diary> stored(long id) {
+        return super.findById(id);
+    }
+
+    /**
+     * 복구한 다이어리를 기록하지 않고 넣습니다.
+     */
+    void restore(Diary diary) {
+        super.save(diary);
+    }
+
+    /**
+     * 복구 중 삭제 레코드를 만난 다이어리를 기록하지 않고 지웁니다.
+     */
+    void forget(long id) {
+        super.findById(id).ifPresent(super::delete);
+    }
+
+    private List<Diary> loaded(List<Diary> diaries) {
+        return diaries.stream()
+                .map(diary -> store.loaded(RecordCodec.DIARY, diary.getId(), diary))
+                .filter(Objects::nonNull)
+                .filter(diary -> !diary.isDeleted())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,598 @@
+package com.codesoom.project.embedded;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 다이어리와 할 일을 메모리에 두고 변경을 로그와 스냅샷으로 디스크에 남기는 내장 저장소.
+ *
+ * 쓰기 트랜잭션 안에서 조회한 엔티티는 보관 중인 엔티티의 사본이고, 고친 사본은 커밋 직전에 로그에 덧붙이면서
+ * 메모리에도 반영하므로 롤백한 변경은 메모리에도 스냅샷에도 남지 않습니다.
+ * 바꾼 엔티티는 잠금 조회나 저장, 삭제 때, 늦어도 커밋 직전에 잠가 트랜잭션이 끝날 때까지 잡아 두고,
+ * 레코드를 만들고 덧붙이고 반영하는 일은 한 잠금 안에서 하므로 로그의 순서가 메모리에 반영한 순서와 같습니다.
+ * 디스크에 내리는 일은 잠금 밖에서 하므로 함께 커밋한 트랜잭션은 한 번에 내려가고,
+ * 로그가 디스크에 내려간 뒤에 커밋이 끝납니다. 트랜잭션 밖에서 저장하거나 삭제하면 바로 기록합니다.
+ * 로그가 커지면 전체 상태를 스냅샷으로 떠서 지난 로그를 지우고,
+ * 열 때는 마지막 스냅샷을 읽은 뒤 그 뒤의 로그를 차례로 적용해 상태를 되살립니다.
+ */
+public class EmbeddedStore implements Closeable {
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 스냅샷 끝에 두는 레코드의 종류. 이 레코드가 없는 스냅샷은 끝까지 쓰이지 않은 것입니다.
+     */
+    private static final byte END = 0;
+
+    private static final int LOAD_BATCH_SIZE = 1 << 16;
+
+    private final Path directory;
+
+    private final long snapshotLogBytes;
+
+    private final EmbeddedTaskRepository taskRepository;
+
+    private final EmbeddedDiaryRepository diaryRepository;
+
+    private final Object snapshotLock = new Object();
+
+    /**
+     * 로그에 덧붙이고 메모리에 반영하는 일을 묶는 잠금. 스냅샷은 이 잠금 안에서 로그 세대를 넘깁니다.
+     */
+    private final Object commitLock = new Object();
+
+    private final AtomicLong snapshotCount = new AtomicLong();
+
+    private final AtomicLong snapshotFailedCount = new AtomicLong();
+
+    private WriteAheadLog log;
+
+    private long recoveredRecords;
+
+    private long recoveryMillis;
+
+    private EmbeddedStore(Path directory, int concurrency, long snapshotLogBytes) {
+        this.directory = directory;
+        this.snapshotLogBytes = snapshotLogBytes;
+        this.taskRepository = new EmbeddedTaskRepository(this, concurrency);
+        this.diaryRepository = new EmbeddedDiaryRepository(taskRepository, this, concurrency);
+    }
+
+    /**
+     * 저장소를 엽니다. 디렉터리에 스냅샷이나 로그가 있으면 그 상태를 되살립니다.
+     *
+     * @param directory        스냅샷과 로그를 둘 디렉터리
+     * @param fsync            커밋마다 로그를 디스크에 내릴지 여부
+     * @param concurrency      동시에 쓸 것으로 예상하는 스레드 수
+     * @param snapshotLogBytes 스냅샷을 뜨는 로그 크기
+     * @return 열린 저장소
+     * @throws IOException 스냅샷이나 로그를 읽을 수 없을 경우
+     */
+    public static EmbeddedStore open(Path directory, boolean fsync, int concurrency,
+                                     long snapshotLogBytes) throws IOException {
+        Files.createDirectories(directory);
+
+        EmbeddedStore store = new EmbeddedStore(directory, concurrency, snapshotLogBytes);
+        long next = store.recover();
+        store.log = WriteAheadLog.open(directory, next, fsync);
+        return store;
+    }
+
+    public EmbeddedDiaryRepository diaryRepository() {
+        return diaryRepository;
+    }
+
+    public EmbeddedTaskRepository taskRepository() {
+        return taskRepository;
+    }
+
+    /**
+     * 로그가 정해진 크기를 넘었으면 스냅샷을 뜹니다.
+     */
+    @Scheduled(fixedDelayString = "${repositories.embedded.snapshot-check-millis:10000}")
+    public void snapshotIfNeeded() {
+        if (log.fileBytes() < snapshotLogBytes) {
+            return;
+        }
+
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            snapshotFailedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 전체 상태를 스냅샷으로 뜨고, 스냅샷에 담긴 지난 로그와 스냅샷을 지웁니다.
+     *
+     * 먼저 로그를 다음 세대로 넘기므로, 스냅샷을 뜨는 동안 커밋한 변경은 새 세대 로그에 남습니다.
+     * 넘기는 동안에는 커밋을 막으므로, 지난 세대에 덧붙인 변경은 모두 메모리에 반영된 뒤라 스냅샷에 담깁니다.
+     * 그 변경이 스냅샷에도 담겼다면 복구 때 같은 상태를 한 번 더 적용할 뿐입니다.
+     * 지난 파일은 스냅샷의 이름 바꾸기까지 디렉터리를 디스크에 내린 뒤에 지웁니다.
+     *
+     * @throws IOException 스냅샷을 쓸 수 없을 경우
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long generation;
+            synchronized (commitLock) {
+                generation = log.rotate();
+            }
+
+            Path temp = directory.resolve(snapshotName(generation) + TEMP_SUFFIX);
+            writeSnapshot(temp);
+            Files.move(temp, directory.resolve(snapshotName(generation)),
+                    StandardCopyOption.ATOMIC_MOVE);
+            WriteAheadLog.forceDirectory(directory);
+
+            for (Path file : WriteAheadLog.files(directory)) {
+                if (WriteAheadLog.generation(file) < generation) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            for (Path file : snapshots()) {
+                if (snapshotGeneration(file) < generation) {
+                    Files.deleteIfExists(file);
+                }
+            }
+
+            snapshotCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 열 때 스냅샷과 로그에서 적용한 레코드 수를 반환합니다.
+     *
+     * @return 레코드 수
+     */
+    public long recoveredRecords() {
+        return recoveredRecords;
+    }
+
+    /**
+     * 열 때 상태를 되살리는 데 걸린 시간을 반환합니다.
+     *
+     * @return 밀리초
+     */
+    public long recoveryMillis() {
+        return recoveryMillis;
+    }
+
+    public long snapshotCount() {
+        return snapshotCount.get();
+    }
+
+    public long snapshotFailedCount() {
+        return snapshotFailedCount.get();
+    }
+
+    /**
+     * 로그에 덧붙인 횟수를 반환합니다. 커밋 하나가 한 번입니다.
+     *
+     * @return 덧붙인 횟수
+     */
+    public long appendCount() {
+        return log.appendCount();
+    }
+
+    /**
+     * 로그를 디스크에 내린 횟수를 반환합니다. 함께 커밋한 트랜잭션은 한 번에 내려가므로
+     * {@link #appendCount()}보다 작을 수 있습니다.
+     *
+     * @return 내린 횟수
+     */
+    public long forceCount() {
+        return log.forceCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * 조회한 엔티티 대신 지금 트랜잭션에서 쓸 엔티티를 반환합니다.
+     * 쓰기 트랜잭션 안이면 처음 조회할 때 사본을 만들어 기록 대상으로 올리고, 트랜잭션이 끝날 때까지 같은 사본을 돌려줍니다.
+     * 커밋 때 조회 시점과 상태가 다를 때만 기록하며, 읽기 전용이거나 트랜잭션 밖이면 보관 중인 엔티티를 그대로 돌려줍니다.
+     *
+     * @param stored 보관 중인 엔티티, 없으면 null
+     * @return 지금 트랜잭션에서 쓸 엔티티, 없거나 이 트랜잭션에서 지웠으면 null
+     */
+    <T> T loaded(byte kind, long id, T stored) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return stored;
+        }
+        return changes().loaded(kind, id, stored);
+    }
+
+    /**
+     * 트랜잭션 안에서 저장하거나 삭제한 엔티티를 커밋 때 기록하고 반영하도록 올립니다.
+     * 엔티티는 호출한 저장소가 미리 잠가 둡니다.
+     *
+     * @param entity 저장한 엔티티, 삭제했으면 null
+     */
+    void changed(byte kind, long id, Object entity) {
+        changes().changed(kind, id, entity);
+    }
+
+    /**
+     * 트랜잭션 안인지 반환합니다. 트랜잭션 밖의 변경은 {@link #writeThrough(Supplier)}로 바로 기록합니다.
+     *
+     * @return 트랜잭션 안이면 true
+     */
+    boolean inTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    /**
+     * 트랜잭션 밖의 변경을 메모리에 반영하고 바로 기록합니다.
+     * 반영과 기록을 한 잠금 안에서 하므로, 나중에 덧붙인 레코드가 항상 메모리의 최신 상태입니다.
+     *
+     * @param change 메모리에 반영하고 기록할 레코드를 돌려주는 작업, 기록할 것이 없으면 null을 돌려줍니다
+     */
+    void writeThrough(Supplier<byte[]> change) {
+        long end = 0;
+        synchronized (commitLock) {
+            byte[] record = change.get();
+            if (record != null) {
+                end = write(List.of(record));
+            }
+        }
+        force(end);
+    }
+
+    private Changes changes() {
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    private long write(List<byte[]> records) {
+        try {
+            return log.write(records);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void force(long position) {
+        try {
+            log.force(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encode(byte kind, long id, Object entity) {
+        if (entity == null) {
+            return RecordCodec.delete(kind, id);
+        }
+        return kind == RecordCodec.DIARY
+                ? RecordCodec.put((Diary) entity)
+                : RecordCodec.put((Task) entity);
+    }
+
+    private static Object decode(byte[] record) {
+        return record[0] == RecordCodec.DIARY
+                ? RecordCodec.readDiary(body(record))
+                : RecordCodec.readTask(body(record));
+    }
+
+    /**
+     * 마지막 스냅샷과 그 뒤의 로그를 적용합니다.
+     *
+     * @return 새로 쓸 로그의 세대 번호
+     */
+    private long recover() throws IOException {
+        long startedAt = System.nanoTime();
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path temp : paths
+                    .filter(path -> path.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .collect(Collectors.toList())) {
+                Files.delete(temp);
+            }
+        }
+
+        long generation = 0;
+        List<Path> snapshots = snapshots();
+        if (!snapshots.isEmpty()) {
+            Path snapshot = snapshots.get(snapshots.size() - 1);
+            generation = snapshotGeneration(snapshot);
+            readSnapshot(snapshot);
+        }
+
+        long next = generation + 1;
+        for (Path file : WriteAheadLog.files(directory)) {
+            long fileGeneration = WriteAheadLog.generation(file);
+            if (fileGeneration < generation) {
+                continue;
+            }
+            recoveredRecords += WriteAheadLog.replay(file, this::apply);
+            next = Math.max(next, fileGeneration + 1);
+        }
+
+        recoveryMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        return next;
+    }
+
+    /**
+     * 스냅샷을 읽습니다. 스냅샷에는 id마다 레코드가 하나뿐이므로 모아서 한 번에 넣습니다.
+     */
+    private void readSnapshot(Path snapshot) throws IOException {
+        List<Diary> diaries = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        boolean[] complete = new boolean[1];
+
+        recoveredRecords += WriteAheadLog.replay(snapshot, record -> {
+            if (record[0] == END) {
+                complete[0] = true;
+                return;
+            }
+
+            if (record[0] == RecordCodec.DIARY) {
+                diaries.add(RecordCodec.readDiary(body(record)));
+            } else {
+                tasks.add(RecordCodec.readTask(body(record)));
+            }
+
+            if (diaries.size() + tasks.size() >= LOAD_BATCH_SIZE) {
+                load(diaries, tasks);
+            }
+        });
+        load(diaries, tasks);
+
+        if (!complete[0]) {
+            throw new IOException("Snapshot is incomplete: " + snapshot);
+        }
+    }
+
+    private void load(List<Diary> diaries, List<Task> tasks) {
+        diaryRepository.loadAll(diaries);
+        taskRepository.loadAll(tasks);
+        diaries.clear();
+        tasks.clear();
+    }
+
+    /**
+     * 로그 레코드 하나를 적용합니다.
+     */
+    private void apply(byte[] record) {
+        byte kind = record[0];
+        byte action = record[1];
+        ByteBuffer in = body(record);
+
+        if (kind == RecordCodec.DIARY && action == RecordCodec.PUT) {
+            diaryRepository.restore(RecordCodec.readDiary(in));
+        } else if (kind == RecordCodec.DIARY && action == RecordCodec.DELETE) {
+            diaryRepository.forget(in.getLong());
+        } else if (kind == RecordCodec.TASK && action == RecordCodec.PUT) {
+            taskRepository.restore(RecordCodec.readTask(in));
+        } else if (kind == RecordCodec.TASK && action == RecordCodec.DELETE) {
+            taskRepository.forget(in.getLong());
+        } else {
+            throw new IllegalStateException("Unknown record: " + kind + "/" + action);
+        }
+    }
+
+    /**
+     * 종류와 동작 바이트 뒤의 내용을 반환합니다.
+     */
+    private static ByteBuffer body(byte[] record) {
+        return ByteBuffer.wrap(record, 2, record.length - 2);
+    }
+
+    private void writeSnapshot(Path file) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file.toFile())) {
+            FrameOutput out = new FrameOutput(stream);
+
+            for (Diary diary : diaryRepository.findAllIncludingDeleted()) {
+                out.write(RecordCodec.put(diary));
+            }
+            for (Task task : taskRepository.findAllIncludingDeleted()) {
+                out.write(RecordCodec.put(task));
+            }
+            out.write(new byte[]{END});
+
+            out.flush();
+            stream.getChannel().force(true);
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(EmbeddedStore::snapshotGeneration))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    static String snapshotName(long generation) {
+        return String.format("%s%020d%s", SNAPSHOT_PREFIX, generation, SNAPSHOT_SUFFIX);
+    }
+
+    static long snapshotGeneration(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(
+                SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    /**
+     * 로그와 같은 길이, CRC 머리말을 붙여 스냅샷 레코드를 씁니다.
+     */
+    private static final class FrameOutput {
+        private final DataOutputStream out;
+
+        private final CRC32 crc = new CRC32();
+
+        private FrameOutput(OutputStream stream) {
+            this.out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        }
+
+        private void write(byte[] record) throws IOException {
+            crc.reset();
+            crc.update(record);
+            out.writeInt(record.length);
+            out.writeInt((int) crc.getValue());
+            out.write(record);
+        }
+
+        private void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * 한 트랜잭션에서 쓰는 엔티티 사본. 커밋 직전에 바뀐 것만 잠그고, 한 번에 로그에 덧붙여 메모리에 반영합니다.
+     * 롤백하면 사본을 버립니다.
+     */
+    private final class Changes extends TransactionSynchronizationAdapter {
+        private final Map<Long, Change> diaries = new LinkedHashMap<>();
+
+        private final Map<Long, Change> tasks = new LinkedHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        private <T> T loaded(byte kind, long id, T stored) {
+            Map<Long, Change> changes = changesOf(kind);
+            Change change = changes.get(id);
+            if (change == null) {
+                if (stored == null) {
+                    return null;
+                }
+                byte[] record = encode(kind, id, stored);
+                change = new Change(decode(record), record, false);
+                changes.put(id, change);
+            }
+            return (T) change.entity;
+        }
+
+        private void changed(byte kind, long id, Object entity) {
+            Change previous = changesOf(kind).get(id);
+            changesOf(kind).put(id, new Change(entity, previous == null ? null : previous.loaded, true));
+        }
+
+        private Map<Long, Change> changesOf(byte kind) {
+            return kind == RecordCodec.DIARY ? diaries : tasks;
+        }
+
+        /**
+         * 다이어리, 할 일 순서로 바뀐 엔티티를 id 순서대로 잠근 뒤, 레코드를 만들어 덧붙이고 메모리에 반영합니다.
+         */
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            List<Long> changedDiaries = changedIds(RecordCodec.DIARY, diaries);
+            List<Long> changedTasks = changedIds(RecordCodec.TASK, tasks);
+            changedDiaries.forEach(diaryRepository::lock);
+            changedTasks.forEach(taskRepository::lock);
+
+            long end;
+            synchronized (commitLock) {
+                List<byte[]> records = new ArrayList<>();
+                for (long id : changedDiaries) {
+                    records.add(encode(RecordCodec.DIARY, id, rebased(id, diaries.get(id))));
+                }
+                for (long id : changedTasks) {
+                    records.add(encode(RecordCodec.TASK, id, tasks.get(id).entity));
+                }
+
+                end = write(records);
+                records.forEach(EmbeddedStore.this::apply);
+            }
+            force(end);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EmbeddedStore.this);
+            diaries.clear();
+            tasks.clear();
+        }
+
+        private List<Long> changedIds(byte kind, Map<Long, Change> changes) {
+            return changes.entrySet().stream()
+                    .filter(entry -> entry.getValue().forced || !Arrays.equals(entry.getValue().loaded,
+                            encode(kind, entry.getKey(), entry.getValue().entity)))
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * 할 일 집계 값은 데이터베이스처럼 더하고 뺀 만큼만 반영합니다.
+         * 사본을 만든 뒤 다른 트랜잭션이 커밋한 집계 변경을 덮어쓰지 않도록, 지금 값에 이 트랜잭션의 변화량을 더합니다.
+         */
+        private Object rebased(long id, Change change) {
+            if (change.entity == null || change.loaded == null) {
+                return change.entity;
+            }
+
+            Diary diary = (Diary) change.entity;
+            Diary base = RecordCodec.readDiary(body(change.loaded));
+            diaryRepository.stored(id).ifPresent(stored -> diary.reconcileTaskCounts(
+                    stored.getTaskCount() + diary.getTaskCount() - base.getTaskCount(),
+                    stored.getDoneTaskCount() + diary.getDoneTaskCount() - base.getDoneTaskCount()));
+            return diary;
+        }
+    }
+
+    private static final class Change {
+        /**
+         * 이 트랜잭션에서 쓰는 엔티티. 삭제했으면 null입니다.
+         */
+        private final Object entity;
+
+        /**
+         * 처음 조회한 시점의 레코드. 이 트랜잭션에서 새로 저장했으면 null입니다.
+         */
+        private final byte[] loaded;
+
+        /**
+         * 저장하거나 삭제해 바뀌었는지와 관계없이 기록할지 여부.
+         */
+        private final boolean forced;
+
+        private Change(Object entity, byte[] loaded, boolean forced) {
+            this.entity = entity;
+            this.loaded = loaded;
+            this.forced = forced;
+        }
+    }
+}
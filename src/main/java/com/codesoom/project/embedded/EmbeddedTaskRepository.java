@@ -0,0 +1,112 @@
+package com.codesoom.project.embedded;
+
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.infra.InMemoryTaskRepository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 변경을 {@link EmbeddedStore}의 로그에 남기는 메모리 할 일 저장소.
+ *
+ * 사본을 돌려주고 기록하는 방식은 {@link EmbeddedDiaryRepository}와 같습니다.
+ */
+public class EmbeddedTaskRepository extends InMemoryTaskRepository {
+    private final EmbeddedStore store;
+
+    EmbeddedTaskRepository(EmbeddedStore store, int concurrency) {
+        super(concurrency);
+        this.store = store;
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return loaded(super.findAll());
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return Optional.ofNullable(store.loaded(RecordCodec.TASK, id, super.findById(id).orElse(null)));
+    }
+
+    @Override
+    public List<Task> findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(Long ownerId, Long diaryId) {
+        return loaded(super.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(ownerId, diaryId));
+    }
+
+    @Override
+    public Optional<Task> findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(Long ownerId, Long diaryId) {
+        return super.findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(ownerId, diaryId)
+                .map(task -> store.loaded(RecordCodec.TASK, task.getId(), task))
+                .filter(task -> !task.isDeleted());
+    }
+
+    @Override
+    public List<Task> findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(Long diaryId) {
+        return loaded(super.findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(diaryId));
+    }
+
+    @Override
+    public Optional<Task> findByIdAndOwnerId(Long id, Long ownerId) {
+        return findById(id)
+                .filter(task -> !task.isDeleted() && ownerId.equals(task.getOwnerId()));
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (!store.inTransaction()) {
+            store.writeThrough(() -> RecordCodec.put(super.save(task)));
+            return task;
+        }
+
+        long id = identify(task);
+        lockRow(id);
+        store.changed(RecordCodec.TASK, id, task);
+        return task;
+    }
+
+    @Override
+    public void delete(Task task) {
+        if (!store.inTransaction()) {
+            store.writeThrough(() -> {
+                super.delete(task);
+                return RecordCodec.delete(RecordCodec.TASK, task.getId());
+            });
+            return;
+        }
+
+        lockRow(task.getId());
+        store.changed(RecordCodec.TASK, task.getId(), null);
+    }
+
+    /**
+     * 커밋 전에 바뀐 할 일을 잠급니다.
+     */
+    void lock(long id) {
+        lockRow(id);
+    }
+
+    /**
+     * 복구한 할 일을 기록하지 않고 넣습니다.
+     */
+    void restore(Task task) {
+        super.save(task);
+    }
+
+    /**
+     * 복구 중 삭제 레코드를 만난 할 일을 기록하지 않고 지웁니다.
+     */
+    void forget(long id) {
+        super.findById(id).ifPresent(super::delete);
+    }
+
+    private List<Task> loaded(List<Task> tasks) {
+        return tasks.stream()
+                .map(task -> store.loaded(RecordCodec.TASK, task.getId(), task))
+                .filter(Objects::nonNull)
+                .filter(task -> !task.isDeleted())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,187 @@
+package com.codesoom.project.embedded;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 로그와 스냅샷에 쓰는 다이어리, 할 일 레코드의 이진 형식.
+ *
+ * 레코드는 종류 한 바이트와 동작 한 바이트로 시작합니다.
+ * 저장 레코드는 엔티티의 전체 상태를 담으므로 같은 레코드를 여러 번 적용해도 결과가 같고,
+ * 삭제 레코드는 id만 담습니다.
+ */
+final class RecordCodec {
+    static final byte DIARY = 1;
+
+    static final byte TASK = 2;
+
+    static final byte PUT = 1;
+
+    static final byte DELETE = 2;
+
+    private RecordCodec() {
+    }
+
+    static byte[] put(Diary diary) {
+        return encode(out -> {
+            out.writeByte(DIARY);
+            out.writeByte(PUT);
+            writeDiary(out, diary);
+        });
+    }
+
+    static byte[] put(Task task) {
+        return encode(out -> {
+            out.writeByte(TASK);
+            out.writeByte(PUT);
+            writeTask(out, task);
+        });
+    }
+
+    static byte[] delete(byte kind, long id) {
+        return encode(out -> {
+            out.writeByte(kind);
+            out.writeByte(DELETE);
+            out.writeLong(id);
+        });
+    }
+
+    static void writeDiary(DataOutput out, Diary diary) throws IOException {
+        out.writeLong(diary.getId());
+        writeNullableLong(out, diary.getOwnerId());
+        writeString(out, diary.getTitle());
+        writeString(out, diary.getComment());
+        out.writeLong(diary.getVersion());
+        out.writeLong(diary.getTaskCount());
+        out.writeLong(diary.getDoneTaskCount());
+        out.writeBoolean(diary.isDeleted());
+        writeDateTime(out, diary.getDeletedAt());
+    }
+
+    static Diary readDiary(ByteBuffer in) {
+        Diary diary = Diary.builder()
+                .id(in.getLong())
+                .ownerId(readNullableLong(in))
+                .title(readString(in))
+                .comment(readString(in))
+                .version(in.getLong())
+                .taskCount(in.getLong())
+                .doneTaskCount(in.getLong())
+                .build();
+
+        boolean deleted = readBoolean(in);
+        LocalDateTime deletedAt = readDateTime(in);
+        if (deleted) {
+            diary.markDeleted(deletedAt);
+        }
+        return diary;
+    }
+
+    static void writeTask(DataOutput out, Task task) throws IOException {
+        out.writeLong(task.getId());
+        writeNullableLong(out, task.getOwnerId());
+        writeNullableLong(out, task.getDiaryId());
+        writeString(out, task.getTitle());
+        writeString(out, task.getOrderKey());
+        out.writeBoolean(task.isDone());
+        out.writeBoolean(task.isDeleted());
+        writeDateTime(out, task.getDeletedAt());
+    }
+
+    static Task readTask(ByteBuffer in) {
+        Task task = Task.builder()
+                .id(in.getLong())
+                .ownerId(readNullableLong(in))
+                .diaryId(readNullableLong(in))
+                .title(readString(in))
+                .orderKey(readString(in))
+                .done(readBoolean(in))
+                .build();
+
+        boolean deleted = readBoolean(in);
+        LocalDateTime deletedAt = readDateTime(in);
+        if (deleted) {
+            task.markDeleted(deletedAt);
+        }
+        return task;
+    }
+
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeNullableLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(ByteBuffer in) {
+        return readBoolean(in) ? in.getLong() : null;
+    }
+
+    /**
+     * 문자열을 길이와 UTF-8 바이트로 씁니다. writeUTF와 달리 64KB보다 긴 내용도 쓸 수 있습니다.
+     */
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length,
+                StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        if (!readBoolean(in)) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+
+    private static boolean readBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutput out) throws IOException;
+    }
+}
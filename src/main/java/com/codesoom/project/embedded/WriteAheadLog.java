@@ -0,0 +1,351 @@
+package com.codesoom.project.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 변경 레코드를 순서대로 덧붙이는 로그.
+ *
+ * 로그 파일은 세대 번호로 이름 붙이며, 스냅샷을 뜰 때 다음 세대 파일로 넘어갑니다.
+ * 레코드마다 길이와 CRC를 앞에 붙여 끝이 잘린 레코드를 알아봅니다.
+ * fsync를 켜면 {@link #append(List)}는 레코드가 디스크에 내려간 뒤에 반환하고,
+ * 그동안 들어온 다른 스레드의 레코드는 다음 한 번의 fsync로 함께 내려갑니다.
+ */
+public class WriteAheadLog implements Closeable {
+    static final String FILE_PREFIX = "wal-";
+
+    static final String FILE_SUFFIX = ".log";
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    private final Path directory;
+
+    private final boolean fsync;
+
+    private final Object writeLock = new Object();
+
+    private final Object syncLock = new Object();
+
+    private final AtomicLong appendCount = new AtomicLong();
+
+    private final AtomicLong forceCount = new AtomicLong();
+
+    private FileChannel channel;
+
+    private long generation;
+
+    private long fileBytes;
+
+    private long written;
+
+    private long synced;
+
+    private WriteAheadLog(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    /**
+     * 주어진 세대의 로그 파일을 새로 만들어 엽니다.
+     *
+     * @param directory  로그 파일을 둘 디렉터리
+     * @param generation 세대 번호
+     * @param fsync      덧붙일 때마다 디스크에 내릴지 여부
+     * @return 열린 로그
+     * @throws IOException 파일을 만들 수 없을 경우
+     */
+    public static WriteAheadLog open(Path directory, long generation, boolean fsync)
+            throws IOException {
+        Files.createDirectories(directory);
+
+        WriteAheadLog log = new WriteAheadLog(directory, fsync);
+        log.startFile(generation);
+        return log;
+    }
+
+    /**
+     * 레코드를 한 번에 덧붙입니다.
+     *
+     * @param records 덧붙일 레코드 목록
+     * @throws IOException 파일에 쓰거나 디스크에 내릴 수 없을 경우
+     */
+    public void append(List<byte[]> records) throws IOException {
+        force(write(records));
+    }
+
+    /**
+     * 레코드를 한 번에 쓰되 디스크에 내리지는 않습니다. 돌려받은 위치로 {@link #force(long)}를 불러 내립니다.
+     *
+     * @param records 쓸 레코드 목록
+     * @return 쓴 레코드가 끝나는 위치
+     * @throws IOException 파일에 쓸 수 없을 경우
+     */
+    public long write(List<byte[]> records) throws IOException {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        ByteBuffer buffer = frame(records);
+        int size = buffer.remaining();
+
+        long end;
+        synchronized (writeLock) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            fileBytes += size;
+            written += size;
+            end = written;
+        }
+        appendCount.incrementAndGet();
+        return end;
+    }
+
+    /**
+     * 커밋마다 디스크에 내리도록 열었다면 주어진 위치까지 내립니다.
+     *
+     * @param position {@link #write(List)}가 돌려준 위치
+     * @throws IOException 디스크에 내릴 수 없을 경우
+     */
+    public void force(long position) throws IOException {
+        if (fsync) {
+            sync(position);
+        }
+    }
+
+    /**
+     * 다음 세대 파일로 넘어갑니다. 지금 파일은 디스크에 내린 뒤 닫습니다.
+     *
+     * @return 새 세대 번호
+     * @throws IOException 새 파일을 만들 수 없을 경우
+     */
+    public long rotate() throws IOException {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                channel.force(false);
+                channel.close();
+                synced = written;
+
+                startFile(generation + 1);
+                return generation;
+            }
+        }
+    }
+
+    /**
+     * 지금 쓰고 있는 세대 파일의 크기를 반환합니다.
+     *
+     * @return 바이트 수
+     */
+    public long fileBytes() {
+        synchronized (writeLock) {
+            return fileBytes;
+        }
+    }
+
+    public long generation() {
+        synchronized (writeLock) {
+            return generation;
+        }
+    }
+
+    public long appendCount() {
+        return appendCount.get();
+    }
+
+    public long forceCount() {
+        return forceCount.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * 주어진 위치까지 디스크에 내립니다.
+     * 먼저 fsync를 시작한 스레드가 그때까지 쓰인 전체를 내리므로,
+     * 기다리던 스레드는 자기 레코드가 이미 내려갔으면 바로 반환합니다.
+     */
+    private void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+
+            FileChannel target;
+            long upTo;
+            synchronized (writeLock) {
+                target = channel;
+                upTo = written;
+            }
+
+            target.force(false);
+            synced = upTo;
+            forceCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 새 세대 파일을 만들고, 전원이 나가도 파일이 디렉터리에 남도록 디렉터리도 디스크에 내립니다.
+     */
+    private void startFile(long generation) throws IOException {
+        channel = FileChannel.open(directory.resolve(fileName(generation)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        forceDirectory(directory);
+        this.generation = generation;
+        fileBytes = 0;
+    }
+
+    /**
+     * 디렉터리 항목의 변경(파일 생성, 이름 바꾸기)을 디스크에 내립니다.
+     * 파일 내용을 내리는 것만으로는 그 파일이 디렉터리에 남는다고 보장되지 않습니다.
+     *
+     * @param directory 디렉터리
+     * @throws IOException 디스크에 내릴 수 없을 경우
+     */
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static ByteBuffer frame(List<byte[]> records) {
+        int size = 0;
+        for (byte[] record : records) {
+            size += HEADER_BYTES + record.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc = new CRC32();
+        for (byte[] record : records) {
+            crc.reset();
+            crc.update(record);
+            buffer.putInt(record.length);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(record);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * 로그 파일의 레코드를 순서대로 읽습니다. 끝이 잘렸거나 CRC가 맞지 않는 레코드에서 멈춥니다.
+     *
+     * @param file     로그 파일
+     * @param consumer 레코드를 받을 함수
+     * @return 읽은 레코드 수
+     * @throws IOException 파일을 읽을 수 없을 경우
+     */
+    public static long replay(Path file, Consumer<byte[]> consumer) throws IOException {
+        long count = 0;
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES).flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            while (true) {
+                if (!fill(channel, buffer, HEADER_BYTES)) {
+                    break;
+                }
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > size) {
+                    break;
+                }
+
+                if (length > buffer.capacity()) {
+                    buffer = ByteBuffer.allocate(length).put(buffer).flip();
+                }
+                if (!fill(channel, buffer, length)) {
+                    break;
+                }
+
+                byte[] record = new byte[length];
+                buffer.get(record);
+
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                consumer.accept(record);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 버퍼에 읽을 바이트가 주어진 만큼 남도록 파일에서 더 읽습니다.
+     *
+     * @return 파일이 끝나 채우지 못했으면 false
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * 디렉터리의 로그 파일을 세대 순서로 반환합니다.
+     *
+     * @param directory 로그 파일이 있는 디렉터리
+     * @return 로그 파일 목록
+     * @throws IOException 디렉터리를 읽을 수 없을 경우
+     */
+    public static List<Path> files(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(WriteAheadLog::generation))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    static String fileName(long generation) {
+        return String.format("%s%020d%s", FILE_PREFIX, generation, FILE_SUFFIX);
+    }
+
+    static long generation(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(
+                FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+}
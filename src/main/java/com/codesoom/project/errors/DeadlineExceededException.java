@@ -0,0 +1,10 @@
+package com.codesoom.project.errors;
+
+/**
+ * 요청의 마감 시각이 지났을 경우 발생하는 예외.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException() {
+        super("Deadline exceeded");
+    }
+}
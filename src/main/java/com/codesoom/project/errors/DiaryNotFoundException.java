@@ -2,9 +2,23 @@ package com.codesoom.project.errors;
 
 /**
  * 다이어리를 찾을 수 없을 경우 발생하는 예외.
+ *
+ * 없는 id 조회는 흔한 요청이므로 스택 트레이스를 만들지 않고, 메시지는 필요할 때 만듭니다.
  */
 public class DiaryNotFoundException extends RuntimeException {
+    private final Long id;
+
     public DiaryNotFoundException(Long id) {
-        super("Diary ID not found: " + id);
+        super(null, null, false, false);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Diary ID not found: " + id;
     }
 }
@@ -0,0 +1,11 @@
+package com.codesoom.project.errors;
+
+/**
+ * 편집 기준 버전이 다이어리의 현재 버전과 다를 경우 발생하는 예외.
+ */
+public class DiaryVersionConflictException extends RuntimeException {
+    public DiaryVersionConflictException(Long id, long baseVersion, long currentVersion) {
+        super("Diary version conflict: " + id
+                + " (base " + baseVersion + ", current " + currentVersion + ")");
+    }
+}
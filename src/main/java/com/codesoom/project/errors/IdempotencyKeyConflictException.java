@@ -0,0 +1,10 @@
+package com.codesoom.project.errors;
+
+/**
+ * 멱등 키를 다른 요청에 다시 썼거나, 같은 키의 요청이 다른 서버에서 처리 중일 경우 발생하는 예외.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String idempotencyKey) {
+        super("Idempotency key conflict: " + idempotencyKey);
+    }
+}
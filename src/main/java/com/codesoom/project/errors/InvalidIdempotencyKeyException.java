@@ -0,0 +1,10 @@
+package com.codesoom.project.errors;
+
+/**
+ * 멱등 키가 비어 있거나 너무 길 경우 발생하는 예외.
+ */
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String idempotencyKey) {
+        super("Invalid idempotency key: " + idempotencyKey);
+    }
+}
@@ -0,0 +1,10 @@
+package com.codesoom.project.errors;
+
+/**
+ * 동기화 토큰이 유효하지 않을 경우 발생하는 예외.
+ */
+public class InvalidSyncTokenException extends RuntimeException {
+    public InvalidSyncTokenException(String token) {
+        super("Invalid sync token: " + token);
+    }
+}
@@ -0,0 +1,11 @@
+package com.codesoom.project.errors;
+
+/**
+ * 편집 구간이 대상 문자열을 벗어날 경우 발생하는 예외.
+ */
+public class InvalidTextEditException extends RuntimeException {
+    public InvalidTextEditException(int position, int deleteCount, int length) {
+        super("Invalid text edit: position " + position
+                + ", delete " + deleteCount + ", length " + length);
+    }
+}
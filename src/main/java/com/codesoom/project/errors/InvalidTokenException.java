@@ -0,0 +1,12 @@
+package com.codesoom.project.errors;
+
+/**
+ * 인증 토큰이 유효하지 않을 경우 발생하는 예외.
+ *
+ * 토큰 원문은 로그나 응답에 남지 않도록 메시지에 담지 않습니다.
+ */
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException() {
+        super("Invalid token");
+    }
+}
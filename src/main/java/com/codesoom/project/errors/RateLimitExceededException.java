@@ -0,0 +1,24 @@
+package com.codesoom.project.errors;
+
+/**
+ * 요청 빈도 제한을 넘었을 경우 발생하는 예외.
+ *
+ * 제한을 넘긴 클라이언트는 요청을 몰아서 보내므로 스택 트레이스를 만들지 않고, 메시지는 필요할 때 만듭니다.
+ */
+public class RateLimitExceededException extends RuntimeException {
+    private final String endpoint;
+
+    public RateLimitExceededException(String endpoint) {
+        super(null, null, false, false);
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Rate limit exceeded: " + endpoint;
+    }
+}
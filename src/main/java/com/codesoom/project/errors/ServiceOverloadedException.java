@@ -0,0 +1,24 @@
+package com.codesoom.project.errors;
+
+/**
+ * 동시 처리 요청 수 제한을 넘었을 경우 발생하는 예외.
+ *
+ * 과부하일 때 요청마다 던지므로 스택 트레이스를 만들지 않고, 메시지는 필요할 때 만듭니다.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    private final String endpoint;
+
+    public ServiceOverloadedException(String endpoint) {
+        super(null, null, false, false);
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Service overloaded: " + endpoint;
+    }
+}
@@ -0,0 +1,10 @@
+package com.codesoom.project.errors;
+
+/**
+ * 다른 샤드로 옮기는 중인 사용자의 데이터를 바꾸려고 할 경우 발생하는 예외.
+ */
+public class ShardMigrationInProgressException extends RuntimeException {
+    public ShardMigrationInProgressException(int bucket) {
+        super("Shard migration in progress: bucket " + bucket);
+    }
+}
@@ -0,0 +1,11 @@
+package com.codesoom.project.errors;
+
+/**
+ * 주어진 앞뒤 할 일 사이로 할 일을 옮길 수 없을 경우 발생하는 예외.
+ */
+public class TaskOrderConflictException extends RuntimeException {
+    public TaskOrderConflictException(Long id, Long previousTaskId, Long nextTaskId) {
+        super("Task order conflict: " + id
+                + " (previous " + previousTaskId + ", next " + nextTaskId + ")");
+    }
+}
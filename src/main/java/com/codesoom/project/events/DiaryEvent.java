@@ -0,0 +1,41 @@
+package com.codesoom.project.events;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.dto.DiaryResultData;
+import lombok.Getter;
+
+/**
+ * 다이어리가 생성, 수정, 삭제되었음을 알리는 이벤트.
+ */
+@Getter
+public class DiaryEvent {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+
+    private final Long ownerId;
+
+    private final DiaryResultData diary;
+
+    public DiaryEvent(Type type, Diary diary) {
+        this.type = type;
+        this.ownerId = diary.getOwnerId();
+        this.diary = DiaryResultData.of(diary);
+    }
+
+    public static DiaryEvent created(Diary diary) {
+        return new DiaryEvent(Type.CREATED, diary);
+    }
+
+    public static DiaryEvent updated(Diary diary) {
+        return new DiaryEvent(Type.UPDATED, diary);
+    }
+
+    public static DiaryEvent deleted(Diary diary) {
+        return new DiaryEvent(Type.DELETED, diary);
+    }
+}
@@ -0,0 +1,77 @@
+package com.codesoom.project.events;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 다른 인스턴스에서 다이어리나 할 일이 바뀌었음을 알리는 이벤트.
+ *
+ * 이 인스턴스가 메모리에 들고 있는 해당 다이어리나 할 일의 값을 버리는 데 사용합니다.
+ * {@link Type#RESET}은 전달 도중 이벤트를 잃었을 수 있다는 뜻으로, 대상 없이 보내며
+ * 받은 쪽은 어느 변경을 놓쳤는지 모르므로 메모리의 값 전체를 믿지 않아야 합니다.
+ */
+@Getter
+@ToString
+public class InvalidationEvent {
+    public enum Kind {
+        DIARY,
+        TASK
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        RESET
+    }
+
+    private final Kind kind;
+
+    private final Type type;
+
+    private final Long ownerId;
+
+    private final Long id;
+
+    private final Long diaryId;
+
+    private final String origin;
+
+    private final long publishedAt;
+
+    @Builder
+    public InvalidationEvent(Kind kind, Type type, Long ownerId, Long id, Long diaryId,
+                             String origin, long publishedAt) {
+        this.kind = kind;
+        this.type = type;
+        this.ownerId = ownerId;
+        this.id = id;
+        this.diaryId = diaryId;
+        this.origin = origin;
+        this.publishedAt = publishedAt;
+    }
+
+    /**
+     * 이벤트를 잃었을 수 있음을 알리는 이벤트를 만듭니다.
+     * 저장 형식을 맞추려고 종류는 다이어리로 둡니다.
+     *
+     * @param origin      이벤트를 잃은 인스턴스, 통로에서 잃었으면 null
+     * @param publishedAt 발행 시각
+     * @return 대상이 없는 무효화 이벤트
+     */
+    public static InvalidationEvent reset(String origin, long publishedAt) {
+        return new InvalidationEvent(Kind.DIARY, Type.RESET, null, null, null, origin, publishedAt);
+    }
+
+    public static InvalidationEvent of(DiaryEvent event, String origin, long publishedAt) {
+        Long id = event.getDiary().getId();
+        return new InvalidationEvent(Kind.DIARY, Type.valueOf(event.getType().name()),
+                event.getOwnerId(), id, id, origin, publishedAt);
+    }
+
+    public static InvalidationEvent of(TaskEvent event, String origin, long publishedAt) {
+        return new InvalidationEvent(Kind.TASK, Type.valueOf(event.getType().name()),
+                event.getOwnerId(), event.getTask().getId(), event.getDiaryId(), origin, publishedAt);
+    }
+}
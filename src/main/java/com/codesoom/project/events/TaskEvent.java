@@ -0,0 +1,44 @@
+package com.codesoom.project.events;
+
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.dto.TaskResultData;
+import lombok.Getter;
+
+/**
+ * 할 일이 추가, 수정, 삭제되었음을 알리는 이벤트.
+ */
+@Getter
+public class TaskEvent {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+
+    private final Long ownerId;
+
+    private final Long diaryId;
+
+    private final TaskResultData task;
+
+    public TaskEvent(Type type, Task task) {
+        this.type = type;
+        this.ownerId = task.getOwnerId();
+        this.diaryId = task.getDiaryId();
+        this.task = TaskResultData.of(task);
+    }
+
+    public static TaskEvent created(Task task) {
+        return new TaskEvent(Type.CREATED, task);
+    }
+
+    public static TaskEvent updated(Task task) {
+        return new TaskEvent(Type.UPDATED, task);
+    }
+
+    public static TaskEvent deleted(Task task) {
+        return new TaskEvent(Type.DELETED, task);
+    }
+}
@@ -0,0 +1,229 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.utils.StripedLongMap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 다이어리를 메모리에 보관하는 저장소.
+ *
+ * 저장한 인스턴스를 그대로 보관하고 돌려주므로, 조회한 다이어리를 고치면 save 없이도 바로 반영됩니다.
+ * 트랜잭션에 참여하지 않아 롤백해도 고친 내용이 되돌아가지 않습니다.
+ * 잠금 조회는 {@link RowLocks}로 id를 잠가 트랜잭션이 끝날 때까지 다른 잠금 조회를 기다리게 합니다.
+ * 삭제 표시한 다이어리는 JPA 저장소처럼 id 조회 외에는 보이지 않습니다.
+ */
+public class InMemoryDiaryRepository implements DiaryRepository {
+    private static final VarHandle ID;
+
+    static {
+        try {
+            ID = MethodHandles.privateLookupIn(Diary.class, MethodHandles.lookup())
+                    .findVarHandle(Diary.class, "id", Long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final StripedLongMap<Diary> diaries;
+
+    private final LongIdIndex idsByOwner;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final RowLocks rowLocks = new RowLocks();
+
+    private final InMemoryTaskRepository taskRepository;
+
+    public InMemoryDiaryRepository(InMemoryTaskRepository taskRepository, int concurrency) {
+        this.taskRepository = taskRepository;
+        this.diaries = new StripedLongMap<>(concurrency);
+        this.idsByOwner = new LongIdIndex(concurrency);
+    }
+
+    @Override
+    public List<Diary> findAll() {
+        return diaries.values().stream()
+                .filter(diary -> !diary.isDeleted())
+                .sorted(Comparator.comparing(Diary::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 삭제 표시한 것까지 포함해 보관 중인 다이어리를 모두 반환합니다. 순서는 정해져 있지 않습니다.
+     *
+     * @return 다이어리 목록
+     */
+    public List<Diary> findAllIncludingDeleted() {
+        return diaries.values();
+    }
+
+    @Override
+    public Optional<Diary> findById(Long id) {
+        return Optional.ofNullable(diaries.get(id));
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        return findAll().stream()
+                .map(Diary::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Diary> findAllByOwnerId(Long ownerId) {
+        List<Diary> found = new ArrayList<>();
+        for (long id : idsByOwner.get(ownerId)) {
+            Diary diary = diaries.get(id);
+            if (diary != null && !diary.isDeleted()) {
+                found.add(diary);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Optional<Diary> findByIdAndOwnerId(Long id, Long ownerId) {
+        Diary diary = diaries.get(id);
+        if (diary == null || diary.isDeleted() || !ownerId.equals(diary.getOwnerId())) {
+            return Optional.empty();
+        }
+        return Optional.of(diary);
+    }
+
+    @Override
+    public Optional<Diary> findForUpdateByIdAndOwnerId(Long id, Long ownerId) {
+        rowLocks.lock(id);
+        return findByIdAndOwnerId(id, ownerId);
+    }
+
+    @Override
+    public Optional<Diary> findForUpdateById(Long id) {
+        rowLocks.lock(id);
+        return findById(id).filter(diary -> !diary.isDeleted());
+    }
+
+    @Override
+    public List<Diary> findAllByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids) {
+        return ids.stream()
+                .distinct()
+                .sorted()
+                .map(id -> findByIdAndOwnerId(id, ownerId))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Diary save(Diary diary) {
+        long id = identify(diary);
+
+        if (diaries.put(id, diary) == null && diary.getOwnerId() != null) {
+            idsByOwner.add(diary.getOwnerId(), id);
+        }
+        return diary;
+    }
+
+    /**
+     * 새 다이어리면 id를 정해 주고, 아니면 앞으로 정할 id가 겹치지 않게 합니다. 다이어리를 넣지는 않습니다.
+     *
+     * @param diary 다이어리
+     * @return 다이어리의 id
+     */
+    protected long identify(Diary diary) {
+        Long id = diary.getId();
+        if (id == null) {
+            id = sequence.incrementAndGet();
+            ID.set(diary, id);
+        } else {
+            sequence.accumulateAndGet(id, Math::max);
+        }
+        return id;
+    }
+
+    /**
+     * 지금 트랜잭션이 끝날 때까지 주어진 id의 다이어리를 잠급니다.
+     *
+     * @param id 다이어리 식별자
+     */
+    protected void lockRow(long id) {
+        rowLocks.lock(id);
+    }
+
+    /**
+     * id가 정해진 다이어리를 한 번에 넣습니다. 이미 있는 id는 덮어씁니다.
+     * 사용자별 색인을 사용자마다 한 번만 바꾸므로 많은 다이어리를 되살릴 때 씁니다.
+     *
+     * @param loaded 넣을 다이어리 목록
+     */
+    public void loadAll(List<Diary> loaded) {
+        Map<Long, List<Long>> added = new HashMap<>();
+        for (Diary diary : loaded) {
+            long id = diary.getId();
+            sequence.accumulateAndGet(id, Math::max);
+
+            if (diaries.put(id, diary) == null && diary.getOwnerId() != null) {
+                added.computeIfAbsent(diary.getOwnerId(), key -> new ArrayList<>()).add(id);
+            }
+        }
+
+        added.forEach((key, ids) -> idsByOwner.addAll(key,
+                ids.stream().mapToLong(Long::longValue).toArray()));
+    }
+
+    @Override
+    public void delete(Diary diary) {
+        if (diaries.remove(diary.getId()) != null && diary.getOwnerId() != null) {
+            idsByOwner.remove(diary.getOwnerId(), diary.getId());
+        }
+    }
+
+    @Override
+    public int purgeDeletedBefore(LocalDateTime deletedBefore, int limit) {
+        List<Diary> expired = diaries.values().stream()
+                .filter(diary -> diary.isDeleted()
+                        && diary.getDeletedAt() != null
+                        && diary.getDeletedAt().isBefore(deletedBefore))
+                .limit(limit)
+                .collect(Collectors.toList());
+
+        expired.forEach(this::delete);
+        return expired.size();
+    }
+
+    @Override
+    public int adjustTaskCounts(Long id, Long ownerId, long taskDelta, long doneTaskDelta) {
+        Diary adjusted = diaries.compute(id, diary -> {
+            if (diary != null && diary.getOwnerId().equals(ownerId)) {
+                diary.reconcileTaskCounts(diary.getTaskCount() + taskDelta,
+                        diary.getDoneTaskCount() + doneTaskDelta);
+            }
+            return diary;
+        });
+        return adjusted == null || !adjusted.getOwnerId().equals(ownerId) ? 0 : 1;
+    }
+
+    @Override
+    public List<Long> findIdsWithTaskCountDrift(int limit) {
+        return findAll().stream()
+                .filter(diary -> diary.getTaskCount()
+                        != taskRepository.countByOwnerIdAndDiaryId(diary.getOwnerId(), diary.getId())
+                        || diary.getDoneTaskCount()
+                        != taskRepository.countByOwnerIdAndDiaryIdAndDoneTrue(
+                                diary.getOwnerId(), diary.getId()))
+                .limit(limit)
+                .map(Diary::getId)
+                .collect(Collectors.toList());
+    }
+}
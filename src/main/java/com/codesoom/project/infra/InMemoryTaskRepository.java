@@ -0,0 +1,263 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.utils.StripedLongMap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 할 일을 메모리에 보관하는 저장소.
+ *
+ * 다이어리별 할 일 id 색인을 두어 목록 조회가 전체 할 일을 훑지 않게 합니다.
+ * 순서 키가 없는 할 일은 데이터베이스처럼 가장 앞에 두고, 순서 키가 같으면 id 순으로 둡니다.
+ * 인스턴스를 그대로 보관하는 점과 트랜잭션, 잠금에 관한 동작은 {@link InMemoryDiaryRepository}와 같고,
+ * 할 일 잠금 조회는 교착을 피하려고 id 순서로 잠급니다.
+ */
+public class InMemoryTaskRepository implements TaskRepository {
+    private static final VarHandle ID;
+
+    private static final Comparator<Task> BY_ORDER_KEY = Comparator.<Task, String>comparing(
+            Task::getOrderKey, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Task::getId);
+
+    static {
+        try {
+            ID = MethodHandles.privateLookupIn(Task.class, MethodHandles.lookup())
+                    .findVarHandle(Task.class, "id", Long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final StripedLongMap<Task> tasks;
+
+    private final LongIdIndex idsByDiary;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final RowLocks rowLocks = new RowLocks();
+
+    public InMemoryTaskRepository(int concurrency) {
+        this.tasks = new StripedLongMap<>(concurrency);
+        this.idsByDiary = new LongIdIndex(concurrency);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return tasks.values().stream()
+                .filter(task -> !task.isDeleted())
+                .sorted(Comparator.comparing(Task::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 삭제 표시한 것까지 포함해 보관 중인 할 일을 모두 반환합니다. 순서는 정해져 있지 않습니다.
+     *
+     * @return 할 일 목록
+     */
+    public List<Task> findAllIncludingDeleted() {
+        return tasks.values();
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return Optional.ofNullable(tasks.get(id));
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        return findAll().stream()
+                .map(Task::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Task> findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(Long ownerId, Long diaryId) {
+        List<Task> found = tasksOf(ownerId, diaryId);
+        found.sort(BY_ORDER_KEY);
+        return found;
+    }
+
+    @Override
+    public Optional<Task> findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(Long ownerId, Long diaryId) {
+        return tasksOf(ownerId, diaryId).stream()
+                .max(BY_ORDER_KEY);
+    }
+
+    @Override
+    public List<Task> findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(Long diaryId) {
+        List<Task> found = tasksOf(null, diaryId);
+        found.stream()
+                .mapToLong(Task::getId)
+                .sorted()
+                .forEach(rowLocks::lock);
+
+        found.sort(BY_ORDER_KEY);
+        return found;
+    }
+
+    @Override
+    public List<Long> findDiaryIdsToRebalance(int maxKeyLength) {
+        Map<Long, List<Task>> byDiary = tasks.values().stream()
+                .filter(task -> !task.isDeleted())
+                .collect(Collectors.groupingBy(Task::getDiaryId));
+
+        return byDiary.entrySet().stream()
+                .filter(entry -> needsRebalance(entry.getValue(), maxKeyLength))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static boolean needsRebalance(List<Task> tasks, int maxKeyLength) {
+        Set<String> keys = new HashSet<>();
+        for (Task task : tasks) {
+            String key = task.getOrderKey();
+            if (key == null || key.length() > maxKeyLength || !keys.add(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long countByOwnerIdAndDiaryId(Long ownerId, Long diaryId) {
+        return tasksOf(ownerId, diaryId).size();
+    }
+
+    @Override
+    public long countByOwnerIdAndDiaryIdAndDoneTrue(Long ownerId, Long diaryId) {
+        return tasksOf(ownerId, diaryId).stream()
+                .filter(Task::isDone)
+                .count();
+    }
+
+    @Override
+    public Optional<Task> findByIdAndOwnerId(Long id, Long ownerId) {
+        Task task = tasks.get(id);
+        if (task == null || task.isDeleted() || !ownerId.equals(task.getOwnerId())) {
+            return Optional.empty();
+        }
+        return Optional.of(task);
+    }
+
+    @Override
+    public List<Task> findAllByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids) {
+        return ids.stream()
+                .distinct()
+                .sorted()
+                .map(id -> findByIdAndOwnerId(id, ownerId))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Task save(Task task) {
+        long id = identify(task);
+
+        if (tasks.put(id, task) == null && task.getDiaryId() != null) {
+            idsByDiary.add(task.getDiaryId(), id);
+        }
+        return task;
+    }
+
+    /**
+     * 새 할 일이면 id를 정해 주고, 아니면 앞으로 정할 id가 겹치지 않게 합니다. 할 일을 넣지는 않습니다.
+     *
+     * @param task 할 일
+     * @return 할 일의 id
+     */
+    protected long identify(Task task) {
+        Long id = task.getId();
+        if (id == null) {
+            id = sequence.incrementAndGet();
+            ID.set(task, id);
+        } else {
+            sequence.accumulateAndGet(id, Math::max);
+        }
+        return id;
+    }
+
+    /**
+     * 지금 트랜잭션이 끝날 때까지 주어진 id의 할 일을 잠급니다.
+     *
+     * @param id 할 일 식별자
+     */
+    protected void lockRow(long id) {
+        rowLocks.lock(id);
+    }
+
+    /**
+     * id가 정해진 할 일을 한 번에 넣습니다. 이미 있는 id는 덮어씁니다.
+     * 다이어리별 색인을 다이어리마다 한 번만 바꾸므로 많은 할 일을 되살릴 때 씁니다.
+     *
+     * @param loaded 넣을 할 일 목록
+     */
+    public void loadAll(List<Task> loaded) {
+        Map<Long, List<Long>> added = new HashMap<>();
+        for (Task task : loaded) {
+            long id = task.getId();
+            sequence.accumulateAndGet(id, Math::max);
+
+            if (tasks.put(id, task) == null && task.getDiaryId() != null) {
+                added.computeIfAbsent(task.getDiaryId(), key -> new ArrayList<>()).add(id);
+            }
+        }
+
+        added.forEach((key, ids) -> idsByDiary.addAll(key,
+                ids.stream().mapToLong(Long::longValue).toArray()));
+    }
+
+    @Override
+    public void delete(Task task) {
+        if (tasks.remove(task.getId()) != null && task.getDiaryId() != null) {
+            idsByDiary.remove(task.getDiaryId(), task.getId());
+        }
+    }
+
+    @Override
+    public int purgeDeletedBefore(LocalDateTime deletedBefore, int limit) {
+        List<Task> expired = tasks.values().stream()
+                .filter(task -> task.isDeleted()
+                        && task.getDeletedAt() != null
+                        && task.getDeletedAt().isBefore(deletedBefore))
+                .limit(limit)
+                .collect(Collectors.toList());
+
+        expired.forEach(this::delete);
+        return expired.size();
+    }
+
+    /**
+     * 다이어리에 속한, 삭제되지 않은 할 일을 id 순서로 반환합니다.
+     *
+     * @param ownerId 사용자 식별자, null이면 사용자를 가리지 않습니다
+     * @param diaryId 다이어리 식별자
+     * @return 할 일 목록
+     */
+    private List<Task> tasksOf(Long ownerId, Long diaryId) {
+        List<Task> found = new ArrayList<>();
+        for (long id : idsByDiary.get(diaryId)) {
+            Task task = tasks.get(id);
+            if (task != null && !task.isDeleted()
+                    && (ownerId == null || ownerId.equals(task.getOwnerId()))) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+}
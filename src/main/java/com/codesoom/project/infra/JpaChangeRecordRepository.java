@@ -0,0 +1,27 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.domain.ChangeRecord;
+import com.codesoom.project.domain.ChangeRecordRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+@Primary
+public interface JpaChangeRecordRepository
+        extends ChangeRecordRepository, CrudRepository<ChangeRecord, Long> {
+    Optional<ChangeRecord> findByEntityTypeAndEntityId(
+            ChangeRecord.EntityType entityType, Long entityId);
+
+    List<ChangeRecord> findAllByOwnerIdAndSeqGreaterThanOrderBySeq(
+            Long ownerId, Long seq, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(r.seq), 0) FROM ChangeRecord r WHERE r.ownerId = :ownerId")
+    Long findLastSeqByOwnerId(@Param("ownerId") Long ownerId);
+
+    ChangeRecord save(ChangeRecord changeRecord);
+}
@@ -0,0 +1,29 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.domain.ChangeSequence;
+import com.codesoom.project.domain.ChangeSequenceRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Primary
+public interface JpaChangeSequenceRepository
+        extends ChangeSequenceRepository, CrudRepository<ChangeSequence, Long> {
+    boolean existsByOwnerId(Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ChangeSequence> findForUpdateByOwnerId(Long ownerId);
+
+    @Modifying
+    @Query(value = "INSERT INTO change_sequence (owner_id, last_seq) VALUES (:ownerId, :lastSeq)",
+            nativeQuery = true)
+    int insert(@Param("ownerId") Long ownerId, @Param("lastSeq") Long lastSeq);
+
+    ChangeSequence save(ChangeSequence changeSequence);
+}
@@ -3,8 +3,18 @@ package com.codesoom.project.infra;
 import com.codesoom.project.domain.Diary;
 import com.codesoom.project.domain.DiaryRepository;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +25,80 @@ public interface JpaDiaryRepository
 
     Optional<Diary> findById(Long id);
 
+    @Query("SELECT d.id FROM Diary d")
+    List<Long> findAllIds();
+
+    List<Diary> findAllByOwnerId(Long ownerId);
+
+    Optional<Diary> findByIdAndOwnerId(Long id, Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Diary> findForUpdateByIdAndOwnerId(Long id, Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Diary> findForUpdateById(Long id);
+
+    List<Diary> findAllByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
     Diary save(Diary diary);
 
     void delete(Diary diary);
+
+    @Query(value = "SELECT id, comment_id FROM diary WHERE deleted = true "
+            + "AND deleted_at < :deletedBefore LIMIT :limit", nativeQuery = true)
+    List<Object[]> findIdsDeletedBefore(@Param("deletedBefore") LocalDateTime deletedBefore,
+                                        @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM diary WHERE id IN (:ids)", nativeQuery = true)
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM diary_comment WHERE id IN (:ids)", nativeQuery = true)
+    int deleteCommentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 보관 기간이 지난 다이어리를 지우고, 다이어리가 참조하던 내용도 같은 트랜잭션에서 지웁니다.
+     * 내용은 다이어리가 참조하므로 다이어리를 지운 뒤에 지웁니다.
+     */
+    default int purgeDeletedBefore(LocalDateTime deletedBefore, int limit) {
+        List<Long> ids = new ArrayList<>();
+        List<Long> commentIds = new ArrayList<>();
+        for (Object[] row : findIdsDeletedBefore(deletedBefore, limit)) {
+            ids.add(((Number) row[0]).longValue());
+            if (row[1] != null) {
+                commentIds.add(((Number) row[1]).longValue());
+            }
+        }
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int purged = deleteAllByIdIn(ids);
+        if (!commentIds.isEmpty()) {
+            deleteCommentsByIdIn(commentIds);
+        }
+        return purged;
+    }
+
+    @Modifying
+    @Query("UPDATE Diary d SET d.taskCount = d.taskCount + :taskDelta, "
+            + "d.doneTaskCount = d.doneTaskCount + :doneTaskDelta "
+            + "WHERE d.id = :id AND d.ownerId = :ownerId")
+    int adjustTaskCounts(@Param("id") Long id,
+                         @Param("ownerId") Long ownerId,
+                         @Param("taskDelta") long taskDelta,
+                         @Param("doneTaskDelta") long doneTaskDelta);
+
+    @Query("SELECT d.id FROM Diary d WHERE d.taskCount <> ("
+            + "SELECT COUNT(t) FROM Task t WHERE t.ownerId = d.ownerId AND t.diaryId = d.id) "
+            + "OR d.doneTaskCount <> ("
+            + "SELECT COUNT(t) FROM Task t WHERE t.ownerId = d.ownerId AND t.diaryId = d.id "
+            + "AND t.done = true) ORDER BY d.id")
+    List<Long> findIdsWithTaskCountDrift(Pageable pageable);
+
+    default List<Long> findIdsWithTaskCountDrift(int limit) {
+        return findIdsWithTaskCountDrift(PageRequest.of(0, limit));
+    }
 }
@@ -0,0 +1,32 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.domain.IdempotencyRecord;
+import com.codesoom.project.domain.IdempotencyRecordRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Primary
+public interface JpaIdempotencyRecordRepository
+        extends IdempotencyRecordRepository, CrudRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByOwnerIdAndIdempotencyKey(Long ownerId, String idempotencyKey);
+
+    IdempotencyRecord save(IdempotencyRecord idempotencyRecord);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r "
+            + "WHERE r.ownerId = :ownerId AND r.idempotencyKey = :idempotencyKey")
+    int deleteByOwnerIdAndIdempotencyKey(@Param("ownerId") Long ownerId,
+                                         @Param("idempotencyKey") String idempotencyKey);
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_record WHERE created_at < :createdBefore "
+            + "LIMIT :limit", nativeQuery = true)
+    int purgeCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore,
+                           @Param("limit") int limit);
+}
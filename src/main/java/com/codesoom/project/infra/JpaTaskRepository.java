@@ -3,8 +3,15 @@ package com.codesoom.project.infra;
 import com.codesoom.project.domain.Task;
 import com.codesoom.project.domain.TaskRepository;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +22,37 @@ public interface JpaTaskRepository
 
     Optional<Task> findById(Long id);
 
+    @Query("SELECT t.id FROM Task t")
+    List<Long> findAllIds();
+
+    List<Task> findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(Long ownerId, Long diaryId);
+
+    Optional<Task> findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(Long ownerId, Long diaryId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Task> findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(Long diaryId);
+
+    @Query("SELECT DISTINCT t.diaryId FROM Task t "
+            + "WHERE t.orderKey IS NULL OR LENGTH(t.orderKey) > :maxKeyLength "
+            + "OR EXISTS (SELECT o.id FROM Task o WHERE o.diaryId = t.diaryId "
+            + "AND o.orderKey = t.orderKey AND o.id <> t.id)")
+    List<Long> findDiaryIdsToRebalance(@Param("maxKeyLength") int maxKeyLength);
+
+    long countByOwnerIdAndDiaryId(Long ownerId, Long diaryId);
+
+    long countByOwnerIdAndDiaryIdAndDoneTrue(Long ownerId, Long diaryId);
+
+    Optional<Task> findByIdAndOwnerId(Long id, Long ownerId);
+
+    List<Task> findAllByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
     Task save(Task task);
 
     void delete(Task task);
+
+    @Modifying
+    @Query(value = "DELETE FROM task WHERE deleted = true AND deleted_at < :deletedBefore "
+            + "LIMIT :limit", nativeQuery = true)
+    int purgeDeletedBefore(@Param("deletedBefore") LocalDateTime deletedBefore,
+                           @Param("limit") int limit);
 }
@@ -0,0 +1,93 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.utils.StripedLongMap;
+
+import java.util.Arrays;
+
+/**
+ * 사용자나 다이어리 같은 묶음 식별자별로 속한 id를 정렬해 보관하는 색인.
+ *
+ * 묶음마다 정렬된 배열을 두고, 바꿀 때는 새 배열로 바꿔 끼우므로 읽는 쪽은 잠그지 않습니다.
+ */
+final class LongIdIndex {
+    private static final long[] EMPTY = new long[0];
+
+    private final StripedLongMap<long[]> ids;
+
+    LongIdIndex(int concurrency) {
+        this.ids = new StripedLongMap<>(concurrency);
+    }
+
+    void add(long key, long id) {
+        ids.compute(key, current -> {
+            long[] existing = current == null ? EMPTY : current;
+            int position = Arrays.binarySearch(existing, id);
+            if (position >= 0) {
+                return existing;
+            }
+
+            int insertAt = -position - 1;
+            long[] updated = new long[existing.length + 1];
+            System.arraycopy(existing, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(existing, insertAt, updated, insertAt + 1, existing.length - insertAt);
+            return updated;
+        });
+    }
+
+    /**
+     * 묶음에 여러 id를 한 번에 더합니다. 배열을 한 번만 바꿔 끼우므로 많이 넣을 때 add를 되풀이하는 것보다 빠릅니다.
+     *
+     * @param key   묶음 식별자
+     * @param added 더할 id, 정렬해 둡니다
+     */
+    void addAll(long key, long[] added) {
+        Arrays.sort(added);
+        ids.compute(key, current -> {
+            long[] existing = current == null ? EMPTY : current;
+            long[] merged = new long[existing.length + added.length];
+
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < existing.length || j < added.length) {
+                long next = j == added.length || (i < existing.length && existing[i] <= added[j])
+                        ? existing[i++]
+                        : added[j++];
+                if (size == 0 || merged[size - 1] != next) {
+                    merged[size++] = next;
+                }
+            }
+            return size == merged.length ? merged : Arrays.copyOf(merged, size);
+        });
+    }
+
+    void remove(long key, long id) {
+        ids.compute(key, current -> {
+            if (current == null) {
+                return null;
+            }
+
+            int position = Arrays.binarySearch(current, id);
+            if (position < 0) {
+                return current;
+            }
+            if (current.length == 1) {
+                return null;
+            }
+
+            long[] updated = new long[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, position);
+            System.arraycopy(current, position + 1, updated, position, updated.length - position);
+            return updated;
+        });
+    }
+
+    /**
+     * 묶음에 속한 id를 오름차순으로 반환합니다. 반환한 배열은 고치지 않습니다.
+     */
+    long[] get(long key) {
+        long[] found = ids.get(key);
+        return found == null ? EMPTY : found;
+    }
+}
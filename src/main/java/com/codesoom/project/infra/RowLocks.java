@@ -0,0 +1,104 @@
+package com.codesoom.project.infra;
+
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 메모리 저장소의 id별 행 잠금.
+ *
+ * 트랜잭션 안에서 잠근 id는 데이터베이스의 행 잠금처럼 트랜잭션이 끝날 때 함께 풀리고,
+ * 같은 트랜잭션이 다시 잠그면 기다리지 않습니다. 트랜잭션 밖에서는 잠그지 않습니다.
+ * 정해진 시간 안에 잠그지 못하면 잠금 대기 시간 초과처럼 예외를 던집니다.
+ */
+public class RowLocks {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private final Map<Long, Entry> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 지금 트랜잭션이 끝날 때까지 주어진 id를 잠급니다.
+     *
+     * @param id 잠글 id
+     * @throws CannotAcquireLockException 정해진 시간 안에 잠그지 못한 경우
+     */
+    public void lock(long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        Held held = held();
+        if (held.ids.contains(id)) {
+            return;
+        }
+
+        Entry entry = locks.compute(id, (key, current) -> {
+            Entry next = current == null ? new Entry() : current;
+            next.users++;
+            return next;
+        });
+
+        boolean acquired;
+        try {
+            acquired = entry.lock.tryLock(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            release(id, false);
+            throw new CannotAcquireLockException("Could not lock row " + id);
+        }
+        held.ids.add(id);
+    }
+
+    private Held held() {
+        Held held = (Held) TransactionSynchronizationManager.getResource(this);
+        if (held == null) {
+            held = new Held();
+            TransactionSynchronizationManager.bindResource(this, held);
+            TransactionSynchronizationManager.registerSynchronization(held);
+        }
+        return held;
+    }
+
+    private void release(long id, boolean locked) {
+        locks.computeIfPresent(id, (key, entry) -> {
+            if (locked) {
+                entry.lock.unlock();
+            }
+            return --entry.users == 0 ? null : entry;
+        });
+    }
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * 잠그고 있거나 기다리는 트랜잭션 수. 0이 되면 맵에서 뺍니다.
+         */
+        private int users;
+    }
+
+    /**
+     * 한 트랜잭션이 잠근 id. 트랜잭션이 끝나면 잠근 순서대로 풉니다.
+     */
+    private final class Held extends TransactionSynchronizationAdapter {
+        private final Set<Long> ids = new LinkedHashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RowLocks.this);
+            ids.forEach(id -> release(id, true));
+            ids.clear();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.codesoom.project.interceptors;
+
+import com.codesoom.project.application.AuthenticationService;
+import com.codesoom.project.errors.InvalidTokenException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청의 인증 토큰을 검증하고 사용자 식별자를 요청 속성에 담습니다.
+ */
+public class AuthenticationInterceptor implements HandlerInterceptor {
+    public static final String USER_ID = "userId";
+
+    private static final String BEARER = "Bearer ";
+
+    private static final String ACCESS_TOKEN_PARAMETER = "access_token";
+
+    private final AuthenticationService authenticationService;
+
+    public AuthenticationInterceptor(AuthenticationService authenticationService) {
+        this.authenticationService = authenticationService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request,
+                             HttpServletResponse response,
+                             Object handler) {
+        if ("OPTIONS".equals(request.getMethod())
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String accessToken = accessTokenOf(request);
+        if (accessToken == null) {
+            throw new InvalidTokenException();
+        }
+
+        Long userId = authenticationService.parseToken(accessToken);
+
+        request.setAttribute(USER_ID, userId);
+
+        return true;
+    }
+
+    /**
+     * 요청에서 인증 토큰을 꺼냅니다.
+     *
+     * 헤더를 지정할 수 없는 EventSource를 위해, SSE 요청에 한해서는
+     * access_token 파라미터로 전달된 토큰도 받습니다.
+     *
+     * @param request 요청
+     * @return 인증 토큰, 없으면 null
+     */
+    static String accessTokenOf(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER)) {
+            return authorization.substring(BEARER.length());
+        }
+
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            String accessToken = request.getParameter(ACCESS_TOKEN_PARAMETER);
+            if (accessToken != null) {
+                return accessToken;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.codesoom.project.interceptors;
+
+import com.codesoom.project.deadline.Deadline;
+import com.codesoom.project.deadline.DeadlineContext;
+import com.codesoom.project.deadline.DeadlinePolicy;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청의 마감 시각을 정해 처리하는 스레드에 담고, 끝나면 마감 시각을 지켰는지 기록합니다.
+ *
+ * 비동기 처리로 넘어간 요청은 스레드를 놓으므로 그 시점에 마감 시각을 지우고 기록하지 않습니다.
+ */
+public class DeadlineInterceptor implements AsyncHandlerInterceptor {
+    private static final String DEADLINE = DeadlineInterceptor.class.getName() + ".deadline";
+
+    private final DeadlinePolicy deadlinePolicy;
+
+    public DeadlineInterceptor(DeadlinePolicy deadlinePolicy) {
+        this.deadlinePolicy = deadlinePolicy;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request,
+                             HttpServletResponse response,
+                             Object handler) {
+        if (!deadlinePolicy.isEnabled()
+                || !(handler instanceof HandlerMethod)
+                || "OPTIONS".equals(request.getMethod())
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String pattern = (String) request.getAttribute(
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        Deadline deadline = deadlinePolicy.deadlineFor(request.getMethod(), pattern,
+                request.getHeader(deadlinePolicy.getHeader()));
+
+        request.setAttribute(DEADLINE, deadline);
+        DeadlineContext.set(deadline);
+
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request,
+                                               HttpServletResponse response,
+                                               Object handler) {
+        if (request.getAttribute(DEADLINE) != null) {
+            request.removeAttribute(DEADLINE);
+            DeadlineContext.clear();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        Deadline deadline = (Deadline) request.getAttribute(DEADLINE);
+        if (deadline != null) {
+            request.removeAttribute(DEADLINE);
+            DeadlineContext.clear();
+            deadlinePolicy.record(deadline);
+        }
+    }
+}
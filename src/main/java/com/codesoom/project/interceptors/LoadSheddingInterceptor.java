@@ -0,0 +1,85 @@
+package com.codesoom.project.interceptors;
+
+import com.codesoom.project.errors.ServiceOverloadedException;
+import com.codesoom.project.loadshed.ConcurrencyLimit;
+import com.codesoom.project.loadshed.LoadShedder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 동시에 처리 중인 요청 수를 제한하고, 제한을 넘은 요청은 기다리게 하지 않고 바로 거절합니다.
+ *
+ * 비동기 처리로 넘어간 요청은 스레드를 붙잡고 있지 않으므로 그 시점에 바로 셈에서 뺍니다.
+ */
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+    private static final String LIMIT = LoadSheddingInterceptor.class.getName() + ".limit";
+
+    private static final String STARTED_AT = LoadSheddingInterceptor.class.getName() + ".startedAt";
+
+    private final LoadShedder loadShedder;
+
+    public LoadSheddingInterceptor(LoadShedder loadShedder) {
+        this.loadShedder = loadShedder;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request,
+                             HttpServletResponse response,
+                             Object handler) {
+        if (!loadShedder.isEnabled()
+                || !(handler instanceof HandlerMethod)
+                || "OPTIONS".equals(request.getMethod())
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String pattern = (String) request.getAttribute(
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        ConcurrencyLimit limit = loadShedder.forEndpoint(
+                ((HandlerMethod) handler).getMethod(), request.getMethod(), pattern)
+                .tryAcquire();
+
+        if (limit == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    Long.toString(loadShedder.getRetryAfterSeconds()));
+            throw new ServiceOverloadedException(pattern);
+        }
+
+        request.setAttribute(LIMIT, limit);
+        request.setAttribute(STARTED_AT, System.nanoTime());
+
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request,
+                                               HttpServletResponse response,
+                                               Object handler) {
+        ConcurrencyLimit limit = (ConcurrencyLimit) request.getAttribute(LIMIT);
+        if (limit != null) {
+            request.removeAttribute(LIMIT);
+            limit.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        ConcurrencyLimit limit = (ConcurrencyLimit) request.getAttribute(LIMIT);
+        if (limit != null) {
+            request.removeAttribute(LIMIT);
+
+            long now = System.nanoTime();
+            limit.release(now - (Long) request.getAttribute(STARTED_AT), now);
+        }
+    }
+}
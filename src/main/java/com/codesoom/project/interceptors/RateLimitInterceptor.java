@@ -0,0 +1,80 @@
+package com.codesoom.project.interceptors;
+
+import com.codesoom.project.application.AuthenticationService;
+import com.codesoom.project.errors.RateLimitExceededException;
+import com.codesoom.project.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 또는 IP 단위로 요청 빈도를 제한하고 제한 정보를 응답 헤더에 담습니다.
+ *
+ * 인증보다 먼저 실행되므로 토큰이 없거나 잘못된 요청도 IP 단위로 제한됩니다.
+ * 서명을 다시 검증하지 않도록, 이미 검증된 토큰일 때만 사용자 단위로 셉니다.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private final RateLimiter rateLimiter;
+
+    private final AuthenticationService authenticationService;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter,
+                                AuthenticationService authenticationService) {
+        this.rateLimiter = rateLimiter;
+        this.authenticationService = authenticationService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request,
+                             HttpServletResponse response,
+                             Object handler) {
+        if (!rateLimiter.isEnabled()
+                || !(handler instanceof HandlerMethod)
+                || "OPTIONS".equals(request.getMethod())
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String pattern = (String) request.getAttribute(
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        RateLimiter.EndpointBuckets buckets = rateLimiter.forEndpoint(
+                ((HandlerMethod) handler).getMethod(), request.getMethod(), pattern);
+
+        Long userId = authenticationService.cachedUserId(
+                AuthenticationInterceptor.accessTokenOf(request));
+        Object client = userId != null ? userId : request.getRemoteAddr();
+
+        long now = System.nanoTime();
+        long result = buckets.tryConsume(client, now);
+
+        response.setHeader(LIMIT_HEADER, buckets.getCapacityHeader());
+
+        if (result < 0) {
+            response.setHeader(REMAINING_HEADER, "0");
+            response.setHeader(RESET_HEADER, toSeconds(buckets.nanosUntilFull(client, now)));
+            response.setHeader(HttpHeaders.RETRY_AFTER, toSeconds(-result));
+            throw new RateLimitExceededException(pattern);
+        }
+
+        response.setHeader(REMAINING_HEADER, Long.toString(result));
+        response.setHeader(RESET_HEADER, toSeconds(buckets.nanosUntilFull(client, now)));
+
+        return true;
+    }
+
+    private static String toSeconds(long nanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1);
+        return Long.toString(seconds);
+    }
+}
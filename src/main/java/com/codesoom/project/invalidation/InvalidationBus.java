@@ -0,0 +1,222 @@
+package com.codesoom.project.invalidation;
+
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.InvalidationEvent;
+import com.codesoom.project.events.TaskEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 커밋된 다이어리와 할 일 변경을 다른 인스턴스에 알리고, 다른 인스턴스의 변경을 받아
+ * 이 인스턴스의 {@link InvalidationEvent}로 다시 발행합니다.
+ *
+ * 보낼 이벤트는 대기열에 모았다가 정해진 간격마다 묶어서 보내므로,
+ * 다른 인스턴스에는 보내는 간격과 받는 쪽의 읽는 간격을 더한 시간 안에 전달됩니다.
+ * 보내지 못한 묶음은 다음 간격에 다시 보내고, 대기열이 가득 차면 이벤트를 버리고 그 수를 셉니다.
+ * 이벤트를 버렸으면 다음 간격에 {@link InvalidationEvent#reset}을 보내, 받는 쪽이 놓친 변경이
+ * 있다는 것을 알게 합니다.
+ * 받은 이벤트마다 발행 시각부터 받은 시각까지를 재어 캐시가 오래된 값을 들고 있을 수 있는 시간을 기록합니다.
+ * 인스턴스 사이의 시계 차이도 이 값에 함께 들어갑니다.
+ */
+@Component
+@Lazy(false)
+public class InvalidationBus {
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentLinkedQueue<InvalidationEvent> outgoing = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final InvalidationTransport transport;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private List<InvalidationEvent> unsent = List.of();
+
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private final AtomicLong publishedCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong publishFailedCount = new AtomicLong();
+
+    private final AtomicLong receivedCount = new AtomicLong();
+
+    private final AtomicLong totalStalenessMillis = new AtomicLong();
+
+    private final AtomicLong maxStalenessMillis = new AtomicLong();
+
+    public InvalidationBus(
+            InvalidationTransport transport,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${invalidation.capacity:65536}") int capacity,
+            @Value("${invalidation.batch-size:500}") int batchSize
+    ) {
+        this.transport = transport;
+        this.eventPublisher = eventPublisher;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+
+        transport.subscribe(this::receive);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiaryEvent(DiaryEvent event) {
+        enqueue(InvalidationEvent.of(event, nodeId, System.currentTimeMillis()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        enqueue(InvalidationEvent.of(event, nodeId, System.currentTimeMillis()));
+    }
+
+    /**
+     * 모인 이벤트를 묶음 단위로 보냅니다. 보내지 못한 묶음은 다음에 다시 보냅니다.
+     * 그 사이 버린 이벤트가 있었으면 마지막에 잃었다는 이벤트를 보냅니다.
+     */
+    @Scheduled(fixedDelayString = "${invalidation.publish-interval-millis:100}")
+    public synchronized void flush() {
+        while (true) {
+            List<InvalidationEvent> batch = unsent.isEmpty() ? drain() : unsent;
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            try {
+                transport.publish(batch);
+            } catch (RuntimeException e) {
+                unsent = batch;
+                publishFailedCount.incrementAndGet();
+                return;
+            }
+
+            unsent = List.of();
+            publishedCount.addAndGet(batch.size());
+        }
+
+        if (overflowed.compareAndSet(true, false)) {
+            try {
+                transport.publish(List.of(InvalidationEvent.reset(nodeId, System.currentTimeMillis())));
+            } catch (RuntimeException e) {
+                overflowed.set(true);
+                publishFailedCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 다른 인스턴스에 보낸 이벤트 수를 반환합니다.
+     *
+     * @return 보낸 이벤트 수
+     */
+    public long publishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * 대기열이 가득 차 버린 이벤트 수를 반환합니다.
+     *
+     * @return 버린 이벤트 수
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 묶음을 보내지 못한 횟수를 반환합니다.
+     *
+     * @return 실패 횟수
+     */
+    public long publishFailedCount() {
+        return publishFailedCount.get();
+    }
+
+    /**
+     * 다른 인스턴스에서 받은 이벤트 수를 반환합니다.
+     *
+     * @return 받은 이벤트 수
+     */
+    public long receivedCount() {
+        return receivedCount.get();
+    }
+
+    /**
+     * 받은 이벤트가 발행된 뒤 이 인스턴스에 도착하기까지 걸린 평균 시간을 반환합니다.
+     *
+     * @return 밀리초
+     */
+    public double averageStalenessMillis() {
+        long received = receivedCount.get();
+        if (received == 0) {
+            return 0;
+        }
+        return (double) totalStalenessMillis.get() / received;
+    }
+
+    /**
+     * 받은 이벤트가 발행된 뒤 이 인스턴스에 도착하기까지 걸린 가장 긴 시간을 반환합니다.
+     *
+     * @return 밀리초
+     */
+    public long maxStalenessMillis() {
+        return maxStalenessMillis.get();
+    }
+
+    private void enqueue(InvalidationEvent event) {
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            droppedCount.incrementAndGet();
+            overflowed.set(true);
+            return;
+        }
+        outgoing.add(event);
+    }
+
+    private List<InvalidationEvent> drain() {
+        List<InvalidationEvent> batch = new ArrayList<>();
+        InvalidationEvent event;
+        while (batch.size() < batchSize && (event = outgoing.poll()) != null) {
+            batch.add(event);
+        }
+        pending.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void receive(List<InvalidationEvent> events) {
+        long now = System.currentTimeMillis();
+
+        for (InvalidationEvent event : events) {
+            if (nodeId.equals(event.getOrigin())) {
+                continue;
+            }
+
+            long staleness = Math.max(0, now - event.getPublishedAt());
+            receivedCount.incrementAndGet();
+            totalStalenessMillis.addAndGet(staleness);
+            maxStalenessMillis.accumulateAndGet(staleness, Math::max);
+
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.codesoom.project.invalidation;
+
+import com.codesoom.project.events.InvalidationEvent;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 인스턴스 사이에 무효화 이벤트를 전달하는 통로.
+ *
+ * 보낸 인스턴스 자신에게도 전달될 수 있으며, 걸러내는 것은 받는 쪽의 몫입니다.
+ */
+public interface InvalidationTransport {
+    /**
+     * 무효화 이벤트를 다른 인스턴스로 보냅니다.
+     *
+     * @param events 보낼 이벤트 목록
+     * @throws RuntimeException 보내지 못했을 경우
+     */
+    void publish(List<InvalidationEvent> events);
+
+    /**
+     * 다른 인스턴스가 보낸 이벤트를 받을 함수를 등록합니다.
+     *
+     * @param subscriber 이벤트 목록을 받을 함수
+     */
+    void subscribe(Consumer<List<InvalidationEvent>> subscriber);
+
+    /**
+     * 다른 프로세스의 인스턴스에도 이벤트가 전달되는지 반환합니다.
+     *
+     * @return 다른 프로세스에 전달되면 true
+     */
+    boolean reachesOtherInstances();
+}
@@ -0,0 +1,36 @@
+package com.codesoom.project.invalidation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import javax.sql.DataSource;
+
+/**
+ * 무효화 이벤트 통로 설정.
+ *
+ * invalidation.transport가 jdbc이면 데이터베이스 테이블을 거쳐 인스턴스 사이에 전달하고,
+ * 그렇지 않으면 같은 프로세스 안에서만 전달합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class InvalidationTransportConfig {
+    @Bean
+    @ConditionalOnProperty(prefix = "invalidation", name = "transport",
+            havingValue = "local", matchIfMissing = true)
+    public LocalInvalidationTransport localInvalidationTransport() {
+        return new LocalInvalidationTransport();
+    }
+
+    @Bean
+    @Lazy(false)
+    @ConditionalOnProperty(prefix = "invalidation", name = "transport", havingValue = "jdbc")
+    public JdbcInvalidationTransport jdbcInvalidationTransport(
+            DataSource dataSource,
+            @Value("${invalidation.batch-size:500}") int batchSize,
+            @Value("${invalidation.gap-timeout-millis:10000}") long gapTimeoutMillis,
+            @Value("${invalidation.retention-millis:600000}") long retentionMillis) {
+        return new JdbcInvalidationTransport(dataSource, batchSize, gapTimeoutMillis, retentionMillis);
+    }
+}
@@ -0,0 +1,279 @@
+package com.codesoom.project.invalidation;
+
+import com.codesoom.project.datasource.ShardContext;
+import com.codesoom.project.events.InvalidationEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 데이터베이스 테이블을 거쳐 무효화 이벤트를 전달하는 통로.
+ *
+ * 보내는 쪽은 이벤트를 한 번에 넣고, 받는 쪽은 마지막으로 읽은 행 다음부터 묶음 단위로 읽습니다.
+ * 먼저 번호를 받은 행이 나중에 커밋되면 읽는 순간에는 번호가 비어 보이므로,
+ * 빈 번호를 기억해 두었다가 정해진 시간 동안 다시 확인합니다.
+ * 끝내 채워지지 않은 빈 번호나 너무 많아 기억하지 못한 빈 번호가 있으면
+ * 이벤트를 잃었을 수 있으므로 {@link InvalidationEvent#reset}을 전달합니다.
+ * 자동 증가 번호가 1씩 늘어나는 데이터베이스를 전제로 하며, 테이블은 샤딩 여부와 관계없이 첫 번째 샤드에 둡니다.
+ */
+public class JdbcInvalidationTransport implements InvalidationTransport {
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS cache_invalidation ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "origin VARCHAR(36) NOT NULL, "
+            + "entity_kind VARCHAR(8) NOT NULL, "
+            + "change_type VARCHAR(8) NOT NULL, "
+            + "owner_id BIGINT, "
+            + "entity_id BIGINT, "
+            + "diary_id BIGINT, "
+            + "published_at BIGINT NOT NULL)";
+    static final String INSERT = "INSERT INTO cache_invalidation "
+            + "(origin, entity_kind, change_type, owner_id, entity_id, diary_id, published_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    static final String COLUMNS =
+            "id, origin, entity_kind, change_type, owner_id, entity_id, diary_id, published_at";
+    static final String SELECT_AFTER = "SELECT " + COLUMNS
+            + " FROM cache_invalidation WHERE id > ? ORDER BY id LIMIT ?";
+    static final String SELECT_IN = "SELECT " + COLUMNS + " FROM cache_invalidation WHERE id IN ";
+    static final String SELECT_LAST_ID = "SELECT COALESCE(MAX(id), 0) FROM cache_invalidation";
+    static final String DELETE_BEFORE = "DELETE FROM cache_invalidation WHERE published_at < ?";
+
+    /**
+     * 한 번에 기억하는 빈 번호 수의 상한. 번호가 크게 건너뛰면 빈 번호를 기억하지 않습니다.
+     */
+    static final int MAX_GAPS = 10_000;
+
+    private static final RowMapper<Row> ROW_MAPPER = (resultSet, rowNum) -> new Row(
+            resultSet.getLong("id"),
+            InvalidationEvent.builder()
+                    .origin(resultSet.getString("origin"))
+                    .kind(InvalidationEvent.Kind.valueOf(resultSet.getString("entity_kind")))
+                    .type(InvalidationEvent.Type.valueOf(resultSet.getString("change_type")))
+                    .ownerId(resultSet.getObject("owner_id", Long.class))
+                    .id(resultSet.getObject("entity_id", Long.class))
+                    .diaryId(resultSet.getObject("diary_id", Long.class))
+                    .publishedAt(resultSet.getLong("published_at"))
+                    .build());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<Consumer<List<InvalidationEvent>>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final int batchSize;
+
+    private final long gapTimeoutMillis;
+
+    private final long retentionMillis;
+
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+
+    private long lastId;
+
+    private final AtomicLong pollFailedCount = new AtomicLong();
+
+    private final AtomicLong expiredGapCount = new AtomicLong();
+
+    public JdbcInvalidationTransport(DataSource dataSource,
+                                     int batchSize,
+                                     long gapTimeoutMillis,
+                                     long retentionMillis) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.retentionMillis = retentionMillis;
+
+        onFirstShard(() -> {
+            jdbcTemplate.execute(CREATE_TABLE);
+            // 시작하기 전의 변경은 아직 아무것도 담지 않은 캐시와 관계가 없습니다.
+            lastId = jdbcTemplate.queryForObject(SELECT_LAST_ID, Long.class);
+        });
+    }
+
+    @Override
+    public void publish(List<InvalidationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = events.stream()
+                .map(event -> new Object[]{
+                        event.getOrigin(),
+                        event.getKind().name(),
+                        event.getType().name(),
+                        event.getOwnerId(),
+                        event.getId(),
+                        event.getDiaryId(),
+                        event.getPublishedAt()})
+                .collect(Collectors.toList());
+        onFirstShard(() -> jdbcTemplate.batchUpdate(INSERT, rows));
+    }
+
+    @Override
+    public void subscribe(Consumer<List<InvalidationEvent>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public boolean reachesOtherInstances() {
+        return true;
+    }
+
+    /**
+     * 새로 들어온 이벤트와 늦게 커밋된 이벤트를 읽어 전달합니다.
+     */
+    @Scheduled(fixedDelayString = "${invalidation.poll-interval-millis:200}")
+    public synchronized void poll() {
+        try {
+            onFirstShard(this::readNewRows);
+        } catch (DataAccessException e) {
+            pollFailedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 이벤트를 지웁니다.
+     */
+    @Scheduled(fixedDelayString = "${invalidation.purge-interval-millis:60000}")
+    public void purge() {
+        long publishedBefore = System.currentTimeMillis() - retentionMillis;
+        onFirstShard(() -> jdbcTemplate.update(DELETE_BEFORE, publishedBefore));
+    }
+
+    /**
+     * 읽지 못한 횟수를 반환합니다.
+     *
+     * @return 실패 횟수
+     */
+    public long pollFailedCount() {
+        return pollFailedCount.get();
+    }
+
+    /**
+     * 끝내 채워지지 않아 포기한 빈 번호 수를 반환합니다. 대부분 롤백된 행입니다.
+     *
+     * @return 포기한 빈 번호 수
+     */
+    public long expiredGapCount() {
+        return expiredGapCount.get();
+    }
+
+    synchronized int gapCount() {
+        return gaps.size();
+    }
+
+    private void readNewRows() {
+        long now = System.currentTimeMillis();
+
+        boolean lost = expireGaps(now);
+        deliver(recheckGaps());
+
+        List<Row> rows;
+        do {
+            rows = jdbcTemplate.query(SELECT_AFTER, ROW_MAPPER, lastId, batchSize);
+            lost |= !trackGaps(rows, now);
+            deliver(rows);
+        } while (rows.size() == batchSize);
+
+        if (lost) {
+            deliverReset(now);
+        }
+    }
+
+    /**
+     * 기다리는 시간이 지난 빈 번호를 포기하고, 포기한 번호가 있었는지 반환합니다.
+     */
+    private boolean expireGaps(long now) {
+        boolean expired = false;
+        Iterator<Map.Entry<Long, Long>> iterator = gaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue() >= gapTimeoutMillis) {
+                iterator.remove();
+                expiredGapCount.incrementAndGet();
+                expired = true;
+            }
+        }
+        return expired;
+    }
+
+    private List<Row> recheckGaps() {
+        if (gaps.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(gaps.keySet());
+        List<Row> found = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            found.addAll(jdbcTemplate.query(SELECT_IN + "("
+                            + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")",
+                    ROW_MAPPER, batch.toArray()));
+        }
+        found.forEach(row -> gaps.remove(row.id));
+        return found;
+    }
+
+    /**
+     * 읽은 행 사이의 빈 번호를 기억합니다. 모두 기억하지 못했으면 false를 반환합니다.
+     */
+    private boolean trackGaps(List<Row> rows, long now) {
+        boolean tracked = true;
+        for (Row row : rows) {
+            if (row.id - lastId - 1 <= MAX_GAPS - gaps.size()) {
+                for (long missing = lastId + 1; missing < row.id; missing++) {
+                    gaps.put(missing, now);
+                }
+            } else {
+                tracked = false;
+            }
+            lastId = row.id;
+        }
+        return tracked;
+    }
+
+    private void deliverReset(long now) {
+        List<InvalidationEvent> events = List.of(InvalidationEvent.reset(null, now));
+        for (Consumer<List<InvalidationEvent>> subscriber : subscribers) {
+            subscriber.accept(events);
+        }
+    }
+
+    private void deliver(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<InvalidationEvent> events = rows.stream()
+                .map(row -> row.event)
+                .collect(Collectors.toList());
+        for (Consumer<List<InvalidationEvent>> subscriber : subscribers) {
+            subscriber.accept(events);
+        }
+    }
+
+    private static void onFirstShard(Runnable task) {
+        ShardContext.runOn(0, task);
+    }
+
+    private static final class Row {
+        private final long id;
+
+        private final InvalidationEvent event;
+
+        private Row(long id, InvalidationEvent event) {
+            this.id = id;
+            this.event = event;
+        }
+    }
+}
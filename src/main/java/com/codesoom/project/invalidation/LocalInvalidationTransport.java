@@ -0,0 +1,34 @@
+package com.codesoom.project.invalidation;
+
+import com.codesoom.project.events.InvalidationEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 같은 프로세스 안에서만 무효화 이벤트를 전달하는 통로.
+ *
+ * 인스턴스가 하나뿐일 때와, 여러 인스턴스를 한 프로세스 안에서 흉내 내는 테스트에서 사용합니다.
+ */
+public class LocalInvalidationTransport implements InvalidationTransport {
+    private final List<Consumer<List<InvalidationEvent>>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<InvalidationEvent> events) {
+        List<InvalidationEvent> delivered = List.copyOf(events);
+        for (Consumer<List<InvalidationEvent>> subscriber : subscribers) {
+            subscriber.accept(delivered);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<InvalidationEvent>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public boolean reachesOtherInstances() {
+        return false;
+    }
+}
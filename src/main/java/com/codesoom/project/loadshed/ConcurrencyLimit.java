@@ -0,0 +1,173 @@
+package com.codesoom.project.loadshed;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 응답 시간을 보고 스스로 조절되는 동시 처리 요청 수 제한.
+ *
+ * 구간마다 그 구간의 평균 응답 시간을 부하가 없을 때의 응답 시간과 비교해,
+ * 응답 시간이 늘어나면 늘어난 비율만큼 제한을 줄이고 그대로면 조금씩 늘립니다.
+ * 부하가 없을 때의 응답 시간은 지금까지 본 가장 짧은 구간 평균으로 잡되,
+ * 데이터가 늘어 쿼리가 실제로 느려진 경우를 따라가도록 시간이 지나면서 천천히 올립니다.
+ * 과부하 중에 기준이 같이 올라가면 제한이 다시 늘어나므로, 올리는 속도는 과부하 한 번보다 훨씬 느리게 잡습니다.
+ * 데이터베이스가 느려져 요청이 커넥션을 기다리기 시작하면 제한이 줄어들어,
+ * 넘치는 요청은 기다리지 않고 바로 거절됩니다.
+ * 제한의 일부는 우선 요청만 쓸 수 있도록 남겨 둡니다.
+ */
+public class ConcurrencyLimit {
+    /**
+     * 부하가 없을 때의 응답 시간을 이 시간마다 대략 두 배 반 정도 올립니다.
+     */
+    private static final double BASELINE_DRIFT_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double smoothing;
+
+    private final long windowNanos;
+
+    private final int minWindowSamples;
+
+    private final double reservedRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final LongAdder sampleCount = new LongAdder();
+
+    private final LongAdder sampleNanos = new LongAdder();
+
+    private final AtomicLong shedCount = new AtomicLong();
+
+    private volatile int limit;
+
+    private volatile int normalLimit;
+
+    private volatile long windowStart;
+
+    private double estimatedLimit;
+
+    private double noLoadRttNanos;
+
+    public ConcurrencyLimit(LoadSheddingProperties.Budget budget, long now) {
+        this.minLimit = budget.getMinLimit();
+        this.maxLimit = budget.getMaxLimit();
+        this.tolerance = budget.getTolerance();
+        this.smoothing = budget.getSmoothing();
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(budget.getWindowMillis());
+        this.minWindowSamples = budget.getMinWindowSamples();
+        this.reservedRatio = budget.getReservedRatio();
+        this.estimatedLimit = budget.getInitialLimit();
+        this.windowStart = now;
+
+        setLimit(budget.getInitialLimit());
+    }
+
+    /**
+     * 제한 안이라면 요청 하나를 처리 중으로 셉니다.
+     *
+     * @param priority 남겨 둔 제한까지 쓸 수 있는 우선 요청이면 true
+     * @return 처리해도 되면 true, 거절해야 하면 false
+     */
+    public boolean tryAcquire(boolean priority) {
+        int bound = priority ? limit : normalLimit;
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= bound) {
+                shedCount.incrementAndGet();
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 > peakInFlight.get()) {
+                    peakInFlight.accumulateAndGet(current + 1, Math::max);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 응답 시간을 기록하지 않고 요청 하나를 끝냅니다.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 요청 하나를 끝내고 응답 시간을 기록합니다. 구간이 끝났다면 제한을 다시 계산합니다.
+     *
+     * @param rttNanos 요청을 처리하는 데 걸린 나노초
+     * @param now      현재 시각(나노초)
+     */
+    public void release(long rttNanos, long now) {
+        inFlight.decrementAndGet();
+        sampleNanos.add(rttNanos);
+        sampleCount.increment();
+
+        if (now - windowStart >= windowNanos) {
+            update(now);
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 제한을 넘어 거절한 요청 수를 반환합니다.
+     *
+     * @return 거절한 요청 수
+     */
+    public long shedCount() {
+        return shedCount.get();
+    }
+
+    private synchronized void update(long now) {
+        if (now - windowStart < windowNanos || sampleCount.sum() < minWindowSamples) {
+            return;
+        }
+
+        long count = sampleCount.sumThenReset();
+        long totalNanos = sampleNanos.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        long elapsedNanos = now - windowStart;
+        windowStart = now;
+
+        double shortRttNanos = (double) totalNanos / count;
+        if (noLoadRttNanos == 0 || shortRttNanos < noLoadRttNanos) {
+            noLoadRttNanos = shortRttNanos;
+        } else {
+            noLoadRttNanos += noLoadRttNanos * elapsedNanos / BASELINE_DRIFT_NANOS;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * noLoadRttNanos / shortRttNanos));
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if (peak < estimatedLimit / 2) {
+            // 제한의 절반도 쓰지 않았다면 응답 시간이 빠르다고 제한을 늘릴 근거가 되지 않습니다.
+            next = Math.min(next, estimatedLimit);
+        }
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - smoothing) + next * smoothing));
+        setLimit((int) estimatedLimit);
+    }
+
+    private void setLimit(int limit) {
+        this.normalLimit = Math.max(1, (int) (limit * (1 - reservedRatio)));
+        this.limit = limit;
+    }
+}
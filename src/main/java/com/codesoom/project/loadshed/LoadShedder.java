@@ -0,0 +1,89 @@
+package com.codesoom.project.loadshed;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 읽기와 쓰기 요청의 동시 처리 제한을 따로 관리합니다.
+ *
+ * 쓰기가 몰려 느려져도 읽기는 자기 몫의 제한 안에서 계속 처리되고, 그 반대도 마찬가지입니다.
+ */
+public class LoadShedder {
+    private final LoadSheddingProperties properties;
+
+    private final ConcurrencyLimit readLimit;
+
+    private final ConcurrencyLimit writeLimit;
+
+    private final ConcurrentMap<Object, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public LoadShedder(LoadSheddingProperties properties) {
+        long now = System.nanoTime();
+
+        this.properties = properties;
+        this.readLimit = new ConcurrencyLimit(properties.getRead(), now);
+        this.writeLimit = new ConcurrencyLimit(properties.getWrite(), now);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public long getRetryAfterSeconds() {
+        return properties.getRetryAfterSeconds();
+    }
+
+    /**
+     * 주어진 엔드포인트에 적용할 제한을 반환합니다.
+     *
+     * @param key     엔드포인트를 구분하는 키
+     * @param method  요청 메소드
+     * @param pattern 요청이 매칭된 경로 패턴
+     * @return 엔드포인트에 적용할 제한
+     */
+    public Endpoint forEndpoint(Object key, String method, String pattern) {
+        Endpoint endpoint = endpoints.get(key);
+        if (endpoint != null) {
+            return endpoint;
+        }
+
+        return endpoints.computeIfAbsent(key, ignored -> isRead(method)
+                ? new Endpoint(readLimit, properties.isCheapRead(method, pattern))
+                : new Endpoint(writeLimit, false));
+    }
+
+    public ConcurrencyLimit readLimit() {
+        return readLimit;
+    }
+
+    public ConcurrencyLimit writeLimit() {
+        return writeLimit;
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    /**
+     * 한 엔드포인트가 쓰는 제한과 우선순위.
+     */
+    public static class Endpoint {
+        private final ConcurrencyLimit limit;
+
+        private final boolean priority;
+
+        Endpoint(ConcurrencyLimit limit, boolean priority) {
+            this.limit = limit;
+            this.priority = priority;
+        }
+
+        /**
+         * 제한 안이라면 요청 하나를 처리 중으로 셉니다.
+         *
+         * @return 요청을 셌다면 끝날 때 풀어 줄 제한, 거절해야 하면 null
+         */
+        public ConcurrencyLimit tryAcquire() {
+            return limit.tryAcquire(priority) ? limit : null;
+        }
+    }
+}
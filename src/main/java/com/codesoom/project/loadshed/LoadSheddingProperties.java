@@ -0,0 +1,83 @@
+package com.codesoom.project.loadshed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 동시 처리 요청 수 제한 설정.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "load-shedding")
+public class LoadSheddingProperties {
+    private boolean enabled = true;
+
+    private long retryAfterSeconds = 1;
+
+    private Budget read = new Budget();
+
+    private Budget write = new Budget();
+
+    private List<Endpoint> cheapReads = new ArrayList<>();
+
+    /**
+     * 주어진 요청 메소드와 경로 패턴이 가벼운 읽기인지 확인합니다.
+     *
+     * @param method  요청 메소드
+     * @param pattern 요청이 매칭된 경로 패턴
+     * @return 가벼운 읽기이면 true
+     */
+    public boolean isCheapRead(String method, String pattern) {
+        for (Endpoint endpoint : cheapReads) {
+            if (endpoint.getMethod().equalsIgnoreCase(method)
+                    && endpoint.getPattern().equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Getter
+    @Setter
+    public static class Budget {
+        /**
+         * 처음 구간의 응답 시간이 평소 응답 시간의 기준이 되므로 커넥션 풀 크기 근처로 둡니다.
+         */
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 200;
+
+        /**
+         * 평소 응답 시간의 몇 배까지를 정상으로 볼지 정합니다.
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * 새로 계산한 제한을 얼마나 반영할지 정합니다. 1이면 그대로 반영합니다.
+         */
+        private double smoothing = 0.2;
+
+        private long windowMillis = 100;
+
+        private int minWindowSamples = 10;
+
+        /**
+         * 가벼운 요청만 쓸 수 있도록 남겨 두는 제한의 비율.
+         */
+        private double reservedRatio = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private String method;
+
+        private String pattern;
+    }
+}
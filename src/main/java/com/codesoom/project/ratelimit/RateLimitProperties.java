@@ -0,0 +1,57 @@
+package com.codesoom.project.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 요청 빈도 제한 설정.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+
+    private long idleSweepMillis = 60_000;
+
+    private Limit defaultLimit = new Limit();
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * 주어진 요청 메소드와 경로 패턴에 적용할 제한을 반환합니다.
+     *
+     * @param method  요청 메소드
+     * @param pattern 요청이 매칭된 경로 패턴
+     * @return 적용할 제한
+     */
+    public Limit limitFor(String method, String pattern) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.getMethod().equalsIgnoreCase(method)
+                    && endpoint.getPattern().equals(pattern)) {
+                return endpoint;
+            }
+        }
+        return defaultLimit;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private long capacity = 120;
+
+        private double refillPerSecond = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class Endpoint extends Limit {
+        private String method;
+
+        private String pattern;
+    }
+}
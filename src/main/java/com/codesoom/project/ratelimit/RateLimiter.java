@@ -0,0 +1,119 @@
+package com.codesoom.project.ratelimit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 엔드포인트와 클라이언트별 토큰 버킷을 관리합니다.
+ */
+public class RateLimiter {
+    private final RateLimitProperties properties;
+
+    private final ConcurrentMap<Object, EndpointBuckets> endpoints = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 주어진 엔드포인트의 버킷 묶음을 반환합니다.
+     *
+     * @param key     엔드포인트를 구분하는 키
+     * @param method  요청 메소드
+     * @param pattern 요청이 매칭된 경로 패턴
+     * @return 엔드포인트의 버킷 묶음
+     */
+    public EndpointBuckets forEndpoint(Object key, String method, String pattern) {
+        EndpointBuckets buckets = endpoints.get(key);
+        if (buckets != null) {
+            return buckets;
+        }
+
+        return endpoints.computeIfAbsent(key, ignored ->
+                new EndpointBuckets(properties.limitFor(method, pattern)));
+    }
+
+    /**
+     * 가득 차서 새 버킷과 다를 바 없는 버킷을 정리합니다.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.idle-sweep-millis:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+
+        for (EndpointBuckets buckets : endpoints.values()) {
+            buckets.clients.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+    }
+
+    /**
+     * 현재 관리 중인 버킷 수를 반환합니다.
+     *
+     * @return 버킷 수
+     */
+    public int bucketCount() {
+        return endpoints.values().stream()
+                .mapToInt(buckets -> buckets.clients.size())
+                .sum();
+    }
+
+    /**
+     * 한 엔드포인트에 대한 클라이언트별 버킷 묶음.
+     */
+    public static class EndpointBuckets {
+        private final long capacity;
+
+        private final double refillPerSecond;
+
+        private final String capacityHeader;
+
+        private final ConcurrentMap<Object, TokenBucket> clients = new ConcurrentHashMap<>();
+
+        EndpointBuckets(RateLimitProperties.Limit limit) {
+            this.capacity = limit.getCapacity();
+            this.refillPerSecond = limit.getRefillPerSecond();
+            this.capacityHeader = String.valueOf(capacity);
+        }
+
+        /**
+         * 주어진 클라이언트의 버킷에서 토큰 하나를 소비합니다.
+         *
+         * @param client 클라이언트 식별 키
+         * @param now    현재 시각(나노초)
+         * @return {@link TokenBucket#tryConsume(long)}의 결과
+         */
+        public long tryConsume(Object client, long now) {
+            return bucketOf(client, now).tryConsume(now);
+        }
+
+        /**
+         * 주어진 클라이언트의 버킷이 가득 찰 때까지 남은 시간을 반환합니다.
+         *
+         * @param client 클라이언트 식별 키
+         * @param now    현재 시각(나노초)
+         * @return 가득 찰 때까지 남은 나노초
+         */
+        public long nanosUntilFull(Object client, long now) {
+            return bucketOf(client, now).nanosUntilFull(now);
+        }
+
+        public String getCapacityHeader() {
+            return capacityHeader;
+        }
+
+        private TokenBucket bucketOf(Object client, long now) {
+            TokenBucket bucket = clients.get(client);
+            if (bucket != null) {
+                return bucket;
+            }
+
+            return clients.computeIfAbsent(client, ignored ->
+                    new TokenBucket(capacity, refillPerSecond, now));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.codesoom.project.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 잠금 없이 동작하는 토큰 버킷.
+ *
+ * 남은 토큰 수 대신 다음 토큰이 "이론상 도착하는 시각" 하나만 저장하는
+ * GCRA 방식으로 구현해, 토큰 소비는 CAS 한 번으로 끝나고 객체를 만들지 않습니다.
+ */
+public class TokenBucket {
+    private final long capacity;
+
+    private final long emissionIntervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * 토큰 하나를 소비합니다.
+     *
+     * @param now 현재 시각(나노초)
+     * @return 성공하면 0 이상의 남은 토큰 수, 실패하면 다음 토큰까지 기다려야 할 나노초의 음수
+     */
+    public long tryConsume(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long ahead = next - now;
+
+            if (ahead > burstNanos) {
+                return -(ahead - burstNanos);
+            }
+
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return (burstNanos - ahead) / emissionIntervalNanos;
+            }
+        }
+    }
+
+    /**
+     * 버킷이 가득 찰 때까지 남은 시간을 반환합니다.
+     *
+     * @param now 현재 시각(나노초)
+     * @return 가득 찰 때까지 남은 나노초
+     */
+    public long nanosUntilFull(long now) {
+        return Math.max(0, theoreticalArrival.get() - now);
+    }
+
+    /**
+     * 버킷이 가득 차 있어 새 버킷과 구분할 수 없는지 확인합니다.
+     *
+     * @param now 현재 시각(나노초)
+     * @return 가득 차 있으면 true
+     */
+    public boolean isIdle(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+}
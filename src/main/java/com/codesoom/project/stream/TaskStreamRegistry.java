@@ -0,0 +1,258 @@
+package com.codesoom.project.stream;
+
+import com.codesoom.project.events.TaskEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 다이어리별 할 일 변경 이벤트를 SSE 연결로 전달합니다.
+ *
+ * 연결마다 크기가 정해진 전송 대기열을 두고, 적은 수의 전송 스레드가 대기열을 비웁니다.
+ * 이벤트를 발행하는 쪽은 대기열에 넣기만 하므로 느린 클라이언트에 막히지 않고,
+ * 대기열이 가득 찬 연결은 끊어 메모리 사용량을 제한합니다.
+ */
+@Component
+public class TaskStreamRegistry {
+    private static final Object PING = new Object();
+
+    private final ConcurrentMap<StreamKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender;
+
+    private final int bufferSize;
+
+    private final long timeoutMillis;
+
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    public TaskStreamRegistry(
+            @Value("${tasks.stream.buffer-size:32}") int bufferSize,
+            @Value("${tasks.stream.timeout-millis:1800000}") long timeoutMillis,
+            @Value("${tasks.stream.sender-threads:4}") int senderThreads
+    ) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 주어진 사용자의 다이어리에 대한 할 일 변경 구독을 시작합니다.
+     *
+     * @param ownerId 사용자 식별자
+     * @param diaryId 다이어리 식별자
+     * @return 이벤트를 전달할 SSE 연결
+     */
+    public SseEmitter subscribe(Long ownerId, Long diaryId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(new StreamKey(ownerId, diaryId), emitter);
+
+        subscribers.compute(subscriber.key, (key, targets) -> {
+            Set<Subscriber> updated = targets != null ? targets : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        subscriber.offer(PING);
+
+        return emitter;
+    }
+
+    /**
+     * 커밋된 할 일 변경을 해당 다이어리의 구독자에게 전달합니다.
+     *
+     * @param event 할 일 변경 이벤트
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        Set<Subscriber> targets = subscribers.get(
+                new StreamKey(event.getOwnerId(), event.getDiaryId()));
+        if (targets == null) {
+            return;
+        }
+
+        for (Subscriber subscriber : targets) {
+            if (!subscriber.offer(event)) {
+                evict(subscriber);
+            }
+        }
+    }
+
+    /**
+     * 끊어진 연결을 찾아낼 수 있도록 모든 연결에 주기적으로 신호를 보냅니다.
+     */
+    @Scheduled(fixedDelayString = "${tasks.stream.heartbeat-millis:30000}")
+    public void heartbeat() {
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                if (!subscriber.offer(PING)) {
+                    evict(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * 현재 연결된 구독자 수를 반환합니다.
+     *
+     * @return 구독자 수
+     */
+    public int subscriberCount() {
+        return subscribers.values().stream()
+                .mapToInt(Set::size)
+                .sum();
+    }
+
+    /**
+     * 대기열이 넘쳐 끊은 연결 수를 반환합니다.
+     *
+     * @return 끊은 연결 수
+     */
+    public long evictedCount() {
+        return evictedCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            evictedCount.incrementAndGet();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+
+        subscribers.computeIfPresent(subscriber.key, (key, targets) -> {
+            removed.set(targets.remove(subscriber));
+            return targets.isEmpty() ? null : targets;
+        });
+
+        return removed.get();
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(Object message) {
+        if (message == PING) {
+            return SseEmitter.event().comment("ping");
+        }
+
+        TaskEvent event = (TaskEvent) message;
+        return SseEmitter.event()
+                .name(event.getType().name().toLowerCase())
+                .data(event.getTask(), MediaType.APPLICATION_JSON);
+    }
+
+    private final class Subscriber implements Runnable {
+        private final StreamKey key;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Object> queue;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Subscriber(StreamKey key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean offer(Object message) {
+            if (!queue.offer(message)) {
+                return false;
+            }
+
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                sender.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Object message;
+                while ((message = queue.poll()) != null) {
+                    emitter.send(toSseEvent(message));
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private static final class StreamKey {
+        private final Long ownerId;
+
+        private final Long diaryId;
+
+        private StreamKey(Long ownerId, Long diaryId) {
+            this.ownerId = ownerId;
+            this.diaryId = diaryId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof StreamKey)) {
+                return false;
+            }
+            StreamKey that = (StreamKey) other;
+            return Objects.equals(ownerId, that.ownerId)
+                    && Objects.equals(diaryId, that.diaryId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ownerId, diaryId);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.codesoom.project.utils;
+
+import com.codesoom.project.errors.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+
+/**
+ * JWT를 생성하고 검증합니다.
+ *
+ * 서명 키는 JWT_SECRET 환경 변수로 받으며, 없거나 256비트보다 짧으면 기동하지 않습니다.
+ */
+@Component
+public class JwtUtil {
+    private static final int MIN_SECRET_BITS = 256;
+
+    private final Key key;
+
+    private final JwtParser parser;
+
+    private final long validityMillis;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.validity-seconds:86400}") long validitySeconds) {
+        byte[] secretBytes = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length * 8 < MIN_SECRET_BITS) {
+            throw new IllegalStateException(
+                    "jwt.secret must be at least " + MIN_SECRET_BITS + " bits; set JWT_SECRET");
+        }
+
+        this.key = Keys.hmacShaKeyFor(secretBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.validityMillis = validitySeconds * 1000;
+    }
+
+    /**
+     * 주어진 사용자 식별자로 토큰을 생성합니다.
+     *
+     * @param userId 사용자 식별자
+     * @return 생성된 토큰
+     */
+    public String encode(Long userId) {
+        return Jwts.builder()
+                .claim("userId", userId)
+                .setExpiration(new Date(System.currentTimeMillis() + validityMillis))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * 주어진 토큰의 서명을 검증하고 클레임을 반환합니다.
+     *
+     * @param token 검증할 토큰
+     * @return 토큰의 클레임
+     * @throws InvalidTokenException 토큰이 유효하지 않을 경우
+     */
+    public Claims decode(String token) {
+        if (token == null || token.isBlank()) {
+            throw new InvalidTokenException();
+        }
+
+        try {
+            return parser.parseClaimsJws(token)
+                    .getBody();
+        } catch (JwtException e) {
+            throw new InvalidTokenException();
+        }
+    }
+}
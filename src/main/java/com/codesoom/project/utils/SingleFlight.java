@@ -0,0 +1,122 @@
+package com.codesoom.project.utils;
+
+import com.codesoom.project.deadline.Deadline;
+import com.codesoom.project.deadline.DeadlineContext;
+import com.codesoom.project.errors.DeadlineExceededException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 조회를 하나로 합칩니다.
+ *
+ * 먼저 들어온 호출이 조회를 실행하고, 그동안 같은 키로 들어온 호출은 그 결과나 예외를 함께 받습니다.
+ * 조회가 끝나면 키를 지우므로 결과를 캐시하지는 않습니다.
+ * 기다리는 호출은 자기 요청의 마감 시각까지만 기다립니다.
+ *
+ * @param <K> 조회 키 타입
+ * @param <V> 조회 결과 타입
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong flightCount = new AtomicLong();
+
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * 주어진 키의 조회를 실행하거나, 이미 실행 중인 조회의 결과를 기다립니다.
+     *
+     * @param key    조회 키
+     * @param loader 실제 조회
+     * @return 조회 결과
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalescedCount.incrementAndGet();
+            return await(running);
+        }
+
+        flightCount.incrementAndGet();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 실행 중인 조회가 있으면 이후 호출이 그 결과를 받지 않도록 분리합니다.
+     * 이미 기다리고 있는 호출은 그대로 결과를 받습니다.
+     *
+     * @param key 조회 키
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * 실제로 실행한 조회 수를 반환합니다.
+     *
+     * @return 실행한 조회 수
+     */
+    public long flightCount() {
+        return flightCount.get();
+    }
+
+    /**
+     * 다른 호출의 조회 결과를 받은 호출 수를 반환합니다.
+     *
+     * @return 합쳐진 호출 수
+     */
+    public long coalescedCount() {
+        return coalescedCount.get();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause(), e);
+            }
+        }
+
+        try {
+            return running.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause(), new CompletionException(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause, RuntimeException fallback) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,289 @@
+package com.codesoom.project.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * long 키를 박싱하지 않고 저장하는 동시성 맵.
+ *
+ * 키를 여러 구역으로 나누고, 구역마다 열린 주소 해시 테이블과 잠금을 둡니다.
+ * 쓰기는 키가 속한 구역만 잠그므로 다른 구역의 쓰기와 겹치지 않고,
+ * 읽기는 잠그지 않고 읽은 뒤 그 사이에 쓰기가 없었는지만 확인합니다.
+ * null 값은 저장하지 않습니다.
+ *
+ * @param <V> 값 타입
+ */
+public class StripedLongMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Stripe<V>[] stripes;
+
+    private final int stripeShift;
+
+    /**
+     * 맵을 만듭니다.
+     *
+     * @param concurrency 동시에 쓸 것으로 예상하는 스레드 수, 2의 거듭제곱으로 올림합니다
+     */
+    @SuppressWarnings("unchecked")
+    public StripedLongMap(int concurrency) {
+        int count = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        if (concurrency <= 1) {
+            count = 1;
+        }
+
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        stripeShift = Long.SIZE - Integer.numberOfTrailingZeros(count);
+    }
+
+    public V get(long key) {
+        long hash = hash(key);
+        Stripe<V> stripe = stripeFor(hash);
+
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                V value = stripe.find(key, (int) hash);
+                if (stripe.lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // 쓰기가 테이블을 키우는 중에 읽었습니다. 잠그고 다시 읽습니다.
+            }
+        }
+
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.find(key, (int) hash);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+
+        long hash = hash(key);
+        Stripe<V> stripe = stripeFor(hash);
+
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.insert(key, (int) hash, value);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public V remove(long key) {
+        long hash = hash(key);
+        Stripe<V> stripe = stripeFor(hash);
+
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.delete(key, (int) hash);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 키가 속한 구역을 잠근 채 현재 값으로 새 값을 만들어 저장합니다.
+     *
+     * @param key      키
+     * @param function 현재 값(없으면 null)을 받아 새 값을 반환하는 함수, null을 반환하면 값을 지웁니다
+     * @return 새 값
+     */
+    public V compute(long key, UnaryOperator<V> function) {
+        long hash = hash(key);
+        Stripe<V> stripe = stripeFor(hash);
+
+        long stamp = stripe.lock.writeLock();
+        try {
+            V updated = function.apply(stripe.find(key, (int) hash));
+            if (updated == null) {
+                stripe.delete(key, (int) hash);
+            } else {
+                stripe.insert(key, (int) hash, updated);
+            }
+            return updated;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 저장된 값의 목록을 반환합니다. 구역마다 잠그고 복사하므로 순서는 정해져 있지 않습니다.
+     *
+     * @return 값 목록
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Stripe<V> stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                stripe.collect(values);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return values;
+    }
+
+    private Stripe<V> stripeFor(long hash) {
+        return stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> stripeShift)];
+    }
+
+    private static long hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * 선형 탐사 해시 테이블. 값이 null인 칸이 빈 칸입니다.
+     */
+    private static final class Stripe<V> {
+        private final StampedLock lock = new StampedLock();
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private V find(long key, int hash) {
+            long[] keys = this.keys;
+            Object[] values = this.values;
+            int mask = values.length - 1;
+
+            for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                Object value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[i] == key) {
+                    return (V) value;
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V insert(long key, int hash, V value) {
+            int mask = values.length - 1;
+            int i = hash & mask;
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    V previous = (V) values[i];
+                    values[i] = value;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+
+            keys[i] = key;
+            values[i] = value;
+            size++;
+
+            if (size * 4 > values.length * 3) {
+                resize();
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V delete(long key, int hash) {
+            int mask = values.length - 1;
+            int i = hash & mask;
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    V previous = (V) values[i];
+                    shiftBack(i);
+                    size--;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        /**
+         * 지운 칸 뒤에 밀려 있던 값을 앞으로 당겨 탐사가 끊기지 않게 합니다.
+         */
+        private void shiftBack(int hole) {
+            int mask = values.length - 1;
+            int i = hole;
+            while (true) {
+                i = (i + 1) & mask;
+                if (values[i] == null) {
+                    break;
+                }
+
+                int home = (int) hash(keys[i]) & mask;
+                boolean movable = hole <= i
+                        ? home <= hole || home > i
+                        : home <= hole && home > i;
+                if (movable) {
+                    keys[hole] = keys[i];
+                    values[hole] = values[i];
+                    hole = i;
+                }
+            }
+            keys[hole] = 0;
+            values[hole] = null;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+
+            long[] newKeys = new long[oldValues.length * 2];
+            Object[] newValues = new Object[oldValues.length * 2];
+            int mask = newValues.length - 1;
+
+            for (int j = 0; j < oldValues.length; j++) {
+                if (oldValues[j] == null) {
+                    continue;
+                }
+                int i = (int) hash(oldKeys[j]) & mask;
+                while (newValues[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                newKeys[i] = oldKeys[j];
+                newValues[i] = oldValues[j];
+            }
+
+            keys = newKeys;
+            values = newValues;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void collect(List<V> target) {
+            for (Object value : values) {
+                if (value != null) {
+                    target.add((V) value);
+                }
+            }
+        }
+    }
+}
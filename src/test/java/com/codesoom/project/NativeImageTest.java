@@ -0,0 +1,232 @@
+package com.codesoom.project;
+
+import com.codesoom.project.utils.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 네이티브 실행 파일을 띄워 컨트롤러 테스트와 같은 요청을 HTTP로 보내 봅니다.
+ *
+ * native.binary 시스템 속성으로 실행 파일 경로를 받으며, gradle nativeTest로 실행합니다.
+ * 기동 시간과 상주 메모리(RSS)를 출력합니다.
+ */
+@Tag("native")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NativeImageTest {
+    private static final String SECRET = "12345678901234567890123456789012";
+    private static final Long USER_ID = 1L;
+
+    private static final String TITLE = "오늘의 다이어리";
+    private static final String COMMENT = "아쉬운 하루였다";
+    private static final String UPDATE_TITLE = "3월 25일의 다이어리";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Process process;
+    private String baseUrl;
+    private String token;
+
+    @BeforeAll
+    void startBinary() throws Exception {
+        String binary = System.getProperty("native.binary");
+        assumeTrue(binary != null && Files.isExecutable(Paths.get(binary)),
+                "native.binary is not built");
+
+        int port = freePort();
+        baseUrl = "http://localhost:" + port;
+        token = new JwtUtil(SECRET, 3600).encode(USER_ID);
+
+        long startedAt = System.nanoTime();
+        ProcessBuilder processBuilder = new ProcessBuilder(binary, "--server.port=" + port)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        processBuilder.environment().put("JWT_SECRET", SECRET);
+        process = processBuilder.start();
+
+        awaitFirstResponse(Duration.ofSeconds(30));
+        long startupMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+        System.out.printf("native startup: %d ms, RSS: %s%n", startupMillis, residentSetSize());
+    }
+
+    @AfterAll
+    void stopBinary() throws InterruptedException {
+        if (process == null) {
+            return;
+        }
+        System.out.printf("native RSS after tests: %s%n", residentSetSize());
+        process.destroy();
+        process.waitFor();
+    }
+
+    @Nested
+    @DisplayName("list 요청은")
+    class Describe_list {
+
+        @Test
+        @DisplayName("토큰이 없으면 응답코드 401을 반환한다")
+        void it_returns_401_without_token() throws Exception {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/diaries")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertThat(response.statusCode()).isEqualTo(401);
+        }
+
+        @Test
+        @DisplayName("내용 없이 다이어리 목록을 반환한다")
+        void it_returns_summaries() throws Exception {
+            createDiary();
+
+            HttpResponse<String> response = send("GET", "/diaries", null);
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            JsonNode first = objectMapper.readTree(response.body()).get(0);
+            assertThat(first.get("title").asText()).isEqualTo(TITLE);
+            assertThat(first.has("comment")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("detail 요청은")
+    class Describe_detail {
+
+        @Test
+        @DisplayName("등록된 다이어리를 내용과 함께 반환한다")
+        void it_returns_diary() throws Exception {
+            long id = createDiary();
+
+            HttpResponse<String> response = send("GET", "/diaries/" + id, null);
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(objectMapper.readTree(response.body()).get("comment").asText())
+                    .isEqualTo(COMMENT);
+        }
+
+        @Test
+        @DisplayName("등록되지 않은 id이면 응답코드 404를 반환한다")
+        void it_returns_404() throws Exception {
+            assertThat(send("GET", "/diaries/100000", null).statusCode()).isEqualTo(404);
+        }
+    }
+
+    @Nested
+    @DisplayName("update 요청은")
+    class Describe_update {
+
+        @Test
+        @DisplayName("수정된 다이어리를 반환한다")
+        void it_returns_updated_diary() throws Exception {
+            long id = createDiary();
+
+            HttpResponse<String> response = send("PATCH", "/diaries/" + id,
+                    "{\"title\":\"" + UPDATE_TITLE + "\",\"comment\":\"" + COMMENT + "\"}");
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(objectMapper.readTree(response.body()).get("title").asText())
+                    .isEqualTo(UPDATE_TITLE);
+        }
+
+        @Test
+        @DisplayName("제목이 비어 있으면 응답코드 400을 반환한다")
+        void it_returns_400() throws Exception {
+            long id = createDiary();
+
+            assertThat(send("PATCH", "/diaries/" + id, "{\"title\":\"\"}").statusCode())
+                    .isEqualTo(400);
+        }
+    }
+
+    @Nested
+    @DisplayName("delete 요청은")
+    class Describe_delete {
+
+        @Test
+        @DisplayName("다이어리를 삭제해 더 이상 조회되지 않게 한다")
+        void it_deletes_diary() throws Exception {
+            long id = createDiary();
+
+            assertThat(send("DELETE", "/diaries/" + id, null).statusCode()).isEqualTo(200);
+            assertThat(send("GET", "/diaries/" + id, null).statusCode()).isEqualTo(404);
+        }
+    }
+
+    private long createDiary() throws Exception {
+        HttpResponse<String> response = send("POST", "/diaries",
+                "{\"title\":\"" + TITLE + "\",\"comment\":\"" + COMMENT + "\"}");
+
+        assertThat(response.statusCode()).isEqualTo(201);
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void awaitFirstResponse(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/diaries")).build();
+
+        while (System.nanoTime() < deadline) {
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("Native binary did not answer within " + timeout);
+    }
+
+    private String residentSetSize() {
+        Path status = Paths.get("/proc", String.valueOf(process.pid()), "status");
+        try {
+            List<String> lines = Files.readAllLines(status);
+            return lines.stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.substring("VmRSS:".length()).trim())
+                    .findFirst()
+                    .orElse("unknown");
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
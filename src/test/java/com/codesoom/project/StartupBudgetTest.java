@@ -0,0 +1,73 @@
+package com.codesoom.project;
+
+import com.codesoom.project.utils.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * startup 프로필로 기동해 첫 요청에 응답할 때까지의 시간이 예산 안에 드는지 확인합니다.
+ */
+class StartupBudgetTest {
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private ConfigurableApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("startup 프로필로 기동하면")
+    class Describe_startup_profile {
+
+        @Nested
+        @DisplayName("첫 요청을 보냈을 때")
+        class Context_with_first_request {
+
+            @Test
+            @DisplayName("기동부터 응답까지의 시간이 예산 안에 든다")
+            void it_responds_within_budget() throws Exception {
+                long startedAt = System.nanoTime();
+
+                context = new SpringApplicationBuilder(App.class)
+                        .profiles("startup")
+                        .properties("server.port=0", "jwt.secret=" + SECRET,
+                                "audit.journal.enabled=false")
+                        .run();
+
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                String token = context.getBean(JwtUtil.class).encode(1L);
+
+                HttpURLConnection connection = (HttpURLConnection)
+                        new URL("http://localhost:" + port + "/diaries").openConnection();
+                connection.setRequestProperty(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+                int status = connection.getResponseCode();
+                connection.disconnect();
+
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+                long budgetMillis = context.getEnvironment()
+                        .getRequiredProperty("startup.budget-millis", Long.class);
+
+                assertThat(status).isEqualTo(200);
+                assertThat(elapsed.toMillis())
+                        .as("time to first request with the startup profile")
+                        .isLessThanOrEqualTo(budgetMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.errors.InvalidTokenException;
+import com.codesoom.project.utils.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AuthenticationServiceTest {
+    private static final String SECRET = "12345678901234567890123456789012";
+    private static final Long USER_ID = 1L;
+
+    private JwtUtil jwtUtil;
+
+    private AuthenticationService authenticationService;
+
+    private String validToken;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil(SECRET, 60));
+
+        authenticationService = new AuthenticationService(jwtUtil, 100, 600);
+
+        validToken = jwtUtil.encode(USER_ID);
+    }
+
+    @Nested
+    @DisplayName("parseToken 메소드는")
+    class Describe_parseToken {
+
+        @Nested
+        @DisplayName("유효한 토큰이 주어진다면")
+        class Context_with_valid_token {
+
+            @Test
+            @DisplayName("사용자 식별자를 반환한다")
+            void it_returns_user_id() {
+                assertThat(authenticationService.parseToken(validToken))
+                        .isEqualTo(USER_ID);
+            }
+        }
+
+        @Nested
+        @DisplayName("같은 토큰이 반복해서 주어진다면")
+        class Context_with_repeated_token {
+
+            @Test
+            @DisplayName("서명을 한 번만 검증한다")
+            void it_verifies_signature_once() {
+                for (int i = 0; i < 3; i++) {
+                    assertThat(authenticationService.parseToken(validToken))
+                            .isEqualTo(USER_ID);
+                }
+
+                verify(jwtUtil, times(1)).decode(anyString());
+                assertThat(authenticationService.cachedTokenCount()).isEqualTo(1);
+            }
+        }
+
+        @Nested
+        @DisplayName("유효하지 않은 토큰이 주어진다면")
+        class Context_with_invalid_token {
+
+            @Test
+            @DisplayName("유효하지 않은 토큰이라는 예외를 던지고 캐시에 보관하지 않는다")
+            void it_throws_exception() {
+                assertThatThrownBy(() -> authenticationService.parseToken(validToken + "WRONG"))
+                        .isInstanceOf(InvalidTokenException.class);
+
+                assertThat(authenticationService.cachedTokenCount()).isZero();
+            }
+        }
+
+        @Nested
+        @DisplayName("만료 시각이 없는 토큰이 주어진다면")
+        class Context_without_expiration {
+            private String tokenWithoutExpiration;
+
+            @BeforeEach
+            void setUp() {
+                tokenWithoutExpiration = Jwts.builder()
+                        .claim("userId", USER_ID)
+                        .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)),
+                                SignatureAlgorithm.HS256)
+                        .compact();
+            }
+
+            @Test
+            @DisplayName("유효하지 않은 토큰이라는 예외를 던지고 캐시에 보관하지 않는다")
+            void it_throws_exception() {
+                assertThatThrownBy(() -> authenticationService.parseToken(tokenWithoutExpiration))
+                        .isInstanceOf(InvalidTokenException.class);
+
+                assertThat(authenticationService.cachedTokenCount()).isZero();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("cachedUserId 메소드는")
+    class Describe_cachedUserId {
+
+        @Nested
+        @DisplayName("이미 검증한 토큰이 주어진다면")
+        class Context_with_verified_token {
+
+            @Test
+            @DisplayName("사용자 식별자를 반환한다")
+            void it_returns_user_id() {
+                authenticationService.parseToken(validToken);
+
+                assertThat(authenticationService.cachedUserId(validToken)).isEqualTo(USER_ID);
+            }
+        }
+
+        @Nested
+        @DisplayName("검증한 적이 없는 토큰이 주어진다면")
+        class Context_with_unverified_token {
+
+            @Test
+            @DisplayName("서명을 검증하지 않고 null을 반환한다")
+            void it_returns_null() {
+                assertThat(authenticationService.cachedUserId(validToken)).isNull();
+                assertThat(authenticationService.cachedUserId(null)).isNull();
+
+                verify(jwtUtil, times(0)).decode(anyString());
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.domain.ChangeRecord;
+import com.codesoom.project.domain.ChangeRecordRepository;
+import com.codesoom.project.domain.ChangeSequence;
+import com.codesoom.project.domain.ChangeSequenceRepository;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.events.DiaryEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ChangeRecorderTest {
+    private static final Long USER_ID = 1L;
+    private static final Long DIARY_ID = 10L;
+
+    private ChangeRecordRepository changeRecordRepository;
+    private ChangeSequenceRepository changeSequenceRepository;
+    private ChangeRecorder changeRecorder;
+
+    @BeforeEach
+    void setUp() {
+        changeRecordRepository = mock(ChangeRecordRepository.class);
+        changeSequenceRepository = mock(ChangeSequenceRepository.class);
+
+        changeRecorder = new ChangeRecorder(changeRecordRepository, changeSequenceRepository,
+                mock(PlatformTransactionManager.class));
+
+        given(changeRecordRepository.findByEntityTypeAndEntityId(any(), anyLong()))
+                .willReturn(Optional.empty());
+    }
+
+    private DiaryEvent diaryCreated(Long ownerId) {
+        return DiaryEvent.created(Diary.builder()
+                .id(DIARY_ID)
+                .ownerId(ownerId)
+                .title("오늘의 다이어리")
+                .build());
+    }
+
+    private ChangeRecord savedRecord() {
+        ArgumentCaptor<ChangeRecord> captor = ArgumentCaptor.forClass(ChangeRecord.class);
+        verify(changeRecordRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    @Nested
+    @DisplayName("onDiaryEvent 메소드는")
+    class Describe_onDiaryEvent {
+
+        @Nested
+        @DisplayName("사용자의 카운터가 있다면")
+        class Context_with_sequence {
+            @BeforeEach
+            void setUp() {
+                given(changeSequenceRepository.existsByOwnerId(USER_ID)).willReturn(true);
+                given(changeSequenceRepository.findForUpdateByOwnerId(USER_ID))
+                        .willReturn(Optional.of(new ChangeSequence(USER_ID, 7L)));
+            }
+
+            @Test
+            @DisplayName("그 사용자의 다음 순번으로 기록한다")
+            void it_records_next_seq_of_owner() {
+                changeRecorder.onDiaryEvent(diaryCreated(USER_ID));
+
+                ChangeRecord record = savedRecord();
+                assertThat(record.getOwnerId()).isEqualTo(USER_ID);
+                assertThat(record.getSeq()).isEqualTo(8L);
+
+                verify(changeSequenceRepository, never()).insert(anyLong(), anyLong());
+            }
+        }
+
+        @Nested
+        @DisplayName("사용자의 첫 변경이라면")
+        class Context_without_sequence {
+            @BeforeEach
+            void setUp() {
+                given(changeSequenceRepository.existsByOwnerId(USER_ID)).willReturn(false);
+                given(changeRecordRepository.findLastSeqByOwnerId(USER_ID)).willReturn(41L);
+                given(changeSequenceRepository.findForUpdateByOwnerId(USER_ID))
+                        .willReturn(Optional.of(new ChangeSequence(USER_ID, 41L)));
+            }
+
+            @Test
+            @DisplayName("이미 기록된 가장 큰 순번에서 카운터를 만들고 이어서 기록한다")
+            void it_seeds_sequence_from_last_seq() {
+                changeRecorder.onDiaryEvent(diaryCreated(USER_ID));
+
+                verify(changeSequenceRepository).insert(USER_ID, 41L);
+                assertThat(savedRecord().getSeq()).isEqualTo(42L);
+            }
+        }
+
+        @Nested
+        @DisplayName("다른 트랜잭션이 카운터를 먼저 만들었다면")
+        class Context_with_concurrent_seed {
+            @BeforeEach
+            void setUp() {
+                given(changeSequenceRepository.existsByOwnerId(USER_ID)).willReturn(false);
+                given(changeRecordRepository.findLastSeqByOwnerId(USER_ID)).willReturn(0L);
+                given(changeSequenceRepository.insert(USER_ID, 0L))
+                        .willThrow(new DataIntegrityViolationException("duplicate"));
+                given(changeSequenceRepository.findForUpdateByOwnerId(USER_ID))
+                        .willReturn(Optional.of(new ChangeSequence(USER_ID, 3L)));
+            }
+
+            @Test
+            @DisplayName("만들어진 카운터로 기록한다")
+            void it_uses_existing_sequence() {
+                changeRecorder.onDiaryEvent(diaryCreated(USER_ID));
+
+                assertThat(savedRecord().getSeq()).isEqualTo(4L);
+            }
+        }
+    }
+}
@@ -1,31 +1,56 @@
 package com.codesoom.project.application;
 
+import com.codesoom.project.datasource.ShardRouter;
 import com.codesoom.project.domain.Diary;
 import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.dto.DiaryCommentEditData;
 import com.codesoom.project.dto.DiaryCreateData;
+import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.DiarySummaryData;
 import com.codesoom.project.dto.DiaryUpdateData;
+import com.codesoom.project.dto.DiaryVersionResultData;
+import com.codesoom.project.dto.TextEditData;
 import com.codesoom.project.errors.DiaryNotFoundException;
+import com.codesoom.project.errors.DiaryVersionConflictException;
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.TaskEvent;
+import com.codesoom.project.invalidation.LocalInvalidationTransport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 class DiaryServiceTest {
     private DiaryRepository diaryRepository;
 
+    private TaskRepository taskRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private PlatformTransactionManager transactionManager;
+
     private DiaryService diaryService;
 
+    private static final Long USER_ID = 1L;
     private static final Long NOT_EXIST_ID = 100L;
     private static final Long ID = 1L;
 
@@ -44,19 +69,38 @@ class DiaryServiceTest {
     void setUp() {
         diaryRepository = mock(DiaryRepository.class);
 
-        diaryService = new DiaryService(diaryRepository);
+        taskRepository = mock(TaskRepository.class);
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
 
-        diaries = diaryService.getDiaries();
+        transactionManager = mock(PlatformTransactionManager.class);
+
+        diaryService = new DiaryService(diaryRepository, taskRepository, eventPublisher,
+                new DiaryWriteBehindBuffer(diaryRepository, eventPublisher,
+                        mock(PlatformTransactionManager.class), ShardRouter.single(),
+                        false, 1000, 5000, 0),
+                new NegativeLookupCache(diaryRepository, taskRepository,
+                        ShardRouter.single(), new LocalInvalidationTransport(), 1,
+                        1000, 0.01, 100, 30),
+                new ReadCoalescer(),
+                transactionManager);
+
+        diaries = new ArrayList<>();
 
         diary = Diary.builder()
                 .id(ID)
+                .ownerId(USER_ID)
                 .title(TITLE)
                 .comment(COMMENT)
                 .build();
 
-        given(diaryRepository.findAll()).willReturn(diaries);
+        given(diaryRepository.findAllByOwnerId(USER_ID)).willReturn(diaries);
+
+        given(diaryRepository.findByIdAndOwnerId(eq(ID), eq(USER_ID)))
+                .willReturn(Optional.of(diary));
 
-        given(diaryRepository.findById(eq(ID))).willReturn(Optional.of(diary));
+        given(diaryRepository.findForUpdateByIdAndOwnerId(eq(ID), eq(USER_ID)))
+                .willReturn(Optional.of(diary));
 
         given(diaryRepository.save(any(Diary.class))).willReturn(diary);
     }
@@ -69,19 +113,26 @@ class DiaryServiceTest {
         @DisplayName("다이어리가 존재한다면")
         class Context_with_diary {
 
-            @BeforeEach
-            void setUp() {
-                diary = new Diary();
-            }
-
             @Test
             @DisplayName("전체 다이어리 목록을 반환한다")
             void it_returns_list() {
                 diaries.add(diary);
 
-                verify(diaryRepository).findAll();
+                List<DiarySummaryData> found = diaryService.getDiaries(USER_ID);
+
+                verify(diaryRepository).findAllByOwnerId(USER_ID);
+
+                assertThat(found)
+                        .extracting(DiarySummaryData::getTitle)
+                        .containsExactly(TITLE);
+            }
+
+            @Test
+            @DisplayName("읽기 전용 트랜잭션에서 조회한다")
+            void it_reads_in_read_only_transaction() {
+                diaryService.getDiaries(USER_ID);
 
-                assertThat(diaries).hasSize(1);
+                verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
             }
         }
 
@@ -92,7 +143,7 @@ class DiaryServiceTest {
             @Test
             @DisplayName("빈 목록을 반환한다")
             void it_returns_empty_list() {
-                assertThat(diaries).isEmpty();
+                assertThat(diaryService.getDiaries(USER_ID)).isEmpty();
             }
         }
     }
@@ -113,12 +164,13 @@ class DiaryServiceTest {
             @Test
             @DisplayName("주어진 id를 갖는 다이어리를 반환한다")
             void it_returns_diary() {
-                diary = diaryService.getDiary(givenValidId);
+                DiaryResultData found = diaryService.getDiary(USER_ID, givenValidId);
 
-                verify(diaryRepository).findById(givenValidId);
+                verify(diaryRepository).findByIdAndOwnerId(givenValidId, USER_ID);
+                verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
 
-                assertThat(diary.getTitle()).isEqualTo(TITLE);
-                assertThat(diary.getComment()).isEqualTo(COMMENT);
+                assertThat(found.getTitle()).isEqualTo(TITLE);
+                assertThat(found.getComment()).isEqualTo(COMMENT);
             }
         }
 
@@ -134,9 +186,20 @@ class DiaryServiceTest {
             @Test
             @DisplayName("조회할 다이어리를 찾을 수 없다는 예외를 던진다")
             void it_returns_exception() {
-                assertThatThrownBy(() -> diaryService.getDiary(givenInvalidId))
+                assertThatThrownBy(() -> diaryService.getDiary(USER_ID, givenInvalidId))
                         .isInstanceOf(DiaryNotFoundException.class);
             }
+
+            @Test
+            @DisplayName("같은 id를 다시 조회하면 저장소를 조회하지 않는다")
+            void it_caches_miss() {
+                for (int i = 0; i < 3; i++) {
+                    assertThatThrownBy(() -> diaryService.getDiary(USER_ID, givenInvalidId))
+                            .isInstanceOf(DiaryNotFoundException.class);
+                }
+
+                verify(diaryRepository).findByIdAndOwnerId(givenInvalidId, USER_ID);
+            }
         }
     }
 
@@ -160,9 +223,10 @@ class DiaryServiceTest {
             @Test
             @DisplayName("새로운 다이어리를 생성한다")
             void it_returns_diary() {
-                diaryService.createDiary(createRequest);
+                diaryService.createDiary(USER_ID, createRequest);
 
                 verify(diaryRepository).save(any(Diary.class));
+                verify(eventPublisher).publishEvent(any(DiaryEvent.class));
             }
         }
     }
@@ -189,9 +253,9 @@ class DiaryServiceTest {
             @Test
             @DisplayName("주어진 id를 갖는 다이어리의 정보를 수정한다")
             void it_returns_diary() {
-                diaryService.updateDiary(givenValidId, updateRequest);
+                diaryService.updateDiary(USER_ID, givenValidId, updateRequest);
 
-                verify(diaryRepository).findById(givenValidId);
+                verify(diaryRepository).findForUpdateByIdAndOwnerId(givenValidId, USER_ID);
 
                 assertThat(diary.getTitle()).isEqualTo(UPDATE_TITLE);
                 assertThat(diary.getComment()).isEqualTo(UPDATE_COMMENT);
@@ -215,7 +279,67 @@ class DiaryServiceTest {
             @Test
             @DisplayName("수정할 다이어리를 찾을 수 없다는 예외를 던진다")
             void it_returns_exception() {
-                assertThatThrownBy(() -> diaryService.updateDiary(givenInvalidId, updateRequest))
+                assertThatThrownBy(() -> diaryService.updateDiary(USER_ID, givenInvalidId, updateRequest))
+                        .isInstanceOf(DiaryNotFoundException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("editComment 메소드는")
+    class Describe_editComment {
+
+        private DiaryCommentEditData editFrom(long baseVersion) {
+            return DiaryCommentEditData.builder()
+                    .baseVersion(baseVersion)
+                    .edits(List.of(TextEditData.builder()
+                            .position(0)
+                            .deleteCount(3)
+                            .insert("보람찬")
+                            .build()))
+                    .build();
+        }
+
+        @Nested
+        @DisplayName("현재 버전을 기준으로 한 편집이 주어진다면")
+        class Context_with_current_version {
+
+            @Test
+            @DisplayName("내용을 편집하고 올라간 버전을 반환한다")
+            void it_applies_edits() {
+                DiaryVersionResultData result = diaryService.editComment(USER_ID, ID, editFrom(0L));
+
+                assertThat(diary.getComment()).isEqualTo(UPDATE_COMMENT);
+                assertThat(result.getVersion()).isEqualTo(1L);
+
+                verify(eventPublisher).publishEvent(any(DiaryEvent.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("지난 버전을 기준으로 한 편집이 주어진다면")
+        class Context_with_stale_version {
+
+            @Test
+            @DisplayName("내용을 바꾸지 않고 예외를 던진다")
+            void it_throws_conflict() {
+                diary.updateWith(diary);
+
+                assertThatThrownBy(() -> diaryService.editComment(USER_ID, ID, editFrom(0L)))
+                        .isInstanceOf(DiaryVersionConflictException.class);
+
+                assertThat(diary.getComment()).isEqualTo(COMMENT);
+            }
+        }
+
+        @Nested
+        @DisplayName("등록되지 않은 다이어리 id가 주어진다면")
+        class Context_with_invalid_id {
+
+            @Test
+            @DisplayName("예외를 던진다")
+            void it_throws_exception() {
+                assertThatThrownBy(() -> diaryService.editComment(USER_ID, NOT_EXIST_ID, editFrom(0L)))
                         .isInstanceOf(DiaryNotFoundException.class);
             }
         }
@@ -235,14 +359,35 @@ class DiaryServiceTest {
             }
 
             @Test
-            @DisplayName("주어진 id를 갖는 다이어리를 삭제한다")
+            @DisplayName("주어진 id를 갖는 다이어리를 삭제 표시한다")
             void it_returns_diary() {
-                diaryService.deleteDiary(givenValidId);
+                diaryService.deleteDiary(USER_ID, givenValidId);
+
+                verify(diaryRepository).findForUpdateByIdAndOwnerId(givenValidId, USER_ID);
+                verify(diaryRepository, never()).delete(any(Diary.class));
+                verify(eventPublisher).publishEvent(any(DiaryEvent.class));
+
+                assertThat(diary.isDeleted()).isTrue();
+                assertThat(diary.getDeletedAt()).isNotNull();
+            }
+
+            @Test
+            @DisplayName("다이어리의 할 일도 함께 삭제 표시한다")
+            void it_deletes_tasks() {
+                Task task = Task.builder()
+                        .id(10L)
+                        .ownerId(USER_ID)
+                        .diaryId(givenValidId)
+                        .title("할 일")
+                        .build();
+                given(taskRepository.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, givenValidId))
+                        .willReturn(List.of(task));
 
-                verify(diaryRepository).findById(givenValidId);
-                verify(diaryRepository).delete(diary);
+                diaryService.deleteDiary(USER_ID, givenValidId);
 
-                assertThat(diaryRepository.findAll()).isNotIn(diary);
+                assertThat(task.isDeleted()).isTrue();
+                assertThat(task.getDeletedAt()).isEqualTo(diary.getDeletedAt());
+                verify(eventPublisher).publishEvent(any(TaskEvent.class));
             }
         }
 
@@ -258,7 +403,7 @@ class DiaryServiceTest {
             @Test
             @DisplayName("삭제할 다이어리를 찾을 수 없다는 예외를 던진다")
             void it_returns_exception() {
-                assertThatThrownBy(() -> diaryService.getDiary(givenInvalidId))
+                assertThatThrownBy(() -> diaryService.getDiary(USER_ID, givenInvalidId))
                         .isInstanceOf(DiaryNotFoundException.class);
             }
         }
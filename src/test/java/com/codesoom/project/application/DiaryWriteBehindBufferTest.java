@@ -0,0 +1,340 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TextEdit;
+import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.DiarySummaryData;
+import com.codesoom.project.errors.DiaryVersionConflictException;
+import com.codesoom.project.events.DiaryEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class DiaryWriteBehindBufferTest {
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+    private static final Long ID = 1L;
+
+    private static final String TITLE = "오늘의 다이어리";
+    private static final String COMMENT = "아쉬운 하루였다";
+    private static final String UPDATE_COMMENT = "보람찬 하루였다";
+
+    private DiaryRepository diaryRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private DiaryWriteBehindBuffer buffer;
+    private Diary diary;
+
+    @BeforeEach
+    void setUp() {
+        diaryRepository = mock(DiaryRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        buffer = new DiaryWriteBehindBuffer(diaryRepository, eventPublisher,
+                mock(PlatformTransactionManager.class), ShardRouter.single(), true, 0, 5000, 1000);
+
+        diary = Diary.builder()
+                .id(ID)
+                .ownerId(USER_ID)
+                .title(TITLE)
+                .comment(COMMENT)
+                .build();
+
+        given(diaryRepository.findForUpdateByIdAndOwnerId(ID, USER_ID))
+                .willReturn(Optional.of(diary));
+    }
+
+    @Nested
+    @DisplayName("stage 메소드는")
+    class Describe_stage {
+
+        @Test
+        @DisplayName("저장하지 않고 마지막 수정만 보관한다")
+        void it_keeps_only_the_last_update() {
+            buffer.stage(diary, TITLE, "첫 번째 수정");
+            Diary staged = buffer.stage(diary, TITLE, UPDATE_COMMENT);
+
+            assertThat(staged.getComment()).isEqualTo(UPDATE_COMMENT);
+            assertThat(diary.getComment()).isEqualTo(COMMENT);
+            assertThat(buffer.pendingCount()).isEqualTo(1);
+            assertThat(buffer.stagedCount()).isEqualTo(2);
+
+            verify(diaryRepository, never()).findForUpdateByIdAndOwnerId(any(), any());
+        }
+
+        @Test
+        @DisplayName("수정할 때마다 버전을 올린다")
+        void it_bumps_version_per_update() {
+            assertThat(buffer.stage(diary, TITLE, "첫 번째 수정").getVersion()).isEqualTo(1L);
+            assertThat(buffer.stage(diary, TITLE, UPDATE_COMMENT).getVersion()).isEqualTo(2L);
+        }
+    }
+
+    @Nested
+    @DisplayName("stageCommentEdits 메소드는")
+    class Describe_stageCommentEdits {
+        private final List<TextEdit> replaceFirstWord = List.of(new TextEdit(0, 3, "보람찬"));
+
+        @Nested
+        @DisplayName("보관 중인 최신 버전을 기준으로 한 편집이 주어진다면")
+        class Context_with_latest_version {
+
+            @Test
+            @DisplayName("보관 중인 내용에 편집을 적용하고 버전을 올린다")
+            void it_applies_edits_to_pending_comment() {
+                buffer.stage(diary, TITLE, COMMENT + "?");
+
+                Diary staged = buffer.stageCommentEdits(diary, 1L, replaceFirstWord);
+
+                assertThat(staged.getComment()).isEqualTo(UPDATE_COMMENT + "?");
+                assertThat(staged.getVersion()).isEqualTo(2L);
+            }
+        }
+
+        @Nested
+        @DisplayName("보관 중인 수정보다 지난 버전을 기준으로 한 편집이 주어진다면")
+        class Context_with_stale_version {
+
+            @Test
+            @DisplayName("보관 중인 수정을 바꾸지 않고 예외를 던진다")
+            void it_throws_conflict() {
+                buffer.stage(diary, TITLE, UPDATE_COMMENT);
+
+                assertThatThrownBy(() -> buffer.stageCommentEdits(diary, 0L, replaceFirstWord))
+                        .isInstanceOf(DiaryVersionConflictException.class);
+
+                assertThat(buffer.overlay(diary).getComment()).isEqualTo(UPDATE_COMMENT);
+            }
+        }
+
+        @Nested
+        @DisplayName("같은 버전을 기준으로 한 편집이 동시에 주어진다면")
+        class Context_with_concurrent_edits {
+            private static final int THREADS = 8;
+
+            @Test
+            @DisplayName("하나만 반영하고 나머지는 예외를 던진다")
+            void it_applies_only_one() throws Exception {
+                ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger conflicts = new AtomicInteger();
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    String mark = String.valueOf(i);
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            buffer.stageCommentEdits(diary, 0L,
+                                    List.of(new TextEdit(COMMENT.length(), 0, mark)));
+                        } catch (DiaryVersionConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+                executor.shutdown();
+
+                assertThat(conflicts.get()).isEqualTo(THREADS - 1);
+
+                Diary staged = buffer.overlay(diary);
+                assertThat(staged.getVersion()).isEqualTo(1L);
+                assertThat(staged.getComment()).hasSize(COMMENT.length() + 1);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("overlay 메소드는")
+    class Describe_overlay {
+
+        @BeforeEach
+        void setUp() {
+            buffer.stage(diary, TITLE, UPDATE_COMMENT);
+        }
+
+        @Test
+        @DisplayName("작성자에게 보관 중인 수정을 보여준다")
+        void it_returns_pending_update_to_owner() {
+            assertThat(buffer.overlay(diary).getComment()).isEqualTo(UPDATE_COMMENT);
+
+            assertThat(buffer.overlay(List.of(diary)))
+                    .extracting(Diary::getComment)
+                    .containsExactly(UPDATE_COMMENT);
+        }
+
+        @Test
+        @DisplayName("응답 DTO에도 작성자에게만 보관 중인 수정을 보여준다")
+        void it_overlays_responses() {
+            assertThat(buffer.overlay(USER_ID, DiaryResultData.of(diary)).getComment())
+                    .isEqualTo(UPDATE_COMMENT);
+            assertThat(buffer.overlay(USER_ID, List.of(DiarySummaryData.of(diary))))
+                    .extracting(DiarySummaryData::getVersion)
+                    .containsExactly(1L);
+
+            assertThat(buffer.overlay(OTHER_USER_ID, DiaryResultData.of(diary)).getComment())
+                    .isEqualTo(COMMENT);
+        }
+
+        @Test
+        @DisplayName("다른 사용자에게는 보여주지 않는다")
+        void it_hides_pending_update_from_others() {
+            Diary othersDiary = Diary.builder()
+                    .id(ID)
+                    .ownerId(OTHER_USER_ID)
+                    .title(TITLE)
+                    .comment(COMMENT)
+                    .build();
+
+            assertThat(buffer.overlay(othersDiary).getComment()).isEqualTo(COMMENT);
+        }
+
+        @Test
+        @DisplayName("할 일 집계 값은 저장소에서 읽은 값을 보여준다")
+        void it_keeps_stored_task_counts() {
+            Diary stored = Diary.builder()
+                    .id(ID)
+                    .ownerId(USER_ID)
+                    .title(TITLE)
+                    .comment(COMMENT)
+                    .taskCount(3)
+                    .doneTaskCount(1)
+                    .build();
+
+            Diary overlaid = buffer.overlay(stored);
+
+            assertThat(overlaid.getComment()).isEqualTo(UPDATE_COMMENT);
+            assertThat(overlaid.getTaskCount()).isEqualTo(3L);
+            assertThat(overlaid.getDoneTaskCount()).isEqualTo(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("flushDue 메소드는")
+    class Describe_flushDue {
+
+        @BeforeEach
+        void setUp() {
+            for (int i = 0; i < 5; i++) {
+                buffer.stage(diary, TITLE, UPDATE_COMMENT + i);
+            }
+        }
+
+        @Test
+        @DisplayName("모인 수정을 한 번에 저장한다")
+        void it_flushes_once() {
+            buffer.flushDue();
+
+            verify(diaryRepository, times(1)).findForUpdateByIdAndOwnerId(ID, USER_ID);
+            verify(eventPublisher, times(1)).publishEvent(any(DiaryEvent.class));
+
+            assertThat(diary.getComment()).isEqualTo(UPDATE_COMMENT + 4);
+            assertThat(diary.getVersion()).isEqualTo(5L);
+            assertThat(buffer.pendingCount()).isZero();
+            assertThat(buffer.flushedCount()).isEqualTo(1);
+            assertThat(buffer.coalescingRatio()).isEqualTo(5.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("flushAll 메소드는")
+    class Describe_flushAll {
+
+        @Test
+        @DisplayName("기다릴 시간이 남은 수정도 모두 저장한다")
+        void it_flushes_everything() {
+            DiaryWriteBehindBuffer slowBuffer = new DiaryWriteBehindBuffer(
+                    diaryRepository, eventPublisher,
+                    mock(PlatformTransactionManager.class), ShardRouter.single(), true, 60000, 60000, 0);
+
+            slowBuffer.stage(diary, TITLE, UPDATE_COMMENT);
+
+            slowBuffer.flushDue();
+            assertThat(slowBuffer.pendingCount()).isEqualTo(1);
+
+            slowBuffer.flushAll();
+            assertThat(slowBuffer.pendingCount()).isZero();
+            assertThat(diary.getComment()).isEqualTo(UPDATE_COMMENT);
+        }
+
+        @Test
+        @DisplayName("저장에 실패한 수정을 제한 시간 안에서 다시 저장한다")
+        void it_retries_failed_flush() {
+            given(diaryRepository.findForUpdateByIdAndOwnerId(ID, USER_ID))
+                    .willThrow(new IllegalStateException("connection refused"))
+                    .willReturn(Optional.of(diary));
+
+            buffer.stage(diary, TITLE, UPDATE_COMMENT);
+
+            buffer.flushAll();
+
+            assertThat(buffer.pendingCount()).isZero();
+            assertThat(buffer.failedFlushCount()).isEqualTo(1);
+            assertThat(diary.getComment()).isEqualTo(UPDATE_COMMENT);
+        }
+
+        @Test
+        @DisplayName("제한 시간이 지나면 남은 수정을 두고 끝낸다")
+        void it_gives_up_after_deadline() {
+            given(diaryRepository.findForUpdateByIdAndOwnerId(ID, USER_ID))
+                    .willThrow(new IllegalStateException("connection refused"));
+
+            DiaryWriteBehindBuffer impatientBuffer = new DiaryWriteBehindBuffer(
+                    diaryRepository, eventPublisher,
+                    mock(PlatformTransactionManager.class), ShardRouter.single(), true, 0, 5000, 0);
+
+            impatientBuffer.stage(diary, TITLE, UPDATE_COMMENT);
+
+            impatientBuffer.flushAll();
+
+            assertThat(impatientBuffer.pendingCount()).isEqualTo(1);
+            assertThat(impatientBuffer.failedFlushCount()).isEqualTo(1);
+            assertThat(diary.getComment()).isEqualTo(COMMENT);
+        }
+    }
+
+    @Nested
+    @DisplayName("discard 메소드는")
+    class Describe_discard {
+
+        @Test
+        @DisplayName("보관 중인 수정을 저장하지 않고 버린다")
+        void it_drops_pending_update() {
+            buffer.stage(diary, TITLE, UPDATE_COMMENT);
+
+            buffer.discard(ID);
+            buffer.flushAll();
+
+            verify(diaryRepository, never()).findForUpdateByIdAndOwnerId(any(), any());
+            assertThat(diary.getComment()).isEqualTo(COMMENT);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class IdempotencyRecordPurgerTest {
+    private static final int BATCH_SIZE = 2;
+
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    private IdempotencyRecordPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+
+        purger = new IdempotencyRecordPurger(idempotencyRecordRepository,
+                mock(PlatformTransactionManager.class), ShardRouter.single(), 86400, BATCH_SIZE);
+    }
+
+    @Nested
+    @DisplayName("purge 메소드는")
+    class Describe_purge {
+
+        @Nested
+        @DisplayName("지난 응답이 묶음 크기보다 많다면")
+        class Context_with_many_records {
+
+            @BeforeEach
+            void setUp() {
+                given(idempotencyRecordRepository.purgeCreatedBefore(
+                        any(LocalDateTime.class), eq(BATCH_SIZE)))
+                        .willReturn(2, 1);
+            }
+
+            @Test
+            @DisplayName("남은 응답이 묶음 크기보다 적어질 때까지 나눠서 지운다")
+            void it_purges_in_batches() {
+                purger.purge();
+
+                verify(idempotencyRecordRepository, times(2))
+                        .purgeCreatedBefore(any(LocalDateTime.class), eq(BATCH_SIZE));
+
+                assertThat(purger.purgedCount()).isEqualTo(3);
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.domain.IdempotencyRecord;
+import com.codesoom.project.domain.IdempotencyRecordRepository;
+import com.codesoom.project.dto.DiaryCreateData;
+import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.errors.IdempotencyKeyConflictException;
+import com.codesoom.project.errors.InvalidIdempotencyKeyException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class IdempotencyServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final String KEY = "c0ffee";
+    private static final String SCOPE = "POST /diaries";
+    private static final String TITLE = "오늘의 다이어리";
+    private static final DiaryCreateData REQUEST = DiaryCreateData.builder()
+            .title(TITLE)
+            .build();
+
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    private ObjectMapper objectMapper;
+    private IdempotencyService idempotencyService;
+    private AtomicInteger creates;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+        objectMapper = new ObjectMapper();
+
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, objectMapper,
+                mock(PlatformTransactionManager.class), 86400, 100);
+
+        creates = new AtomicInteger();
+
+        given(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(USER_ID, KEY))
+                .willReturn(Optional.empty());
+    }
+
+    private DiaryResultData create() {
+        return DiaryResultData.builder()
+                .id((long) creates.incrementAndGet())
+                .title(TITLE)
+                .build();
+    }
+
+    private DiaryResultData execute(String key, String scope, Supplier<DiaryResultData> action) {
+        return execute(key, scope, REQUEST, action);
+    }
+
+    private DiaryResultData execute(String key, String scope, Object request,
+                                    Supplier<DiaryResultData> action) {
+        return idempotencyService.execute(USER_ID, key, scope, request, DiaryResultData.class, action);
+    }
+
+    @Nested
+    @DisplayName("execute 메소드는")
+    class Describe_execute {
+
+        @Nested
+        @DisplayName("멱등 키가 없다면")
+        class Context_without_key {
+
+            @Test
+            @DisplayName("요청마다 처리를 실행한다")
+            void it_runs_every_time() {
+                execute(null, SCOPE, IdempotencyServiceTest.this::create);
+                execute(null, SCOPE, IdempotencyServiceTest.this::create);
+
+                assertThat(creates.get()).isEqualTo(2);
+                verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecord.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("같은 멱등 키로 다시 요청하면")
+        class Context_with_repeated_key {
+
+            @Test
+            @DisplayName("처리를 다시 실행하지 않고 첫 응답을 돌려준다")
+            void it_replays_first_response() {
+                DiaryResultData first = execute(KEY, SCOPE, IdempotencyServiceTest.this::create);
+                DiaryResultData second = execute(KEY, SCOPE, IdempotencyServiceTest.this::create);
+
+                assertThat(creates.get()).isEqualTo(1);
+                assertThat(second.getId()).isEqualTo(first.getId());
+                assertThat(second.getTitle()).isEqualTo(TITLE);
+                assertThat(idempotencyService.replayedCount()).isEqualTo(1);
+
+                verify(idempotencyRecordRepository, times(1)).save(any(IdempotencyRecord.class));
+            }
+
+            @Test
+            @DisplayName("요청 본문이 다르면 첫 응답을 돌려주지 않고 예외를 던진다")
+            void it_throws_conflict_for_other_body() {
+                execute(KEY, SCOPE, IdempotencyServiceTest.this::create);
+
+                assertThatThrownBy(() -> execute(KEY, SCOPE, DiaryCreateData.builder()
+                        .title("다른 다이어리")
+                        .build(), IdempotencyServiceTest.this::create))
+                        .isInstanceOf(IdempotencyKeyConflictException.class);
+
+                assertThat(creates.get()).isEqualTo(1);
+            }
+
+            @Test
+            @DisplayName("요청 본문의 해시를 함께 기록한다")
+            void it_records_request_hash() {
+                execute(KEY, SCOPE, IdempotencyServiceTest.this::create);
+
+                ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+                verify(idempotencyRecordRepository).save(captor.capture());
+
+                assertThat(captor.getValue().getRequestHash()).hasSize(64);
+            }
+        }
+
+        @Nested
+        @DisplayName("저장소에 응답이 기록된 멱등 키라면")
+        class Context_with_stored_record {
+
+            @BeforeEach
+            void setUp() throws Exception {
+                given(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(USER_ID, KEY))
+                        .willReturn(Optional.of(IdempotencyRecord.builder()
+                                .ownerId(USER_ID)
+                                .idempotencyKey(KEY)
+                                .scope(SCOPE)
+                                .body(objectMapper.writeValueAsString(DiaryResultData.builder()
+                                        .id(7L)
+                                        .title(TITLE)
+                                        .build()))
+                                .createdAt(LocalDateTime.now())
+                                .build()));
+            }
+
+            @Test
+            @DisplayName("기록된 응답을 돌려준다")
+            void it_returns_stored_response() {
+                DiaryResultData result = execute(KEY, SCOPE, IdempotencyServiceTest.this::create);
+
+                assertThat(result.getId()).isEqualTo(7L);
+                assertThat(creates.get()).isZero();
+            }
+
+            @Test
+            @DisplayName("다른 요청에 쓰면 예외를 던진다")
+            void it_throws_conflict_for_other_scope() {
+                assertThatThrownBy(() -> execute(KEY, "POST /diaries/7/tasks",
+                        IdempotencyServiceTest.this::create))
+                        .isInstanceOf(IdempotencyKeyConflictException.class);
+
+                assertThat(creates.get()).isZero();
+            }
+        }
+
+        @Nested
+        @DisplayName("저장소에 다른 요청 본문으로 기록된 멱등 키라면")
+        class Context_with_stored_record_of_other_body {
+
+            @BeforeEach
+            void setUp() {
+                given(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(USER_ID, KEY))
+                        .willReturn(Optional.of(IdempotencyRecord.builder()
+                                .ownerId(USER_ID)
+                                .idempotencyKey(KEY)
+                                .scope(SCOPE)
+                                .requestHash("0".repeat(64))
+                                .body("{}")
+                                .createdAt(LocalDateTime.now())
+                                .build()));
+            }
+
+            @Test
+            @DisplayName("기록된 응답을 돌려주지 않고 예외를 던진다")
+            void it_throws_conflict() {
+                assertThatThrownBy(() -> execute(KEY, SCOPE, IdempotencyServiceTest.this::create))
+                        .isInstanceOf(IdempotencyKeyConflictException.class);
+
+                assertThat(creates.get()).isZero();
+            }
+        }
+
+        @Nested
+        @DisplayName("다른 서버가 같은 멱등 키를 먼저 기록했다면")
+        class Context_with_concurrent_record {
+
+            @BeforeEach
+            void setUp() {
+                given(idempotencyRecordRepository.save(any(IdempotencyRecord.class)))
+                        .willThrow(new DataIntegrityViolationException("duplicate key"));
+            }
+
+            @Test
+            @DisplayName("예외를 던진다")
+            void it_throws_conflict() {
+                assertThatThrownBy(() -> execute(KEY, SCOPE, IdempotencyServiceTest.this::create))
+                        .isInstanceOf(IdempotencyKeyConflictException.class);
+            }
+        }
+
+        @Nested
+        @DisplayName("비어 있거나 너무 긴 멱등 키라면")
+        class Context_with_invalid_key {
+
+            @Test
+            @DisplayName("처리하지 않고 예외를 던진다")
+            void it_throws_invalid_key() {
+                assertThatThrownBy(() -> execute(" ", SCOPE, IdempotencyServiceTest.this::create))
+                        .isInstanceOf(InvalidIdempotencyKeyException.class);
+                assertThatThrownBy(() -> execute("k".repeat(IdempotencyRecord.MAX_KEY_LENGTH + 1),
+                        SCOPE, IdempotencyServiceTest.this::create))
+                        .isInstanceOf(InvalidIdempotencyKeyException.class);
+
+                assertThat(creates.get()).isZero();
+            }
+        }
+
+        @Nested
+        @DisplayName("같은 멱등 키로 동시에 요청하면")
+        class Context_with_concurrent_requests {
+            private static final int CALLERS = 4;
+
+            @Test
+            @DisplayName("처리를 한 번만 실행하고 같은 응답을 돌려준다")
+            void it_runs_once() throws Exception {
+                CountDownLatch release = new CountDownLatch(1);
+                Supplier<DiaryResultData> blocking = () -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return create();
+                };
+
+                ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+                try {
+                    List<Future<DiaryResultData>> results = new ArrayList<>();
+                    for (int i = 0; i < CALLERS; i++) {
+                        results.add(executor.submit(() -> execute(KEY, SCOPE, blocking)));
+                    }
+
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                    while (idempotencyService.replayedCount() < CALLERS - 1
+                            && System.nanoTime() < deadline) {
+                        Thread.sleep(1);
+                    }
+                    release.countDown();
+
+                    for (Future<DiaryResultData> result : results) {
+                        assertThat(result.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+
+                assertThat(creates.get()).isEqualTo(1);
+                verify(idempotencyRecordRepository).findByOwnerIdAndIdempotencyKey(eq(USER_ID), eq(KEY));
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.application.NegativeLookupCache.Kind;
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.InvalidationEvent;
+import com.codesoom.project.invalidation.LocalInvalidationTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NegativeLookupCacheTest {
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+
+    private DiaryRepository diaryRepository;
+    private TaskRepository taskRepository;
+    private NegativeLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        diaryRepository = mock(DiaryRepository.class);
+        taskRepository = mock(TaskRepository.class);
+
+        given(diaryRepository.findAllIds()).willReturn(List.of(1L, 2L, 3L));
+        given(taskRepository.findAllIds()).willReturn(List.of(10L));
+
+        cache = new NegativeLookupCache(diaryRepository, taskRepository, ShardRouter.single(),
+                new LocalInvalidationTransport(), 1,
+                1000, 0.001, 100, 30);
+    }
+
+    @Nested
+    @DisplayName("isKnownMissing 메소드는")
+    class Describe_isKnownMissing {
+
+        @Nested
+        @DisplayName("필터를 채우기 전이라면")
+        class Context_before_load {
+
+            @Test
+            @DisplayName("모든 id를 통과시킨다")
+            void it_passes_every_id() {
+                assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 100L)).isFalse();
+                assertThat(cache.isKnownMissing(Kind.TASK, USER_ID, 100L)).isFalse();
+            }
+        }
+
+        @Nested
+        @DisplayName("필터를 채운 뒤라면")
+        class Context_after_load {
+
+            @BeforeEach
+            void setUp() {
+                cache.load();
+            }
+
+            @Test
+            @DisplayName("저장소에 있는 id는 통과시킨다")
+            void it_passes_existing_ids() {
+                assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 2L)).isFalse();
+                assertThat(cache.isKnownMissing(Kind.TASK, USER_ID, 10L)).isFalse();
+            }
+
+            @Test
+            @DisplayName("저장소에 없는 id를 대부분 걸러낸다")
+            void it_rejects_missing_ids() {
+                int rejected = 0;
+                for (long id = 1000; id < 2000; id++) {
+                    if (cache.isKnownMissing(Kind.DIARY, USER_ID, id)) {
+                        rejected++;
+                    }
+                }
+
+                assertThat(rejected).isGreaterThan(990);
+                assertThat(cache.filterRejections()).isEqualTo(rejected);
+            }
+
+            @Test
+            @DisplayName("새로 생성된 id는 통과시킨다")
+            void it_passes_created_ids() {
+                cache.onDiaryEvent(DiaryEvent.created(Diary.builder()
+                        .id(5000L)
+                        .ownerId(USER_ID)
+                        .build()));
+
+                assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 5000L)).isFalse();
+            }
+
+            @Test
+            @DisplayName("다른 인스턴스에서 생성된 id도 통과시킨다")
+            void it_passes_ids_created_elsewhere() {
+                cache.onInvalidation(InvalidationEvent.builder()
+                        .kind(InvalidationEvent.Kind.TASK)
+                        .type(InvalidationEvent.Type.CREATED)
+                        .ownerId(USER_ID)
+                        .id(6000L)
+                        .diaryId(1L)
+                        .build());
+
+                assertThat(cache.isKnownMissing(Kind.TASK, USER_ID, 6000L)).isFalse();
+            }
+        }
+
+        @Nested
+        @DisplayName("이벤트를 잃었다는 알림을 받았다면")
+        class Context_after_reset {
+
+            @BeforeEach
+            void setUp() {
+                cache.load();
+                cache.recordMiss(Kind.DIARY, USER_ID, 7000L);
+
+                given(diaryRepository.findAllIds()).willReturn(List.of(1L, 2L, 3L, 8000L));
+
+                cache.onInvalidation(InvalidationEvent.reset("other", 0));
+            }
+
+            @Test
+            @DisplayName("필터와 조회 실패 기록을 보지 않고 저장소 조회로 넘긴다")
+            void it_falls_back_to_repository() {
+                assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 7000L)).isFalse();
+                assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 8000L)).isFalse();
+            }
+
+            @Test
+            @DisplayName("필터를 다시 채운 뒤에는 놓친 id를 통과시키고 없는 id를 걸러낸다")
+            void it_reloads_filter() {
+                cache.reloadIfReset();
+
+                verify(diaryRepository, times(2)).findAllIds();
+                assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 8000L)).isFalse();
+                assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 9000L)).isTrue();
+            }
+        }
+
+        @Nested
+        @DisplayName("같은 프로세스 안에서만 전달하는 통로로 인스턴스를 여럿 띄웠다면")
+        class Context_with_local_transport_on_many_instances {
+
+            @BeforeEach
+            void setUp() {
+                cache = new NegativeLookupCache(diaryRepository, taskRepository, ShardRouter.single(),
+                        new LocalInvalidationTransport(), 2,
+                        1000, 0.001, 100, 30);
+                cache.load();
+            }
+
+            @Test
+            @DisplayName("필터를 채우지 않고 모든 id를 통과시킨다")
+            void it_passes_every_id() {
+                assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 100L)).isFalse();
+
+                verify(diaryRepository, never()).findAllIds();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("recordMiss 메소드는")
+    class Describe_recordMiss {
+
+        @Test
+        @DisplayName("같은 사용자의 같은 id 조회를 걸러낸다")
+        void it_rejects_same_lookup() {
+            cache.recordMiss(Kind.DIARY, USER_ID, 2L);
+
+            assertThat(cache.isKnownMissing(Kind.DIARY, USER_ID, 2L)).isTrue();
+            assertThat(cache.isKnownMissing(Kind.DIARY, OTHER_USER_ID, 2L)).isFalse();
+            assertThat(cache.isKnownMissing(Kind.TASK, USER_ID, 2L)).isFalse();
+            assertThat(cache.cacheRejections()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("그 id가 생성되면 기록을 지운다")
+        void it_forgets_created_id() {
+            cache.recordMiss(Kind.TASK, USER_ID, 20L);
+
+            cache.recordCreated(Kind.TASK, USER_ID, 20L);
+
+            assertThat(cache.isKnownMissing(Kind.TASK, USER_ID, 20L)).isFalse();
+        }
+    }
+}
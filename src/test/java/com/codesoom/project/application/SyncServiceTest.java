@@ -0,0 +1,126 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.domain.ChangeRecord;
+import com.codesoom.project.domain.ChangeRecordRepository;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.dto.SyncResultData;
+import com.codesoom.project.errors.InvalidSyncTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class SyncServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final Long DIARY_ID = 10L;
+    private static final Long DELETED_TASK_ID = 20L;
+
+    private ChangeRecordRepository changeRecordRepository;
+    private DiaryRepository diaryRepository;
+    private TaskRepository taskRepository;
+
+    private SyncService syncService;
+
+    private Diary diary;
+
+    @BeforeEach
+    void setUp() {
+        changeRecordRepository = mock(ChangeRecordRepository.class);
+        diaryRepository = mock(DiaryRepository.class);
+        taskRepository = mock(TaskRepository.class);
+
+        syncService = new SyncService(changeRecordRepository, diaryRepository, taskRepository);
+
+        diary = Diary.builder()
+                .id(DIARY_ID)
+                .ownerId(USER_ID)
+                .title("오늘의 다이어리")
+                .build();
+
+        given(changeRecordRepository.findAllByOwnerIdAndSeqGreaterThanOrderBySeq(
+                eq(USER_ID), eq(0L), any(Pageable.class)))
+                .willReturn(List.of(
+                        change(ChangeRecord.EntityType.DIARY, DIARY_ID, 1L, false),
+                        change(ChangeRecord.EntityType.TASK, DELETED_TASK_ID, 2L, true)));
+
+        given(diaryRepository.findAllByOwnerIdAndIdIn(USER_ID, List.of(DIARY_ID)))
+                .willReturn(List.of(diary));
+    }
+
+    @Nested
+    @DisplayName("sync 메소드는")
+    class Describe_sync {
+
+        @Nested
+        @DisplayName("토큰 이후의 변경이 있다면")
+        class Context_with_changes {
+
+            @Test
+            @DisplayName("변경된 레코드와 삭제된 식별자, 마지막 순번 토큰을 반환한다")
+            void it_returns_changes() {
+                SyncResultData result = syncService.sync(USER_ID, "0", 100);
+
+                assertThat(result.getDiaries()).containsExactly(diary);
+                assertThat(result.getTasks()).isEmpty();
+                assertThat(result.getDeletedDiaryIds()).isEmpty();
+                assertThat(result.getDeletedTaskIds()).containsExactly(DELETED_TASK_ID);
+                assertThat(result.getNextToken()).isEqualTo("2");
+                assertThat(result.isHasMore()).isFalse();
+
+                verifyNoInteractions(taskRepository);
+            }
+        }
+
+        @Nested
+        @DisplayName("한 페이지보다 많은 변경이 있다면")
+        class Context_with_more_changes_than_page {
+
+            @Test
+            @DisplayName("한 페이지만 반환하고 남은 변경이 있음을 알린다")
+            void it_returns_one_page() {
+                SyncResultData result = syncService.sync(USER_ID, "0", 1);
+
+                assertThat(result.getDiaries()).containsExactly(diary);
+                assertThat(result.getDeletedTaskIds()).isEmpty();
+                assertThat(result.getNextToken()).isEqualTo("1");
+                assertThat(result.isHasMore()).isTrue();
+            }
+        }
+
+        @Nested
+        @DisplayName("유효하지 않은 토큰이 주어진다면")
+        class Context_with_invalid_token {
+
+            @Test
+            @DisplayName("유효하지 않은 동기화 토큰이라는 예외를 던진다")
+            void it_throws_exception() {
+                assertThatThrownBy(() -> syncService.sync(USER_ID, "abc", 100))
+                        .isInstanceOf(InvalidSyncTokenException.class);
+            }
+        }
+    }
+
+    private static ChangeRecord change(ChangeRecord.EntityType entityType, Long entityId,
+                                       Long seq, boolean deleted) {
+        return ChangeRecord.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .ownerId(USER_ID)
+                .seq(seq)
+                .deleted(deleted)
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TaskCountReconcilerTest {
+    private static final int BATCH_SIZE = 10;
+    private static final Long USER_ID = 1L;
+    private static final Long DIARY_ID = 1L;
+
+    private DiaryRepository diaryRepository;
+    private TaskRepository taskRepository;
+    private PlatformTransactionManager transactionManager;
+    private TaskCountReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        diaryRepository = mock(DiaryRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+
+        reconciler = new TaskCountReconciler(
+                diaryRepository, taskRepository, transactionManager, ShardRouter.single(),
+                BATCH_SIZE);
+    }
+
+    @Nested
+    @DisplayName("reconcile 메소드는")
+    class Describe_reconcile {
+
+        @Nested
+        @DisplayName("집계 값이 어긋난 다이어리가 있다면")
+        class Context_with_drift {
+            private Diary diary;
+
+            @BeforeEach
+            void setUp() {
+                diary = Diary.builder()
+                        .id(DIARY_ID)
+                        .ownerId(USER_ID)
+                        .title("오늘의 다이어리")
+                        .taskCount(5)
+                        .doneTaskCount(4)
+                        .build();
+
+                given(diaryRepository.findIdsWithTaskCountDrift(BATCH_SIZE))
+                        .willReturn(List.of(DIARY_ID));
+                given(diaryRepository.findById(DIARY_ID)).willReturn(Optional.of(diary));
+                given(diaryRepository.findForUpdateById(DIARY_ID)).willReturn(Optional.of(diary));
+                given(taskRepository.countByOwnerIdAndDiaryId(USER_ID, DIARY_ID)).willReturn(3L);
+                given(taskRepository.countByOwnerIdAndDiaryIdAndDoneTrue(USER_ID, DIARY_ID))
+                        .willReturn(1L);
+            }
+
+            @Test
+            @DisplayName("다이어리를 잠그고 다시 센 값으로 바로잡는다")
+            void it_repairs_counts() {
+                reconciler.reconcile();
+
+                assertThat(diary.getTaskCount()).isEqualTo(3);
+                assertThat(diary.getDoneTaskCount()).isEqualTo(1);
+                assertThat(reconciler.repairedCount()).isEqualTo(1);
+
+                verify(transactionManager).commit(any());
+            }
+        }
+
+        @Nested
+        @DisplayName("어긋난 다이어리가 없다면")
+        class Context_without_drift {
+
+            @Test
+            @DisplayName("할 일을 세지 않는다")
+            void it_does_nothing() {
+                reconciler.reconcile();
+
+                verify(diaryRepository, never()).findForUpdateById(anyLong());
+                verify(taskRepository, never()).countByOwnerIdAndDiaryId(anyLong(), anyLong());
+
+                assertThat(reconciler.repairedCount()).isZero();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.OrderKey;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.domain.TaskRepository;
+import com.codesoom.project.events.TaskEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TaskOrderRebalancerTest {
+    private static final int MAX_KEY_LENGTH = 4;
+    private static final Long USER_ID = 1L;
+    private static final Long DIARY_ID = 1L;
+
+    private TaskRepository taskRepository;
+    private DiaryRepository diaryRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PlatformTransactionManager transactionManager;
+    private TaskOrderRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        diaryRepository = mock(DiaryRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+
+        rebalancer = new TaskOrderRebalancer(
+                taskRepository, diaryRepository, eventPublisher, transactionManager,
+                ShardRouter.single(), MAX_KEY_LENGTH);
+
+        given(diaryRepository.findById(DIARY_ID)).willReturn(Optional.of(Diary.builder()
+                .id(DIARY_ID)
+                .ownerId(USER_ID)
+                .title("오늘의 다이어리")
+                .build()));
+    }
+
+    private static Task task(Long id, String orderKey) {
+        return Task.builder()
+                .id(id)
+                .diaryId(DIARY_ID)
+                .title(id + "번째 할 일")
+                .orderKey(orderKey)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("rebalance 메소드는")
+    class Describe_rebalance {
+
+        @Nested
+        @DisplayName("순서 키가 길거나 없는 할 일이 있다면")
+        class Context_with_long_keys {
+            private List<Task> tasks;
+
+            @BeforeEach
+            void setUp() {
+                tasks = List.of(task(3L, null), task(1L, "a"), task(2L, "azzzzz1"));
+
+                given(taskRepository.findDiaryIdsToRebalance(MAX_KEY_LENGTH))
+                        .willReturn(List.of(DIARY_ID));
+                given(taskRepository.findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(DIARY_ID))
+                        .willReturn(tasks);
+            }
+
+            @Test
+            @DisplayName("기존 순서를 지키며 고르게 떨어진 짧은 순서 키를 다시 매긴다")
+            void it_reassigns_keys_in_order() {
+                rebalancer.rebalance();
+
+                List<String> keys = tasks.stream()
+                        .map(Task::getOrderKey)
+                        .collect(Collectors.toList());
+
+                assertThat(keys).isEqualTo(OrderKey.evenlySpaced(3));
+                assertThat(keys).allMatch(key -> key.length() <= MAX_KEY_LENGTH);
+
+                verify(eventPublisher, times(3)).publishEvent(any(TaskEvent.class));
+                verify(transactionManager).commit(any());
+
+                assertThat(rebalancer.rebalancedCount()).isEqualTo(3);
+            }
+
+            @Test
+            @DisplayName("할 일을 잠그기 전에 다이어리를 잠근다")
+            void it_locks_diary_first() {
+                rebalancer.rebalance();
+
+                InOrder inOrder = inOrder(diaryRepository, taskRepository);
+                inOrder.verify(diaryRepository).findForUpdateById(DIARY_ID);
+                inOrder.verify(taskRepository).findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(DIARY_ID);
+            }
+        }
+
+        @Nested
+        @DisplayName("순서 키가 겹친 할 일이 있다면")
+        class Context_with_duplicate_keys {
+            private List<Task> tasks;
+
+            @BeforeEach
+            void setUp() {
+                tasks = List.of(task(1L, "a"), task(2L, "i"), task(3L, "i"));
+
+                given(taskRepository.findDiaryIdsToRebalance(MAX_KEY_LENGTH))
+                        .willReturn(List.of(DIARY_ID));
+                given(taskRepository.findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(DIARY_ID))
+                        .willReturn(tasks);
+            }
+
+            @Test
+            @DisplayName("id 순서를 따라 서로 다른 순서 키를 매긴다")
+            void it_separates_duplicate_keys() {
+                rebalancer.rebalance();
+
+                List<String> keys = tasks.stream()
+                        .map(Task::getOrderKey)
+                        .collect(Collectors.toList());
+
+                assertThat(keys).isEqualTo(OrderKey.evenlySpaced(3));
+                assertThat(keys).doesNotHaveDuplicates();
+            }
+        }
+
+        @Nested
+        @DisplayName("다시 매길 다이어리가 없다면")
+        class Context_without_long_keys {
+
+            @Test
+            @DisplayName("할 일을 읽지 않는다")
+            void it_does_nothing() {
+                rebalancer.rebalance();
+
+                verify(taskRepository, never()).findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(anyLong());
+                verify(eventPublisher, never()).publishEvent(any());
+
+                assertThat(rebalancer.rebalancedCount()).isZero();
+            }
+        }
+    }
+}
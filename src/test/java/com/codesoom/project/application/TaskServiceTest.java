@@ -1,14 +1,25 @@
 package com.codesoom.project.application;
 
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.DiaryRepository;
 import com.codesoom.project.domain.Task;
 import com.codesoom.project.domain.TaskRepository;
 import com.codesoom.project.dto.TaskCreateData;
+import com.codesoom.project.dto.TaskMoveData;
 import com.codesoom.project.dto.TaskUpdateData;
+import com.codesoom.project.errors.DiaryNotFoundException;
 import com.codesoom.project.errors.TaskNotFoundException;
+import com.codesoom.project.errors.TaskOrderConflictException;
+import com.codesoom.project.events.TaskEvent;
+import com.codesoom.project.invalidation.LocalInvalidationTransport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,9 +27,12 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 class TaskServiceTest {
@@ -26,10 +40,19 @@ class TaskServiceTest {
 
     private TaskRepository taskRepository;
 
+    private DiaryRepository diaryRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final Long USER_ID = 1L;
+    private static final Long DIARY_ID = 1L;
     private static final Long NOT_EXIST_ID = 100L;
     private static final Long ID = 1L;
     private static final String TITLE = "첫 번째 할 일";
     private static final String UPDATE_TITLE = "새로운 할 일";
+    private static final Long PREVIOUS_ID = 2L;
+    private static final Long NEXT_ID = 3L;
+    private static final Long OTHER_DIARY_TASK_ID = 4L;
 
     private List<Task> tasks;
     private Task task;
@@ -40,20 +63,58 @@ class TaskServiceTest {
     void setUp() {
         taskRepository = mock(TaskRepository.class);
 
-        taskService = new TaskService(taskRepository);
+        diaryRepository = mock(DiaryRepository.class);
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        taskService = new TaskService(taskRepository, diaryRepository, eventPublisher,
+                new NegativeLookupCache(diaryRepository, taskRepository, ShardRouter.single(),
+                        new LocalInvalidationTransport(), 1,
+                        1000, 0.01, 100, 30),
+                new ReadCoalescer());
 
         task = Task.builder()
                 .id(ID)
+                .ownerId(USER_ID)
+                .diaryId(DIARY_ID)
                 .title(TITLE)
+                .orderKey("m")
                 .build();
 
-        tasks = taskService.getTasks();
+        tasks = taskService.getTasks(USER_ID, DIARY_ID);
 
-        given(taskRepository.findAll()).willReturn(tasks);
+        given(taskRepository.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, DIARY_ID))
+                .willReturn(tasks);
 
-        given(taskRepository.findById(eq(ID))).willReturn(Optional.of(task));
+        given(taskRepository.findByIdAndOwnerId(eq(ID), eq(USER_ID)))
+                .willReturn(Optional.of(task));
 
         given(taskRepository.save(any(Task.class))).willReturn(task);
+
+        given(diaryRepository.findForUpdateByIdAndOwnerId(DIARY_ID, USER_ID))
+                .willReturn(Optional.of(Diary.builder()
+                        .id(DIARY_ID)
+                        .ownerId(USER_ID)
+                        .build()));
+
+        given(taskRepository.findByIdAndOwnerId(eq(PREVIOUS_ID), eq(USER_ID)))
+                .willReturn(Optional.of(neighbour(PREVIOUS_ID, DIARY_ID, "a")));
+
+        given(taskRepository.findByIdAndOwnerId(eq(NEXT_ID), eq(USER_ID)))
+                .willReturn(Optional.of(neighbour(NEXT_ID, DIARY_ID, "c")));
+
+        given(taskRepository.findByIdAndOwnerId(eq(OTHER_DIARY_TASK_ID), eq(USER_ID)))
+                .willReturn(Optional.of(neighbour(OTHER_DIARY_TASK_ID, 2L, "b")));
+    }
+
+    private static Task neighbour(Long id, Long diaryId, String orderKey) {
+        return Task.builder()
+                .id(id)
+                .ownerId(USER_ID)
+                .diaryId(diaryId)
+                .title(TITLE)
+                .orderKey(orderKey)
+                .build();
     }
 
     @Nested
@@ -74,7 +135,7 @@ class TaskServiceTest {
             @Test
             @DisplayName("전체 목록을 반환한다")
             void it_returns_list() {
-                verify(taskRepository).findAll();
+                verify(taskRepository).findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, DIARY_ID);
 
                 assertThat(tasks).hasSize(1);
             }
@@ -87,7 +148,7 @@ class TaskServiceTest {
             @Test
             @DisplayName("빈 목록을 반환한다")
             void it_returns_empty_list() {
-                verify(taskRepository).findAll();
+                verify(taskRepository).findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, DIARY_ID);
 
                 assertThat(tasks).isEmpty();
             }
@@ -110,9 +171,9 @@ class TaskServiceTest {
             @Test
             @DisplayName("주어진 id를 갖는 할 일을 반환한다")
             void it_returns_task() {
-                task = taskService.getTask(givenValidId);
+                task = taskService.getTask(USER_ID, givenValidId);
 
-                verify(taskRepository).findById(givenValidId);
+                verify(taskRepository).findByIdAndOwnerId(givenValidId, USER_ID);
 
                 assertThat(task.getId()).isEqualTo(ID);
                 assertThat(task.getTitle()).isEqualTo(TITLE);
@@ -131,7 +192,7 @@ class TaskServiceTest {
             @Test
             @DisplayName("할 일을 찾을 수 없다는 예외를 던진다")
             void it_returns_exception() {
-                assertThatThrownBy(() -> taskService.getTask(givenInvalidId))
+                assertThatThrownBy(() -> taskService.getTask(USER_ID, givenInvalidId))
                         .isInstanceOf(TaskNotFoundException.class);
             }
         }
@@ -142,27 +203,172 @@ class TaskServiceTest {
     class Describe_createTask {
         TaskCreateData createRequest;
 
+        @BeforeEach
+        void setUp() {
+            createRequest = TaskCreateData.builder()
+                    .title(TITLE)
+                    .build();
+        }
+
         @Nested
         @DisplayName("할 일의 타이틀이 주어진다면")
         class Context_with_create_request {
 
-            @BeforeEach
-            void setUp() {
-                createRequest = TaskCreateData.builder()
-                        .title(TITLE)
-                        .build();
-            }
-
             @Test
             @DisplayName("새로운 할 일을 추가한다")
             void it_returns_task() {
-                taskService.createTask(createRequest);
+                taskService.createTask(USER_ID, DIARY_ID, createRequest);
 
                 verify(taskRepository).save(any(Task.class));
+                verify(diaryRepository).adjustTaskCounts(DIARY_ID, USER_ID, 1, 0);
+                verify(eventPublisher).publishEvent(any(TaskEvent.class));
 
                 assertThat(task.getId()).isEqualTo(ID);
                 assertThat(task.getTitle()).isEqualTo(TITLE);
             }
+
+            @Test
+            @DisplayName("목록 맨 뒤에 오도록 순서 키를 정한다")
+            void it_appends_task() {
+                given(taskRepository.findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(USER_ID, DIARY_ID))
+                        .willReturn(Optional.of(task));
+
+                taskService.createTask(USER_ID, DIARY_ID, createRequest);
+
+                ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+                verify(taskRepository).save(saved.capture());
+
+                assertThat(saved.getValue().getOrderKey()).isGreaterThan(task.getOrderKey());
+            }
+
+            @Test
+            @DisplayName("다이어리를 잠근 뒤 마지막 순서 키를 읽는다")
+            void it_locks_diary_before_reading_last_key() {
+                taskService.createTask(USER_ID, DIARY_ID, createRequest);
+
+                InOrder inOrder = inOrder(diaryRepository, taskRepository);
+                inOrder.verify(diaryRepository).findForUpdateByIdAndOwnerId(DIARY_ID, USER_ID);
+                inOrder.verify(taskRepository)
+                        .findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(USER_ID, DIARY_ID);
+            }
+        }
+
+        @Nested
+        @DisplayName("사용자의 다이어리가 아니라면")
+        class Context_with_others_diary {
+
+            @BeforeEach
+            void setUp() {
+                given(diaryRepository.findForUpdateByIdAndOwnerId(DIARY_ID, USER_ID))
+                        .willReturn(Optional.empty());
+            }
+
+            @Test
+            @DisplayName("할 일을 추가하지 않고 다이어리를 찾을 수 없다는 예외를 던진다")
+            void it_throws_diary_not_found() {
+                assertThatThrownBy(() -> taskService.createTask(USER_ID, DIARY_ID, createRequest))
+                        .isInstanceOf(DiaryNotFoundException.class);
+
+                verify(taskRepository, never()).save(any(Task.class));
+                verify(diaryRepository, never()).adjustTaskCounts(anyLong(), anyLong(), anyLong(), anyLong());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("moveTask 메소드는")
+    class Describe_moveTask {
+
+        @Nested
+        @DisplayName("같은 다이어리의 앞뒤 할 일이 주어진다면")
+        class Context_with_neighbours {
+
+            @Test
+            @DisplayName("두 할 일 사이의 순서 키로 옮긴다")
+            void it_moves_task_between_neighbours() {
+                taskService.moveTask(USER_ID, ID, TaskMoveData.builder()
+                        .previousTaskId(PREVIOUS_ID)
+                        .nextTaskId(NEXT_ID)
+                        .build());
+
+                assertThat(task.getOrderKey()).isEqualTo("b");
+
+                verify(taskRepository, never()).save(any(Task.class));
+                verify(eventPublisher).publishEvent(any(TaskEvent.class));
+            }
+
+            @Test
+            @DisplayName("다이어리를 잠근 뒤 이웃의 순서 키를 읽는다")
+            void it_locks_diary_before_reading_neighbours() {
+                taskService.moveTask(USER_ID, ID, TaskMoveData.builder()
+                        .previousTaskId(PREVIOUS_ID)
+                        .nextTaskId(NEXT_ID)
+                        .build());
+
+                InOrder inOrder = inOrder(diaryRepository, taskRepository);
+                inOrder.verify(diaryRepository).findForUpdateByIdAndOwnerId(DIARY_ID, USER_ID);
+                inOrder.verify(taskRepository).findByIdAndOwnerId(PREVIOUS_ID, USER_ID);
+            }
+        }
+
+        @Nested
+        @DisplayName("뒤 할 일만 주어진다면")
+        class Context_with_next_only {
+
+            @Test
+            @DisplayName("그 할 일 앞으로 옮긴다")
+            void it_moves_task_before_next() {
+                taskService.moveTask(USER_ID, ID, TaskMoveData.builder()
+                        .nextTaskId(PREVIOUS_ID)
+                        .build());
+
+                assertThat(task.getOrderKey()).isLessThan("a");
+            }
+        }
+
+        @Nested
+        @DisplayName("앞뒤 할 일의 순서가 뒤바뀌어 있다면")
+        class Context_with_reversed_neighbours {
+
+            @Test
+            @DisplayName("순서 충돌 예외를 던진다")
+            void it_throws_conflict() {
+                assertThatThrownBy(() -> taskService.moveTask(USER_ID, ID, TaskMoveData.builder()
+                        .previousTaskId(NEXT_ID)
+                        .nextTaskId(PREVIOUS_ID)
+                        .build()))
+                        .isInstanceOf(TaskOrderConflictException.class);
+
+                assertThat(task.getOrderKey()).isEqualTo("m");
+            }
+        }
+
+        @Nested
+        @DisplayName("다른 다이어리의 할 일이 이웃으로 주어진다면")
+        class Context_with_other_diary_neighbour {
+
+            @Test
+            @DisplayName("순서 충돌 예외를 던진다")
+            void it_throws_conflict() {
+                assertThatThrownBy(() -> taskService.moveTask(USER_ID, ID, TaskMoveData.builder()
+                        .previousTaskId(OTHER_DIARY_TASK_ID)
+                        .build()))
+                        .isInstanceOf(TaskOrderConflictException.class);
+            }
+        }
+
+        @Nested
+        @DisplayName("존재하지 않는 할 일이 이웃으로 주어진다면")
+        class Context_with_missing_neighbour {
+
+            @Test
+            @DisplayName("할 일을 찾을 수 없다는 예외를 던진다")
+            void it_throws_not_found() {
+                assertThatThrownBy(() -> taskService.moveTask(USER_ID, ID, TaskMoveData.builder()
+                        .previousTaskId(NOT_EXIST_ID)
+                        .build()))
+                        .isInstanceOf(TaskNotFoundException.class);
+            }
         }
     }
 
@@ -187,14 +393,64 @@ class TaskServiceTest {
             @Test
             @DisplayName("주어진 id를 갖는 할 일의 타이틀을 수정한다")
             void it_returns_task() {
-                taskService.updateTask(givenValidId, updateRequest);
+                taskService.updateTask(USER_ID, givenValidId, updateRequest);
 
-                verify(taskRepository).findById(givenValidId);
+                verify(taskRepository).findByIdAndOwnerId(givenValidId, USER_ID);
+                verify(diaryRepository, never()).adjustTaskCounts(anyLong(), anyLong(), anyLong(), anyLong());
+                verify(eventPublisher).publishEvent(any(TaskEvent.class));
 
                 assertThat(task.getTitle()).isEqualTo(UPDATE_TITLE);
             }
         }
 
+        @Nested
+        @DisplayName("할 일을 수정할 때")
+        class Context_when_updating {
+
+            @Test
+            @DisplayName("이벤트를 발행하기 전에 다이어리를 잠근다")
+            void it_locks_diary_before_publishing() {
+                taskService.updateTask(USER_ID, ID, TaskUpdateData.builder()
+                        .title(UPDATE_TITLE)
+                        .build());
+
+                InOrder inOrder = inOrder(diaryRepository, eventPublisher);
+                inOrder.verify(diaryRepository).findForUpdateByIdAndOwnerId(DIARY_ID, USER_ID);
+                inOrder.verify(eventPublisher).publishEvent(any(TaskEvent.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("완료 여부를 바꾸는 수정이 주어진다면")
+        class Context_with_done_change {
+
+            @Test
+            @DisplayName("다이어리의 완료한 할 일 수를 함께 바꾼다")
+            void it_adjusts_done_count() {
+                taskService.updateTask(USER_ID, ID, TaskUpdateData.builder()
+                        .title(TITLE)
+                        .done(true)
+                        .build());
+
+                assertThat(task.isDone()).isTrue();
+                verify(diaryRepository).adjustTaskCounts(DIARY_ID, USER_ID, 0, 1);
+
+                taskService.updateTask(USER_ID, ID, TaskUpdateData.builder()
+                        .title(TITLE)
+                        .done(true)
+                        .build());
+
+                verify(diaryRepository).adjustTaskCounts(anyLong(), anyLong(), anyLong(), anyLong());
+
+                taskService.updateTask(USER_ID, ID, TaskUpdateData.builder()
+                        .title(TITLE)
+                        .done(false)
+                        .build());
+
+                verify(diaryRepository).adjustTaskCounts(DIARY_ID, USER_ID, 0, -1);
+            }
+        }
+
         @Nested
         @DisplayName("존재하지 않는 할 일 id와 수정할 타이틀이 주어진다면")
         class Context_with_Invalid_id_and_update_request {
@@ -211,7 +467,7 @@ class TaskServiceTest {
             @Test
             @DisplayName("수정할 할 일을 찾을 수 없다는 예외를 던진다")
             void it_returns_exception() {
-                assertThatThrownBy(() -> taskService.updateTask(givenInvalidId, updateRequest))
+                assertThatThrownBy(() -> taskService.updateTask(USER_ID, givenInvalidId, updateRequest))
                         .isInstanceOf(TaskNotFoundException.class);
             }
         }
@@ -231,13 +487,17 @@ class TaskServiceTest {
             }
 
             @Test
-            @DisplayName("주어진 id를 갖는 할 일을 삭제한다")
+            @DisplayName("주어진 id를 갖는 할 일을 삭제 표시한다")
             void it_returns_task() {
-                taskService.deleteTask(givenValidId);
+                taskService.deleteTask(USER_ID, givenValidId);
 
-                verify(taskRepository).findById(givenValidId);
+                verify(taskRepository).findByIdAndOwnerId(givenValidId, USER_ID);
+                verify(taskRepository, never()).delete(any(Task.class));
+                verify(diaryRepository).findForUpdateByIdAndOwnerId(DIARY_ID, USER_ID);
+                verify(diaryRepository).adjustTaskCounts(DIARY_ID, USER_ID, -1, 0);
 
-                assertThat(taskRepository.findAll()).isNotIn(givenValidId);
+                assertThat(task.isDeleted()).isTrue();
+                assertThat(task.getDeletedAt()).isNotNull();
             }
         }
 
@@ -253,7 +513,7 @@ class TaskServiceTest {
             @Test
             @DisplayName("할 일을 찾을 수 없다는 예외를 던진다")
             void it_returns_exception() {
-                assertThatThrownBy(() -> taskService.getTask(givenInvalidId))
+                assertThatThrownBy(() -> taskService.getTask(USER_ID, givenInvalidId))
                         .isInstanceOf(TaskNotFoundException.class);
             }
         }
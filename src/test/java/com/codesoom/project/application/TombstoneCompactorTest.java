@@ -0,0 +1,88 @@
+package com.codesoom.project.application;
+
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.domain.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TombstoneCompactorTest {
+    private static final int BATCH_SIZE = 2;
+
+    private DiaryRepository diaryRepository;
+    private TaskRepository taskRepository;
+    private PlatformTransactionManager transactionManager;
+    private TombstoneCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        diaryRepository = mock(DiaryRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+
+        compactor = new TombstoneCompactor(
+                diaryRepository, taskRepository, transactionManager, ShardRouter.single(),
+                30, BATCH_SIZE);
+    }
+
+    @Nested
+    @DisplayName("purge 메소드는")
+    class Describe_purge {
+
+        @Nested
+        @DisplayName("정리할 행이 묶음 크기보다 많다면")
+        class Context_with_many_tombstones {
+
+            @BeforeEach
+            void setUp() {
+                given(taskRepository.purgeDeletedBefore(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                        .willReturn(2, 2, 1);
+                given(diaryRepository.purgeDeletedBefore(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                        .willReturn(1);
+            }
+
+            @Test
+            @DisplayName("남은 행이 묶음 크기보다 적어질 때까지 나눠서 지운다")
+            void it_purges_in_batches() {
+                compactor.purge();
+
+                verify(taskRepository, times(3))
+                        .purgeDeletedBefore(any(LocalDateTime.class), eq(BATCH_SIZE));
+                verify(diaryRepository, times(1))
+                        .purgeDeletedBefore(any(LocalDateTime.class), eq(BATCH_SIZE));
+                verify(transactionManager, times(4)).commit(any());
+
+                assertThat(compactor.purgedCount()).isEqualTo(6);
+            }
+        }
+
+        @Nested
+        @DisplayName("정리할 행이 없다면")
+        class Context_without_tombstones {
+
+            @Test
+            @DisplayName("한 번씩만 확인하고 끝낸다")
+            void it_stops_immediately() {
+                compactor.purge();
+
+                verify(taskRepository).purgeDeletedBefore(any(LocalDateTime.class), eq(BATCH_SIZE));
+                verify(diaryRepository).purgeDeletedBefore(any(LocalDateTime.class), eq(BATCH_SIZE));
+
+                assertThat(compactor.purgedCount()).isZero();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.codesoom.project.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditJournalTest {
+    private static final int SEGMENT_BYTES = AuditEntry.RECORD_SIZE * 10;
+
+    @TempDir
+    Path directory;
+
+    private static AuditEntry entry(long entityId) {
+        return AuditEntry.builder()
+                .timestamp(1000L + entityId)
+                .entityType(AuditEntry.EntityType.TASK)
+                .action(AuditEntry.Action.UPDATED)
+                .ownerId(1L)
+                .entityId(entityId)
+                .diaryId(3L)
+                .build();
+    }
+
+    private void appendEntries(int count) throws IOException {
+        try (AuditJournal journal = AuditJournal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 1; i <= count; i++) {
+                journal.append(entry(i));
+            }
+        }
+    }
+
+    private List<AuditEntry> readFrom(long fromSeq) throws IOException {
+        List<AuditEntry> entries = new ArrayList<>();
+        AuditJournalReader.read(directory, fromSeq, entries::add);
+        return entries;
+    }
+
+    @Nested
+    @DisplayName("append 메소드는")
+    class Describe_append {
+
+        @Test
+        @DisplayName("순번을 붙여 기록하고 읽을 수 있게 한다")
+        void it_appends_entries() throws IOException {
+            appendEntries(3);
+
+            List<AuditEntry> entries = readFrom(1);
+
+            assertThat(entries).extracting(AuditEntry::getSeq).containsExactly(1L, 2L, 3L);
+            assertThat(entries.get(1).getEntityId()).isEqualTo(2L);
+            assertThat(entries.get(1).getDiaryId()).isEqualTo(3L);
+            assertThat(entries.get(1).getAction()).isEqualTo(AuditEntry.Action.UPDATED);
+        }
+
+        @Test
+        @DisplayName("세그먼트가 가득 차면 다음 세그먼트로 넘어간다")
+        void it_rotates_segments() throws IOException {
+            appendEntries(25);
+
+            assertThat(AuditJournalReader.segments(directory)).hasSize(3);
+            assertThat(readFrom(1)).hasSize(25);
+            assertThat(readFrom(18)).extracting(AuditEntry::getSeq).startsWith(18L).hasSize(8);
+        }
+    }
+
+    @Nested
+    @DisplayName("open 메소드는")
+    class Describe_open {
+
+        @Test
+        @DisplayName("기존 저널의 마지막 순번 다음부터 이어 쓴다")
+        void it_resumes_after_last_entry() throws IOException {
+            appendEntries(12);
+
+            try (AuditJournal journal = AuditJournal.open(directory, SEGMENT_BYTES)) {
+                assertThat(journal.lastSeq()).isEqualTo(12L);
+                assertThat(journal.append(entry(13))).isEqualTo(13L);
+            }
+
+            assertThat(readFrom(1)).hasSize(13);
+        }
+
+        @Test
+        @DisplayName("온전하지 않은 레코드부터 덮어쓴다")
+        void it_discards_torn_entries() throws IOException {
+            appendEntries(5);
+
+            Path segment = AuditJournalReader.segments(directory).get(0);
+            try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+                file.seek(AuditEntry.RECORD_SIZE * 3L + 20);
+                file.write(0x7f);
+            }
+
+            try (AuditJournal journal = AuditJournal.open(directory, SEGMENT_BYTES)) {
+                assertThat(journal.lastSeq()).isEqualTo(3L);
+                journal.append(entry(40));
+            }
+
+            List<AuditEntry> entries = readFrom(1);
+            assertThat(entries).extracting(AuditEntry::getSeq).containsExactly(1L, 2L, 3L, 4L);
+            assertThat(entries.get(3).getEntityId()).isEqualTo(40L);
+        }
+    }
+}
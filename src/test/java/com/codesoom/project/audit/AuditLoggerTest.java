@@ -0,0 +1,102 @@
+package com.codesoom.project.audit;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.TaskEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLoggerTest {
+    private static final Long USER_ID = 1L;
+    private static final Long DIARY_ID = 2L;
+    private static final Long TASK_ID = 3L;
+
+    @TempDir
+    Path directory;
+
+    private AuditLogger auditLogger;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (auditLogger != null) {
+            auditLogger.shutdown();
+        }
+    }
+
+    private AuditLogger open(boolean enabled, AuditLogger.FsyncPolicy fsyncPolicy, int capacity)
+            throws IOException {
+        auditLogger = new AuditLogger(enabled, directory.toString(), 1 << 20,
+                fsyncPolicy, 1000, capacity, 16);
+        return auditLogger;
+    }
+
+    private void publishChanges(int count) {
+        Diary diary = Diary.builder()
+                .id(DIARY_ID)
+                .ownerId(USER_ID)
+                .build();
+        Task task = Task.builder()
+                .id(TASK_ID)
+                .ownerId(USER_ID)
+                .diaryId(DIARY_ID)
+                .build();
+
+        for (int i = 0; i < count; i++) {
+            auditLogger.onDiaryEvent(DiaryEvent.updated(diary));
+            auditLogger.onTaskEvent(TaskEvent.deleted(task));
+        }
+    }
+
+    private List<AuditEntry> readAll() throws IOException {
+        List<AuditEntry> entries = new ArrayList<>();
+        AuditJournalReader.read(directory, 1, entries::add);
+        return entries;
+    }
+
+    @Nested
+    @DisplayName("변경 이벤트를 받으면")
+    class Describe_on_event {
+
+        @Test
+        @DisplayName("종료할 때까지 모든 변경을 순서대로 저널에 기록한다")
+        void it_writes_journal() throws Exception {
+            open(true, AuditLogger.FsyncPolicy.BATCH, 1000);
+
+            publishChanges(50);
+            auditLogger.shutdown();
+
+            List<AuditEntry> entries = readAll();
+            assertThat(entries).hasSize(100);
+            assertThat(entries.get(0).getEntityType()).isEqualTo(AuditEntry.EntityType.DIARY);
+            assertThat(entries.get(0).getEntityId()).isEqualTo(DIARY_ID);
+            assertThat(entries.get(1).getEntityType()).isEqualTo(AuditEntry.EntityType.TASK);
+            assertThat(entries.get(1).getAction()).isEqualTo(AuditEntry.Action.DELETED);
+            assertThat(entries.get(1).getDiaryId()).isEqualTo(DIARY_ID);
+
+            assertThat(auditLogger.writtenCount()).isEqualTo(100);
+            assertThat(auditLogger.forceCount()).isPositive().isLessThanOrEqualTo(100);
+        }
+
+        @Test
+        @DisplayName("꺼져 있으면 저널을 만들지 않는다")
+        void it_ignores_when_disabled() throws Exception {
+            open(false, AuditLogger.FsyncPolicy.BATCH, 1000);
+
+            publishChanges(1);
+
+            assertThat(readAll()).isEmpty();
+            assertThat(auditLogger.writtenCount()).isZero();
+        }
+    }
+}
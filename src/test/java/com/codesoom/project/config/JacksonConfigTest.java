@@ -0,0 +1,58 @@
+package com.codesoom.project.config;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.dto.DiaryResultData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JacksonConfigTest {
+    private static final Long ID = 1L;
+    private static final String TITLE = "오늘의 다이어리";
+    private static final String COMMENT = "아쉬운 하루였다";
+
+    private ObjectMapper defaultMapper;
+    private ObjectMapper tunedMapper;
+    private Diary diary;
+
+    @BeforeEach
+    void setUp() {
+        defaultMapper = new ObjectMapper();
+        tunedMapper = JacksonConfig.tune(new ObjectMapper());
+
+        diary = Diary.builder()
+                .id(ID)
+                .title(TITLE)
+                .comment(COMMENT)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("tune 메소드는")
+    class Describe_tune {
+
+        @Test
+        @DisplayName("기본 설정과 같은 JSON을 만든다")
+        void it_keeps_json_output() throws Exception {
+            assertThat(tunedMapper.writeValueAsString(List.of(diary)))
+                    .isEqualTo(defaultMapper.writeValueAsString(List.of(diary)));
+
+            assertThat(tunedMapper.writeValueAsString(DiaryResultData.of(diary)))
+                    .isEqualTo(defaultMapper.writeValueAsString(DiaryResultData.of(diary)));
+        }
+
+        @Test
+        @DisplayName("바이트코드 기반 접근자 모듈을 등록한다")
+        void it_registers_afterburner() {
+            assertThat(tunedMapper.getRegisteredModuleIds())
+                    .contains(AfterburnerModule.class.getName());
+        }
+    }
+}
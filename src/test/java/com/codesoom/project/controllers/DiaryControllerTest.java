@@ -1,12 +1,21 @@
 package com.codesoom.project.controllers;
 
+import com.codesoom.project.application.AuthenticationService;
 import com.codesoom.project.application.DiaryService;
+import com.codesoom.project.application.IdempotencyService;
 import com.codesoom.project.domain.Diary;
 import com.codesoom.project.domain.DiaryRepository;
+import com.codesoom.project.dto.DiaryCommentEditData;
 import com.codesoom.project.dto.DiaryCreateData;
 import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.DiarySummaryData;
 import com.codesoom.project.dto.DiaryUpdateData;
+import com.codesoom.project.dto.DiaryVersionResultData;
+import com.codesoom.project.dto.TextEditData;
 import com.codesoom.project.errors.DiaryNotFoundException;
+import com.codesoom.project.errors.DiaryVersionConflictException;
+import com.codesoom.project.errors.IdempotencyKeyConflictException;
+import com.codesoom.project.errors.InvalidTokenException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,15 +25,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -47,8 +59,22 @@ class DiaryControllerTest {
     @MockBean
     private DiaryRepository diaryRepository;
 
+    @MockBean
+    private AuthenticationService authenticationService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    private static final String VALID_TOKEN = "eyJhbGciOiJIUzI1NiJ9."
+            + "eyJ1c2VySWQiOjF9.ZZ3CUl0jxeLGvQ1Js5nG2Ty5qGTlqai5ubDMXZOdaDk";
+    private static final String INVALID_TOKEN = VALID_TOKEN + "WRONG";
+
+    private static final Long USER_ID = 1L;
     private static final Long NOT_EXIST_ID = 100L;
     private static final Long ID = 1L;
+    private static final Long STALE_ID = 2L;
+
+    private static final String REUSED_KEY = "reused-key";
 
     private static final String TITLE = "오늘의 다이어리";
     private static final String COMMENT = "아쉬운 하루였다";
@@ -65,7 +91,7 @@ class DiaryControllerTest {
 
     @BeforeEach
     void setUp() {
-        List<Diary> diaries = new ArrayList<>();
+        List<DiarySummaryData> diaries = new ArrayList<>();
 
         diary = Diary.builder()
                 .id(ID)
@@ -85,24 +111,43 @@ class DiaryControllerTest {
                 .comment(UPDATE_COMMENT)
                 .build();
 
-        diaries.add(diary);
+        diaries.add(DiarySummaryData.of(diary));
+
+        given(authenticationService.parseToken(VALID_TOKEN)).willReturn(USER_ID);
+
+        given(authenticationService.parseToken(INVALID_TOKEN))
+                .willThrow(new InvalidTokenException());
 
-        given(diaryService.getDiaries()).willReturn(diaries);
+        given(diaryService.getDiaries(USER_ID)).willReturn(diaries);
 
-        given(diaryService.getDiary(eq(ID))).willReturn(diary);
+        given(diaryService.getDiary(eq(USER_ID), eq(ID))).willReturn(DiaryResultData.of(diary));
 
-        given(diaryService.getDiary(eq(NOT_EXIST_ID)))
+        given(diaryService.getDiary(eq(USER_ID), eq(NOT_EXIST_ID)))
                 .willThrow(new DiaryNotFoundException(NOT_EXIST_ID));
 
-        given(diaryService.createDiary(any(DiaryCreateData.class))).willReturn(createdDiary);
+        given(diaryService.createDiary(eq(USER_ID), any(DiaryCreateData.class))).willReturn(createdDiary);
+
+        given(idempotencyService.execute(eq(USER_ID), any(), any(), any(),
+                eq(DiaryResultData.class), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
+
+        given(idempotencyService.execute(eq(USER_ID), eq(REUSED_KEY), any(), any(),
+                eq(DiaryResultData.class), any()))
+                .willThrow(new IdempotencyKeyConflictException(REUSED_KEY));
 
-        given(diaryService.updateDiary(eq(ID), any(DiaryUpdateData.class)))
+        given(diaryService.updateDiary(eq(USER_ID), eq(ID), any(DiaryUpdateData.class)))
                 .willReturn(updatedDiary);
 
-        given(diaryService.updateDiary(eq(NOT_EXIST_ID), any(DiaryUpdateData.class)))
+        given(diaryService.updateDiary(eq(USER_ID), eq(NOT_EXIST_ID), any(DiaryUpdateData.class)))
                 .willThrow(new DiaryNotFoundException(NOT_EXIST_ID));
 
-        given(diaryService.deleteDiary(eq(NOT_EXIST_ID)))
+        given(diaryService.editComment(eq(USER_ID), eq(ID), any(DiaryCommentEditData.class)))
+                .willReturn(new DiaryVersionResultData(ID, 2L));
+
+        given(diaryService.editComment(eq(USER_ID), eq(STALE_ID), any(DiaryCommentEditData.class)))
+                .willThrow(new DiaryVersionConflictException(STALE_ID, 0L, 1L));
+
+        given(diaryService.deleteDiary(eq(USER_ID), eq(NOT_EXIST_ID)))
                 .willThrow(new DiaryNotFoundException(NOT_EXIST_ID));
 
         diaryRepository.delete(diary);
@@ -124,10 +169,38 @@ class DiaryControllerTest {
             @Test
             @DisplayName("전체 다이어리 목록과 응답코드 200을 반환한다")
             void it_returns_list_and_200() throws Exception {
-                mockMvc.perform(get("/diaries"))
-                        .andExpect(status().isOk());
+                mockMvc.perform(get("/diaries")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[0].title").value(TITLE))
+                        .andExpect(jsonPath("$[0].comment").doesNotExist());
+
+                verify(diaryService).getDiaries(USER_ID);
+            }
+        }
+
+        @Nested
+        @DisplayName("유효하지 않은 토큰이 주어진다면")
+        class Context_with_invalid_token {
+
+            @Test
+            @DisplayName("응답코드 401을 반환한다")
+            void it_returns_401() throws Exception {
+                mockMvc.perform(get("/diaries")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + INVALID_TOKEN))
+                        .andExpect(status().isUnauthorized());
+            }
+        }
 
-                verify(diaryService).getDiaries();
+        @Nested
+        @DisplayName("토큰이 주어지지 않는다면")
+        class Context_without_token {
+
+            @Test
+            @DisplayName("응답코드 401을 반환한다")
+            void it_returns_401() throws Exception {
+                mockMvc.perform(get("/diaries"))
+                        .andExpect(status().isUnauthorized());
             }
         }
     }
@@ -148,13 +221,14 @@ class DiaryControllerTest {
             @Test
             @DisplayName("주어진 id를 갖는 다이어리와 응답코드 200을 반환한다")
             void it_returns_diary_and_200() throws Exception {
-                mockMvc.perform(get("/diaries/1"))
+                mockMvc.perform(get("/diaries/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
                         .andExpect(status().isOk())
                         .andExpect(jsonPath("id").value(ID))
                         .andExpect(jsonPath("title").value(TITLE))
                         .andExpect(jsonPath("comment").value(COMMENT));
 
-                verify(diaryService).getDiary(givenValidId);
+                verify(diaryService).getDiary(USER_ID, givenValidId);
             }
         }
 
@@ -170,10 +244,12 @@ class DiaryControllerTest {
             @Test
             @DisplayName("응답코드 404를 반환한다")
             void it_returns_404() throws Exception {
-                mockMvc.perform(get("/diaries/100"))
-                        .andExpect(status().isNotFound());
+                mockMvc.perform(get("/diaries/100")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
+                        .andExpect(status().isNotFound())
+                        .andExpect(jsonPath("code").value("DIARY_NOT_FOUND"));
 
-                verify(diaryService).getDiary(givenInvalidId);
+                verify(diaryService).getDiary(USER_ID, givenInvalidId);
             }
         }
     }
@@ -199,6 +275,7 @@ class DiaryControllerTest {
             @DisplayName("생성된 다이어리와 응답코드 201을 반환한다")
             void it_returns_diary_and_201() throws Exception {
                 mockMvc.perform(post("/diaries")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createRequest))
                 )
@@ -207,7 +284,30 @@ class DiaryControllerTest {
                         .andExpect(jsonPath("title").value(TITLE))
                         .andExpect(jsonPath("comment").value(COMMENT));
 
-                verify(diaryService).createDiary(any(DiaryCreateData.class));
+                verify(diaryService).createDiary(eq(USER_ID), any(DiaryCreateData.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("다른 요청에 쓴 멱등 키가 주어진다면")
+        class Context_with_reused_idempotency_key {
+
+            @Test
+            @DisplayName("다이어리를 생성하지 않고 응답코드 409를 반환한다")
+            void it_returns_409() throws Exception {
+                mockMvc.perform(post("/diaries")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
+                        .header("Idempotency-Key", REUSED_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(DiaryCreateData.builder()
+                                .title(TITLE)
+                                .comment(COMMENT)
+                                .build()))
+                )
+                        .andExpect(status().isConflict())
+                        .andExpect(jsonPath("code").value("IDEMPOTENCY_KEY_CONFLICT"));
+
+                verify(diaryService, never()).createDiary(eq(USER_ID), any(DiaryCreateData.class));
             }
         }
 
@@ -224,13 +324,17 @@ class DiaryControllerTest {
             }
 
             @Test
-            @DisplayName("응답코드 400을 반환한다")
+            @DisplayName("실패한 필드와 검증 규칙을 담아 응답코드 400을 반환한다")
             void it_returns_400() throws Exception {
                 mockMvc.perform(post("/diaries")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(InvalidAttributes))
                 )
-                        .andExpect(status().isBadRequest());
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("code").value("INVALID_REQUEST"))
+                        .andExpect(jsonPath("errors[0].field").value("title"))
+                        .andExpect(jsonPath("errors[0].code").value("NotBlank"));
             }
         }
     }
@@ -258,6 +362,7 @@ class DiaryControllerTest {
             @DisplayName("수정된 다이어리와 응답코드 200을 반환한다")
             void it_returns_diary_and_200() throws Exception {
                 mockMvc.perform(patch("/diaries/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateRequest))
                 )
@@ -266,7 +371,7 @@ class DiaryControllerTest {
                         .andExpect(jsonPath("title").value(UPDATE_TITLE))
                         .andExpect(jsonPath("comment").value(UPDATE_COMMENT));
 
-                verify(diaryService).updateDiary(eq(ID), any(DiaryUpdateData.class));
+                verify(diaryService).updateDiary(eq(USER_ID), eq(ID), any(DiaryUpdateData.class));
             }
         }
 
@@ -288,12 +393,13 @@ class DiaryControllerTest {
             @DisplayName("응답코드 404를 반환한다")
             void it_returns_404() throws Exception {
                 mockMvc.perform(patch("/diaries/100")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateRequest))
                 )
                         .andExpect(status().isNotFound());
 
-                verify(diaryService).updateDiary(eq(NOT_EXIST_ID), any(DiaryUpdateData.class));
+                verify(diaryService).updateDiary(eq(USER_ID), eq(NOT_EXIST_ID), any(DiaryUpdateData.class));
             }
         }
 
@@ -315,6 +421,7 @@ class DiaryControllerTest {
             @DisplayName("응답코드 400를 반환한다")
             void it_returns_400() throws Exception {
                 mockMvc.perform(patch("/diaries/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(InvalidAttributes))
                 )
@@ -323,6 +430,77 @@ class DiaryControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("editComment 메소드는")
+    class Describe_editComment {
+        DiaryCommentEditData editRequest;
+
+        @BeforeEach
+        void setUp() {
+            editRequest = DiaryCommentEditData.builder()
+                    .baseVersion(1L)
+                    .edits(List.of(TextEditData.builder()
+                            .position(0)
+                            .deleteCount(2)
+                            .insert("즐거운")
+                            .build()))
+                    .build();
+        }
+
+        @Nested
+        @DisplayName("현재 버전을 기준으로 한 편집이 주어진다면")
+        class Context_with_current_version {
+
+            @Test
+            @DisplayName("새 버전과 응답코드 200을 반환한다")
+            void it_returns_version_and_200() throws Exception {
+                mockMvc.perform(patch("/diaries/1/comment")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(editRequest))
+                )
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("id").value(ID))
+                        .andExpect(jsonPath("version").value(2))
+                        .andExpect(jsonPath("comment").doesNotExist());
+
+                verify(diaryService).editComment(eq(USER_ID), eq(ID), any(DiaryCommentEditData.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("지난 버전을 기준으로 한 편집이 주어진다면")
+        class Context_with_stale_version {
+
+            @Test
+            @DisplayName("응답코드 409를 반환한다")
+            void it_returns_409() throws Exception {
+                mockMvc.perform(patch("/diaries/2/comment")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(editRequest))
+                )
+                        .andExpect(status().isConflict());
+            }
+        }
+
+        @Nested
+        @DisplayName("편집 목록이 비어 있다면")
+        class Context_without_edits {
+
+            @Test
+            @DisplayName("응답코드 400을 반환한다")
+            void it_returns_400() throws Exception {
+                mockMvc.perform(patch("/diaries/1/comment")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"baseVersion\":1,\"edits\":[]}")
+                )
+                        .andExpect(status().isBadRequest());
+            }
+        }
+    }
+
     @Nested
     @DisplayName("delete 메소드는")
     class Describe_delete {
@@ -339,10 +517,11 @@ class DiaryControllerTest {
             @Test
             @DisplayName("주어진 id를 갖는 다이어리를 삭제하고 응답코드 200을 반환한다")
             void it_deletes_diary_and_200() throws Exception {
-                mockMvc.perform(delete("/diaries/1"))
+                mockMvc.perform(delete("/diaries/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
                         .andExpect(status().isOk());
 
-                verify(diaryService).deleteDiary(givenValidId);
+                verify(diaryService).deleteDiary(USER_ID, givenValidId);
             }
         }
 
@@ -358,10 +537,11 @@ class DiaryControllerTest {
             @Test
             @DisplayName("응답코드 404를 반환한다")
             void it_returns_404() throws Exception {
-                mockMvc.perform(delete("/diaries/100"))
+                mockMvc.perform(delete("/diaries/100")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
                         .andExpect(status().isNotFound());
 
-                verify(diaryService).deleteDiary(givenInvalidId);
+                verify(diaryService).deleteDiary(USER_ID, givenInvalidId);
             }
         }
     }
@@ -1,12 +1,17 @@
 package com.codesoom.project.controllers;
 
+import com.codesoom.project.application.AuthenticationService;
+import com.codesoom.project.application.IdempotencyService;
 import com.codesoom.project.application.TaskService;
 import com.codesoom.project.domain.Task;
 import com.codesoom.project.domain.TaskRepository;
 import com.codesoom.project.dto.TaskCreateData;
+import com.codesoom.project.dto.TaskMoveData;
 import com.codesoom.project.dto.TaskUpdateData;
 import com.codesoom.project.dto.TaskResultData;
 import com.codesoom.project.errors.TaskNotFoundException;
+import com.codesoom.project.errors.TaskOrderConflictException;
+import com.codesoom.project.stream.TaskStreamRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,11 +21,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -31,6 +39,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TaskController.class)
@@ -47,10 +56,26 @@ class TaskControllerTest {
     @MockBean
     private TaskRepository taskRepository;
 
+    @MockBean
+    private AuthenticationService authenticationService;
+
+    @MockBean
+    private TaskStreamRegistry taskStreamRegistry;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    private static final String VALID_TOKEN = "eyJhbGciOiJIUzI1NiJ9."
+            + "eyJ1c2VySWQiOjF9.ZZ3CUl0jxeLGvQ1Js5nG2Ty5qGTlqai5ubDMXZOdaDk";
+
+    private static final Long USER_ID = 1L;
+    private static final Long DIARY_ID = 1L;
     private static final Long NOT_EXIST_ID = 100L;
     private static final Long ID = 1L;
     private static final String TITLE = "첫 번째 할 일";
     private static final String UPDATE_TITLE = "새로운 할 일";
+    private static final Long CONFLICT_ID = 5L;
+    private static final String ORDER_KEY = "b";
 
 
     private List<Task> tasks;
@@ -79,22 +104,40 @@ class TaskControllerTest {
                 .title(UPDATE_TITLE)
                 .build();
 
-        given(taskService.getTasks()).willReturn(tasks);
+        given(authenticationService.parseToken(VALID_TOKEN)).willReturn(USER_ID);
+
+        given(taskService.getTasks(USER_ID, DIARY_ID)).willReturn(tasks);
 
-        given(taskService.getTask(ID)).willReturn(task);
+        given(taskStreamRegistry.subscribe(USER_ID, DIARY_ID)).willReturn(new SseEmitter());
 
-        given(taskService.getTask(eq(NOT_EXIST_ID)))
+        given(taskService.getTask(USER_ID, ID)).willReturn(task);
+
+        given(taskService.getTask(eq(USER_ID), eq(NOT_EXIST_ID)))
                 .willThrow(new TaskNotFoundException(NOT_EXIST_ID));
 
-        given(taskService.createTask(any(TaskCreateData.class))).willReturn(createdTask);
+        given(taskService.createTask(eq(USER_ID), eq(DIARY_ID), any(TaskCreateData.class))).willReturn(createdTask);
+
+        given(idempotencyService.execute(eq(USER_ID), any(), any(), any(),
+                eq(TaskResultData.class), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
 
-        given(taskService.updateTask(eq(ID), any(TaskUpdateData.class)))
+        given(taskService.updateTask(eq(USER_ID), eq(ID), any(TaskUpdateData.class)))
                 .willReturn(updatedTask);
 
-        given(taskService.updateTask(eq(NOT_EXIST_ID), any(TaskUpdateData.class)))
+        given(taskService.updateTask(eq(USER_ID), eq(NOT_EXIST_ID), any(TaskUpdateData.class)))
                 .willThrow(new TaskNotFoundException(NOT_EXIST_ID));
 
-        given(taskService.deleteTask(eq(NOT_EXIST_ID)))
+        given(taskService.moveTask(eq(USER_ID), eq(ID), any(TaskMoveData.class)))
+                .willReturn(TaskResultData.builder()
+                        .id(ID)
+                        .title(TITLE)
+                        .orderKey(ORDER_KEY)
+                        .build());
+
+        given(taskService.moveTask(eq(USER_ID), eq(CONFLICT_ID), any(TaskMoveData.class)))
+                .willThrow(new TaskOrderConflictException(CONFLICT_ID, 3L, 2L));
+
+        given(taskService.deleteTask(eq(USER_ID), eq(NOT_EXIST_ID)))
                 .willThrow(new TaskNotFoundException(NOT_EXIST_ID));
 
         taskRepository.delete(task);
@@ -118,14 +161,31 @@ class TaskControllerTest {
             @Test
             @DisplayName("전체 할 일 목록과 응답코드 200을 반환한다")
             void it_returns_list_and_200() throws Exception {
-                mockMvc.perform(get("/diaries/1/tasks"))
+                mockMvc.perform(get("/diaries/1/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
                         .andExpect(status().isOk());
 
-                verify(taskService).getTasks();
+                verify(taskService).getTasks(USER_ID, DIARY_ID);
             }
         }
     }
 
+    @Nested
+    @DisplayName("stream 메소드는")
+    class Describe_stream {
+
+        @Test
+        @DisplayName("할 일 변경을 전달할 SSE 연결을 연다")
+        void it_opens_event_stream() throws Exception {
+            mockMvc.perform(get("/diaries/1/tasks/stream")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+
+            verify(taskStreamRegistry).subscribe(USER_ID, DIARY_ID);
+        }
+    }
+
     @Nested
     @DisplayName("detail 메소드는")
     class Describe_detail {
@@ -143,13 +203,14 @@ class TaskControllerTest {
             @DisplayName("주어진 id를 갖는 할 일과 응답코드 200을 반환한다")
             void it_returns_task_and_200() throws Exception {
                 mockMvc.perform(get("/diaries/1/tasks/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                 )
                         .andExpect(status().isOk())
                         .andExpect(jsonPath("id").value(ID))
                         .andExpect(jsonPath("title").value(TITLE));
 
-                verify(taskService).getTask(givenValidId);
+                verify(taskService).getTask(USER_ID, givenValidId);
             }
         }
 
@@ -165,10 +226,11 @@ class TaskControllerTest {
             @Test
             @DisplayName("응답코드 404를 반환한다")
             void it_returns_404() throws Exception {
-                mockMvc.perform(get("/diaries/1/tasks/100"))
+                mockMvc.perform(get("/diaries/1/tasks/100")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
                         .andExpect(status().isNotFound());
 
-                verify(taskService).getTask(givenInvalidId);
+                verify(taskService).getTask(USER_ID, givenInvalidId);
             }
         }
     }
@@ -194,6 +256,7 @@ class TaskControllerTest {
             @DisplayName("추가된 할 일과 응답코드 201을 반환한다")
             void it_returns_task_and_201() throws Exception {
                 mockMvc.perform(post("/diaries/1/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createRequest))
                 )
@@ -201,7 +264,7 @@ class TaskControllerTest {
                         .andExpect(jsonPath("id").value(ID))
                         .andExpect(jsonPath("title").value(TITLE));
 
-                verify(taskService).createTask(any(TaskCreateData.class));
+                verify(taskService).createTask(eq(USER_ID), eq(DIARY_ID), any(TaskCreateData.class));
             }
         }
 
@@ -220,6 +283,7 @@ class TaskControllerTest {
             @DisplayName("응답코드 400을 반환한다")
             void it_returns_400() throws Exception {
                 mockMvc.perform(post("/diaries/1/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidAttributes))
                 )
@@ -251,6 +315,7 @@ class TaskControllerTest {
             @DisplayName("수정된 할 일 응답코드 200을 반환한다")
             void it_returns_task_and_200() throws Exception {
                 mockMvc.perform(patch("/diaries/1/tasks/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateRequest))
                 )
@@ -258,7 +323,7 @@ class TaskControllerTest {
                         .andExpect(jsonPath("id").value(ID))
                         .andExpect(jsonPath("title").value(UPDATE_TITLE));
 
-                verify(taskService).updateTask(eq(ID), any(TaskUpdateData.class));
+                verify(taskService).updateTask(eq(USER_ID), eq(ID), any(TaskUpdateData.class));
             }
         }
 
@@ -279,12 +344,13 @@ class TaskControllerTest {
             @DisplayName("응답코드 404를 반환한다")
             void it_returns_404() throws Exception {
                 mockMvc.perform(patch("/diaries/1/tasks/100")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateRequest))
                 )
                         .andExpect(status().isNotFound());
 
-                verify(taskService).updateTask(eq(NOT_EXIST_ID), any(TaskUpdateData.class));
+                verify(taskService).updateTask(eq(USER_ID), eq(NOT_EXIST_ID), any(TaskUpdateData.class));
             }
         }
 
@@ -305,6 +371,7 @@ class TaskControllerTest {
             @DisplayName("응답코드 400를 반환한다")
             void it_returns_400() throws Exception {
                 mockMvc.perform(patch("/diaries/1/tasks/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidAttributes))
                 )
@@ -313,6 +380,46 @@ class TaskControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("move 메소드는")
+    class Describe_move {
+
+        @Nested
+        @DisplayName("옮길 자리의 앞뒤 할 일이 주어진다면")
+        class Context_with_neighbours {
+
+            @Test
+            @DisplayName("새 순서 키를 갖는 할 일과 응답코드 200을 반환한다")
+            void it_returns_task_and_200() throws Exception {
+                mockMvc.perform(patch("/diaries/1/tasks/1/position")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"previousTaskId\":2,\"nextTaskId\":3}")
+                )
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("orderKey").value(ORDER_KEY));
+
+                verify(taskService).moveTask(eq(USER_ID), eq(ID), any(TaskMoveData.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("앞뒤 할 일의 순서가 맞지 않는다면")
+        class Context_with_conflicting_neighbours {
+
+            @Test
+            @DisplayName("응답코드 409를 반환한다")
+            void it_returns_409() throws Exception {
+                mockMvc.perform(patch("/diaries/1/tasks/5/position")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"previousTaskId\":3,\"nextTaskId\":2}")
+                )
+                        .andExpect(status().isConflict());
+            }
+        }
+    }
+
     @Nested
     @DisplayName("delete 메소드는")
     class Describe_delete {
@@ -329,10 +436,11 @@ class TaskControllerTest {
             @Test
             @DisplayName("주어진 id를 갖는 할 일을 삭제하고 응답코드 200을 반환한다")
             void it_returns_task_and_200() throws Exception {
-                mockMvc.perform(delete("/diaries/1/tasks/1"))
+                mockMvc.perform(delete("/diaries/1/tasks/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
                         .andExpect(status().isOk());
 
-                verify(taskService).deleteTask(givenValidId);
+                verify(taskService).deleteTask(USER_ID, givenValidId);
             }
 
             @Nested
@@ -347,10 +455,11 @@ class TaskControllerTest {
                 @Test
                 @DisplayName("응답코드 404를 반환한다")
                 void it_returns_404() throws Exception {
-                    mockMvc.perform(delete("/diaries/1/tasks/100"))
+                    mockMvc.perform(delete("/diaries/1/tasks/100")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + VALID_TOKEN))
                             .andExpect(status().isNotFound());
 
-                    verify(taskService).deleteTask(givenInvalidId);
+                    verify(taskService).deleteTask(USER_ID, givenInvalidId);
                 }
             }
         }
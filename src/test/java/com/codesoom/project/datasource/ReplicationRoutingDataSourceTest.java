@@ -0,0 +1,141 @@
+package com.codesoom.project.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicationRoutingDataSourceTest {
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+
+    private ReplicationRoutingDataSource routingDataSource;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = embeddedDatabase("primary");
+        DataSource replica = embeddedDatabase("replica");
+
+        routingDataSource = new ReplicationRoutingDataSource(primary, List.of(replica), 5_000);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Nested
+    @DisplayName("determineCurrentLookupKey 메소드는")
+    class Describe_determineCurrentLookupKey {
+
+        @Nested
+        @DisplayName("쓰기 트랜잭션이라면")
+        class Context_with_read_write_transaction {
+
+            @Test
+            @DisplayName("주 데이터베이스를 사용한다")
+            void it_uses_primary() {
+                assertThat(nodeOf(false)).isEqualTo("primary");
+            }
+        }
+
+        @Nested
+        @DisplayName("읽기 전용 트랜잭션이라면")
+        class Context_with_read_only_transaction {
+
+            @Test
+            @DisplayName("복제본을 사용한다")
+            void it_uses_replica() {
+                assertThat(nodeOf(true)).isEqualTo("replica");
+            }
+        }
+
+        @Nested
+        @DisplayName("복제본이 지연되고 있다면")
+        class Context_with_lagging_replica {
+
+            @BeforeEach
+            void setUp() {
+                routingDataSource.markReplica(0, false);
+            }
+
+            @Test
+            @DisplayName("읽기 전용 트랜잭션도 주 데이터베이스를 사용한다")
+            void it_falls_back_to_primary() {
+                assertThat(nodeOf(true)).isEqualTo("primary");
+            }
+        }
+
+        @Nested
+        @DisplayName("사용자가 방금 쓰기를 했다면")
+        class Context_after_users_own_write {
+
+            @BeforeEach
+            void setUp() {
+                actAs(USER_ID);
+                nodeOf(false);
+            }
+
+            @Test
+            @DisplayName("그 사용자의 읽기는 주 데이터베이스를 사용한다")
+            void it_sticks_to_primary() {
+                assertThat(nodeOf(true)).isEqualTo("primary");
+            }
+
+            @Test
+            @DisplayName("다른 사용자의 읽기는 복제본을 사용한다")
+            void it_keeps_others_on_replica() {
+                actAs(OTHER_USER_ID);
+
+                assertThat(nodeOf(true)).isEqualTo("replica");
+            }
+        }
+    }
+
+    private String nodeOf(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private void actAs(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("userId", userId);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DataSource embeddedDatabase(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+
+        return dataSource;
+    }
+}
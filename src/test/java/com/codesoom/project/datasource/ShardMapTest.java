@@ -0,0 +1,119 @@
+package com.codesoom.project.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardMapTest {
+    private static final int SHARDS = 3;
+    private static final int BUCKETS = 12;
+
+    private ShardMap shardMap;
+
+    @BeforeEach
+    void setUp() {
+        shardMap = new ShardMap(SHARDS, BUCKETS);
+    }
+
+    @Nested
+    @DisplayName("bucketOf 메소드는")
+    class Describe_bucketOf {
+
+        @Test
+        @DisplayName("같은 사용자에게 항상 같은 버킷을 반환한다")
+        void it_is_deterministic() {
+            assertThat(new ShardMap(SHARDS, BUCKETS).bucketOf(42L))
+                    .isEqualTo(shardMap.bucketOf(42L));
+        }
+
+        @Test
+        @DisplayName("연속한 사용자 id를 여러 버킷에 나눈다")
+        void it_spreads_consecutive_ids() {
+            Set<Integer> buckets = new HashSet<>();
+            for (long ownerId = 1; ownerId <= 100; ownerId++) {
+                int bucket = shardMap.bucketOf(ownerId);
+                assertThat(bucket).isBetween(0, BUCKETS - 1);
+                buckets.add(bucket);
+            }
+
+            assertThat(buckets).hasSize(BUCKETS);
+        }
+    }
+
+    @Nested
+    @DisplayName("shardOf 메소드는")
+    class Describe_shardOf {
+
+        @Nested
+        @DisplayName("옮기지 않은 버킷의 사용자라면")
+        class Context_with_default_assignment {
+
+            @Test
+            @DisplayName("버킷 번호를 샤드 수로 나눈 나머지의 샤드를 반환한다")
+            void it_returns_default_shard() {
+                int bucket = shardMap.bucketOf(42L);
+
+                assertThat(shardMap.shardOf(42L)).isEqualTo(bucket % SHARDS);
+            }
+        }
+
+        @Nested
+        @DisplayName("옮긴 버킷의 사용자라면")
+        class Context_with_moved_bucket {
+            private int target;
+
+            @BeforeEach
+            void setUp() {
+                int bucket = shardMap.bucketOf(42L);
+                target = (shardMap.defaultShardOf(bucket) + 1) % SHARDS;
+
+                int[] shards = new int[BUCKETS];
+                for (int i = 0; i < BUCKETS; i++) {
+                    shards[i] = shardMap.defaultShardOf(i);
+                }
+                shards[bucket] = target;
+                shardMap.replace(shards, new boolean[BUCKETS]);
+            }
+
+            @Test
+            @DisplayName("옮긴 샤드를 반환한다")
+            void it_returns_moved_shard() {
+                assertThat(shardMap.shardOf(42L)).isEqualTo(target);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("replace 메소드는")
+    class Describe_replace {
+
+        @Test
+        @DisplayName("옮기는 중인 버킷을 표시한다")
+        void it_marks_migrating_buckets() {
+            boolean[] migrating = new boolean[BUCKETS];
+            migrating[5] = true;
+
+            shardMap.replace(new int[BUCKETS], migrating);
+
+            assertThat(shardMap.isMigrating(5)).isTrue();
+            assertThat(shardMap.isMigrating(4)).isFalse();
+        }
+
+        @Test
+        @DisplayName("없는 샤드로의 배정은 거부한다")
+        void it_rejects_unknown_shard() {
+            int[] shards = new int[BUCKETS];
+            shards[0] = SHARDS;
+
+            assertThatThrownBy(() -> shardMap.replace(shards, new boolean[BUCKETS]))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.codesoom.project.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardRebalancerTest {
+    private static final int BUCKETS = 8;
+
+    private DataSource source;
+    private DataSource target;
+    private ShardMap shardMap;
+    private ShardMapStore shardMapStore;
+    private ShardFence shardFence;
+    private ShardRebalancer rebalancer;
+
+    private Long movingOwner;
+    private Long stayingOwner;
+    private int bucket;
+
+    @BeforeEach
+    void setUp() {
+        source = embeddedDatabase("shard-0");
+        target = embeddedDatabase("shard-1");
+
+        shardMap = new ShardMap(2, BUCKETS);
+        shardMapStore = new ShardMapStore(source, shardMap);
+        shardFence = new ShardFence(List.of(source, target), BUCKETS);
+        rebalancer = new ShardRebalancer(List.of(source, target), shardMap, shardMapStore, shardFence, 0);
+
+        movingOwner = ownerOn(0, null);
+        bucket = shardMap.bucketOf(movingOwner);
+        stayingOwner = ownerOn(0, bucket);
+
+        insertOwner(source, movingOwner, 100);
+        insertOwner(source, stayingOwner, 200);
+    }
+
+    @Nested
+    @DisplayName("moveBucket 메소드는")
+    class Describe_moveBucket {
+
+        @Nested
+        @DisplayName("다른 샤드로 옮긴다면")
+        class Context_with_other_shard {
+
+            @Test
+            @DisplayName("버킷 사용자의 데이터를 대상 샤드로 옮긴다")
+            void it_moves_owners_rows() throws InterruptedException {
+                assertThat(rebalancer.moveBucket(bucket, 1)).isEqualTo(6);
+
+                assertThat(countOf(target, movingOwner)).isEqualTo(6);
+                assertThat(countOf(source, movingOwner)).isZero();
+            }
+
+            @Test
+            @DisplayName("다른 버킷 사용자의 데이터는 그대로 둔다")
+            void it_keeps_other_owners() throws InterruptedException {
+                rebalancer.moveBucket(bucket, 1);
+
+                assertThat(countOf(source, stayingOwner)).isEqualTo(6);
+                assertThat(countOf(target, stayingOwner)).isZero();
+            }
+
+            @Test
+            @DisplayName("사용자의 변경 순번을 이어서 쓰도록 함께 옮긴다")
+            void it_moves_change_sequence() throws InterruptedException {
+                new JdbcTemplate(source).update(
+                        "UPDATE change_sequence SET last_seq = ? WHERE owner_id = ?", 42, movingOwner);
+
+                rebalancer.moveBucket(bucket, 1);
+
+                assertThat(new JdbcTemplate(target).queryForObject(
+                        "SELECT last_seq FROM change_sequence WHERE owner_id = ?", Long.class, movingOwner))
+                        .isEqualTo(42L);
+            }
+
+            @Test
+            @DisplayName("원래 샤드의 쓰기를 막고 대상 샤드의 쓰기를 연다")
+            void it_moves_fence() throws InterruptedException {
+                shardFence.set(1, bucket, true);
+
+                rebalancer.moveBucket(bucket, 1);
+
+                assertThat(fencedOn(source, bucket)).isTrue();
+                assertThat(fencedOn(target, bucket)).isFalse();
+            }
+
+            @Test
+            @DisplayName("바뀐 배정을 저장한다")
+            void it_saves_assignment() throws InterruptedException {
+                rebalancer.moveBucket(bucket, 1);
+
+                ShardMap reloaded = new ShardMap(2, BUCKETS);
+                new ShardMapStore(source, reloaded);
+
+                assertThat(reloaded.shardOfBucket(bucket)).isEqualTo(1);
+                assertThat(reloaded.isMigrating(bucket)).isFalse();
+            }
+        }
+
+        @Nested
+        @DisplayName("이전 시도가 대상 샤드에 데이터를 남겼다면")
+        class Context_with_leftover_rows {
+
+            @BeforeEach
+            void setUp() {
+                insertOwner(target, movingOwner, 100);
+            }
+
+            @Test
+            @DisplayName("남은 데이터를 지우고 다시 복사한다")
+            void it_copies_again() throws InterruptedException {
+                rebalancer.moveBucket(bucket, 1);
+
+                assertThat(countOf(target, movingOwner)).isEqualTo(6);
+            }
+        }
+
+        @Nested
+        @DisplayName("이미 대상 샤드에 있는 버킷이라면")
+        class Context_with_same_shard {
+
+            @Test
+            @DisplayName("아무것도 옮기지 않는다")
+            void it_moves_nothing() throws InterruptedException {
+                assertThat(rebalancer.moveBucket(bucket, 0)).isZero();
+
+                assertThat(countOf(source, movingOwner)).isEqualTo(6);
+            }
+        }
+    }
+
+    private Long ownerOn(int shard, Integer otherThanBucket) {
+        for (long ownerId = 1; ; ownerId++) {
+            if (shardMap.shardOf(ownerId) == shard
+                    && (otherThanBucket == null || shardMap.bucketOf(ownerId) != otherThanBucket)) {
+                return ownerId;
+            }
+        }
+    }
+
+    private static void insertOwner(DataSource dataSource, Long ownerId, long firstId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO diary_comment (id, text) VALUES (?, ?)", firstId, "내용");
+        jdbcTemplate.update("INSERT INTO diary (id, owner_id, title, comment_id) VALUES (?, ?, ?, ?)",
+                firstId + 1, ownerId, "제목", firstId);
+        jdbcTemplate.update("INSERT INTO task (id, owner_id, diary_id, title) VALUES (?, ?, ?, ?)",
+                firstId + 2, ownerId, firstId + 1, "할 일");
+        jdbcTemplate.update("INSERT INTO change_record (id, owner_id, seq) VALUES (?, ?, ?)",
+                firstId + 3, ownerId, 1);
+        jdbcTemplate.update("INSERT INTO change_sequence (owner_id, last_seq) VALUES (?, ?)", ownerId, 1);
+        jdbcTemplate.update("INSERT INTO idempotency_record (id, owner_id, idempotency_key) VALUES (?, ?, ?)",
+                firstId + 4, ownerId, "key");
+    }
+
+    private static long countOf(DataSource dataSource, Long ownerId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return jdbcTemplate.queryForObject("SELECT "
+                + "(SELECT COUNT(*) FROM diary_comment WHERE id IN "
+                + "(SELECT comment_id FROM diary WHERE owner_id = ?)) + "
+                + "(SELECT COUNT(*) FROM diary WHERE owner_id = ?) + "
+                + "(SELECT COUNT(*) FROM task WHERE owner_id = ?) + "
+                + "(SELECT COUNT(*) FROM change_record WHERE owner_id = ?) + "
+                + "(SELECT COUNT(*) FROM change_sequence WHERE owner_id = ?) + "
+                + "(SELECT COUNT(*) FROM idempotency_record WHERE owner_id = ?)",
+                Long.class, ownerId, ownerId, ownerId, ownerId, ownerId, ownerId);
+    }
+
+    private static boolean fencedOn(DataSource dataSource, int bucket) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT fenced FROM shard_fence WHERE bucket = ?", Boolean.class, bucket);
+    }
+
+    private static DataSource embeddedDatabase(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE diary_comment (id BIGINT PRIMARY KEY, text VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE diary (id BIGINT PRIMARY KEY, owner_id BIGINT, "
+                + "title VARCHAR(255), comment_id BIGINT REFERENCES diary_comment (id))");
+        jdbcTemplate.execute("CREATE TABLE task (id BIGINT PRIMARY KEY, owner_id BIGINT, "
+                + "diary_id BIGINT, title VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE change_record (id BIGINT PRIMARY KEY, owner_id BIGINT, "
+                + "seq BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE change_sequence (owner_id BIGINT PRIMARY KEY, last_seq BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE idempotency_record (id BIGINT PRIMARY KEY, owner_id BIGINT, "
+                + "idempotency_key VARCHAR(255))");
+
+        return dataSource;
+    }
+}
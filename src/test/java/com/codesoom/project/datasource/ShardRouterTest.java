@@ -0,0 +1,101 @@
+package com.codesoom.project.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRouterTest {
+    private ShardMap shardMap;
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        shardMap = new ShardMap(3, 12);
+        shardRouter = new ShardRouter(Optional.of(shardMap));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.shutdown();
+    }
+
+    @Nested
+    @DisplayName("forEachShard 메소드는")
+    class Describe_forEachShard {
+
+        @Test
+        @DisplayName("샤드마다 그 샤드를 고정하고 작업을 실행한다")
+        void it_runs_on_every_shard() {
+            List<Integer> pinned = new ArrayList<>();
+
+            shardRouter.forEachShard(() -> pinned.add(ShardContext.pinned()));
+
+            assertThat(pinned).containsExactly(0, 1, 2);
+            assertThat(ShardContext.pinned()).isNull();
+        }
+
+        @Test
+        @DisplayName("샤딩을 사용하지 않으면 고정 없이 한 번 실행한다")
+        void it_runs_once_without_sharding() {
+            List<Integer> pinned = new ArrayList<>();
+
+            ShardRouter.single().forEachShard(() -> pinned.add(ShardContext.pinned()));
+
+            assertThat(pinned).containsExactly((Integer) null);
+        }
+    }
+
+    @Nested
+    @DisplayName("callForOwner 메소드는")
+    class Describe_callForOwner {
+
+        @Test
+        @DisplayName("사용자의 샤드를 고정하고 작업을 실행한다")
+        void it_pins_owners_shard() {
+            for (long ownerId = 1; ownerId <= 10; ownerId++) {
+                assertThat(shardRouter.callForOwner(ownerId, ShardContext::pinned))
+                        .isEqualTo(shardMap.shardOf(ownerId));
+            }
+        }
+
+        @Test
+        @DisplayName("작업하는 동안 사용자를 함께 고정한다")
+        void it_pins_owner() {
+            assertThat(shardRouter.callForOwner(7L, ShardContext::pinnedOwner)).isEqualTo(7L);
+            assertThat(ShardContext.pinnedOwner()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("scatter 메소드는")
+    class Describe_scatter {
+
+        @Test
+        @DisplayName("모든 샤드의 결과를 샤드 순서대로 모은다")
+        void it_gathers_all_shards() {
+            List<Integer> results = shardRouter.scatter(() -> List.of(ShardContext.pinned()));
+
+            assertThat(results).containsExactly(0, 1, 2);
+        }
+
+        @Test
+        @DisplayName("샤드에서 난 예외를 그대로 던진다")
+        void it_rethrows_failure() {
+            assertThatThrownBy(() -> shardRouter.scatter(() -> {
+                if (ShardContext.pinned() == 1) {
+                    throw new IllegalStateException("shard down");
+                }
+                return List.of();
+            })).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
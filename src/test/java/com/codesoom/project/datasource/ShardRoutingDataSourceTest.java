@@ -0,0 +1,240 @@
+package com.codesoom.project.datasource;
+
+import com.codesoom.project.errors.ShardMigrationInProgressException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRoutingDataSourceTest {
+    private ShardMap shardMap;
+    private ShardFence shardFence;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        shardMap = new ShardMap(2, 16);
+
+        List<DataSource> shards = List.of(embeddedDatabase("shard-0"), embeddedDatabase("shard-1"));
+        shardFence = new ShardFence(shards, shardMap.buckets());
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shards, shardMap, shardFence);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Nested
+    @DisplayName("determineCurrentLookupKey 메소드는")
+    class Describe_determineCurrentLookupKey {
+
+        @Nested
+        @DisplayName("요청 밖이라면")
+        class Context_without_request {
+
+            @Test
+            @DisplayName("첫 번째 샤드를 사용한다")
+            void it_uses_first_shard() {
+                assertThat(nodeOf(false)).isEqualTo("shard-0");
+            }
+        }
+
+        @Nested
+        @DisplayName("요청한 사용자가 있다면")
+        class Context_with_user {
+
+            @Test
+            @DisplayName("사용자의 샤드를 사용한다")
+            void it_uses_owners_shard() {
+                actAs(ownerOn(1));
+                assertThat(nodeOf(false)).isEqualTo("shard-1");
+
+                actAs(ownerOn(0));
+                assertThat(nodeOf(true)).isEqualTo("shard-0");
+            }
+        }
+
+        @Nested
+        @DisplayName("고정한 샤드가 있다면")
+        class Context_with_pinned_shard {
+
+            @Test
+            @DisplayName("사용자와 관계없이 고정한 샤드를 사용한다")
+            void it_uses_pinned_shard() {
+                actAs(ownerOn(0));
+
+                assertThat(ShardContext.callOn(1, () -> nodeOf(false))).isEqualTo("shard-1");
+            }
+        }
+
+        @Nested
+        @DisplayName("사용자의 버킷을 옮기는 중이라면")
+        class Context_with_migrating_bucket {
+            private Long ownerId;
+
+            @BeforeEach
+            void setUp() {
+                ownerId = ownerOn(1);
+
+                int[] shards = new int[shardMap.buckets()];
+                boolean[] migrating = new boolean[shardMap.buckets()];
+                for (int bucket = 0; bucket < shards.length; bucket++) {
+                    shards[bucket] = shardMap.defaultShardOf(bucket);
+                }
+                migrating[shardMap.bucketOf(ownerId)] = true;
+                shardMap.replace(shards, migrating);
+
+                actAs(ownerId);
+            }
+
+            @Test
+            @DisplayName("읽기 전용 트랜잭션은 원래 샤드에서 처리한다")
+            void it_keeps_reading_from_source() {
+                assertThat(nodeOf(true)).isEqualTo("shard-1");
+            }
+
+            @Test
+            @DisplayName("쓰기 트랜잭션은 거부한다")
+            void it_rejects_writes() {
+                assertThatThrownBy(() -> nodeOf(false))
+                        .isInstanceOf(ShardMigrationInProgressException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("getConnection 메소드는")
+    class Describe_getConnection {
+
+        @Nested
+        @DisplayName("배정은 그대로지만 샤드가 사용자의 버킷 쓰기를 막았다면")
+        class Context_with_fenced_bucket {
+            private Long ownerId;
+
+            @BeforeEach
+            void setUp() {
+                ownerId = ownerOn(1);
+                shardFence.set(1, shardMap.bucketOf(ownerId), true);
+
+                actAs(ownerId);
+            }
+
+            @Test
+            @DisplayName("읽기 전용 트랜잭션은 처리한다")
+            void it_keeps_reading() {
+                assertThat(nodeOf(true)).isEqualTo("shard-1");
+            }
+
+            @Test
+            @DisplayName("쓰기 트랜잭션은 거부한다")
+            void it_rejects_writes() {
+                assertThatThrownBy(() -> nodeOf(false))
+                        .isInstanceOf(ShardMigrationInProgressException.class);
+            }
+        }
+
+        @Nested
+        @DisplayName("샤드와 함께 고정한 사용자의 버킷 쓰기가 막혔다면")
+        class Context_with_fenced_pinned_owner {
+            private Long ownerId;
+
+            @BeforeEach
+            void setUp() {
+                ownerId = ownerOn(1);
+                shardFence.set(1, shardMap.bucketOf(ownerId), true);
+            }
+
+            @Test
+            @DisplayName("읽기 전용 트랜잭션은 처리한다")
+            void it_keeps_reading() {
+                assertThat(ShardContext.callOn(1, ownerId, () -> nodeOf(true))).isEqualTo("shard-1");
+            }
+
+            @Test
+            @DisplayName("쓰기 트랜잭션은 거부한다")
+            void it_rejects_writes() {
+                assertThatThrownBy(() -> ShardContext.callOn(1, ownerId, () -> nodeOf(false)))
+                        .isInstanceOf(ShardMigrationInProgressException.class);
+            }
+
+            @Test
+            @DisplayName("사용자 없이 샤드만 고정한 쓰기는 처리한다")
+            void it_accepts_shard_only_writes() {
+                assertThat(ShardContext.callOn(1, () -> nodeOf(false))).isEqualTo("shard-1");
+            }
+        }
+
+        @Nested
+        @DisplayName("다른 버킷의 쓰기만 막혔다면")
+        class Context_with_other_bucket_fenced {
+
+            @Test
+            @DisplayName("쓰기 트랜잭션을 처리한다")
+            void it_accepts_writes() {
+                Long ownerId = ownerOn(1);
+                shardFence.set(1, (shardMap.bucketOf(ownerId) + 2) % shardMap.buckets(), true);
+
+                actAs(ownerId);
+
+                assertThat(nodeOf(false)).isEqualTo("shard-1");
+            }
+        }
+    }
+
+    private Long ownerOn(int shard) {
+        for (long ownerId = 1; ; ownerId++) {
+            if (shardMap.shardOf(ownerId) == shard) {
+                return ownerId;
+            }
+        }
+    }
+
+    private String nodeOf(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private void actAs(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("userId", userId);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DataSource embeddedDatabase(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+
+        return dataSource;
+    }
+}
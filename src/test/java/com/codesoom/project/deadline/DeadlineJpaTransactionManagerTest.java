@@ -0,0 +1,173 @@
+package com.codesoom.project.deadline;
+
+import com.codesoom.project.errors.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class DeadlineJpaTransactionManagerTest {
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private DeadlineJpaTransactionManager transactionManager;
+    private DefaultTransactionDefinition definition;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        entityManager = mock(EntityManager.class);
+        given(entityManagerFactory.createEntityManager()).willReturn(entityManager);
+        given(entityManager.getTransaction()).willReturn(mock(EntityTransaction.class));
+        given(entityManager.isOpen()).willReturn(true);
+
+        transactionManager = new DeadlineJpaTransactionManager();
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
+        definition = new DefaultTransactionDefinition();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+    }
+
+    @Nested
+    @DisplayName("determineTimeout 메소드는")
+    class Describe_determineTimeout {
+
+        @Nested
+        @DisplayName("마감 시각이 없다면")
+        class Context_without_deadline {
+
+            @Test
+            @DisplayName("설정된 제한 시간을 그대로 쓴다")
+            void it_uses_definition() {
+                assertThat(transactionManager.determineTimeout(definition))
+                        .isEqualTo(TransactionDefinition.TIMEOUT_DEFAULT);
+            }
+        }
+
+        @Nested
+        @DisplayName("마감 시각이 있다면")
+        class Context_with_deadline {
+
+            @BeforeEach
+            void setUp() {
+                DeadlineContext.set(Deadline.after(2_000));
+            }
+
+            @Test
+            @DisplayName("남은 시간을 제한 시간으로 쓴다")
+            void it_uses_remaining_time() {
+                assertThat(transactionManager.determineTimeout(definition)).isEqualTo(2);
+            }
+
+            @Test
+            @DisplayName("설정된 제한 시간이 더 짧으면 그것을 쓴다")
+            void it_keeps_shorter_timeout() {
+                definition.setTimeout(1);
+
+                assertThat(transactionManager.determineTimeout(definition)).isEqualTo(1);
+            }
+        }
+
+        @Nested
+        @DisplayName("마감 시각이 지났다면")
+        class Context_after_deadline {
+
+            @Test
+            @DisplayName("트랜잭션을 시작하지 않고 예외를 던진다")
+            void it_throws() {
+                DeadlineContext.set(Deadline.after(0));
+
+                assertThatThrownBy(() -> transactionManager.determineTimeout(definition))
+                        .isInstanceOf(DeadlineExceededException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("getTransaction 메소드는")
+    class Describe_getTransaction {
+
+        @Nested
+        @DisplayName("마감 시각이 남았다면")
+        class Context_with_deadline {
+
+            @Test
+            @DisplayName("남은 시간을 제한 시간으로 트랜잭션을 시작한다")
+            void it_begins_with_remaining_time() {
+                DeadlineContext.set(Deadline.after(2_000));
+
+                TransactionStatus status = transactionManager.getTransaction(definition);
+                try {
+                    EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                            .getResource(entityManagerFactory);
+
+                    assertThat(holder.hasTimeout()).isTrue();
+                    assertThat(holder.getTimeToLiveInSeconds()).isBetween(1, 2);
+                } finally {
+                    transactionManager.rollback(status);
+                }
+            }
+        }
+
+        @Nested
+        @DisplayName("마감 시각이 지났다면")
+        class Context_after_deadline {
+
+            @Test
+            @DisplayName("엔티티 매니저를 만들지 않고 마감 시각 초과 예외를 던진다")
+            void it_throws_deadline_exceeded() {
+                DeadlineContext.set(Deadline.after(0));
+
+                assertThatThrownBy(() -> transactionManager.getTransaction(definition))
+                        .isInstanceOf(DeadlineExceededException.class);
+
+                verify(entityManagerFactory, never()).createEntityManager();
+                assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            }
+        }
+
+        @Nested
+        @DisplayName("트랜잭션을 시작하는 동안 마감 시각이 지났다면")
+        class Context_with_deadline_during_begin {
+
+            @BeforeEach
+            void setUp() {
+                given(entityManagerFactory.createEntityManager()).willAnswer(invocation -> {
+                    Thread.sleep(100);
+                    return entityManager;
+                });
+            }
+
+            @Test
+            @DisplayName("감싸지 않은 마감 시각 초과 예외를 던지고 엔티티 매니저를 닫는다")
+            void it_throws_deadline_exceeded() {
+                DeadlineContext.set(Deadline.after(50));
+
+                assertThatThrownBy(() -> transactionManager.getTransaction(definition))
+                        .isInstanceOf(DeadlineExceededException.class);
+
+                verify(entityManager).close();
+                assertThat(TransactionSynchronizationManager.getResource(entityManagerFactory)).isNull();
+            }
+        }
+    }
+}
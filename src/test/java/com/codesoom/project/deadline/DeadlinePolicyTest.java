@@ -0,0 +1,115 @@
+package com.codesoom.project.deadline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlinePolicyTest {
+    private static final String METHOD = "GET";
+    private static final String PATTERN = "/diaries";
+
+    private DeadlinePolicy deadlinePolicy;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineProperties.Endpoint endpoint = new DeadlineProperties.Endpoint();
+        endpoint.setMethod(METHOD);
+        endpoint.setPattern(PATTERN);
+        endpoint.setTimeoutMillis(5_000);
+
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setDefaultTimeoutMillis(10_000);
+        properties.setMaxTimeoutMillis(30_000);
+        properties.setEndpoints(List.of(endpoint));
+
+        deadlinePolicy = new DeadlinePolicy(properties);
+    }
+
+    @Nested
+    @DisplayName("deadlineFor 메소드는")
+    class Describe_deadlineFor {
+
+        @Nested
+        @DisplayName("헤더가 없다면")
+        class Context_without_header {
+
+            @Test
+            @DisplayName("엔드포인트의 기본 제한 시간을 쓴다")
+            void it_uses_endpoint_default() {
+                assertThat(secondsOf(deadlinePolicy.deadlineFor(METHOD, PATTERN, null)))
+                        .isEqualTo(5);
+                assertThat(secondsOf(deadlinePolicy.deadlineFor("POST", PATTERN, null)))
+                        .isEqualTo(10);
+            }
+
+            @Test
+            @DisplayName("같은 요청 메소드라도 경로 패턴마다 기본 제한 시간을 따로 쓴다")
+            void it_keys_by_method_and_pattern() {
+                assertThat(secondsOf(deadlinePolicy.deadlineFor(METHOD, "/diaries/{id}", null)))
+                        .isEqualTo(10);
+                assertThat(secondsOf(deadlinePolicy.deadlineFor(METHOD, PATTERN, null)))
+                        .isEqualTo(5);
+            }
+        }
+
+        @Nested
+        @DisplayName("헤더에 밀리초가 있다면")
+        class Context_with_header {
+
+            @Test
+            @DisplayName("헤더의 제한 시간을 쓴다")
+            void it_uses_header() {
+                assertThat(secondsOf(deadlinePolicy.deadlineFor(METHOD, PATTERN, "2000")))
+                        .isEqualTo(2);
+            }
+
+            @Test
+            @DisplayName("상한을 넘으면 상한을 쓴다")
+            void it_caps_header() {
+                assertThat(secondsOf(deadlinePolicy.deadlineFor(METHOD, PATTERN, "600000")))
+                        .isEqualTo(30);
+            }
+        }
+
+        @Nested
+        @DisplayName("헤더 값이 올바르지 않다면")
+        class Context_with_invalid_header {
+
+            @Test
+            @DisplayName("엔드포인트의 기본 제한 시간을 쓴다")
+            void it_ignores_header() {
+                assertThat(secondsOf(deadlinePolicy.deadlineFor(METHOD, PATTERN, "soon")))
+                        .isEqualTo(5);
+                assertThat(secondsOf(deadlinePolicy.deadlineFor(METHOD, PATTERN, "-1")))
+                        .isEqualTo(5);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("record 메소드는")
+    class Describe_record {
+
+        @Test
+        @DisplayName("마감 시각을 지킨 요청과 넘긴 요청을 따로 센다")
+        void it_counts_separately() {
+            deadlinePolicy.record(Deadline.after(60_000));
+            deadlinePolicy.record(Deadline.after(0));
+            deadlinePolicy.record(Deadline.after(0));
+
+            assertThat(deadlinePolicy.metCount()).isEqualTo(1);
+            assertThat(deadlinePolicy.exceededCount()).isEqualTo(2);
+        }
+    }
+
+    private static long secondsOf(Deadline deadline) {
+        return TimeUnit.NANOSECONDS.toSeconds(
+                deadline.remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.codesoom.project.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(DeadlineConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeadlineQueryTimeoutTest {
+    private static final String SLOW_QUERY = "SELECT COUNT(*) "
+            + "FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b "
+            + "WHERE MOD(a.X + b.X, 7) = 3";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+    }
+
+    @Nested
+    @DisplayName("마감 시각이 있는 트랜잭션에서 느린 쿼리를 실행한다면")
+    class Context_with_slow_query {
+
+        @Test
+        @DisplayName("마감 시각 무렵 데이터베이스에서 쿼리를 취소한다")
+        void it_cancels_query() {
+            assertThat(transactionManager).isInstanceOf(DeadlineJpaTransactionManager.class);
+
+            DeadlineContext.set(Deadline.after(1_000));
+            long startedAt = System.nanoTime();
+
+            assertThatThrownBy(() -> new TransactionTemplate(transactionManager).execute(status ->
+                    entityManager.createNativeQuery(SLOW_QUERY).getSingleResult()))
+                    .hasRootCauseInstanceOf(SQLTimeoutException.class);
+
+            assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt))
+                    .isLessThan(5);
+        }
+    }
+}
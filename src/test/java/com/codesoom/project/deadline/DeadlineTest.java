@@ -0,0 +1,55 @@
+package com.codesoom.project.deadline;
+
+import com.codesoom.project.errors.DeadlineExceededException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineTest {
+
+    @Nested
+    @DisplayName("remainingSeconds 메소드는")
+    class Describe_remainingSeconds {
+
+        @Nested
+        @DisplayName("시간이 남아 있다면")
+        class Context_before_deadline {
+
+            @Test
+            @DisplayName("남은 시간을 초 단위로 올림해 반환한다")
+            void it_rounds_up() {
+                assertThat(Deadline.after(1_500).remainingSeconds()).isEqualTo(2);
+                assertThat(Deadline.after(10).remainingSeconds()).isEqualTo(1);
+            }
+        }
+
+        @Nested
+        @DisplayName("마감 시각이 지났다면")
+        class Context_after_deadline {
+
+            @Test
+            @DisplayName("예외를 던진다")
+            void it_throws() {
+                assertThatThrownBy(() -> Deadline.after(0).remainingSeconds())
+                        .isInstanceOf(DeadlineExceededException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("check 메소드는")
+    class Describe_check {
+
+        @Test
+        @DisplayName("마감 시각이 지났을 때만 예외를 던진다")
+        void it_throws_only_after_deadline() {
+            Deadline.after(60_000).check();
+
+            assertThatThrownBy(() -> Deadline.after(-1).check())
+                    .isInstanceOf(DeadlineExceededException.class);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.codesoom.project.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedTextTest {
+    private static final String SHORT_TEXT = "아쉬운 하루였다";
+    private static final String LONG_TEXT = "오늘은 산책을 하고 책을 읽었다. ".repeat(100);
+
+    @Test
+    void shortTextIsStoredAsIs() {
+        byte[] stored = CompressedText.encode(SHORT_TEXT);
+
+        assertThat(stored.length)
+                .isEqualTo(SHORT_TEXT.getBytes(StandardCharsets.UTF_8).length + 1);
+        assertThat(CompressedText.decode(stored)).isEqualTo(SHORT_TEXT);
+    }
+
+    @Test
+    void longTextIsCompressed() {
+        byte[] stored = CompressedText.encode(LONG_TEXT);
+
+        assertThat(stored.length)
+                .isLessThan(LONG_TEXT.getBytes(StandardCharsets.UTF_8).length / 10);
+        assertThat(CompressedText.decode(stored)).isEqualTo(LONG_TEXT);
+    }
+
+    @Test
+    void nullAndEmpty() {
+        assertThat(CompressedText.encode(null)).isNull();
+        assertThat(CompressedText.decode(null)).isNull();
+        assertThat(CompressedText.decode(CompressedText.encode(""))).isEmpty();
+    }
+}
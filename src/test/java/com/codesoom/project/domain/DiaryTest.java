@@ -1,9 +1,14 @@
 package com.codesoom.project.domain;
 
+import com.codesoom.project.errors.DiaryVersionConflictException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class DiaryTest {
     private static final Long ID = 1L;
@@ -42,4 +47,45 @@ class DiaryTest {
         assertThat(diary.getTitle()).isEqualTo(UPDATE_TITLE);
         assertThat(diary.getComment()).isEqualTo(UPDATE_COMMENT);
     }
+
+    @Test
+    void markDeleted() {
+        LocalDateTime now = LocalDateTime.now();
+
+        diary.markDeleted(now);
+
+        assertThat(diary.isDeleted()).isTrue();
+        assertThat(diary.getDeletedAt()).isEqualTo(now);
+    }
+
+    @Test
+    void reconcileTaskCounts() {
+        assertThat(diary.reconcileTaskCounts(3, 1)).isTrue();
+
+        assertThat(diary.getTaskCount()).isEqualTo(3);
+        assertThat(diary.getDoneTaskCount()).isEqualTo(1);
+
+        assertThat(diary.reconcileTaskCounts(3, 1)).isFalse();
+    }
+
+    @Test
+    void applyCommentEdits() {
+        diary.applyCommentEdits(0L, List.of(
+                TextEdit.builder().position(0).deleteCount(3).insert("즐거운").build(),
+                TextEdit.builder().position(4).deleteCount(0).insert("오늘 ").build()));
+
+        assertThat(diary.getComment()).isEqualTo("즐거운 오늘 하루였다");
+        assertThat(diary.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void applyCommentEditsWithStaleVersion() {
+        diary.updateWith(diary);
+
+        assertThatThrownBy(() -> diary.applyCommentEdits(0L, List.of(
+                TextEdit.builder().position(0).deleteCount(0).insert("!").build())))
+                .isInstanceOf(DiaryVersionConflictException.class);
+
+        assertThat(diary.getComment()).isEqualTo(COMMENT);
+    }
 }
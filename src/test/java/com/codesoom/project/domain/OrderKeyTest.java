@@ -0,0 +1,91 @@
+package com.codesoom.project.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderKeyTest {
+    @Test
+    void betweenEmptyBounds() {
+        assertThat(OrderKey.between(null, null)).isEqualTo("i");
+    }
+
+    @Test
+    void betweenTwoKeys() {
+        String key = OrderKey.between("a", "c");
+
+        assertThat(key).isEqualTo("b");
+    }
+
+    @Test
+    void betweenAdjacentKeys() {
+        String key = OrderKey.between("a", "b");
+
+        assertThat(key).isGreaterThan("a").isLessThan("b");
+        assertThat(key).hasSize(2);
+    }
+
+    @Test
+    void beforeFirstKey() {
+        String key = OrderKey.between(null, "1");
+
+        assertThat(key).isLessThan("1").doesNotEndWith("0");
+    }
+
+    @Test
+    void afterLastKey() {
+        String key = OrderKey.between("z", null);
+
+        assertThat(key).isGreaterThan("z");
+    }
+
+    @Test
+    void betweenWithWrongOrder() {
+        assertThatThrownBy(() -> OrderKey.between("c", "a"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderKey.between("a", "a"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void betweenWithInvalidDigit() {
+        assertThatThrownBy(() -> OrderKey.between("A", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void repeatedInsertionsKeepOrder() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>(OrderKey.evenlySpaced(3));
+
+        for (int i = 0; i < 1000; i++) {
+            int index = random.nextInt(keys.size() + 1);
+            String before = index == 0 ? null : keys.get(index - 1);
+            String after = index == keys.size() ? null : keys.get(index);
+
+            keys.add(index, OrderKey.between(before, after));
+        }
+
+        assertThat(keys).isSorted().doesNotHaveDuplicates();
+        assertThat(keys).noneMatch(key -> key.endsWith("0"));
+    }
+
+    @Test
+    void evenlySpaced() {
+        List<String> keys = OrderKey.evenlySpaced(1000);
+
+        assertThat(keys).hasSize(1000).isSorted().doesNotHaveDuplicates();
+        assertThat(keys).allMatch(key -> key.length() <= 3);
+        assertThat(keys).noneMatch(key -> key.endsWith("0"));
+    }
+
+    @Test
+    void evenlySpacedWithoutKeys() {
+        assertThat(OrderKey.evenlySpaced(0)).isEmpty();
+    }
+}
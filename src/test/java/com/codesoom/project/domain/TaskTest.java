@@ -3,6 +3,8 @@ package com.codesoom.project.domain;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class TaskTest {
@@ -39,4 +41,32 @@ class TaskTest {
         assertThat(task.getId()).isEqualTo(ID);
         assertThat(task.getTitle()).isEqualTo(UPDATE_TITLE);
     }
+
+    @Test
+    void markDone() {
+        assertThat(task.markDone(true)).isTrue();
+        assertThat(task.isDone()).isTrue();
+
+        assertThat(task.markDone(true)).isFalse();
+
+        assertThat(task.markDone(false)).isTrue();
+        assertThat(task.isDone()).isFalse();
+    }
+
+    @Test
+    void moveTo() {
+        task.moveTo("i");
+
+        assertThat(task.getOrderKey()).isEqualTo("i");
+    }
+
+    @Test
+    void markDeleted() {
+        LocalDateTime now = LocalDateTime.now();
+
+        task.markDeleted(now);
+
+        assertThat(task.isDeleted()).isTrue();
+        assertThat(task.getDeletedAt()).isEqualTo(now);
+    }
 }
@@ -0,0 +1,53 @@
+package com.codesoom.project.domain;
+
+import com.codesoom.project.errors.InvalidTextEditException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextEditTest {
+    private static final String TEXT = "아쉬운 하루였다";
+
+    @Test
+    void insert() {
+        TextEdit edit = TextEdit.builder()
+                .position(4)
+                .insert("긴 ")
+                .build();
+
+        assertThat(edit.applyTo(TEXT)).isEqualTo("아쉬운 긴 하루였다");
+    }
+
+    @Test
+    void replace() {
+        TextEdit edit = TextEdit.builder()
+                .position(0)
+                .deleteCount(3)
+                .insert("보람찬")
+                .build();
+
+        assertThat(edit.applyTo(TEXT)).isEqualTo("보람찬 하루였다");
+    }
+
+    @Test
+    void deleteToEnd() {
+        TextEdit edit = TextEdit.builder()
+                .position(3)
+                .deleteCount(TEXT.length() - 3)
+                .build();
+
+        assertThat(edit.applyTo(TEXT)).isEqualTo("아쉬운");
+    }
+
+    @Test
+    void outOfRange() {
+        TextEdit edit = TextEdit.builder()
+                .position(TEXT.length())
+                .deleteCount(1)
+                .build();
+
+        assertThatThrownBy(() -> edit.applyTo(TEXT))
+                .isInstanceOf(InvalidTextEditException.class);
+    }
+}
@@ -0,0 +1,359 @@
+package com.codesoom.project.embedded;
+
+import com.codesoom.project.application.NegativeLookupCache;
+import com.codesoom.project.application.ReadCoalescer;
+import com.codesoom.project.application.TaskService;
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.dto.TaskCreateData;
+import com.codesoom.project.dto.TaskResultData;
+import com.codesoom.project.invalidation.LocalInvalidationTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class EmbeddedStoreTest {
+    private static final Long USER_ID = 1L;
+    private static final String TITLE = "오늘의 다이어리";
+    private static final String UPDATE_TITLE = "3월 25일의 다이어리";
+    private static final String COMMENT = "아쉬운 하루였다";
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedStore store;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open();
+
+        transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        readOnlyTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    private EmbeddedStore open() throws IOException {
+        return EmbeddedStore.open(directory, true, 4, Long.MAX_VALUE);
+    }
+
+    private EmbeddedStore reopen() throws IOException {
+        store.close();
+        store = open();
+        return store;
+    }
+
+    private Diary saveDiary() {
+        return transactionTemplate.execute(status -> store.diaryRepository().save(Diary.builder()
+                .ownerId(USER_ID)
+                .title(TITLE)
+                .comment(COMMENT)
+                .build()));
+    }
+
+    @Nested
+    @DisplayName("open 메소드는")
+    class Describe_open {
+
+        @Test
+        @DisplayName("로그를 적용해 저장한 다이어리와 할 일을 되살린다")
+        void it_replays_log() throws IOException {
+            Diary diary = saveDiary();
+            Task task = transactionTemplate.execute(status -> store.taskRepository().save(Task.builder()
+                    .ownerId(USER_ID)
+                    .diaryId(diary.getId())
+                    .title(TITLE)
+                    .orderKey("i")
+                    .build()));
+
+            reopen();
+
+            Diary recovered = store.diaryRepository().findById(diary.getId()).orElseThrow();
+            assertThat(recovered.getTitle()).isEqualTo(TITLE);
+            assertThat(recovered.getComment()).isEqualTo(COMMENT);
+            assertThat(store.taskRepository()
+                    .findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, diary.getId()))
+                    .extracting(Task::getId)
+                    .containsExactly(task.getId());
+            assertThat(store.recoveredRecords()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("스냅샷을 읽고 그 뒤의 로그를 적용한다")
+        void it_loads_snapshot_and_log_tail() throws IOException {
+            Diary diary = saveDiary();
+            Diary deleted = saveDiary();
+            LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            transactionTemplate.executeWithoutResult(status -> store.diaryRepository()
+                    .findByIdAndOwnerId(deleted.getId(), USER_ID)
+                    .orElseThrow()
+                    .markDeleted(deletedAt));
+
+            store.snapshot();
+
+            transactionTemplate.executeWithoutResult(status -> store.diaryRepository()
+                    .findByIdAndOwnerId(diary.getId(), USER_ID)
+                    .orElseThrow()
+                    .setTitle(UPDATE_TITLE));
+            Diary added = saveDiary();
+
+            assertThat(WriteAheadLog.files(directory)).hasSize(1);
+
+            reopen();
+
+            assertThat(store.diaryRepository().findAllByOwnerId(USER_ID))
+                    .extracting(Diary::getId, Diary::getTitle)
+                    .containsExactlyInAnyOrder(
+                            tuple(diary.getId(), UPDATE_TITLE),
+                            tuple(added.getId(), TITLE));
+            assertThat(store.diaryRepository().findById(deleted.getId()).orElseThrow().getDeletedAt())
+                    .isEqualTo(deletedAt);
+        }
+
+        @Test
+        @DisplayName("끝까지 쓰이지 않은 스냅샷은 지우고 로그로 되살린다")
+        void it_discards_temporary_snapshot() throws IOException {
+            Diary diary = saveDiary();
+            Files.write(directory.resolve(EmbeddedStore.snapshotName(2) + ".tmp"), new byte[]{1, 2, 3});
+
+            reopen();
+
+            assertThat(store.diaryRepository().findById(diary.getId())).isPresent();
+            try (Stream<Path> files = Files.list(directory)) {
+                assertThat(files.map(path -> path.getFileName().toString()))
+                        .noneMatch(name -> name.endsWith(".tmp"));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("트랜잭션이 커밋되면")
+    class Describe_commit {
+
+        @Test
+        @DisplayName("조회한 뒤 고친 엔티티를 save 없이도 기록한다")
+        void it_logs_dirty_entities() throws IOException {
+            Diary diary = saveDiary();
+
+            transactionTemplate.executeWithoutResult(status -> store.diaryRepository()
+                    .findByIdAndOwnerId(diary.getId(), USER_ID)
+                    .orElseThrow()
+                    .updateWith(Diary.builder().title(UPDATE_TITLE).comment(COMMENT).build()));
+
+            reopen();
+
+            Diary recovered = store.diaryRepository().findById(diary.getId()).orElseThrow();
+            assertThat(recovered.getTitle()).isEqualTo(UPDATE_TITLE);
+            assertThat(recovered.getVersion()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("바뀌지 않은 엔티티와 읽기 전용 트랜잭션은 기록하지 않는다")
+        void it_skips_clean_entities() {
+            Diary diary = saveDiary();
+            long appended = store.appendCount();
+
+            transactionTemplate.executeWithoutResult(status ->
+                    store.diaryRepository().findAllByOwnerId(USER_ID));
+            readOnlyTemplate.executeWithoutResult(status ->
+                    store.diaryRepository().findById(diary.getId()));
+
+            assertThat(store.appendCount()).isEqualTo(appended);
+        }
+
+        @Test
+        @DisplayName("지운 엔티티는 되살아나지 않는다")
+        void it_logs_deletes() throws IOException {
+            Diary diary = saveDiary();
+
+            transactionTemplate.executeWithoutResult(status -> store.diaryRepository().delete(diary));
+
+            reopen();
+
+            assertThat(store.diaryRepository().findById(diary.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("할 일 서비스가 바꾼 할 일과 다이어리 집계 값을 함께 기록한다")
+        void it_logs_service_changes() throws IOException {
+            Diary diary = saveDiary();
+
+            TaskService taskService = new TaskService(store.taskRepository(), store.diaryRepository(),
+                    mock(ApplicationEventPublisher.class),
+                    new NegativeLookupCache(store.diaryRepository(), store.taskRepository(),
+                            ShardRouter.single(), new LocalInvalidationTransport(), 1,
+                            1000, 0.01, 100, 30),
+                    new ReadCoalescer());
+
+            TaskCreateData createData = TaskCreateData.builder()
+                    .title(TITLE)
+                    .build();
+            TaskResultData kept = transactionTemplate.execute(status ->
+                    taskService.createTask(USER_ID, diary.getId(), createData));
+            TaskResultData deleted = transactionTemplate.execute(status ->
+                    taskService.createTask(USER_ID, diary.getId(), createData));
+            transactionTemplate.executeWithoutResult(status ->
+                    taskService.deleteTask(USER_ID, deleted.getId()));
+
+            reopen();
+
+            assertThat(store.diaryRepository().findById(diary.getId()).orElseThrow().getTaskCount())
+                    .isEqualTo(1L);
+            assertThat(store.taskRepository()
+                    .findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, diary.getId()))
+                    .extracting(Task::getId, Task::getOrderKey)
+                    .containsExactly(tuple(kept.getId(), kept.getOrderKey()));
+            assertThat(store.taskRepository().findById(deleted.getId()).orElseThrow().isDeleted())
+                    .isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("트랜잭션이 롤백되면")
+    class Describe_rollback {
+
+        @Test
+        @DisplayName("고친 내용이 메모리와 스냅샷에 남지 않는다")
+        void it_discards_changes() throws IOException {
+            Diary diary = saveDiary();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                store.diaryRepository()
+                        .findByIdAndOwnerId(diary.getId(), USER_ID)
+                        .orElseThrow()
+                        .setTitle(UPDATE_TITLE);
+                store.taskRepository().save(Task.builder()
+                        .ownerId(USER_ID)
+                        .diaryId(diary.getId())
+                        .title(TITLE)
+                        .build());
+                status.setRollbackOnly();
+            });
+
+            assertThat(store.diaryRepository().findById(diary.getId()).orElseThrow().getTitle())
+                    .isEqualTo(TITLE);
+
+            store.snapshot();
+            reopen();
+
+            assertThat(store.diaryRepository().findById(diary.getId()).orElseThrow().getTitle())
+                    .isEqualTo(TITLE);
+            assertThat(store.taskRepository().findAll()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("두 트랜잭션이 같은 엔티티를 바꾸면")
+    class Describe_concurrent_changes {
+
+        @Test
+        @DisplayName("먼저 바꾼 트랜잭션이 끝날 때까지 다른 트랜잭션이 기다린다")
+        void it_locks_until_completion() throws Exception {
+            Diary diary = saveDiary();
+            CountDownLatch changed = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        store.diaryRepository().save(store.diaryRepository()
+                                .findByIdAndOwnerId(diary.getId(), USER_ID)
+                                .orElseThrow());
+                        changed.countDown();
+                        await(release);
+                    }));
+            changed.await(5, TimeUnit.SECONDS);
+
+            CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                    transactionTemplate.executeWithoutResult(status ->
+                            store.diaryRepository().findForUpdateById(diary.getId())));
+
+            Thread.sleep(100);
+            assertThat(second).isNotDone();
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        }
+
+        @Test
+        @DisplayName("먼저 읽어 둔 사본이라도 다른 트랜잭션이 커밋한 집계 변경을 덮어쓰지 않는다")
+        void it_keeps_concurrent_task_counts() throws IOException {
+            Diary diary = saveDiary();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                store.diaryRepository().findByIdAndOwnerId(diary.getId(), USER_ID).orElseThrow();
+
+                CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(other ->
+                        store.diaryRepository().adjustTaskCounts(diary.getId(), USER_ID, 1, 1)))
+                        .join();
+
+                store.diaryRepository().adjustTaskCounts(diary.getId(), USER_ID, 1, 0);
+            });
+
+            reopen();
+
+            Diary recovered = store.diaryRepository().findById(diary.getId()).orElseThrow();
+            assertThat(recovered.getTaskCount()).isEqualTo(2L);
+            assertThat(recovered.getDoneTaskCount()).isEqualTo(1L);
+        }
+
+        private void await(CountDownLatch latch) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 트랜잭션 동기화만 돌리는 트랜잭션 관리자.
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.codesoom.project.embedded;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteAheadLogTest {
+    @TempDir
+    Path directory;
+
+    private static byte[] record(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<String> replay(Path file) throws IOException {
+        List<String> records = new ArrayList<>();
+        WriteAheadLog.replay(file, record -> records.add(new String(record, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    @Nested
+    @DisplayName("append 메소드는")
+    class Describe_append {
+
+        @Test
+        @DisplayName("덧붙인 레코드를 순서대로 다시 읽을 수 있게 한다")
+        void it_appends_records() throws IOException {
+            try (WriteAheadLog log = WriteAheadLog.open(directory, 1, true)) {
+                log.append(List.of(record("a"), record("b")));
+                log.append(List.of(record("c")));
+            }
+
+            List<Path> files = WriteAheadLog.files(directory);
+
+            assertThat(files).hasSize(1);
+            assertThat(replay(files.get(0))).containsExactly("a", "b", "c");
+        }
+
+        @Test
+        @DisplayName("동시에 들어온 커밋은 fsync를 나눠 쓴다")
+        void it_groups_commits() throws Exception {
+            int threads = 8;
+            int commits = 200;
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try (WriteAheadLog log = WriteAheadLog.open(directory, 1, true)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int thread = t;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < commits; i++) {
+                            log.append(List.of(record(thread + ":" + i)));
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+
+                assertThat(log.appendCount()).isEqualTo(threads * commits);
+                assertThat(log.forceCount()).isLessThanOrEqualTo(log.appendCount());
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(replay(WriteAheadLog.files(directory).get(0))).hasSize(threads * commits);
+        }
+    }
+
+    @Nested
+    @DisplayName("rotate 메소드는")
+    class Describe_rotate {
+
+        @Test
+        @DisplayName("다음 세대 파일로 넘어간다")
+        void it_starts_next_generation() throws IOException {
+            try (WriteAheadLog log = WriteAheadLog.open(directory, 3, false)) {
+                log.append(List.of(record("a")));
+
+                assertThat(log.rotate()).isEqualTo(4);
+                assertThat(log.fileBytes()).isZero();
+
+                log.append(List.of(record("b")));
+            }
+
+            List<Path> files = WriteAheadLog.files(directory);
+
+            assertThat(files).extracting(WriteAheadLog::generation).containsExactly(3L, 4L);
+            assertThat(replay(files.get(0))).containsExactly("a");
+            assertThat(replay(files.get(1))).containsExactly("b");
+        }
+    }
+
+    @Nested
+    @DisplayName("replay 메소드는")
+    class Describe_replay {
+
+        @Test
+        @DisplayName("끝이 잘린 레코드 앞에서 멈춘다")
+        void it_stops_at_torn_record() throws IOException {
+            try (WriteAheadLog log = WriteAheadLog.open(directory, 1, false)) {
+                log.append(List.of(record("first"), record("second")));
+            }
+
+            Path file = WriteAheadLog.files(directory).get(0);
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(raf.length() - 2);
+            }
+
+            assertThat(replay(file)).containsExactly("first");
+        }
+
+        @Test
+        @DisplayName("CRC가 맞지 않는 레코드 앞에서 멈춘다")
+        void it_stops_at_corrupted_record() throws IOException {
+            try (WriteAheadLog log = WriteAheadLog.open(directory, 1, false)) {
+                log.append(List.of(record("first"), record("second"), record("third")));
+            }
+
+            Path file = WriteAheadLog.files(directory).get(0);
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.seek(8 + "first".length() + 8);
+                raf.write('X');
+            }
+
+            assertThat(replay(file)).containsExactly("first");
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.application.DiaryService;
+import com.codesoom.project.application.DiaryWriteBehindBuffer;
+import com.codesoom.project.application.NegativeLookupCache;
+import com.codesoom.project.application.ReadCoalescer;
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.dto.DiaryCommentEditData;
+import com.codesoom.project.dto.DiaryCreateData;
+import com.codesoom.project.dto.DiaryResultData;
+import com.codesoom.project.dto.DiaryUpdateData;
+import com.codesoom.project.dto.TextEditData;
+import com.codesoom.project.errors.DiaryNotFoundException;
+import com.codesoom.project.errors.DiaryVersionConflictException;
+import com.codesoom.project.invalidation.LocalInvalidationTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class InMemoryDiaryRepositoryTest {
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+    private static final String TITLE = "오늘의 다이어리";
+    private static final String COMMENT = "아쉬운 하루였다";
+
+    private InMemoryTaskRepository taskRepository;
+    private InMemoryDiaryRepository diaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = new InMemoryTaskRepository(4);
+        diaryRepository = new InMemoryDiaryRepository(taskRepository, 4);
+    }
+
+    private Diary saveDiary(Long ownerId) {
+        return diaryRepository.save(Diary.builder()
+                .ownerId(ownerId)
+                .title(TITLE)
+                .comment(COMMENT)
+                .build());
+    }
+
+    @Nested
+    @DisplayName("save 메소드는")
+    class Describe_save {
+
+        @Test
+        @DisplayName("새 다이어리에 차례로 id를 붙이고 같은 인스턴스를 보관한다")
+        void it_assigns_ids() {
+            Diary first = saveDiary(USER_ID);
+            Diary second = saveDiary(USER_ID);
+
+            assertThat(first.getId()).isEqualTo(1L);
+            assertThat(second.getId()).isEqualTo(2L);
+            assertThat(diaryRepository.findByIdAndOwnerId(1L, USER_ID)).containsSame(first);
+        }
+
+        @Test
+        @DisplayName("id가 있는 다이어리를 저장하면 다음 id를 그 뒤로 붙인다")
+        void it_advances_sequence() {
+            diaryRepository.save(Diary.builder().id(10L).ownerId(USER_ID).build());
+
+            assertThat(saveDiary(USER_ID).getId()).isEqualTo(11L);
+        }
+    }
+
+    @Nested
+    @DisplayName("find 메소드들은")
+    class Describe_find {
+
+        @Test
+        @DisplayName("다른 사용자의 다이어리와 삭제 표시한 다이어리를 돌려주지 않는다")
+        void it_filters_owner_and_deleted() {
+            Diary kept = saveDiary(USER_ID);
+            Diary deleted = saveDiary(USER_ID);
+            Diary other = saveDiary(OTHER_USER_ID);
+
+            deleted.markDeleted(LocalDateTime.now());
+
+            assertThat(diaryRepository.findAllByOwnerId(USER_ID)).containsExactly(kept);
+            assertThat(diaryRepository.findByIdAndOwnerId(other.getId(), USER_ID)).isEmpty();
+            assertThat(diaryRepository.findByIdAndOwnerId(deleted.getId(), USER_ID)).isEmpty();
+            assertThat(diaryRepository.findAllByOwnerIdAndIdIn(USER_ID,
+                    List.of(kept.getId(), deleted.getId(), other.getId()))).containsExactly(kept);
+            assertThat(diaryRepository.findAllIds()).containsExactly(kept.getId(), other.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("adjustTaskCounts 메소드는")
+    class Describe_adjustTaskCounts {
+
+        @Test
+        @DisplayName("할 일 집계 값을 주어진 만큼 바꾼다")
+        void it_adjusts_counts() {
+            Diary diary = saveDiary(USER_ID);
+
+            assertThat(diaryRepository.adjustTaskCounts(diary.getId(), USER_ID, 2, 1)).isEqualTo(1);
+            assertThat(diaryRepository.adjustTaskCounts(100L, USER_ID, 1, 0)).isZero();
+
+            assertThat(diary.getTaskCount()).isEqualTo(2);
+            assertThat(diary.getDoneTaskCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("다른 사용자의 다이어리는 바꾸지 않는다")
+        void it_ignores_other_owners_diary() {
+            Diary diary = saveDiary(USER_ID);
+
+            assertThat(diaryRepository.adjustTaskCounts(diary.getId(), OTHER_USER_ID, 1, 0)).isZero();
+
+            assertThat(diary.getTaskCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("findIdsWithTaskCountDrift 메소드는")
+    class Describe_findIdsWithTaskCountDrift {
+
+        @Test
+        @DisplayName("집계 값이 실제 할 일 수와 다른 다이어리를 찾는다")
+        void it_finds_drifted_diaries() {
+            Diary matched = saveDiary(USER_ID);
+            Diary drifted = saveDiary(USER_ID);
+
+            taskRepository.save(Task.builder()
+                    .ownerId(USER_ID)
+                    .diaryId(matched.getId())
+                    .orderKey("i")
+                    .build());
+            diaryRepository.adjustTaskCounts(matched.getId(), USER_ID, 1, 0);
+            diaryRepository.adjustTaskCounts(drifted.getId(), USER_ID, 3, 0);
+
+            assertThat(diaryRepository.findIdsWithTaskCountDrift(10))
+                    .containsExactly(drifted.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("findForUpdateByIdAndOwnerId 메소드는")
+    class Describe_findForUpdateByIdAndOwnerId {
+        private TransactionTemplate transactionTemplate;
+
+        @BeforeEach
+        void setUp() {
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(
+                    new DriverManagerDataSource("jdbc:h2:mem:memory-locks-" + UUID.randomUUID())));
+        }
+
+        @Test
+        @DisplayName("다른 트랜잭션의 잠금 조회를 트랜잭션이 끝날 때까지 기다리게 한다")
+        void it_blocks_other_transactions_until_completion() throws Exception {
+            Diary diary = saveDiary(USER_ID);
+            CountDownLatch locked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        diaryRepository.findForUpdateByIdAndOwnerId(diary.getId(), USER_ID);
+                        locked.countDown();
+                        await(release);
+                    }));
+            locked.await(5, TimeUnit.SECONDS);
+
+            CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                    transactionTemplate.executeWithoutResult(status ->
+                            diaryRepository.findForUpdateById(diary.getId())));
+
+            Thread.sleep(100);
+            assertThat(second).isNotDone();
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        }
+
+        @Test
+        @DisplayName("같은 트랜잭션은 다시 잠가도 기다리지 않는다")
+        void it_is_reentrant() {
+            Diary diary = saveDiary(USER_ID);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                diaryRepository.findForUpdateByIdAndOwnerId(diary.getId(), USER_ID);
+                assertThat(diaryRepository.findForUpdateById(diary.getId())).containsSame(diary);
+            });
+        }
+
+        private void await(CountDownLatch latch) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("DiaryService와 함께 쓰면")
+    class Describe_with_service {
+        private DiaryService diaryService;
+
+        @BeforeEach
+        void setUp() {
+            ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+            diaryService = new DiaryService(diaryRepository, taskRepository, eventPublisher,
+                    new DiaryWriteBehindBuffer(diaryRepository, eventPublisher,
+                            mock(PlatformTransactionManager.class), ShardRouter.single(),
+                            false, 1000, 5000, 0),
+                    new NegativeLookupCache(diaryRepository, taskRepository, ShardRouter.single(),
+                            new LocalInvalidationTransport(), 1,
+                            1000, 0.01, 100, 30),
+                    new ReadCoalescer(),
+                    mock(PlatformTransactionManager.class));
+        }
+
+        @Test
+        @DisplayName("생성, 수정, 내용 편집, 삭제가 조회 결과에 반영된다")
+        void it_keeps_diaries() {
+            DiaryResultData created = diaryService.createDiary(USER_ID, DiaryCreateData.builder()
+                    .title(TITLE)
+                    .comment(COMMENT)
+                    .build());
+            Long id = created.getId();
+
+            diaryService.updateDiary(USER_ID, id, DiaryUpdateData.builder()
+                    .title("3월 25일의 다이어리")
+                    .comment(COMMENT)
+                    .build());
+            long version = diaryService.getDiary(USER_ID, id).getVersion();
+
+            diaryService.editComment(USER_ID, id, DiaryCommentEditData.builder()
+                    .baseVersion(version)
+                    .edits(List.of(TextEditData.builder()
+                            .position(0)
+                            .deleteCount(3)
+                            .insert("즐거운")
+                            .build()))
+                    .build());
+
+            DiaryResultData edited = diaryService.getDiary(USER_ID, id);
+            assertThat(edited.getTitle()).isEqualTo("3월 25일의 다이어리");
+            assertThat(edited.getComment()).isEqualTo("즐거운 하루였다");
+            assertThat(edited.getVersion()).isGreaterThan(version);
+
+            assertThatThrownBy(() -> diaryService.editComment(USER_ID, id, DiaryCommentEditData.builder()
+                    .baseVersion(version)
+                    .edits(List.of(TextEditData.builder()
+                            .position(0)
+                            .insert("정말 ")
+                            .build()))
+                    .build()))
+                    .isInstanceOf(DiaryVersionConflictException.class);
+
+            assertThatThrownBy(() -> diaryService.getDiary(OTHER_USER_ID, id))
+                    .isInstanceOf(DiaryNotFoundException.class);
+
+            diaryService.deleteDiary(USER_ID, id);
+
+            assertThat(diaryService.getDiaries(USER_ID)).isEmpty();
+            assertThatThrownBy(() -> diaryService.getDiary(USER_ID, id))
+                    .isInstanceOf(DiaryNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("다이어리를 삭제하면 그 다이어리의 할 일도 보이지 않는다")
+        void it_deletes_tasks_with_diary() {
+            Long id = diaryService.createDiary(USER_ID, DiaryCreateData.builder()
+                    .title(TITLE)
+                    .build()).getId();
+            taskRepository.save(Task.builder()
+                    .ownerId(USER_ID)
+                    .diaryId(id)
+                    .title("할 일")
+                    .build());
+
+            diaryService.deleteDiary(USER_ID, id);
+
+            assertThat(taskRepository.countByOwnerIdAndDiaryId(USER_ID, id)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("purgeDeletedBefore 메소드는")
+    class Describe_purgeDeletedBefore {
+
+        @Test
+        @DisplayName("보관 기간이 지난 다이어리를 묶음 크기만큼 지운다")
+        void it_purges_expired() {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < 3; i++) {
+                saveDiary(USER_ID).markDeleted(now.minusDays(40));
+            }
+            saveDiary(USER_ID).markDeleted(now);
+
+            assertThat(diaryRepository.purgeDeletedBefore(now.minusDays(30), 2)).isEqualTo(2);
+            assertThat(diaryRepository.purgeDeletedBefore(now.minusDays(30), 2)).isEqualTo(1);
+            assertThat(diaryRepository.purgeDeletedBefore(now.minusDays(30), 2)).isZero();
+            assertThat(diaryRepository.findById(4L)).isPresent();
+        }
+    }
+}
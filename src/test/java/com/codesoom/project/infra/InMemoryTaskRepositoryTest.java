@@ -0,0 +1,205 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.application.NegativeLookupCache;
+import com.codesoom.project.application.ReadCoalescer;
+import com.codesoom.project.application.TaskService;
+import com.codesoom.project.datasource.ShardRouter;
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.dto.TaskCreateData;
+import com.codesoom.project.dto.TaskMoveData;
+import com.codesoom.project.dto.TaskResultData;
+import com.codesoom.project.dto.TaskUpdateData;
+import com.codesoom.project.errors.TaskNotFoundException;
+import com.codesoom.project.invalidation.LocalInvalidationTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class InMemoryTaskRepositoryTest {
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+    private static final Long DIARY_ID = 1L;
+    private static final Long OTHER_DIARY_ID = 2L;
+    private static final String TITLE = "첫 번째 할 일";
+
+    private InMemoryTaskRepository taskRepository;
+    private InMemoryDiaryRepository diaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = new InMemoryTaskRepository(4);
+        diaryRepository = new InMemoryDiaryRepository(taskRepository, 4);
+    }
+
+    private Task saveTask(Long ownerId, Long diaryId, String orderKey) {
+        return taskRepository.save(Task.builder()
+                .ownerId(ownerId)
+                .diaryId(diaryId)
+                .title(TITLE)
+                .orderKey(orderKey)
+                .build());
+    }
+
+    @Nested
+    @DisplayName("findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc 메소드는")
+    class Describe_findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc {
+
+        @Test
+        @DisplayName("다이어리의 할 일을 순서 키 순서로 반환한다")
+        void it_returns_ordered_tasks() {
+            Task last = saveTask(USER_ID, DIARY_ID, "t");
+            Task first = saveTask(USER_ID, DIARY_ID, "c");
+            Task unordered = saveTask(USER_ID, DIARY_ID, null);
+            saveTask(USER_ID, OTHER_DIARY_ID, "a");
+            saveTask(OTHER_USER_ID, DIARY_ID, "a");
+            saveTask(USER_ID, DIARY_ID, "k").markDeleted(LocalDateTime.now());
+
+            assertThat(taskRepository.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, DIARY_ID))
+                    .containsExactly(unordered, first, last);
+            assertThat(taskRepository.findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(USER_ID, DIARY_ID))
+                    .containsSame(last);
+            assertThat(taskRepository.countByOwnerIdAndDiaryId(USER_ID, DIARY_ID)).isEqualTo(3);
+            assertThat(taskRepository.findDiaryIdsToRebalance(12)).containsExactly(DIARY_ID);
+        }
+
+        @Test
+        @DisplayName("순서 키가 같으면 id 순서로 반환한다")
+        void it_breaks_ties_by_id() {
+            Task first = saveTask(USER_ID, DIARY_ID, "i");
+            Task second = saveTask(USER_ID, DIARY_ID, "i");
+
+            assertThat(taskRepository.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, DIARY_ID))
+                    .containsExactly(first, second);
+            assertThat(taskRepository.findFirstByOwnerIdAndDiaryIdOrderByOrderKeyDescIdDesc(USER_ID, DIARY_ID))
+                    .containsSame(second);
+        }
+    }
+
+    @Nested
+    @DisplayName("findDiaryIdsToRebalance 메소드는")
+    class Describe_findDiaryIdsToRebalance {
+
+        @Test
+        @DisplayName("순서 키가 겹친 다이어리를 반환한다")
+        void it_returns_diaries_with_duplicate_keys() {
+            saveTask(USER_ID, DIARY_ID, "i");
+            saveTask(USER_ID, DIARY_ID, "i");
+            saveTask(USER_ID, OTHER_DIARY_ID, "i");
+            saveTask(USER_ID, OTHER_DIARY_ID, "t");
+
+            assertThat(taskRepository.findDiaryIdsToRebalance(12)).containsExactly(DIARY_ID);
+        }
+    }
+
+    @Nested
+    @DisplayName("delete 메소드는")
+    class Describe_delete {
+
+        @Test
+        @DisplayName("할 일을 지우고 다이어리 색인에서도 뺀다")
+        void it_removes_task() {
+            Task task = saveTask(USER_ID, DIARY_ID, "i");
+
+            taskRepository.delete(task);
+
+            assertThat(taskRepository.findById(task.getId())).isEmpty();
+            assertThat(taskRepository.findAllForUpdateByDiaryIdOrderByOrderKeyAscIdAsc(DIARY_ID)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("loadAll 메소드는")
+    class Describe_loadAll {
+        private Task task(Long id, Long diaryId, String orderKey) {
+            return Task.builder()
+                    .id(id)
+                    .ownerId(USER_ID)
+                    .diaryId(diaryId)
+                    .title(TITLE)
+                    .orderKey(orderKey)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("id가 정해진 할 일을 넣고 색인과 다음 id를 맞춘다")
+        void it_loads_tasks() {
+            Task existing = saveTask(USER_ID, DIARY_ID, "i");
+
+            taskRepository.loadAll(List.of(
+                    task(10L, DIARY_ID, "t"),
+                    task(5L, DIARY_ID, "c"),
+                    task(7L, OTHER_DIARY_ID, null)));
+
+            assertThat(taskRepository.findAllByOwnerIdAndDiaryIdOrderByOrderKeyAscIdAsc(USER_ID, DIARY_ID))
+                    .extracting(Task::getId)
+                    .containsExactly(5L, existing.getId(), 10L);
+            assertThat(taskRepository.countByOwnerIdAndDiaryId(USER_ID, OTHER_DIARY_ID)).isEqualTo(1);
+            assertThat(saveTask(USER_ID, DIARY_ID, "z").getId()).isEqualTo(11L);
+        }
+    }
+
+    @Nested
+    @DisplayName("TaskService와 함께 쓰면")
+    class Describe_with_service {
+        private TaskService taskService;
+        private Diary diary;
+
+        @BeforeEach
+        void setUp() {
+            taskService = new TaskService(taskRepository, diaryRepository,
+                    mock(ApplicationEventPublisher.class),
+                    new NegativeLookupCache(diaryRepository, taskRepository, ShardRouter.single(),
+                            new LocalInvalidationTransport(), 1,
+                            1000, 0.01, 100, 30),
+                    new ReadCoalescer());
+
+            diary = diaryRepository.save(Diary.builder()
+                    .ownerId(USER_ID)
+                    .title("오늘의 다이어리")
+                    .build());
+        }
+
+        private TaskResultData create(String title) {
+            return taskService.createTask(USER_ID, diary.getId(), TaskCreateData.builder()
+                    .title(title)
+                    .build());
+        }
+
+        @Test
+        @DisplayName("추가, 이동, 완료, 삭제가 목록과 집계 값에 반영된다")
+        void it_keeps_list_and_counts() {
+            TaskResultData first = create("첫 번째");
+            TaskResultData second = create("두 번째");
+            TaskResultData third = create("세 번째");
+
+            taskService.moveTask(USER_ID, third.getId(), TaskMoveData.builder()
+                    .nextTaskId(first.getId())
+                    .build());
+            taskService.updateTask(USER_ID, second.getId(), TaskUpdateData.builder()
+                    .title("두 번째")
+                    .done(true)
+                    .build());
+            taskService.deleteTask(USER_ID, first.getId());
+
+            assertThat(taskService.getTasks(USER_ID, diary.getId()))
+                    .extracting(Task::getId)
+                    .containsExactly(third.getId(), second.getId());
+            assertThat(diary.getTaskCount()).isEqualTo(2);
+            assertThat(diary.getDoneTaskCount()).isEqualTo(1);
+            assertThat(diaryRepository.findIdsWithTaskCountDrift(10)).isEmpty();
+
+            assertThatThrownBy(() -> taskService.getTask(USER_ID, first.getId()))
+                    .isInstanceOf(TaskNotFoundException.class);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.codesoom.project.infra;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaDiaryRepositoryTest {
+    private static final Long USER_ID = 1L;
+    private static final int TASKS = 5;
+
+    @Autowired
+    private JpaDiaryRepository diaryRepository;
+
+    @Autowired
+    private JpaTaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long diaryId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        diaryId = transactionTemplate.execute(status -> diaryRepository.save(Diary.builder()
+                .ownerId(USER_ID)
+                .title("오늘의 다이어리")
+                .comment("아쉬운 하루였다")
+                .build()).getId());
+    }
+
+    @Nested
+    @DisplayName("다이어리를 수정하는 동안 할 일이 추가된다면")
+    class Context_with_tasks_created_during_rename {
+
+        @Test
+        @DisplayName("수정이 할 일 집계 값을 덮어쓰지 않는다")
+        void it_keeps_task_counts() throws Exception {
+            CountDownLatch loaded = new CountDownLatch(1);
+            CountDownLatch tasksCreated = new CountDownLatch(1);
+
+            CompletableFuture<Void> rename = CompletableFuture.runAsync(() ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        Diary diary = diaryRepository.findByIdAndOwnerId(diaryId, USER_ID)
+                                .orElseThrow();
+                        loaded.countDown();
+                        await(tasksCreated);
+
+                        diary.updateWith(Diary.builder()
+                                .title("3월 25일의 다이어리")
+                                .comment(diary.getComment())
+                                .build());
+                    }));
+
+            await(loaded);
+            for (int i = 0; i < TASKS; i++) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    taskRepository.save(Task.builder()
+                            .ownerId(USER_ID)
+                            .diaryId(diaryId)
+                            .title("할 일")
+                            .build());
+                    diaryRepository.adjustTaskCounts(diaryId, USER_ID, 1, 0);
+                });
+            }
+            tasksCreated.countDown();
+
+            rename.get(10, TimeUnit.SECONDS);
+
+            Diary diary = diaryRepository.findById(diaryId).orElseThrow();
+            assertThat(diary.getTitle()).isEqualTo("3월 25일의 다이어리");
+            assertThat(diary.getTaskCount()).isEqualTo(TASKS);
+        }
+    }
+
+    @Nested
+    @DisplayName("adjustTaskCounts 메소드는")
+    class Describe_adjustTaskCounts {
+
+        @Test
+        @DisplayName("다른 사용자의 다이어리는 바꾸지 않는다")
+        void it_ignores_other_owners_diary() {
+            int adjusted = transactionTemplate.execute(status ->
+                    diaryRepository.adjustTaskCounts(diaryId, USER_ID + 1, 1, 1));
+
+            assertThat(adjusted).isZero();
+            assertThat(diaryRepository.findById(diaryId).orElseThrow().getTaskCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("purgeDeletedBefore 메소드는")
+    class Describe_purgeDeletedBefore {
+
+        @Test
+        @DisplayName("보관 기간이 지난 다이어리와 그 내용을 함께 지운다")
+        void it_purges_diary_and_comment() {
+            Long commentId = jdbcTemplate.queryForObject(
+                    "SELECT comment_id FROM diary WHERE id = ?", Long.class, diaryId);
+
+            transactionTemplate.executeWithoutResult(status -> diaryRepository.findById(diaryId)
+                    .orElseThrow()
+                    .markDeleted(LocalDateTime.now().minusDays(31)));
+
+            int purged = transactionTemplate.execute(status ->
+                    diaryRepository.purgeDeletedBefore(LocalDateTime.now().minusDays(30), 100));
+
+            assertThat(purged).isEqualTo(1);
+            assertThat(commentId).isNotNull();
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM diary WHERE id = ?", Long.class, diaryId)).isZero();
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM diary_comment WHERE id = ?", Long.class, commentId)).isZero();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
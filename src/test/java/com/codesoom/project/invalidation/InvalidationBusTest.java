@@ -0,0 +1,173 @@
+package com.codesoom.project.invalidation;
+
+import com.codesoom.project.domain.Diary;
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.events.DiaryEvent;
+import com.codesoom.project.events.InvalidationEvent;
+import com.codesoom.project.events.TaskEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willCallRealMethod;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class InvalidationBusTest {
+    private static final Long USER_ID = 1L;
+
+    private LocalInvalidationTransport transport;
+    private ApplicationEventPublisher thisNodeEvents;
+    private ApplicationEventPublisher otherNodeEvents;
+    private InvalidationBus thisNode;
+    private InvalidationBus otherNode;
+
+    @BeforeEach
+    void setUp() {
+        transport = spy(new LocalInvalidationTransport());
+        thisNodeEvents = mock(ApplicationEventPublisher.class);
+        otherNodeEvents = mock(ApplicationEventPublisher.class);
+
+        thisNode = new InvalidationBus(transport, thisNodeEvents, 3, 2);
+        otherNode = new InvalidationBus(transport, otherNodeEvents, 3, 2);
+    }
+
+    @Nested
+    @DisplayName("flush 메소드는")
+    class Describe_flush {
+
+        @Nested
+        @DisplayName("커밋된 변경이 있다면")
+        class Context_with_committed_changes {
+
+            @BeforeEach
+            void setUp() {
+                thisNode.onDiaryEvent(DiaryEvent.updated(diary()));
+                thisNode.onTaskEvent(TaskEvent.created(task()));
+            }
+
+            @Test
+            @DisplayName("다른 인스턴스에 무효화 이벤트로 발행한다")
+            void it_reaches_other_nodes() {
+                thisNode.flush();
+
+                ArgumentCaptor<InvalidationEvent> captor =
+                        ArgumentCaptor.forClass(InvalidationEvent.class);
+                verify(otherNodeEvents, times(2)).publishEvent(captor.capture());
+
+                assertThat(captor.getAllValues())
+                        .extracting(InvalidationEvent::getKind, InvalidationEvent::getType,
+                                InvalidationEvent::getId, InvalidationEvent::getDiaryId)
+                        .containsExactly(
+                                tuple(InvalidationEvent.Kind.DIARY, InvalidationEvent.Type.UPDATED, 1L, 1L),
+                                tuple(InvalidationEvent.Kind.TASK, InvalidationEvent.Type.CREATED, 10L, 1L));
+                assertThat(otherNode.receivedCount()).isEqualTo(2);
+                assertThat(otherNode.maxStalenessMillis()).isGreaterThanOrEqualTo(0);
+            }
+
+            @Test
+            @DisplayName("자기 자신에게는 다시 발행하지 않는다")
+            void it_skips_own_events() {
+                thisNode.flush();
+
+                verify(thisNodeEvents, never()).publishEvent(any(InvalidationEvent.class));
+                assertThat(thisNode.publishedCount()).isEqualTo(2);
+            }
+        }
+
+        @Nested
+        @DisplayName("보내지 못했다면")
+        class Context_with_failed_publish {
+
+            @BeforeEach
+            void setUp() {
+                thisNode.onDiaryEvent(DiaryEvent.updated(diary()));
+                willThrow(new IllegalStateException("down")).given(transport).publish(anyList());
+
+                thisNode.flush();
+            }
+
+            @Test
+            @DisplayName("다음에 다시 보낸다")
+            void it_retries_later() {
+                assertThat(thisNode.publishFailedCount()).isEqualTo(1);
+                verify(otherNodeEvents, never()).publishEvent(any(InvalidationEvent.class));
+
+                willCallRealMethod().given(transport).publish(anyList());
+                thisNode.flush();
+
+                verify(otherNodeEvents).publishEvent(any(InvalidationEvent.class));
+                assertThat(thisNode.publishedCount()).isEqualTo(1);
+            }
+        }
+
+        @Nested
+        @DisplayName("대기열이 가득 찼다면")
+        class Context_with_full_queue {
+
+            @Test
+            @DisplayName("넘친 이벤트를 버리고 센다")
+            void it_drops_overflow() {
+                for (int i = 0; i < 5; i++) {
+                    thisNode.onDiaryEvent(DiaryEvent.updated(diary()));
+                }
+
+                thisNode.flush();
+
+                assertThat(thisNode.droppedCount()).isEqualTo(2);
+                assertThat(thisNode.publishedCount()).isEqualTo(3);
+            }
+
+            @Test
+            @DisplayName("다른 인스턴스에 이벤트를 잃었다고 알린다")
+            void it_announces_loss() {
+                for (int i = 0; i < 5; i++) {
+                    thisNode.onDiaryEvent(DiaryEvent.updated(diary()));
+                }
+
+                thisNode.flush();
+                thisNode.flush();
+
+                ArgumentCaptor<InvalidationEvent> captor =
+                        ArgumentCaptor.forClass(InvalidationEvent.class);
+                verify(otherNodeEvents, times(4)).publishEvent(captor.capture());
+
+                assertThat(captor.getAllValues())
+                        .extracting(InvalidationEvent::getType)
+                        .containsExactly(
+                                InvalidationEvent.Type.UPDATED,
+                                InvalidationEvent.Type.UPDATED,
+                                InvalidationEvent.Type.UPDATED,
+                                InvalidationEvent.Type.RESET);
+            }
+        }
+    }
+
+    private static Diary diary() {
+        return Diary.builder()
+                .id(1L)
+                .ownerId(USER_ID)
+                .title("제목")
+                .build();
+    }
+
+    private static Task task() {
+        return Task.builder()
+                .id(10L)
+                .ownerId(USER_ID)
+                .diaryId(1L)
+                .title("할 일")
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.codesoom.project.invalidation;
+
+import com.codesoom.project.events.InvalidationEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcInvalidationTransportTest {
+    private static final String INSERT_WITH_ID = "INSERT INTO cache_invalidation "
+            + "(id, origin, entity_kind, change_type, owner_id, entity_id, diary_id, published_at) "
+            + "VALUES (?, 'other', 'DIARY', 'UPDATED', 1, ?, ?, ?)";
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcInvalidationTransport sender;
+    private JdbcInvalidationTransport receiver;
+    private List<InvalidationEvent> received;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:invalidation-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        sender = new JdbcInvalidationTransport(dataSource, 2, 60_000, 60_000);
+        sender.publish(List.of(event(1L)));
+
+        receiver = receiver(60_000);
+    }
+
+    @Nested
+    @DisplayName("poll 메소드는")
+    class Describe_poll {
+
+        @Nested
+        @DisplayName("다른 인스턴스가 보낸 이벤트가 있다면")
+        class Context_with_published_events {
+
+            @BeforeEach
+            void setUp() {
+                sender.publish(List.of(event(2L), event(3L), event(4L)));
+            }
+
+            @Test
+            @DisplayName("시작한 뒤에 보낸 이벤트만 묶음 단위로 모두 전달한다")
+            void it_delivers_events_after_start() {
+                receiver.poll();
+
+                assertThat(received)
+                        .extracting(InvalidationEvent::getId)
+                        .containsExactly(2L, 3L, 4L);
+                assertThat(received.get(0).getOrigin()).isEqualTo("other");
+            }
+
+            @Test
+            @DisplayName("한 번 전달한 이벤트는 다시 전달하지 않는다")
+            void it_delivers_once() {
+                receiver.poll();
+                receiver.poll();
+
+                assertThat(received).hasSize(3);
+            }
+        }
+
+        @Nested
+        @DisplayName("번호가 비어 있다면")
+        class Context_with_gap {
+
+            @BeforeEach
+            void setUp() {
+                jdbcTemplate.update(INSERT_WITH_ID, 3L, 3L, 3L, System.currentTimeMillis());
+                receiver.poll();
+            }
+
+            @Test
+            @DisplayName("늦게 커밋된 이벤트를 다음에 전달한다")
+            void it_delivers_late_commits() {
+                assertThat(receiver.gapCount()).isEqualTo(1);
+
+                jdbcTemplate.update(INSERT_WITH_ID, 2L, 2L, 2L, System.currentTimeMillis());
+                receiver.poll();
+
+                assertThat(received)
+                        .extracting(InvalidationEvent::getId)
+                        .containsExactly(3L, 2L);
+                assertThat(receiver.gapCount()).isZero();
+            }
+        }
+
+        @Nested
+        @DisplayName("빈 번호가 기다리는 시간 안에 채워지지 않으면")
+        class Context_with_expired_gap {
+
+            @BeforeEach
+            void setUp() {
+                receiver = receiver(0);
+                jdbcTemplate.update(INSERT_WITH_ID, 3L, 3L, 3L, System.currentTimeMillis());
+                receiver.poll();
+            }
+
+            @Test
+            @DisplayName("빈 번호를 포기하고 센다")
+            void it_gives_up() {
+                receiver.poll();
+
+                assertThat(receiver.gapCount()).isZero();
+                assertThat(receiver.expiredGapCount()).isEqualTo(1);
+            }
+
+            @Test
+            @DisplayName("이벤트를 잃었을 수 있다고 알린다")
+            void it_announces_loss() {
+                receiver.poll();
+
+                assertThat(received)
+                        .extracting(InvalidationEvent::getType)
+                        .containsExactly(InvalidationEvent.Type.UPDATED, InvalidationEvent.Type.RESET);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("purge 메소드는")
+    class Describe_purge {
+
+        @Test
+        @DisplayName("보관 기간이 지난 이벤트를 지운다")
+        void it_removes_old_events() {
+            jdbcTemplate.update(INSERT_WITH_ID, 10L, 10L, 10L, 0L);
+
+            sender.purge();
+
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM cache_invalidation", Long.class)).isEqualTo(1);
+        }
+    }
+
+    private JdbcInvalidationTransport receiver(long gapTimeoutMillis) {
+        JdbcInvalidationTransport transport =
+                new JdbcInvalidationTransport(dataSource, 2, gapTimeoutMillis, 60_000);
+        received = new ArrayList<>();
+        transport.subscribe(received::addAll);
+        return transport;
+    }
+
+    private static InvalidationEvent event(Long id) {
+        return InvalidationEvent.builder()
+                .kind(InvalidationEvent.Kind.DIARY)
+                .type(InvalidationEvent.Type.UPDATED)
+                .ownerId(1L)
+                .id(id)
+                .diaryId(id)
+                .origin("other")
+                .publishedAt(System.currentTimeMillis())
+                .build();
+    }
+}
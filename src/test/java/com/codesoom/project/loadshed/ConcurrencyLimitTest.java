@@ -0,0 +1,183 @@
+package com.codesoom.project.loadshed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitTest {
+    private static final int INITIAL_LIMIT = 20;
+    private static final int MIN_LIMIT = 5;
+    private static final long WINDOW_MILLIS = 100;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private LoadSheddingProperties.Budget budget;
+    private ConcurrencyLimit limit;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        budget = new LoadSheddingProperties.Budget();
+        budget.setInitialLimit(INITIAL_LIMIT);
+        budget.setMinLimit(MIN_LIMIT);
+        budget.setMaxLimit(100);
+        budget.setSmoothing(1);
+        budget.setWindowMillis(WINDOW_MILLIS);
+        budget.setMinWindowSamples(1);
+        budget.setReservedRatio(0.25);
+
+        now = TimeUnit.SECONDS.toNanos(100);
+        limit = new ConcurrencyLimit(budget, now);
+    }
+
+    @Nested
+    @DisplayName("tryAcquire 메소드는")
+    class Describe_tryAcquire {
+
+        @Nested
+        @DisplayName("제한을 모두 썼다면")
+        class Context_at_limit {
+
+            @BeforeEach
+            void setUp() {
+                for (int i = 0; i < INITIAL_LIMIT; i++) {
+                    limit.tryAcquire(true);
+                }
+            }
+
+            @Test
+            @DisplayName("거절하고 센다")
+            void it_sheds() {
+                assertThat(limit.tryAcquire(true)).isFalse();
+                assertThat(limit.shedCount()).isEqualTo(1);
+                assertThat(limit.inFlight()).isEqualTo(INITIAL_LIMIT);
+            }
+
+            @Test
+            @DisplayName("하나가 끝나면 다시 받는다")
+            void it_accepts_after_release() {
+                limit.release();
+
+                assertThat(limit.tryAcquire(true)).isTrue();
+            }
+        }
+
+        @Nested
+        @DisplayName("남겨 둔 제한만 남았다면")
+        class Context_with_reserved_only {
+
+            @BeforeEach
+            void setUp() {
+                for (int i = 0; i < 15; i++) {
+                    assertThat(limit.tryAcquire(false)).isTrue();
+                }
+            }
+
+            @Test
+            @DisplayName("일반 요청은 거절한다")
+            void it_sheds_normal_requests() {
+                assertThat(limit.tryAcquire(false)).isFalse();
+            }
+
+            @Test
+            @DisplayName("우선 요청은 받는다")
+            void it_accepts_priority_requests() {
+                assertThat(limit.tryAcquire(true)).isTrue();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("release 메소드는")
+    class Describe_release {
+
+        @Nested
+        @DisplayName("제한을 다 쓰는데도 응답 시간이 그대로라면")
+        class Context_with_steady_latency {
+
+            @Test
+            @DisplayName("제한을 늘린다")
+            void it_raises_limit() {
+                completeWindow(INITIAL_LIMIT, FAST);
+
+                assertThat(limit.limit()).isGreaterThan(INITIAL_LIMIT);
+            }
+        }
+
+        @Nested
+        @DisplayName("제한의 절반도 쓰지 않는다면")
+        class Context_when_lightly_used {
+
+            @Test
+            @DisplayName("제한을 늘리지 않는다")
+            void it_keeps_limit() {
+                completeWindow(3, FAST);
+
+                assertThat(limit.limit()).isEqualTo(INITIAL_LIMIT);
+            }
+        }
+
+        @Nested
+        @DisplayName("응답 시간이 늘어나면")
+        class Context_with_rising_latency {
+
+            @BeforeEach
+            void setUp() {
+                completeWindow(INITIAL_LIMIT, FAST);
+            }
+
+            @Test
+            @DisplayName("제한을 줄인다")
+            void it_lowers_limit() {
+                int before = limit.limit();
+
+                completeWindow(INITIAL_LIMIT, SLOW);
+
+                assertThat(limit.limit()).isLessThan(before);
+            }
+
+            @Test
+            @DisplayName("최소 제한 아래로는 줄이지 않는다")
+            void it_keeps_min_limit() {
+                for (int i = 0; i < 10; i++) {
+                    completeWindow(INITIAL_LIMIT, SLOW);
+                }
+
+                assertThat(limit.limit()).isEqualTo(MIN_LIMIT);
+            }
+
+            @Test
+            @DisplayName("응답 시간이 돌아오면 제한을 다시 늘린다")
+            void it_recovers() {
+                for (int i = 0; i < 10; i++) {
+                    completeWindow(INITIAL_LIMIT, SLOW);
+                }
+                for (int i = 0; i < 10; i++) {
+                    completeWindow(INITIAL_LIMIT, FAST);
+                }
+
+                assertThat(limit.limit()).isGreaterThan(MIN_LIMIT);
+            }
+        }
+    }
+
+    private void completeWindow(int requests, long rttNanos) {
+        int acquired = 0;
+        for (int i = 0; i < requests; i++) {
+            if (limit.tryAcquire(true)) {
+                acquired++;
+            }
+        }
+
+        for (int i = 0; i < acquired - 1; i++) {
+            limit.release(rttNanos, now);
+        }
+        now += TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS);
+        limit.release(rttNanos, now);
+    }
+}
@@ -0,0 +1,83 @@
+package com.codesoom.project.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+    private static final long CAPACITY = 3;
+    private static final double REFILL_PER_SECOND = 1;
+    private static final long NOW = TimeUnit.SECONDS.toNanos(100);
+
+    private TokenBucket tokenBucket;
+
+    @BeforeEach
+    void setUp() {
+        tokenBucket = new TokenBucket(CAPACITY, REFILL_PER_SECOND, NOW);
+    }
+
+    @Nested
+    @DisplayName("tryConsume 메소드는")
+    class Describe_tryConsume {
+
+        @Nested
+        @DisplayName("토큰이 남아 있다면")
+        class Context_with_tokens {
+
+            @Test
+            @DisplayName("남은 토큰 수를 반환한다")
+            void it_returns_remaining_tokens() {
+                assertThat(tokenBucket.tryConsume(NOW)).isEqualTo(2);
+                assertThat(tokenBucket.tryConsume(NOW)).isEqualTo(1);
+                assertThat(tokenBucket.tryConsume(NOW)).isEqualTo(0);
+            }
+        }
+
+        @Nested
+        @DisplayName("토큰을 모두 소비했다면")
+        class Context_without_tokens {
+
+            @BeforeEach
+            void setUp() {
+                for (int i = 0; i < CAPACITY; i++) {
+                    tokenBucket.tryConsume(NOW);
+                }
+            }
+
+            @Test
+            @DisplayName("다음 토큰까지 기다려야 할 시간을 음수로 반환한다")
+            void it_returns_wait_time() {
+                assertThat(tokenBucket.tryConsume(NOW))
+                        .isEqualTo(-TimeUnit.SECONDS.toNanos(1));
+            }
+
+            @Test
+            @DisplayName("시간이 지나면 토큰을 다시 채운다")
+            void it_refills_tokens() {
+                assertThat(tokenBucket.tryConsume(NOW + TimeUnit.SECONDS.toNanos(1)))
+                        .isEqualTo(0);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("isIdle 메소드는")
+    class Describe_isIdle {
+
+        @Test
+        @DisplayName("버킷이 가득 찼을 때만 true를 반환한다")
+        void it_returns_whether_bucket_is_full() {
+            assertThat(tokenBucket.isIdle(NOW)).isTrue();
+
+            tokenBucket.tryConsume(NOW);
+
+            assertThat(tokenBucket.isIdle(NOW)).isFalse();
+            assertThat(tokenBucket.isIdle(NOW + TimeUnit.SECONDS.toNanos(1))).isTrue();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.codesoom.project.stream;
+
+import com.codesoom.project.domain.Task;
+import com.codesoom.project.events.TaskEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskStreamRegistryTest {
+    private static final Long USER_ID = 1L;
+    private static final Long DIARY_ID = 1L;
+    private static final Long OTHER_DIARY_ID = 2L;
+
+    private TaskStreamRegistry taskStreamRegistry;
+
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        taskStreamRegistry = new TaskStreamRegistry(4, 60_000, 1);
+
+        task = Task.builder()
+                .id(1L)
+                .ownerId(USER_ID)
+                .diaryId(DIARY_ID)
+                .title("첫 번째 할 일")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskStreamRegistry.shutdown();
+    }
+
+    @Nested
+    @DisplayName("subscribe 메소드는")
+    class Describe_subscribe {
+
+        @Test
+        @DisplayName("다이어리별 구독자를 등록한다")
+        void it_registers_subscriber() {
+            taskStreamRegistry.subscribe(USER_ID, DIARY_ID);
+            taskStreamRegistry.subscribe(USER_ID, OTHER_DIARY_ID);
+
+            assertThat(taskStreamRegistry.subscriberCount()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("onTaskEvent 메소드는")
+    class Describe_onTaskEvent {
+
+        @Nested
+        @DisplayName("구독자가 없다면")
+        class Context_without_subscriber {
+
+            @Test
+            @DisplayName("아무 일도 하지 않는다")
+            void it_does_nothing() {
+                taskStreamRegistry.onTaskEvent(TaskEvent.created(task));
+
+                assertThat(taskStreamRegistry.subscriberCount()).isZero();
+                assertThat(taskStreamRegistry.evictedCount()).isZero();
+            }
+        }
+
+        @Nested
+        @DisplayName("구독자가 있다면")
+        class Context_with_subscriber {
+
+            @BeforeEach
+            void setUp() {
+                taskStreamRegistry.subscribe(USER_ID, DIARY_ID);
+            }
+
+            @Test
+            @DisplayName("구독을 유지한 채 이벤트를 전달한다")
+            void it_delivers_event() {
+                taskStreamRegistry.onTaskEvent(TaskEvent.updated(task));
+
+                assertThat(taskStreamRegistry.subscriberCount()).isEqualTo(1);
+            }
+        }
+    }
+}
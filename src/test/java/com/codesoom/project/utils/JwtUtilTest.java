@@ -0,0 +1,99 @@
+package com.codesoom.project.utils;
+
+import com.codesoom.project.errors.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+    private static final String SECRET = "12345678901234567890123456789012";
+    private static final long VALIDITY_SECONDS = 60;
+    private static final Long USER_ID = 1L;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, VALIDITY_SECONDS);
+    }
+
+    @Nested
+    @DisplayName("생성자는")
+    class Describe_constructor {
+
+        @Nested
+        @DisplayName("서명 키가 256비트보다 짧다면")
+        class Context_with_short_secret {
+
+            @Test
+            @DisplayName("예외를 던진다")
+            void it_throws_exception() {
+                assertThatThrownBy(() -> new JwtUtil("short-secret", VALIDITY_SECONDS))
+                        .isInstanceOf(IllegalStateException.class);
+            }
+        }
+
+        @Nested
+        @DisplayName("서명 키가 없다면")
+        class Context_without_secret {
+
+            @Test
+            @DisplayName("예외를 던진다")
+            void it_throws_exception() {
+                assertThatThrownBy(() -> new JwtUtil(null, VALIDITY_SECONDS))
+                        .isInstanceOf(IllegalStateException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("decode 메소드는")
+    class Describe_decode {
+
+        @Nested
+        @DisplayName("유효한 토큰이 주어진다면")
+        class Context_with_valid_token {
+
+            @Test
+            @DisplayName("사용자 식별자와 만료 시각을 담은 클레임을 반환한다")
+            void it_returns_claims() {
+                Claims claims = jwtUtil.decode(jwtUtil.encode(USER_ID));
+
+                assertThat(claims.get("userId", Long.class)).isEqualTo(USER_ID);
+                assertThat(claims.getExpiration()).isNotNull();
+            }
+        }
+
+        @Nested
+        @DisplayName("변조된 토큰이 주어진다면")
+        class Context_with_invalid_token {
+
+            @Test
+            @DisplayName("유효하지 않은 토큰이라는 예외를 던진다")
+            void it_throws_exception() {
+                String invalidToken = jwtUtil.encode(USER_ID) + "WRONG";
+
+                assertThatThrownBy(() -> jwtUtil.decode(invalidToken))
+                        .isInstanceOf(InvalidTokenException.class)
+                        .hasMessageNotContaining(invalidToken);
+            }
+        }
+
+        @Nested
+        @DisplayName("빈 토큰이 주어진다면")
+        class Context_with_blank_token {
+
+            @Test
+            @DisplayName("유효하지 않은 토큰이라는 예외를 던진다")
+            void it_throws_exception() {
+                assertThatThrownBy(() -> jwtUtil.decode(" "))
+                        .isInstanceOf(InvalidTokenException.class);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.codesoom.project.utils;
+
+import com.codesoom.project.deadline.Deadline;
+import com.codesoom.project.deadline.DeadlineContext;
+import com.codesoom.project.errors.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+    private static final String KEY = "diary-1";
+
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService executor;
+    private CountDownLatch release;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight<>();
+        executor = Executors.newFixedThreadPool(CALLERS);
+        release = new CountDownLatch(1);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Supplier<String> blockingLoader(Supplier<String> result) {
+        return () -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+
+    private List<Future<String>> callConcurrently(Supplier<String> loader)
+            throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(KEY, loader)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.coalescedCount() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        return results;
+    }
+
+    @Nested
+    @DisplayName("execute 메소드는")
+    class Describe_execute {
+
+        @Nested
+        @DisplayName("같은 키로 동시에 호출되면")
+        class Context_with_concurrent_calls {
+
+            @Test
+            @DisplayName("조회를 한 번만 실행하고 결과를 함께 돌려준다")
+            void it_shares_one_load() throws Exception {
+                List<Future<String>> results = callConcurrently(blockingLoader(() -> "다이어리"));
+
+                for (Future<String> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("다이어리");
+                }
+
+                assertThat(loads.get()).isEqualTo(1);
+                assertThat(singleFlight.flightCount()).isEqualTo(1);
+                assertThat(singleFlight.coalescedCount()).isEqualTo(CALLERS - 1);
+            }
+
+            @Test
+            @DisplayName("조회가 실패하면 같은 예외를 함께 던진다")
+            void it_shares_failure() throws Exception {
+                List<Future<String>> results = callConcurrently(blockingLoader(() -> {
+                    throw new IllegalStateException("조회 실패");
+                }));
+
+                for (Future<String> result : results) {
+                    assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                            .hasCauseInstanceOf(IllegalStateException.class);
+                }
+
+                assertThat(loads.get()).isEqualTo(1);
+            }
+        }
+
+        @Nested
+        @DisplayName("기다리는 동안 마감 시각이 지나면")
+        class Context_with_expired_deadline {
+
+            @Test
+            @DisplayName("더 기다리지 않고 예외를 던진다")
+            void it_stops_waiting() throws Exception {
+                CountDownLatch started = new CountDownLatch(1);
+
+                Future<String> leader = executor.submit(() -> singleFlight.execute(KEY, () -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "다이어리";
+                }));
+                assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+                DeadlineContext.set(Deadline.after(10));
+                try {
+                    assertThatThrownBy(() -> singleFlight.execute(KEY, () -> "다른 값"))
+                            .isInstanceOf(DeadlineExceededException.class);
+                } finally {
+                    DeadlineContext.clear();
+                }
+
+                release.countDown();
+                assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("다이어리");
+            }
+        }
+
+        @Nested
+        @DisplayName("이전 조회가 끝난 뒤 호출되면")
+        class Context_with_sequential_calls {
+
+            @Test
+            @DisplayName("결과를 캐시하지 않고 다시 조회한다")
+            void it_loads_again() {
+                singleFlight.execute(KEY, () -> "첫 번째");
+
+                assertThat(singleFlight.execute(KEY, () -> "두 번째")).isEqualTo("두 번째");
+                assertThat(singleFlight.flightCount()).isEqualTo(2);
+                assertThat(singleFlight.coalescedCount()).isZero();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("forget 메소드는")
+    class Describe_forget {
+
+        @Test
+        @DisplayName("이후 호출이 실행 중인 조회에 합쳐지지 않게 한다")
+        void it_detaches_running_flight() throws Exception {
+            CountDownLatch started = new CountDownLatch(1);
+
+            Future<String> stale = executor.submit(() -> singleFlight.execute(KEY, () -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "이전 값";
+            }));
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            singleFlight.forget(KEY);
+
+            assertThat(singleFlight.execute(KEY, () -> "새 값")).isEqualTo("새 값");
+
+            release.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("이전 값");
+            assertThat(singleFlight.coalescedCount()).isZero();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.codesoom.project.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedLongMapTest {
+    private StripedLongMap<String> map;
+
+    @BeforeEach
+    void setUp() {
+        map = new StripedLongMap<>(4);
+    }
+
+    @Nested
+    @DisplayName("put 메소드는")
+    class Describe_put {
+
+        @Test
+        @DisplayName("값을 저장하고 이전 값을 반환한다")
+        void it_stores_value() {
+            assertThat(map.put(1L, "a")).isNull();
+            assertThat(map.put(1L, "b")).isEqualTo("a");
+
+            assertThat(map.get(1L)).isEqualTo("b");
+            assertThat(map.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("테이블이 차면 키워서 모든 값을 유지한다")
+        void it_grows_table() {
+            for (long key = -5000; key < 5000; key++) {
+                map.put(key, String.valueOf(key));
+            }
+
+            assertThat(map.size()).isEqualTo(10000);
+            assertThat(map.get(-5000L)).isEqualTo("-5000");
+            assertThat(map.get(4999L)).isEqualTo("4999");
+            assertThat(map.get(5000L)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("remove 메소드는")
+    class Describe_remove {
+
+        @Test
+        @DisplayName("값을 지워도 같은 자리를 거쳐 가는 다른 키를 찾을 수 있게 한다")
+        void it_keeps_probe_chain() {
+            for (long key = 0; key < 1000; key++) {
+                map.put(key, String.valueOf(key));
+            }
+
+            for (long key = 0; key < 1000; key += 2) {
+                assertThat(map.remove(key)).isEqualTo(String.valueOf(key));
+            }
+
+            assertThat(map.size()).isEqualTo(500);
+            for (long key = 0; key < 1000; key++) {
+                assertThat(map.get(key)).isEqualTo(key % 2 == 0 ? null : String.valueOf(key));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("compute 메소드는")
+    class Describe_compute {
+
+        @Test
+        @DisplayName("현재 값으로 새 값을 만들고, null이면 지운다")
+        void it_updates_value() {
+            map.compute(7L, current -> current == null ? "1" : current + "1");
+            map.compute(7L, current -> current == null ? "1" : current + "1");
+
+            assertThat(map.get(7L)).isEqualTo("11");
+
+            map.compute(7L, current -> null);
+
+            assertThat(map.get(7L)).isNull();
+            assertThat(map.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("여러 스레드가 동시에 쓰면")
+    class Describe_concurrent_writes {
+
+        @Test
+        @DisplayName("모든 쓰기를 잃지 않는다")
+        void it_keeps_all_writes() throws Exception {
+            int threads = 8;
+            int keysPerThread = 20000;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    long offset = t;
+                    results.add(executor.submit(() -> {
+                        for (long i = 0; i < keysPerThread; i++) {
+                            long key = i * threads + offset;
+                            map.put(key, "v");
+                            assertThat(map.get(key)).isEqualTo("v");
+                        }
+                    }));
+                }
+
+                for (Future<?> result : results) {
+                    result.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(map.size()).isEqualTo(threads * keysPerThread);
+            assertThat(map.values()).hasSize(threads * keysPerThread);
+        }
+    }
+}